@@ -2,6 +2,7 @@ package io.github.flameyossnowy.universal.checker;
 
 import io.github.flameyossnowy.universal.api.cache.CacheConfig;
 import io.github.flameyossnowy.universal.api.cache.SessionCache;
+import io.github.flameyossnowy.universal.api.meta.BatchSizeBounds;
 
 import javax.lang.model.type.TypeMirror;
 import java.util.List;
@@ -26,6 +27,7 @@ public record RepositoryModel(
 
     // Configuration
     int fetchPageSize,
+    BatchSizeBounds batchSizeBounds,          // nullable
 
     // Caching Metadata
     boolean cacheable,
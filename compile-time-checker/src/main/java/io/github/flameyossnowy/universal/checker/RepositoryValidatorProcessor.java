@@ -1,6 +1,7 @@
 package io.github.flameyossnowy.universal.checker;
 
 import io.github.flameyossnowy.universal.api.annotations.AutoIncrement;
+import io.github.flameyossnowy.universal.api.annotations.BatchSize;
 import io.github.flameyossnowy.universal.api.annotations.Binary;
 import io.github.flameyossnowy.universal.api.annotations.Cacheable;
 import io.github.flameyossnowy.universal.api.annotations.Condition;
@@ -33,6 +34,7 @@ import io.github.flameyossnowy.universal.api.annotations.Unique;
 import io.github.flameyossnowy.universal.api.annotations.Validate;
 import io.github.flameyossnowy.universal.api.annotations.Validations;
 import io.github.flameyossnowy.universal.api.meta.ValidationModel;
+import io.github.flameyossnowy.universal.api.meta.BatchSizeBounds;
 import io.github.flameyossnowy.universal.api.annotations.enums.Consistency;
 import io.github.flameyossnowy.universal.api.annotations.enums.IndexType;
 import io.github.flameyossnowy.universal.api.cache.CacheConfig;
@@ -40,6 +42,10 @@ import io.github.flameyossnowy.universal.api.cache.SessionCache;
 import io.github.flameyossnowy.universal.api.meta.JsonIndexModel;
 import io.github.flameyossnowy.universal.api.meta.JsonStorageKind;
 import io.github.flameyossnowy.universal.api.annotations.ResolveWith;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Insert;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Select;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Update;
+import io.github.flameyossnowy.universal.checker.generator.RepositoryImplementationGenerator;
 import io.github.flameyossnowy.universal.checker.generator.UnifiedFactoryGenerator;
 import io.github.flameyossnowy.universal.checker.processor.AnnotationUtils;
 import io.github.flameyossnowy.universal.checker.processor.TypeMirrorUtils;
@@ -55,6 +61,7 @@ import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.Writer;
+import java.lang.annotation.Annotation;
 import java.util.*;
 
 import static io.github.flameyossnowy.universal.api.meta.RelationshipKind.*;
@@ -75,6 +82,7 @@ import static io.github.flameyossnowy.universal.api.meta.RelationshipKind.*;
     "io.github.flameyossnowy.universal.api.annotations.Binary",
     "io.github.flameyossnowy.universal.api.annotations.Unique",
     "io.github.flameyossnowy.universal.api.annotations.FetchPageSize",
+    "io.github.flameyossnowy.universal.api.annotations.BatchSize",
     "io.github.flameyossnowy.universal.api.annotations.EnumAsOrdinal",
     "io.github.flameyossnowy.universal.api.annotations.RepositoryAuditLogger",
     "io.github.flameyossnowy.universal.api.annotations.RepositoryEntityLifecycleHandler",
@@ -91,6 +99,13 @@ import static io.github.flameyossnowy.universal.api.meta.RelationshipKind.*;
     "io.github.flameyossnowy.universal.api.annotations.Resolves",
     "io.github.flameyossnowy.universal.api.annotations.Validate",
     "io.github.flameyossnowy.universal.api.annotations.Validations",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.Select",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.Insert",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.Update",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.Filter",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.Filter.Filters",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.Limit",
+    "io.github.flameyossnowy.universal.api.annotations.proxy.OrderBy",
 })
 public class RepositoryValidatorProcessor extends AbstractProcessor {
     private Types types;
@@ -111,6 +126,8 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
 
     private final Set<String> repositoryNames = new HashSet<>(16);
 
+    private final Set<String> generatedImplementations = new HashSet<>(16);
+
     private TypeMirror map;
     private TypeMirror list;
     private TypeMirror set;
@@ -357,12 +374,31 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
                     type);
             }
         }
+        generateRepositoryImplementations(roundEnv);
         if (roundEnv.processingOver()) {
             writeResource();
         }
         return true;
     }
 
+    private void generateRepositoryImplementations(RoundEnvironment roundEnv) {
+        Set<TypeElement> interfaces = new LinkedHashSet<>(16);
+        for (Class<? extends Annotation> annotation : List.of(Select.class, Insert.class, Update.class)) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getEnclosingElement() instanceof TypeElement type
+                    && generatedImplementations.add(type.getQualifiedName().toString())) {
+                    interfaces.add(type);
+                }
+            }
+        }
+
+        RepositoryImplementationGenerator gen =
+            new RepositoryImplementationGenerator(filer, types, elements, messager);
+        for (TypeElement type : interfaces) {
+            gen.generate(type, qualifiedNames);
+        }
+    }
+
     /**
      * Validates the repository-level constraints and triggers codegen.
      *
@@ -600,6 +636,7 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
 
         Repository repo = entity.getAnnotation(Repository.class);
         FetchPageSize fetchPageSize = entity.getAnnotation(FetchPageSize.class);
+        BatchSize batchSize = entity.getAnnotation(BatchSize.class);
 
         Cacheable cacheable = entity.getAnnotation(Cacheable.class);
         GlobalCacheable globalCacheable = entity.getAnnotation(GlobalCacheable.class);
@@ -608,7 +645,11 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
         if (cacheable != null) {
             cacheConfig = new CacheConfig(
                 cacheable.maxCacheSize(),
-                cacheable.algorithm()
+                cacheable.algorithm(),
+                cacheable.offHeapCapacity(),
+                AnnotationUtils.getEnumValueName(
+                    AnnotationUtils.getAnnotationMirror(entity, Cacheable.class.getCanonicalName()),
+                    "algorithm") != null
             );
         } else {
             cacheConfig = CacheConfig.none();
@@ -849,7 +890,11 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
                 for (AnnotationMirror jsonIndex : jsonIndexMirrors) {
                     String path = AnnotationUtils.getStringValue(jsonIndex, "path");
                     boolean unique = AnnotationUtils.getBooleanValue(jsonIndex, "unique");
-                    jsonIndexes.add(new JsonIndexModel(path, unique));
+                    int length = AnnotationUtils.getIntValue(jsonIndex, "length", 255);
+                    if (length <= 0) {
+                        error("@JsonIndex length must be positive, got " + length, field);
+                    }
+                    jsonIndexes.add(new JsonIndexModel(path, unique, length));
                 }
             }
 
@@ -943,6 +988,7 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
             constraints,
             relationships,
             fetchPageSize == null ? -1 : fetchPageSize.value(),
+            batchSizeBounds(entity, batchSize),
             cacheable != null,
             cacheConfig,
             globalCacheable != null,
@@ -954,6 +1000,16 @@ public class RepositoryValidatorProcessor extends AbstractProcessor {
         );
     }
 
+    private BatchSizeBounds batchSizeBounds(TypeElement entity, BatchSize batchSize) {
+        if (batchSize == null) return null;
+        try {
+            return new BatchSizeBounds(batchSize.min(), batchSize.max(), batchSize.targetMillis());
+        } catch (IllegalArgumentException e) {
+            error("Invalid @BatchSize: " + e.getMessage(), entity);
+            return null;
+        }
+    }
+
     private static String getGetterName(Map<String, ExecutableElement> methods,
                                         String getterGet, String getterIs, String fieldName) {
         if (methods.containsKey(getterGet)) return getterGet;
@@ -16,10 +16,17 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Single Responsibility: generate the {@code insertEntity} method body.
  *
+ * <p>Every value is bound at its position in the statement. The names the method binds are a
+ * constant of the generated class, resolved to positions by
+ * {@code DatabaseParameters.positionsOf} once per SQL shape; names the SQL does not list are
+ * still bound by name.
+ *
  * <p>Array-typed fields are handled conditionally:
  * <ul>
  *   <li>When {@code params.supportsArraysNatively()} is {@code true} the value is
@@ -29,6 +36,7 @@ import javax.tools.Diagnostic;
  * </ul>
  */
 public final class InsertEntityGenerator {
+    private static final String PARAMETERS = "INSERT_PARAMETERS";
 
     private final Types types;
     private final Elements elements;
@@ -40,7 +48,10 @@ public final class InsertEntityGenerator {
         this.messager = messager;
     }
 
-    public MethodSpec generate(RepositoryModel repo, ClassName entityType) {
+    /**
+     * Adds {@code insertEntity} and the constant of the names it binds to {@code owner}.
+     */
+    public void generate(TypeSpec.Builder owner, RepositoryModel repo, ClassName entityType) {
         ClassName dbParams   = ClassName.get("io.github.flameyossnowy.universal.api.params", "DatabaseParameters");
         ClassName repoMeta   = ClassName.get("io.github.flameyossnowy.universal.api.meta",   "RepositoryModel");
         ClassName genMeta    = ClassName.get("io.github.flameyossnowy.universal.api.meta",   "GeneratedMetadata");
@@ -56,8 +67,10 @@ public final class InsertEntityGenerator {
             .addModifiers(Modifier.PUBLIC)
             .addException(Exception.class)
             .addParameter(dbParams,    "stmt")
-            .addParameter(entityType,  "entity");
+            .addParameter(entityType,  "entity")
+            .addStatement("int[] at = stmt.positionsOf($L)", PARAMETERS);
 
+        List<String> names = new ArrayList<>();
         for (FieldModel field : repo.fields()) {
             if (field.autoIncrement()) continue;
             if (!field.insertable())   continue;
@@ -81,7 +94,7 @@ public final class InsertEntityGenerator {
             if (field.relationship() && field.relationshipKind() != null) {
                 RelationshipKind kind = field.relationshipKind();
                 if (kind == RelationshipKind.ONE_TO_ONE || kind == RelationshipKind.MANY_TO_ONE) {
-                    emitRelationshipFk(m, repo, field, fieldName, valueVar,
+                    emitRelationshipFk(m, names, repo, field, fieldName, valueVar,
                         thisIdMirror, thisIdNameBoxed, repoMeta, genMeta, fieldModel, entityType);
                 }
                 // ONE_TO_MANY -> collection, already filtered above
@@ -91,7 +104,7 @@ public final class InsertEntityGenerator {
             // ---- Arrays: native vs. deferred --------------------------------
             if (fieldMirror.getKind() == TypeKind.ARRAY) {
                 m.beginControlFlow("if (stmt.supportsArraysNatively())")
-                    .addStatement("stmt.set($S, $L, $T.class)", fieldName, valueVar, fieldType)
+                    .addStatement("stmt.set(at[$L], $S, $L, $T.class)", position(names, fieldName), fieldName, valueVar, fieldType)
                     .endControlFlow();
                 continue;
             }
@@ -99,20 +112,32 @@ public final class InsertEntityGenerator {
             // ---- Scalar field -----------------------------------------------
             // For JSON collection fields, use raw type (e.g., List.class) not generic (List<String>.class)
             TypeName classType = field.isJson() ? ClassName.get(types.erasure(fieldMirror)) : fieldType;
-            m.addStatement("stmt.set($S, $L, $T.class)", fieldName, valueVar, classType);
+            m.addStatement("stmt.set(at[$L], $S, $L, $T.class)", position(names, fieldName), fieldName, valueVar, classType);
 
             // ---- JSON version column ----------------------------------------
             // Set the companion version column for @JsonVersioned fields
             if (field.isJson() && field.jsonVersioned()) {
-                m.addStatement("stmt.set($S, 1, int.class)", fieldName + "_version");
+                String versionColumn = fieldName + "_version";
+                m.addStatement("stmt.set(at[$L], $S, 1, int.class)", position(names, versionColumn), versionColumn);
             }
         }
 
-        return m.build();
+        owner.addField(FieldSpec.builder(String[].class, PARAMETERS, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("{$L}", names.stream().map(name -> CodeBlock.of("$S", name)).collect(CodeBlock.joining(", ")))
+                .build())
+            .addMethod(m.build());
     }
 
     // ------------------------------------------------------------------ helpers
 
+    /** The index of {@code name} in the bound names, added on first use. */
+    private static int position(List<String> names, String name) {
+        int position = names.indexOf(name);
+        if (position >= 0) return position;
+        names.add(name);
+        return names.size() - 1;
+    }
+
     private static void emitNowTimestamp(MethodSpec.Builder m, FieldModel field,
                                           TypeMirror fieldMirror, String valueVar) {
         if (!field.hasNowAnnotation()) return;
@@ -127,7 +152,7 @@ public final class InsertEntityGenerator {
         m.addStatement("entity.$L($L)", field.setterName(), valueVar);
     }
 
-    private void emitRelationshipFk(MethodSpec.Builder m, RepositoryModel repo,
+    private void emitRelationshipFk(MethodSpec.Builder m, List<String> names, RepositoryModel repo,
                                      FieldModel field, String fieldName, String valueVar,
                                      TypeMirror thisIdMirror, TypeName thisIdNameBoxed,
                                      ClassName repoMeta, ClassName genMeta, ClassName fieldModel,
@@ -163,7 +188,7 @@ public final class InsertEntityGenerator {
             m.addStatement("$T pkField = relatedRepo.fieldByName($S)", relatedFieldModelType, relatedId.name());
             m.beginControlFlow("if (pkField != null)");
             m.addStatement("Object pkValue = pkField.getValue($L)", valueVar);
-            m.addStatement("stmt.set($S, pkValue, pkField.type())", field.columnName());
+            m.addStatement("stmt.set(at[$L], $S, pkValue, pkField.type())", position(names, field.columnName()), field.columnName());
             m.nextControlFlow("else");
             m.addStatement("throw new $T($S + $S)", IllegalArgumentException.class,
                 "Primary key not found for relationship field: ", fieldName);
@@ -175,7 +200,7 @@ public final class InsertEntityGenerator {
         }
 
         m.nextControlFlow("else");
-        m.addStatement("stmt.set($S, null, $T.class)", fieldName, thisIdNameBoxed);
+        m.addStatement("stmt.set(at[$L], $S, null, $T.class)", position(names, fieldName), fieldName, thisIdNameBoxed);
         m.endControlFlow();
     }
 
@@ -87,8 +87,8 @@ public final class ObjectModelGenerator {
                 .addModifiers(Modifier.PUBLIC)
                 .build())
             .addMethod(generateConstruct(repo, entityType))
-            .addMethod(generatePopulateRelationships(repo, entityType, idType))
-            .addMethod(insertEntity.generate(repo, entityType));
+            .addMethod(generatePopulateRelationships(repo, entityType, idType));
+        insertEntity.generate(builder, repo, entityType);
 
         builder.addMethod(InsertCollectionEntitiesGenerator.generate(repo, entityType, idType))
             .addMethod(generateGetId(repo, entityType, idType))
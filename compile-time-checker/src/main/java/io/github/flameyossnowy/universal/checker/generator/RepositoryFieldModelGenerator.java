@@ -322,10 +322,11 @@ public class RepositoryFieldModelGenerator {
             if (i > 0) {
                 args.add(", ");
             }
-            args.add("new $T($S, $L)",
+            args.add("new $T($S, $L, $L)",
                 ClassName.get("io.github.flameyossnowy.universal.api.meta", "JsonIndexModel"),
                 idx.path(),
-                idx.unique()
+                idx.unique(),
+                idx.length()
             );
         }
 
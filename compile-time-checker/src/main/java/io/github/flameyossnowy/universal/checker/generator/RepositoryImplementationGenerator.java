@@ -0,0 +1,293 @@
+package io.github.flameyossnowy.universal.checker.generator;
+
+import com.squareup.javapoet.*;
+import io.github.flameyossnowy.universal.api.GeneratedRepositoryFactory;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Filter;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Insert;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Limit;
+import io.github.flameyossnowy.universal.api.annotations.proxy.OrderBy;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Select;
+import io.github.flameyossnowy.universal.api.annotations.proxy.Update;
+import io.github.flameyossnowy.universal.checker.GeneratorUtils;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Generated;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Single Responsibility: generate the {@code *_Impl} class of a proxy repository interface,
+ * the compiled counterpart of {@code ProxiedAdapterHandler}.
+ *
+ * <p>Sort options, and whole queries of methods without bound filters, are static finals;
+ * filter {@code i} is bound to parameter {@code i} without going through the query builder.
+ * {@code Stream} and {@code Iterator} methods read through {@code findStream} and
+ * {@code findIterator} instead of materializing a list.
+ *
+ * <p>Interfaces that cannot be implemented statically (type parameters, methods without a
+ * proxy annotation, element types that cannot be inferred) are skipped and keep being
+ * served by the dynamic proxy.
+ */
+public final class RepositoryImplementationGenerator {
+    private static final String API = "io.github.flameyossnowy.universal.api";
+
+    private static final ClassName ADAPTER = ClassName.get(API, "RepositoryAdapter");
+    private static final ClassName IMPLEMENTATIONS = ClassName.get(API + ".meta", "GeneratedRepositoryImplementations");
+    private static final ClassName SELECT_QUERY = ClassName.get(API + ".options", "SelectQuery");
+    private static final ClassName SELECT_OPTION = ClassName.get(API + ".options", "SelectOption");
+    private static final ClassName SORT_OPTION = ClassName.get(API + ".options", "SortOption");
+    private static final ClassName SORT_ORDER = ClassName.get(API + ".options", "SortOrder");
+
+    private static final Set<String> VALUE_OPERATORS = Set.of("=", ">=", "<=", ">", "<", "!=", "IN", "LIKE");
+    private static final Set<String> LOGICAL_OPERATORS = Set.of("NOT", "AND", "OR");
+
+    private final Filer filer;
+    private final Types types;
+    private final Elements elements;
+    private final Messager messager;
+
+    private enum Shape { LIST, SET, SINGLE, OPTIONAL, ITERATOR, STREAM }
+
+    public RepositoryImplementationGenerator(Filer filer, Types types, Elements elements, Messager messager) {
+        this.filer = filer;
+        this.types = types;
+        this.elements = elements;
+        this.messager = messager;
+    }
+
+    public void generate(TypeElement iface, List<String> qualifiedNames) {
+        if (iface.getKind() != ElementKind.INTERFACE
+            || !iface.getTypeParameters().isEmpty()
+            || iface.getModifiers().contains(Modifier.PRIVATE)) {
+            return;
+        }
+
+        DeclaredType ifaceType = (DeclaredType) iface.asType();
+        List<ExecutableElement> methods = new ArrayList<>(16);
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(iface))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) continue;
+            if (!method.getTypeParameters().isEmpty()) return;
+            methods.add(method);
+        }
+
+        // Every method is checked, so all misuses are reported at once
+        TypeMirror elementType = null;
+        boolean implementable = true;
+        for (ExecutableElement method : methods) {
+            TypeMirror type = elementTypeOf(method, (ExecutableType) types.asMemberOf(ifaceType, method));
+            if (type == null) {
+                implementable = false;
+            } else if (elementType == null) {
+                elementType = type;
+            } else if (!types.isSameType(types.erasure(elementType), types.erasure(type))) {
+                implementable = false;
+            }
+        }
+        if (!implementable || elementType == null) return;
+
+        String pkg = elements.getPackageOf(iface).getQualifiedName().toString();
+        String className = ClassName.get(iface).simpleNames().stream()
+            .reduce((a, b) -> a + "_" + b).orElseThrow() + "_Impl";
+        TypeName entity = TypeName.get(types.erasure(elementType));
+        TypeName adapterType = ParameterizedTypeName.get(ADAPTER, entity,
+            WildcardTypeName.subtypeOf(Object.class), WildcardTypeName.subtypeOf(Object.class));
+
+        TypeSpec.Builder builder = TypeSpec.classBuilder(className)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(AnnotationSpec.builder(Generated.class)
+                .addMember("value", "$S", RepositoryImplementationGenerator.class.getName())
+                .build())
+            .addSuperinterface(TypeName.get(iface.asType()))
+            .addSuperinterface(TypeName.get(GeneratedRepositoryFactory.class))
+            .addField(adapterType, "adapter", Modifier.PRIVATE, Modifier.FINAL);
+
+        // register() method – called by ModelsBootstrap via ServiceLoader
+        builder.addMethod(MethodSpec.methodBuilder("register")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("$T.add($T.class, $T.class, $L::new)", IMPLEMENTATIONS, TypeName.get(iface.asType()), entity, className)
+            .build());
+
+        builder.addMethod(MethodSpec.constructorBuilder()
+            .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(ParameterizedTypeName.get(ADAPTER,
+                WildcardTypeName.subtypeOf(Object.class),
+                WildcardTypeName.subtypeOf(Object.class),
+                WildcardTypeName.subtypeOf(Object.class)), "adapter")
+            .addStatement("this.adapter = ($T) adapter", adapterType)
+            .build());
+
+        // for ServiceLoader
+        builder.addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("this.adapter = null")
+            .build());
+
+        for (int index = 0; index < methods.size(); index++) {
+            ExecutableElement method = methods.get(index);
+            MethodSpec.Builder spec = MethodSpec.overriding(method, ifaceType, types);
+            String constant = constantName(method, index);
+
+            if (method.getAnnotation(Select.class) != null) {
+                TypeMirror returnType = ((ExecutableType) types.asMemberOf(ifaceType, method)).getReturnType();
+                addSelect(builder, spec, method, returnType, constant);
+            } else {
+                String operation = method.getAnnotation(Insert.class) != null ? "insert" : "updateAll";
+                spec.addStatement("adapter.$L($L).ifError(error -> { throw new $T(error); })",
+                    operation, method.getParameters().getFirst().getSimpleName(), RuntimeException.class);
+            }
+            builder.addMethod(spec.build());
+        }
+
+        GeneratorUtils.write(pkg, builder.build(), filer);
+        qualifiedNames.add(pkg.isEmpty() ? className : pkg + "." + className);
+    }
+
+    /**
+     * The entity {@code method} reads or writes, or {@code null} if the method cannot be
+     * implemented statically. Misuses the proxy would reject on every call are reported here.
+     */
+    private TypeMirror elementTypeOf(ExecutableElement method, ExecutableType type) {
+        boolean select = method.getAnnotation(Select.class) != null;
+        boolean insert = method.getAnnotation(Insert.class) != null;
+        boolean update = method.getAnnotation(Update.class) != null;
+
+        int sum = (select ? 1 : 0) + (insert ? 1 : 0) + (update ? 1 : 0);
+        if (sum == 0) return null;
+        if (sum > 1) {
+            error("A proxy method cannot have multiple annotations of @Insert, @Select and/or @Update.", method);
+            return null;
+        }
+
+        if (!select) {
+            if (type.getParameterTypes().isEmpty()) {
+                error("@Insert and @Update methods take the entity as their first parameter", method);
+                return null;
+            }
+            if (type.getReturnType().getKind() != TypeKind.VOID) {
+                error("@Insert and @Update methods must return void", method);
+                return null;
+            }
+            return type.getParameterTypes().getFirst();
+        }
+
+        Filter[] filters = method.getAnnotationsByType(Filter.class);
+        for (int i = 0; i < filters.length; i++) {
+            String operator = filters[i].operator();
+            if (LOGICAL_OPERATORS.contains(operator)) continue;
+            if (!VALUE_OPERATORS.contains(operator)) {
+                error("Unsupported operator: " + operator, method);
+                return null;
+            }
+            if (i >= type.getParameterTypes().size()) {
+                error("@Filter(\"" + filters[i].value() + "\") is bound to parameter " + i + ", which does not exist", method);
+                return null;
+            }
+        }
+
+        TypeMirror returnType = type.getReturnType();
+        Shape shape = shapeOf(returnType);
+        if (shape == null) {
+            error("Unsupported return type: " + returnType, method);
+            return null;
+        }
+        if (shape == Shape.SINGLE) return returnType;
+
+        List<? extends TypeMirror> arguments = ((DeclaredType) returnType).getTypeArguments();
+        if (arguments.size() != 1 || arguments.getFirst().getKind() != TypeKind.DECLARED) return null;
+        return arguments.getFirst();
+    }
+
+    private void addSelect(
+        TypeSpec.Builder builder,
+        MethodSpec.Builder spec,
+        ExecutableElement method,
+        TypeMirror returnType,
+        String constant
+    ) {
+        Filter[] filters = method.getAnnotationsByType(Filter.class);
+        Limit limit = method.getAnnotation(Limit.class);
+        OrderBy orderBy = method.getAnnotation(OrderBy.class);
+
+        FieldSpec.Builder sort = FieldSpec.builder(
+                ParameterizedTypeName.get(ClassName.get(List.class), SORT_OPTION),
+                constant + "_SORT", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL);
+        if (orderBy == null) {
+            sort.initializer("$T.of()", List.class);
+        } else {
+            sort.initializer("$T.of(new $T($S, $T.$L))", List.class, SORT_OPTION, orderBy.value(), SORT_ORDER, orderBy.order().name());
+        }
+        builder.addField(sort.build());
+
+        boolean bound = false;
+        CodeBlock.Builder options = CodeBlock.builder();
+        for (int i = 0; i < filters.length; i++) {
+            if (i > 0) options.add(", ");
+
+            Filter filter = filters[i];
+            if (LOGICAL_OPERATORS.contains(filter.operator())) {
+                options.add("new $T($S, $S, null)", SELECT_OPTION, filter.value(), filter.operator());
+            } else {
+                options.add("new $T($S, $S, $L)", SELECT_OPTION, filter.value(), filter.operator(),
+                    method.getParameters().get(i).getSimpleName());
+                bound = true;
+            }
+        }
+
+        CodeBlock query = CodeBlock.of("new $T($T.of(), $T.of($L), $L_SORT, $L, null)",
+            SELECT_QUERY, List.class, List.class, options.build(), constant, limit == null ? -1 : limit.value());
+        if (!bound) {
+            builder.addField(FieldSpec.builder(SELECT_QUERY, constant, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(query)
+                .build());
+            query = CodeBlock.of("$L", constant);
+        }
+
+        switch (shapeOf(returnType)) {
+            case LIST -> spec.addStatement("return adapter.find($L)", query);
+            case SET -> spec
+                .addStatement("$T<$T> result = adapter.find($L)", List.class, TypeName.get(((DeclaredType) returnType).getTypeArguments().getFirst()), query)
+                .addStatement("return result.isEmpty() ? $T.of() : new $T<>(result)", Set.class, HashSet.class);
+            case SINGLE -> spec.addStatement("return adapter.first($L)", query);
+            case OPTIONAL -> spec.addStatement("return $T.ofNullable(adapter.first($L))", Optional.class, query);
+            case ITERATOR -> spec.addStatement("return adapter.findIterator($L)", query);
+            case STREAM -> spec.addStatement("return adapter.findStream($L)", query);
+        }
+    }
+
+    private Shape shapeOf(TypeMirror returnType) {
+        if (returnType.getKind() != TypeKind.DECLARED) return null;
+
+        String name = ((TypeElement) types.asElement(returnType)).getQualifiedName().toString();
+        return switch (name) {
+            case "java.util.List", "java.lang.Iterable", "java.util.Collection" -> Shape.LIST;
+            case "java.util.Set" -> Shape.SET;
+            case "java.util.Optional" -> Shape.OPTIONAL;
+            case "java.util.Iterator" -> Shape.ITERATOR;
+            case "java.util.stream.Stream" -> Shape.STREAM;
+            default -> name.startsWith("java.") ? null : Shape.SINGLE;
+        };
+    }
+
+    private static String constantName(ExecutableElement method, int index) {
+        return method.getSimpleName().toString().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_" + index;
+    }
+
+    private void error(String message, Element element) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -4,6 +4,7 @@ import com.squareup.javapoet.*;
 import io.github.flameyossnowy.universal.api.GeneratedRepositoryFactory;
 import io.github.flameyossnowy.universal.api.cache.CacheConfig;
 import io.github.flameyossnowy.universal.api.cache.SessionCache;
+import io.github.flameyossnowy.universal.api.meta.BatchSizeBounds;
 import io.github.flameyossnowy.universal.api.meta.RelationshipKind;
 import io.github.flameyossnowy.universal.checker.*;
 
@@ -212,9 +213,9 @@ public final class RepositoryModelGenerator {
             CacheConfig config = repo.cacheConfig();
             type.addField(FieldSpec.builder(cacheConfigClass, "CACHE_CONFIG",
                     Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                .initializer("new $T($L, $T.$L)", cacheConfigClass, config.maxSize(),
+                .initializer("new $T($L, $T.$L, $LL, $L)", cacheConfigClass, config.maxSize(),
                     ClassName.get("io.github.flameyossnowy.universal.api.annotations.enums", "CacheAlgorithmType"),
-                    config.cacheAlgorithmType().name())
+                    config.cacheAlgorithmType().name(), config.offHeapCapacityBytes(), config.explicitAlgorithm())
                 .build());
             type.addMethod(MethodSpec.methodBuilder("getCacheConfig")
                 .addAnnotation(Override.class).addModifiers(Modifier.PUBLIC)
@@ -271,6 +272,15 @@ public final class RepositoryModelGenerator {
             .addAnnotation(Override.class).addModifiers(Modifier.PUBLIC)
             .returns(TypeName.INT).addStatement("return " + repo.fetchPageSize()).build());
 
+        BatchSizeBounds batchSize = repo.batchSizeBounds();
+        if (batchSize != null) {
+            type.addMethod(MethodSpec.methodBuilder("getBatchSizeBounds")
+                .addAnnotation(Override.class).addModifiers(Modifier.PUBLIC)
+                .returns(BatchSizeBounds.class)
+                .addStatement("return new $T($L, $L, $LL)", BatchSizeBounds.class,
+                    batchSize.min(), batchSize.max(), batchSize.targetMillis()).build());
+        }
+
         type.addMethod(MethodSpec.methodBuilder("getAuditLogger")
             .addAnnotation(Override.class).addModifiers(Modifier.PUBLIC)
             .returns(ParameterizedTypeName.get(
@@ -34,7 +34,9 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static io.github.flameyossnowy.universal.checker.GeneratorUtils.write;
 
@@ -154,6 +156,13 @@ public class ValueReaderGenerator {
             .addStatement("return id")
             .build());
 
+        builder.addMethod(MethodSpec.methodBuilder("advance")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(TypeVariableName.get("ID"), "id")
+            .addStatement("this.id = id")
+            .build());
+
         builder.addMethod(MethodSpec.methodBuilder("getRepositoryModel")
             .addAnnotation(Override.class)
             .addModifiers(Modifier.PUBLIC)
@@ -172,6 +181,7 @@ public class ValueReaderGenerator {
                 .build());
 
         readMethod.beginControlFlow("switch (index)");
+        Map<TypeName, String> resolverHandles = new LinkedHashMap<>();
         int index = 0;
         int helperMethodIndex = 1;
 
@@ -186,8 +196,8 @@ public class ValueReaderGenerator {
                         TypeMirror idType = getTargetPrimaryKeyType(rel); // UUID, Long, etc.
                         // We read the raw FK column value (e.g. warp VARCHAR(36) -> UUID)
                         TypeName typeName = ClassName.get(types.erasure(idType));
-                        readMethod.addStatement("case $L: return (T) registry.resolve($T.class).resolve(result, $S)",
-                            index, typeName, field.columnName());
+                        readMethod.addStatement("case $L: return (T) $N.get(registry).resolve(result, $S)",
+                            index, resolverHandle(resolverHandles, typeName), field.columnName());
                         index++;
                     }
                 }
@@ -249,7 +259,7 @@ public class ValueReaderGenerator {
                         TypeName typeName = ClassName.get(rawType);
                         readMethod.addCode(CodeBlock.builder()
                             .beginControlFlow("try")
-                            .addStatement("return (T) registry.resolve($T.class).resolve(result, $S)", typeName, columnName)
+                            .addStatement("return (T) $N.get(registry).resolve(result, $S)", resolverHandle(resolverHandles, typeName), columnName)
                             .nextControlFlow("catch ($T e)", Exception.class)
                             .addStatement("return null")
                             .endControlFlow()
@@ -257,12 +267,12 @@ public class ValueReaderGenerator {
                         readMethod.endControlFlow();
                     } else {
                         TypeName typeName = ClassName.get(rawType);
-                        readMethod.addStatement("case $L: return (T) registry.resolve($T.class).resolve(result, $S)", index, typeName, columnName);
+                        readMethod.addStatement("case $L: return (T) $N.get(registry).resolve(result, $S)", index, resolverHandle(resolverHandles, typeName), columnName);
                     }
                 } else {
                     // Regular field
                     TypeName typeName = ClassName.get(rawType);
-                    readMethod.addStatement("case $L: return (T) registry.resolve($T.class).resolve(result, $S)", index, typeName, columnName);
+                    readMethod.addStatement("case $L: return (T) $N.get(registry).resolve(result, $S)", index, resolverHandle(resolverHandles, typeName), columnName);
                 }
             }
             index++;
@@ -272,6 +282,18 @@ public class ValueReaderGenerator {
         readMethod.endControlFlow();
         builder.addMethod(readMethod.build());
 
+        // One static handle per type; each registry remembers what the handle resolves to,
+        // so read() never looks a type up in the registry's maps.
+        ClassName resolverHandle = ClassName.get("io.github.flameyossnowy.universal.api.resolver", "ResolverHandle");
+        for (Map.Entry<TypeName, String> handle : resolverHandles.entrySet()) {
+            builder.addField(FieldSpec.builder(
+                    ParameterizedTypeName.get(resolverHandle, WildcardTypeName.subtypeOf(TypeName.OBJECT)),
+                    handle.getValue(),
+                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.of($T.class)", resolverHandle, handle.getKey())
+                .build());
+        }
+
         helperMethodIndex = 1;
         for (FieldModel field : repo.fields()) {
             if (!field.participatesInConstruction()) continue;
@@ -287,6 +309,10 @@ public class ValueReaderGenerator {
         write(repo.packageName(), builder.build(), filer);
     }
 
+    private static String resolverHandle(Map<TypeName, String> handles, TypeName type) {
+        return handles.computeIfAbsent(type, ignored -> "RESOLVER_" + handles.size());
+    }
+
     private TypeMirror getTargetPrimaryKeyType(RelationshipModel rel) {
         TypeMirror targetType = rel.targetType();
         if (!(targetType instanceof DeclaredType dt)) return null;
@@ -68,6 +68,18 @@ public final class AnnotationUtils {
         return false;
     }
 
+    public static int getIntValue(AnnotationMirror am, String name, int defaultValue) {
+        if (am == null) {
+            return defaultValue;
+        }
+        for (var e : am.getElementValues().entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(name)) {
+                return (int) e.getValue().getValue();
+            }
+        }
+        return defaultValue;
+    }
+
     public static String getStringValue(AnnotationMirror am, String name) {
         if (am == null) {
             return null;
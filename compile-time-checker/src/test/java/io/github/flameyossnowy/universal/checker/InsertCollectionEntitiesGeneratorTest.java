@@ -136,6 +136,7 @@ class InsertCollectionEntitiesGeneratorTest {
             List.of(),
             List.of(),
             0,
+            null,
             false,
             null,
             false,
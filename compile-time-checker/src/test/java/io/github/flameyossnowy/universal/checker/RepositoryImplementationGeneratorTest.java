@@ -0,0 +1,363 @@
+package io.github.flameyossnowy.universal.checker;
+
+import io.github.flameyossnowy.universal.api.RepositoryAdapter;
+import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.api.meta.GeneratedRepositoryImplementations;
+import io.github.flameyossnowy.universal.api.options.FilterOption;
+import io.github.flameyossnowy.universal.api.options.SelectOption;
+import io.github.flameyossnowy.universal.api.options.SelectQuery;
+import io.github.flameyossnowy.universal.api.options.SortOption;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs {@link RepositoryValidatorProcessor} over proxy repository interfaces with the system
+ * compiler, then loads what it generated against a mocked adapter.
+ */
+class RepositoryImplementationGeneratorTest {
+    private static final String USER = """
+        package test;
+
+        public class User {
+            private String name;
+            private int age;
+
+            public String getName() { return name; }
+            public void setName(String name) { this.name = name; }
+            public int getAge() { return age; }
+            public void setAge(int age) { this.age = age; }
+        }
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    private record Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path classes, Path sources) {
+        List<String> errors() {
+            List<String> errors = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) errors.add(diagnostic.getMessage(null));
+            }
+            return errors;
+        }
+
+        boolean generated(String className) {
+            return Files.exists(sources.resolve(className.replace('.', '/') + ".java"));
+        }
+
+        String source(String className) throws IOException {
+            return Files.readString(sources.resolve(className.replace('.', '/') + ".java"));
+        }
+
+        ClassLoader classLoader() throws IOException {
+            return new URLClassLoader(new URL[]{ classes.toUri().toURL() }, RepositoryImplementationGeneratorTest.class.getClassLoader());
+        }
+    }
+
+    private Compilation compile(String repository) throws IOException {
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        Path sources = Files.createDirectories(tempDir.resolve("generated"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                files,
+                diagnostics,
+                List.of("-d", classes.toString(), "-s", sources.toString(), "-classpath", System.getProperty("java.class.path")),
+                null,
+                List.of(source("test/User.java", USER), source("test/Users.java", repository))
+            );
+            task.setProcessors(List.of(new RepositoryValidatorProcessor()));
+            return new Compilation(task.call(), diagnostics.getDiagnostics(), classes, sources);
+        }
+    }
+
+    private static JavaFileObject source(String path, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RepositoryAdapter<Object, Object, Object> adapter(Class<?> elementType) {
+        RepositoryAdapter<Object, Object, Object> adapter = mock(RepositoryAdapter.class);
+        when(adapter.getElementType()).thenReturn((Class<Object>) elementType);
+        when(adapter.createDynamicProxy(any())).thenCallRealMethod();
+        when(adapter.find(any(SelectQuery.class))).thenReturn(List.of());
+        return adapter;
+    }
+
+    /** Loads the generated implementation of {@code test.Users} the way the service file would. */
+    private static Object implementation(Compilation compilation, RepositoryAdapter<Object, Object, Object> adapter) throws Exception {
+        ClassLoader loader = compilation.classLoader();
+        Class<?> iface = loader.loadClass("test.Users");
+        Object factory = loader.loadClass("test.Users_Impl").getConstructor().newInstance();
+        factory.getClass().getMethod("register").invoke(factory);
+
+        Object repository = adapter.createDynamicProxy(iface);
+        assertFalse(Proxy.isProxyClass(repository.getClass()));
+        return repository;
+    }
+
+    private static Object call(Object repository, String name, Class<?>[] parameterTypes, Object... args) throws Exception {
+        return repository.getClass().getInterfaces()[0].getMethod(name, parameterTypes).invoke(repository, args);
+    }
+
+    private static SelectQuery lastFind(RepositoryAdapter<Object, Object, Object> adapter) {
+        ArgumentCaptor<SelectQuery> query = ArgumentCaptor.forClass(SelectQuery.class);
+        verify(adapter, atLeastOnce()).find(query.capture());
+        return query.getValue();
+    }
+
+    @Test
+    void overloadedMethodsBindTheirOwnFilters() throws Exception {
+        Compilation compilation = compile("""
+            package test;
+
+            import io.github.flameyossnowy.universal.api.annotations.proxy.*;
+            import java.util.List;
+
+            public interface Users {
+                @Select
+                @Filter("name")
+                List<User> findBy(String name);
+
+                @Select
+                @Filter(value = "age", operator = ">=")
+                List<User> findBy(int age);
+            }
+            """);
+        assertTrue(compilation.success(), compilation.errors().toString());
+
+        String source = compilation.source("test.Users_Impl");
+        assertTrue(source.contains("FIND_BY_0_SORT"));
+        assertTrue(source.contains("FIND_BY_1_SORT"));
+
+        RepositoryAdapter<Object, Object, Object> adapter = adapter(compilation.classLoader().loadClass("test.User"));
+        Object repository = implementation(compilation, adapter);
+
+        call(repository, "findBy", new Class<?>[]{ String.class }, "alice");
+        assertEquals(List.<FilterOption>of(new SelectOption("name", "=", "alice")), lastFind(adapter).filters());
+
+        call(repository, "findBy", new Class<?>[]{ int.class }, 30);
+        assertEquals(List.<FilterOption>of(new SelectOption("age", ">=", 30)), lastFind(adapter).filters());
+    }
+
+    @Test
+    void everySupportedReturnTypeReadsThroughTheMatchingAdapterCall() throws Exception {
+        Compilation compilation = compile("""
+            package test;
+
+            import io.github.flameyossnowy.universal.api.annotations.proxy.*;
+            import io.github.flameyossnowy.universal.api.options.SortOrder;
+            import java.util.*;
+            import java.util.stream.Stream;
+
+            public interface Users {
+                @Select
+                @OrderBy(value = "age", order = SortOrder.DESCENDING)
+                @Limit(5)
+                List<User> list();
+
+                @Select
+                Iterable<User> iterable();
+
+                @Select
+                Collection<User> collection();
+
+                @Select
+                Set<User> set();
+
+                @Select
+                @Filter("name")
+                User single(String name);
+
+                @Select
+                @Filter("name")
+                Optional<User> optional(String name);
+
+                @Select
+                Iterator<User> iterator();
+
+                @Select
+                Stream<User> stream();
+
+                @Insert
+                void insert(User user);
+
+                @Update
+                void update(User user);
+            }
+            """);
+        assertTrue(compilation.success(), compilation.errors().toString());
+
+        RepositoryAdapter<Object, Object, Object> adapter = adapter(compilation.classLoader().loadClass("test.User"));
+        when(adapter.insert(any())).thenReturn(TransactionResult.success(true));
+        when(adapter.updateAll(any())).thenReturn(TransactionResult.success(true));
+        Object repository = implementation(compilation, adapter);
+
+        call(repository, "list", new Class<?>[0]);
+        SelectQuery list = lastFind(adapter);
+        assertEquals(List.of(new SortOption("age", SortOrder.DESCENDING)), list.sortOptions());
+        assertEquals(5, list.limit());
+
+        // Queries without bound filters are built once
+        call(repository, "list", new Class<?>[0]);
+        assertSame(list, lastFind(adapter));
+
+        assertEquals(List.of(), call(repository, "iterable", new Class<?>[0]));
+        assertEquals(List.of(), call(repository, "collection", new Class<?>[0]));
+        assertEquals(Set.of(), call(repository, "set", new Class<?>[0]));
+
+        call(repository, "single", new Class<?>[]{ String.class }, "alice");
+        assertEquals(Optional.empty(), call(repository, "optional", new Class<?>[]{ String.class }, "bob"));
+        verify(adapter, times(2)).first(any());
+
+        call(repository, "iterator", new Class<?>[0]);
+        verify(adapter).findIterator(any());
+        call(repository, "stream", new Class<?>[0]);
+        verify(adapter).findStream(any());
+
+        Object user = compilation.classLoader().loadClass("test.User").getConstructor().newInstance();
+        call(repository, "insert", new Class<?>[]{ user.getClass() }, user);
+        verify(adapter).insert(user);
+        call(repository, "update", new Class<?>[]{ user.getClass() }, user);
+        verify(adapter).updateAll(user);
+    }
+
+    @Test
+    void unsupportedSignaturesAreCompileErrors() throws Exception {
+        Compilation compilation = compile("""
+            package test;
+
+            import io.github.flameyossnowy.universal.api.annotations.proxy.*;
+            import java.util.List;
+            import java.util.Map;
+
+            public interface Users {
+                @Select
+                @Insert
+                void both(User user);
+
+                @Select
+                @Filter(value = "name", operator = "~")
+                List<User> unknownOperator(String name);
+
+                @Select
+                @Filter("name")
+                List<User> missingParameter();
+
+                @Select
+                Map<String, User> unsupportedReturnType();
+
+                @Select
+                int primitiveReturnType();
+
+                @Insert
+                boolean insertReturningValue(User user);
+
+                @Update
+                void updateWithoutEntity();
+            }
+            """);
+        assertFalse(compilation.success());
+
+        List<String> errors = compilation.errors();
+        assertTrue(errors.contains("A proxy method cannot have multiple annotations of @Insert, @Select and/or @Update."), errors.toString());
+        assertTrue(errors.contains("Unsupported operator: ~"), errors.toString());
+        assertTrue(errors.contains("@Filter(\"name\") is bound to parameter 0, which does not exist"), errors.toString());
+        assertTrue(errors.contains("Unsupported return type: java.util.Map<java.lang.String,test.User>"), errors.toString());
+        assertTrue(errors.contains("Unsupported return type: int"), errors.toString());
+        assertTrue(errors.contains("@Insert and @Update methods must return void"), errors.toString());
+        assertTrue(errors.contains("@Insert and @Update methods take the entity as their first parameter"), errors.toString());
+        assertFalse(compilation.generated("test.Users_Impl"));
+    }
+
+    @Test
+    void interfacesThatCannotBeGeneratedFallBackToTheProxy() throws Exception {
+        Compilation compilation = compile("""
+            package test;
+
+            import io.github.flameyossnowy.universal.api.annotations.proxy.*;
+            import java.util.List;
+
+            public interface Users {
+                @Select
+                @Filter("name")
+                List<User> findBy(String name);
+
+                // Not a proxy method, so only the proxy can serve this interface
+                List<User> unannotated();
+            }
+            """);
+        assertTrue(compilation.success(), compilation.errors().toString());
+        assertFalse(compilation.generated("test.Users_Impl"));
+
+        ClassLoader loader = compilation.classLoader();
+        Class<?> iface = loader.loadClass("test.Users");
+        RepositoryAdapter<Object, Object, Object> adapter = adapter(loader.loadClass("test.User"));
+        assertNull(GeneratedRepositoryImplementations.create(iface, adapter));
+
+        Object repository = adapter.createDynamicProxy(iface);
+        assertTrue(Proxy.isProxyClass(repository.getClass()));
+
+        iface.getMethod("findBy", String.class).invoke(repository, "alice");
+        assertEquals(1, lastFind(adapter).filters().size());
+    }
+
+    @Test
+    void genericInterfacesFallBackToTheProxy() throws Exception {
+        Compilation compilation = compile("""
+            package test;
+
+            import io.github.flameyossnowy.universal.api.annotations.proxy.*;
+            import java.util.stream.Stream;
+
+            public interface Users<T> {
+                @Select
+                Stream<T> all();
+            }
+            """);
+        assertTrue(compilation.success(), compilation.errors().toString());
+        assertFalse(compilation.generated("test.Users_Impl"));
+
+        ClassLoader loader = compilation.classLoader();
+        RepositoryAdapter<Object, Object, Object> adapter = adapter(loader.loadClass("test.User"));
+        Object repository = adapter.createDynamicProxy(loader.loadClass("test.Users"));
+        assertTrue(Proxy.isProxyClass(repository.getClass()));
+        assertInstanceOf(Stream.class, loader.loadClass("test.Users").getMethod("all").invoke(repository));
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.flameyossnowy.universal.jmh;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.algorithms.ConcurrentWTinyLFUCache;
+import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFRUCache;
+import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFUCache;
+import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLRUCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category: CACHE
+ *
+ * Replays a pre-generated access trace against every cache policy and reports the
+ * hit ratio through JMH auxiliary counters ({@code hits} / {@code misses}).
+ *
+ * Workloads:
+ *   ZIPFIAN    – keys drawn from a Zipf(0.99) distribution over 100 000 items
+ *   SCAN_MIXED – the same Zipfian stream, interrupted by one-off sequential scans
+ *                twice the size of the cache (the admin query pattern)
+ *
+ * Running {@link #main(String[])} replays the traces once without JMH and prints a
+ * hit ratio table, which is usually all that is needed when comparing policies.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CacheHitRatioBenchmark {
+    private static final int CACHE_SIZE = 1_000;
+    private static final int KEY_SPACE = 100_000;
+    private static final int TRACE_LENGTH = 1 << 20;
+
+    public enum Workload {
+        ZIPFIAN,
+        SCAN_MIXED
+    }
+
+    @Param({"LEAST_RECENTLY_USED", "LEAST_FREQUENTLY_USED", "LEAST_FREQ_AND_RECENTLY_USED", "WINDOW_TINY_LFU"})
+    public CacheAlgorithmType policy;
+
+    @Param({"ZIPFIAN", "SCAN_MIXED"})
+    public Workload workload;
+
+    private Map<Integer, Integer> cache;
+    private int[] trace;
+    private int cursor;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cache = newCache(policy, CACHE_SIZE);
+        trace = generate(workload, TRACE_LENGTH, 42L);
+        cursor = 0;
+    }
+
+    @Benchmark
+    public Integer replay(HitCounters counters) {
+        int key = trace[cursor];
+        cursor = (cursor + 1) & (TRACE_LENGTH - 1);
+
+        Integer value = cache.get(key);
+        if (value != null) {
+            counters.hits++;
+            return value;
+        }
+
+        counters.misses++;
+        cache.put(key, key);
+        return key;
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%-32s %12s %12s%n", "policy", "ZIPFIAN", "SCAN_MIXED");
+        int[] zipfian = generate(Workload.ZIPFIAN, TRACE_LENGTH, 42L);
+        int[] scanMixed = generate(Workload.SCAN_MIXED, TRACE_LENGTH, 42L);
+
+        for (CacheAlgorithmType type : CacheAlgorithmType.values()) {
+            if (type == CacheAlgorithmType.NONE) continue;
+            double zipf = hitRatio(newCache(type, CACHE_SIZE), zipfian);
+            double scan = hitRatio(newCache(type, CACHE_SIZE), scanMixed);
+            System.out.printf("%-32s %11.2f%% %11.2f%%%n", type, zipf * 100, scan * 100);
+        }
+    }
+
+    private static double hitRatio(Map<Integer, Integer> cache, int[] trace) {
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+    private static Map<Integer, Integer> newCache(CacheAlgorithmType type, int maxSize) {
+        return switch (type) {
+            case LEAST_RECENTLY_USED -> new ConcurrentLRUCache<>(maxSize);
+            case LEAST_FREQUENTLY_USED -> new ConcurrentLFUCache<>(maxSize);
+            case LEAST_FREQ_AND_RECENTLY_USED -> new ConcurrentLFRUCache<>(maxSize);
+            case WINDOW_TINY_LFU -> new ConcurrentWTinyLFUCache<>(maxSize);
+            case NONE -> throw new IllegalArgumentException("NONE is not a bounded policy");
+        };
+    }
+
+    private static int[] generate(Workload workload, int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] cdf = zipfCdf(KEY_SPACE, 0.99);
+        int[] trace = new int[length];
+
+        int scanKey = KEY_SPACE;
+        int i = 0;
+        while (i < length) {
+            if (workload == Workload.SCAN_MIXED && random.nextInt(1_000) == 0) {
+                int scanLength = Math.min(CACHE_SIZE * 2, length - i);
+                for (int s = 0; s < scanLength; s++) {
+                    trace[i++] = scanKey++;
+                }
+                continue;
+            }
+
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            trace[i++] = index >= 0 ? index : Math.min(-index - 1, KEY_SPACE - 1);
+        }
+        return trace;
+    }
+
+    private static double[] zipfCdf(int items, double exponent) {
+        double[] cdf = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < items; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.flameyossnowy.universal.jmh;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Category: CACHE
+ *
+ * Write-heavy invalidation cost of {@link DefaultResultCache}. The cache is filled with
+ * {@value #QUERIES} cached queries of {@value #ROWS_PER_QUERY} rows each, drawn from a table
+ * of {@value #TABLE_ROWS} ids, and every benchmark iteration performs one write followed by
+ * one re-read of a random query (which re-populates it on a miss).
+ *
+ * Writes:
+ *   updateById   – an entity update, invalidating exactly the queries that contain the id
+ *   insert       – an insert checked against the insert filters of the cached queries
+ *   bulkUpdate   – an update by query, which only bumps the table generation
+ *   clearAll     – the previous behaviour for bulk writes, for comparison
+ *
+ * The {@code hits} / {@code misses} counters show how much of the cache each strategy keeps.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultCacheInvalidationBenchmark {
+    private static final int QUERIES = 4_096;
+    private static final int ROWS_PER_QUERY = 32;
+    private static final int TABLE_ROWS = 100_000;
+    private static final Function<Integer, Integer> ID = Function.identity();
+
+    @Param({"NONE", "WINDOW_TINY_LFU"})
+    public CacheAlgorithmType policy;
+
+    @Param({"true", "false"})
+    public boolean insertFilters;
+
+    private DefaultResultCache<Integer, Integer, Integer> cache;
+    private List<List<Integer>> results;
+    private SplittableRandom random;
+    private int nextId;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cache = new DefaultResultCache<>(QUERIES, 0, policy, ExpirationPolicy.AFTER_WRITE, new TimerWheel(0));
+        random = new SplittableRandom(42L);
+        results = new ArrayList<>(QUERIES);
+        nextId = TABLE_ROWS;
+
+        for (int query = 0; query < QUERIES; query++) {
+            List<Integer> rows = new ArrayList<>(ROWS_PER_QUERY);
+            for (int i = 0; i < ROWS_PER_QUERY; i++) {
+                rows.add(random.nextInt(TABLE_ROWS));
+            }
+            results.add(rows);
+            populate(query);
+        }
+    }
+
+    @Benchmark
+    public int updateById(HitCounters counters) {
+        cache.invalidate(random.nextInt(TABLE_ROWS));
+        return reread(counters);
+    }
+
+    @Benchmark
+    public int insert(HitCounters counters) {
+        cache.invalidateForInserts(List.of(nextId++));
+        return reread(counters);
+    }
+
+    @Benchmark
+    public int bulkUpdate(HitCounters counters) {
+        cache.invalidateTable();
+        return reread(counters);
+    }
+
+    @Benchmark
+    public int clearAll(HitCounters counters) {
+        cache.clear();
+        return reread(counters);
+    }
+
+    private int reread(HitCounters counters) {
+        int query = random.nextInt(QUERIES);
+        List<Integer> cached = cache.fetch(query);
+        if (cached != null) {
+            counters.hits++;
+            return cached.size();
+        }
+        counters.misses++;
+        populate(query);
+        return 0;
+    }
+
+    private void populate(int query) {
+        if (insertFilters) {
+            // a range predicate over the existing rows; new ids are always above it
+            cache.insert(query, results.get(query), ID, 0, id -> id < TABLE_ROWS && id % QUERIES == query);
+        } else {
+            cache.insert(query, results.get(query), ID);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package io.github.flameyossnowy.universal.api;
 
 import com.google.errorprone.annotations.CheckReturnValue;
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.operation.Operation;
@@ -37,6 +39,20 @@ public interface BaseRepositoryAdapter<T, ID, C> extends AutoCloseable {
     @NotNull
     <R> TransactionResult<R> execute(@NotNull Operation<T, ID, R, C> operation);
 
+    /**
+     * Returns the executor that runs this adapter's {@code *Async} methods.
+     * <p>
+     * Defaults to the {@link AsyncExecutors#shared() shared} executor. Adapters backed by a
+     * connection pool return a view bounded to the pool size, so async calls wait for a free
+     * connection rather than for a thread.
+     *
+     * @return the executor for asynchronous work
+     */
+    @NotNull
+    default AsyncExecutor getAsyncExecutor() {
+        return AsyncExecutors.shared();
+    }
+
     /**
      * Executes an operation asynchronously.
      *
@@ -47,7 +63,7 @@ public interface BaseRepositoryAdapter<T, ID, C> extends AutoCloseable {
     @CheckReturnValue
     @NotNull
     default <R> CompletableFuture<TransactionResult<R>> executeAsync(@NotNull Operation<T, ID, R, C> operation) {
-        return CompletableFuture.supplyAsync(() -> execute(operation));
+        return CompletableFuture.supplyAsync(() -> execute(operation), getAsyncExecutor());
     }
 
     /**
@@ -6,6 +6,7 @@ import io.github.flameyossnowy.universal.api.cache.SessionOption;
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
+import io.github.flameyossnowy.universal.api.meta.GeneratedRepositoryImplementations;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.operation.Operation;
 import io.github.flameyossnowy.universal.api.operation.OperationContext;
@@ -17,6 +18,8 @@ import io.github.flameyossnowy.universal.api.options.UpdateQuery;
 
 import io.github.flameyossnowy.universal.api.options.WindowQuery;
 import io.github.flameyossnowy.universal.api.proxy.ProxiedAdapterHandler;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregate;
 
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
@@ -343,7 +346,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
     @CheckReturnValue
     @NotNull
     default CompletableFuture<CloseableIterator<T>> findIteratorAsync(SelectQuery query) {
-        return CompletableFuture.supplyAsync(() -> this.findIterator(query));
+        return CompletableFuture.supplyAsync(() -> this.findIterator(query), getAsyncExecutor());
     }
 
     /**
@@ -368,7 +371,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
     @CheckReturnValue
     @NotNull
     default CompletableFuture<Stream<T>> findStreamAsync(SelectQuery query) {
-        return CompletableFuture.supplyAsync(() -> this.findStream(query));
+        return CompletableFuture.supplyAsync(() -> this.findStream(query), getAsyncExecutor());
     }
 
     /**
@@ -483,6 +486,126 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
     @CheckReturnValue
     TransactionResult<Boolean> deleteById(ID value);
 
+    /**
+     * Updates every entity of {@code entities} within the given transaction context.
+     * <p>
+     * Adapters that can batch write all entities through one batch and invalidate their caches
+     * and relationships once for the whole batch. The default updates them one by one and stops
+     * at the first failure.
+     *
+     * @param entities The entities to update.
+     * @param transactionContext The transaction context within which the operation is performed.
+     * @return {@code true} if any entity was updated, {@code false} otherwise.
+     */
+    @CheckReturnValue
+    default TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities, TransactionContext<C> transactionContext) {
+        boolean updated = false;
+        for (T entity : entities) {
+            TransactionResult<Boolean> result = updateAll(entity, transactionContext);
+            if (result.isError()) return result;
+            updated |= result.getResult().orElse(false);
+        }
+        return TransactionResult.success(updated);
+    }
+
+    /**
+     * Updates every entity of {@code entities}.
+     *
+     * @param entities The entities to update.
+     * @return {@code true} if any entity was updated, {@code false} otherwise.
+     * @see #updateAll(Collection, TransactionContext)
+     */
+    @CheckReturnValue
+    default TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities) {
+        boolean updated = false;
+        for (T entity : entities) {
+            TransactionResult<Boolean> result = updateAll(entity);
+            if (result.isError()) return result;
+            updated |= result.getResult().orElse(false);
+        }
+        return TransactionResult.success(updated);
+    }
+
+    /**
+     * Deletes every entity of {@code entities} within the given transaction context.
+     * <p>
+     * Adapters that can batch delete all entities through as few statements as possible and
+     * invalidate their caches and relationships once for the whole batch. The default deletes
+     * them one by one and stops at the first failure.
+     *
+     * @param entities The entities to delete.
+     * @param transactionContext The transaction context within which the operation is performed.
+     * @return {@code true} if any entity was deleted, {@code false} otherwise.
+     */
+    @CheckReturnValue
+    default TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities, TransactionContext<C> transactionContext) {
+        boolean deleted = false;
+        for (T entity : entities) {
+            TransactionResult<Boolean> result = delete(entity, transactionContext);
+            if (result.isError()) return result;
+            deleted |= result.getResult().orElse(false);
+        }
+        return TransactionResult.success(deleted);
+    }
+
+    /**
+     * Deletes every entity of {@code entities}.
+     *
+     * @param entities The entities to delete.
+     * @return {@code true} if any entity was deleted, {@code false} otherwise.
+     * @see #deleteAll(Collection, TransactionContext)
+     */
+    @CheckReturnValue
+    default TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities) {
+        boolean deleted = false;
+        for (T entity : entities) {
+            TransactionResult<Boolean> result = delete(entity);
+            if (result.isError()) return result;
+            deleted |= result.getResult().orElse(false);
+        }
+        return TransactionResult.success(deleted);
+    }
+
+    /**
+     * Deletes the items with the specified IDs within the given transaction context.
+     * <p>
+     * Adapters that can batch delete all of them through as few statements as possible, loading
+     * the deleted entities at most once when listeners or an audit logger need them. The default
+     * deletes them one by one and stops at the first failure.
+     *
+     * @param ids The IDs of the items to delete.
+     * @param transactionContext The transaction context within which the operation is performed.
+     * @return {@code true} if any item was deleted, {@code false} otherwise.
+     */
+    @CheckReturnValue
+    default TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids, TransactionContext<C> transactionContext) {
+        boolean deleted = false;
+        for (ID id : ids) {
+            TransactionResult<Boolean> result = deleteById(id, transactionContext);
+            if (result.isError()) return result;
+            deleted |= result.getResult().orElse(false);
+        }
+        return TransactionResult.success(deleted);
+    }
+
+    /**
+     * Deletes the items with the specified IDs.
+     *
+     * @param ids The IDs of the items to delete.
+     * @return {@code true} if any item was deleted, {@code false} otherwise.
+     * @see #deleteAllById(Collection, TransactionContext)
+     */
+    @CheckReturnValue
+    default TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids) {
+        boolean deleted = false;
+        for (ID id : ids) {
+            TransactionResult<Boolean> result = deleteById(id);
+            if (result.isError()) return result;
+            deleted |= result.getResult().orElse(false);
+        }
+        return TransactionResult.success(deleted);
+    }
+
     /**
      * Updates all items in the repository that match the given query within the provided transaction context.
      * <p>
@@ -635,6 +758,11 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      * <p>
      * The proxy will be created using the provided class loader and will
      * implement the specified interface.
+     * <p>
+     * If the compile-time checker generated an implementation of the interface,
+     * that implementation is returned instead of a proxy. Its queries are built
+     * ahead of time, and its {@link Stream} and {@link Iterator} methods read
+     * lazily from the underlying storage, so they should be closed.
      *
      * @param adapter The interface to be proxied.
      * @return A dynamic proxy object that implements the specified interface.
@@ -642,6 +770,10 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
     @SuppressWarnings("unchecked")
     @CheckReturnValue
     default <A> A createDynamicProxy(Class<A> adapter) {
+        ModelsBootstrap.init();
+        A generated = GeneratedRepositoryImplementations.create(adapter, this);
+        if (generated != null) return generated;
+
         return (A) Proxy.newProxyInstance(
                 adapter.getClassLoader(),
                 new Class[]{ adapter },
@@ -677,7 +809,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<List<T>> findAsync(SelectQuery query) {
-        return CompletableFuture.supplyAsync(() -> find(query));
+        return CompletableFuture.supplyAsync(() -> find(query), getAsyncExecutor());
     }
 
     /**
@@ -694,32 +826,32 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<List<T>> findAsync() {
-        return CompletableFuture.supplyAsync(this::find);
+        return CompletableFuture.supplyAsync(this::find, getAsyncExecutor());
     }
 
     @CheckReturnValue
     default CompletableFuture<T> firstAsync() {
-        return CompletableFuture.supplyAsync(this::first);
+        return CompletableFuture.supplyAsync(this::first, getAsyncExecutor());
     }
 
     @CheckReturnValue
     default CompletableFuture<T> firstAsync(SelectQuery query) {
-        return CompletableFuture.supplyAsync(() -> first(query));
+        return CompletableFuture.supplyAsync(() -> first(query), getAsyncExecutor());
     }
 
     @CheckReturnValue
     default CompletableFuture<T> findByIdAsync(ID id) {
-        return CompletableFuture.supplyAsync(() -> findById(id));
+        return CompletableFuture.supplyAsync(() -> findById(id), getAsyncExecutor());
     }
 
     @CheckReturnValue
     default CompletableFuture<List<ID>> findIdsAsync(SelectQuery query) {
-        return CompletableFuture.supplyAsync(() -> this.findIds(query));
+        return CompletableFuture.supplyAsync(() -> this.findIds(query), getAsyncExecutor());
     }
 
     @CheckReturnValue
     default CompletableFuture<Map<ID, T>> findAllByIdAsync(Collection<ID> ids) {
-        return CompletableFuture.supplyAsync(() -> this.findAllById(ids));
+        return CompletableFuture.supplyAsync(() -> this.findAllById(ids), getAsyncExecutor());
     }
 
     /**
@@ -733,7 +865,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<TransactionResult<Boolean>> insertAsync(T value) {
-        return CompletableFuture.supplyAsync(() -> insert(value));
+        return CompletableFuture.supplyAsync(() -> insert(value), getAsyncExecutor());
     }
 
     /**
@@ -747,7 +879,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<TransactionResult<Boolean>> updateAllAsync(T entity) {
-        return CompletableFuture.supplyAsync(() -> updateAll(entity));
+        return CompletableFuture.supplyAsync(() -> updateAll(entity), getAsyncExecutor());
     }
 
     /**
@@ -763,7 +895,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<TransactionResult<Boolean>> deleteAsync(T entity) {
-        return CompletableFuture.supplyAsync(() -> delete(entity));
+        return CompletableFuture.supplyAsync(() -> delete(entity), getAsyncExecutor());
     }
 
     /**
@@ -780,7 +912,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
     @CheckReturnValue
     @Deprecated
     default CompletableFuture<TransactionResult<Boolean>> createRepositoryAsync() {
-        return CompletableFuture.supplyAsync(this::createRepository);
+        return CompletableFuture.supplyAsync(this::createRepository, getAsyncExecutor());
     }
 
     /**
@@ -796,7 +928,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<TransactionResult<Boolean>> clearAsync() {
-        return CompletableFuture.supplyAsync(this::clear);
+        return CompletableFuture.supplyAsync(this::clear, getAsyncExecutor());
     }
 
     /**
@@ -818,7 +950,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<TransactionResult<Boolean>> createIndexAsync(IndexOptions index) {
-        return CompletableFuture.supplyAsync(() -> createIndex(index));
+        return CompletableFuture.supplyAsync(() -> createIndex(index), getAsyncExecutor());
     }
 
     /**
@@ -840,7 +972,7 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     @CheckReturnValue
     default CompletableFuture<TransactionResult<Boolean>> createIndexesAsync(IndexOptions... indexes) {
-        return CompletableFuture.supplyAsync(() -> createIndexes(indexes));
+        return CompletableFuture.supplyAsync(() -> createIndexes(indexes), getAsyncExecutor());
     }
 
     /**
@@ -1010,6 +1142,63 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     List<Map<String, Object>> aggregate(@NotNull AggregationQuery query);
 
+    /**
+     * Execute an aggregation query into column vectors instead of one map per row.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * ColumnarResult result = repository.aggregateColumnar(query);
+     * int count = result.columnIndex("count");
+     * for (ColumnarResult.Row row : result) {
+     *     long value = row.getLong(count);
+     * }
+     * }</pre>
+     *
+     * <p>The default implementation stores the rows of {@link #aggregate(AggregationQuery)}.</p>
+     *
+     * @param query The aggregation query specification
+     * @return the result rows, column by column
+     */
+    default @NotNull ColumnarResult aggregateColumnar(@NotNull AggregationQuery query) {
+        return ColumnarResult.fromMaps(aggregate(query));
+    }
+
+    /**
+     * Keep the result of an aggregation query up to date in memory.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * MaterializedAggregate<Player, Long> leaderboard = repository.materialize(
+     *     Query.aggregate()
+     *         .select(
+     *             field("team"),
+     *             field("score").sum().as("total")
+     *         )
+     *         .groupBy("team")
+     *         .orderBy("total", SortOrder.DESCENDING)
+     *         .build()
+     * );
+     * ColumnarResult top = leaderboard.result();
+     * }</pre>
+     *
+     * <p>The result is built from the store on the first read. After that, every insert, update and
+     * delete made through this adapter is applied to the groups it affects, so reading the result
+     * does not query the store. Writes whose rows are not known, such as update and delete queries
+     * or writes inside a transaction, make the next read rebuild it. Writes made around this
+     * adapter are not seen until {@link MaterializedAggregate#refresh()}.</p>
+     *
+     * <p>The default implementation throws.</p>
+     *
+     * @param query The aggregation query specification
+     * @return the maintained result, to be closed once it is no longer needed
+     * @throws IllegalArgumentException if the query uses anything that cannot be maintained
+     */
+    default @NotNull MaterializedAggregate<T, ID> materialize(@NotNull AggregationQuery query) {
+        throw new UnsupportedOperationException(
+            "Materialized aggregates are not supported by adapter: " + getClass().getName()
+        );
+    }
+
     /**
      * Execute an aggregation query and map results to entities.
      *
@@ -1045,6 +1234,18 @@ public interface RepositoryAdapter<T, ID, C> extends BaseRepositoryAdapter<T, ID
      */
     List<Map<String, Object>> window(@NotNull WindowQuery query);
 
+    /**
+     * Execute a window function query into column vectors instead of one map per row.
+     *
+     * <p>The default implementation stores the rows of {@link #window(WindowQuery)}.</p>
+     *
+     * @param query The window function query
+     * @return the result rows, column by column
+     */
+    default @NotNull ColumnarResult windowColumnar(@NotNull WindowQuery query) {
+        return ColumnarResult.fromMaps(window(query));
+    }
+
     /**
      * Execute a window function query and map results.
      *
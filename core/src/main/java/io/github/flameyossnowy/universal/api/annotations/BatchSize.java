@@ -0,0 +1,23 @@
+package io.github.flameyossnowy.universal.api.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The bounds within which batch inserts of this repository are tuned.
+ * <p>
+ * The batch size starts from an estimate of the row size and moves towards the size whose
+ * batches take about {@link #targetMillis()} to execute, never leaving {@code [min, max]}.
+ * @author FlameyosFlow
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface BatchSize {
+    int min() default 16;
+
+    int max() default 4096;
+
+    long targetMillis() default 50;
+}
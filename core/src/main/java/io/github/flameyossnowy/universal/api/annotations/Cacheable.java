@@ -28,5 +28,17 @@ import java.lang.annotation.Target;
 public @interface Cacheable {
     int maxCacheSize() default 1024;
 
+    /**
+     * The eviction policy of the query result cache. When set explicitly, the SQL second-level
+     * and read-through entity caches use it too; otherwise they keep
+     * {@link CacheAlgorithmType#LEAST_FREQ_AND_RECENTLY_USED}.
+     */
     CacheAlgorithmType algorithm() default CacheAlgorithmType.LEAST_FREQUENTLY_USED;
+
+    /**
+     * Native memory, in bytes, for a serialized tier behind the second-level cache.
+     * Lets the L2 cache hold far more entities than {@link #maxCacheSize()} without growing the heap.
+     * Ignored for records and entities with relationships. {@code 0} disables the tier.
+     */
+    long offHeapCapacity() default 0;
 }
@@ -10,4 +10,11 @@ import java.lang.annotation.Target;
 public @interface JsonIndex {
     String path();     // $.profile.email
     boolean unique() default false;
+
+    /**
+     * The length of the MySQL generated column holding the path, which strict mode makes inserts of
+     * longer values fail on. InnoDB keys are at most 3072 bytes, 768 characters of utf8mb4.
+     * Ignored by the other databases, which index the path expression itself.
+     */
+    int length() default 255;
 }
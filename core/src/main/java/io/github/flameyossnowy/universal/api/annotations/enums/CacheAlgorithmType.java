@@ -6,11 +6,14 @@ package io.github.flameyossnowy.universal.api.annotations.enums;
  * LEAST_FREQUENTLY_USED: least frequently used
  * LEAST_RECENTLY_USED: least recently used
  * LEAST_FREQ_AND_RECENTLY_USED: least frequently used and recently used
+ * WINDOW_TINY_LFU: small LRU window in front of a segmented LRU, with admission decided by a frequency sketch;
+ *                  resistant to scans flushing out the hot working set
  * NONE: no cache
  */
 public enum CacheAlgorithmType {
     LEAST_FREQUENTLY_USED,
     LEAST_RECENTLY_USED,
     LEAST_FREQ_AND_RECENTLY_USED,
+    WINDOW_TINY_LFU,
     NONE
 }
@@ -4,11 +4,24 @@ import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmTyp
 
 /**
  * Configuration for @Cacheable annotation
+ *
+ * @param offHeapCapacityBytes native memory budget of the serialized L2 tier, {@code 0} to disable it
+ * @param explicitAlgorithm whether {@code @Cacheable} set its {@code algorithm}, rather than relying on the default
  */
 public record CacheConfig(
     int maxSize,
-    CacheAlgorithmType cacheAlgorithmType
+    CacheAlgorithmType cacheAlgorithmType,
+    long offHeapCapacityBytes,
+    boolean explicitAlgorithm
 ) {
+    public CacheConfig(int maxSize, CacheAlgorithmType cacheAlgorithmType, long offHeapCapacityBytes) {
+        this(maxSize, cacheAlgorithmType, offHeapCapacityBytes, true);
+    }
+
+    public CacheConfig(int maxSize, CacheAlgorithmType cacheAlgorithmType) {
+        this(maxSize, cacheAlgorithmType, 0);
+    }
+
     public static CacheConfig none() {
         return new CacheConfig(-1, CacheAlgorithmType.NONE);
     }
@@ -16,4 +29,8 @@ public record CacheConfig(
     public boolean isEnabled() {
         return maxSize > -1;
     }
-}
\ No newline at end of file
+
+    public boolean isOffHeapEnabled() {
+        return isEnabled() && offHeapCapacityBytes > 0;
+    }
+}
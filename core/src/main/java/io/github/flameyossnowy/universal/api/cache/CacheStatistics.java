@@ -1,5 +1,6 @@
 package io.github.flameyossnowy.universal.api.cache;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
@@ -11,7 +12,7 @@ public class CacheStatistics {
     private final LongAdder misses = new LongAdder();
     private final LongAdder evictions = new LongAdder();
     private final LongAdder puts = new LongAdder();
-    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
     private final LongAdder totalOps = new LongAdder();
 
     // Rolling window (60 seconds)
@@ -27,8 +28,15 @@ public class CacheStatistics {
     }
 
     public void recordMiss(long loadTimeMs) {
+        recordMissNanos(TimeUnit.MILLISECONDS.toNanos(loadTimeMs));
+    }
+
+    /**
+     * Records a miss that took {@code loadTimeNanos} to load, as measured by {@link System#nanoTime()}.
+     */
+    public void recordMissNanos(long loadTimeNanos) {
         misses.increment();
-        totalLoadTime.add(loadTimeMs);
+        totalLoadTimeNanos.add(loadTimeNanos);
         recordOp();
     }
 
@@ -115,9 +123,12 @@ public class CacheStatistics {
         return total == 0 ? 0.0 : (double) h / total;
     }
 
+    /**
+     * Returns the average load time of a miss in milliseconds.
+     */
     public double getAverageLoadTime() {
         long m = misses.sum();
-        return m == 0 ? 0.0 : (double) totalLoadTime.sum() / m;
+        return m == 0 ? 0.0 : (double) totalLoadTimeNanos.sum() / m / 1_000_000.0;
     }
 
     /**
@@ -151,7 +162,7 @@ public class CacheStatistics {
         misses.reset();
         evictions.reset();
         puts.reset();
-        totalLoadTime.reset();
+        totalLoadTimeNanos.reset();
         totalOps.reset();
 
         for (int i = 0; i < WINDOW_SIZE; i++) {
@@ -1,6 +1,8 @@
 package io.github.flameyossnowy.universal.api.cache;
 
 import com.google.errorprone.annotations.CheckReturnValue;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 
 import java.util.Collection;
@@ -25,6 +27,15 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      */
     long getId();
 
+    /**
+     * Returns the executor that runs this session's {@code *Async} methods.
+     *
+     * @return the executor for asynchronous work
+     */
+    default AsyncExecutor getAsyncExecutor() {
+        return AsyncExecutors.shared();
+    }
+
     /**
      * Enables or disables automatic flushing of pending operations when an
      * internal batch size threshold is reached.
@@ -78,7 +89,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * @return a future that resolves to the commit result
      */
     default CompletableFuture<TransactionResult<Boolean>> commitAsync() {
-        return CompletableFuture.supplyAsync(this::commit);
+        return CompletableFuture.supplyAsync(this::commit, getAsyncExecutor());
     }
 
     /**
@@ -104,7 +115,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #findById(Object)}.
      */
     default CompletableFuture<T> findByIdAsync(ID key) {
-        return CompletableFuture.supplyAsync(() -> findById(key));
+        return CompletableFuture.supplyAsync(() -> findById(key), getAsyncExecutor());
     }
 
     /**
@@ -130,7 +141,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #findAllById(Collection)}.
      */
     default CompletableFuture<Map<ID, T>> findAllByIdAsync(Collection<ID> ids) {
-        return CompletableFuture.supplyAsync(() -> findAllById(ids));
+        return CompletableFuture.supplyAsync(() -> findAllById(ids), getAsyncExecutor());
     }
 
     /**
@@ -145,7 +156,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #insert(Object)}.
      */
     default CompletableFuture<Boolean> insertAsync(T entity) {
-        return CompletableFuture.supplyAsync(() -> insert(entity));
+        return CompletableFuture.supplyAsync(() -> insert(entity), getAsyncExecutor());
     }
 
     /**
@@ -160,7 +171,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #update(Object)}.
      */
     default CompletableFuture<Boolean> updateAsync(T entity) {
-        return CompletableFuture.supplyAsync(() -> update(entity));
+        return CompletableFuture.supplyAsync(() -> update(entity), getAsyncExecutor());
     }
 
     /**
@@ -175,7 +186,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #delete(Object)}.
      */
     default CompletableFuture<Boolean> deleteAsync(T entity) {
-        return CompletableFuture.supplyAsync(() -> delete(entity));
+        return CompletableFuture.supplyAsync(() -> delete(entity), getAsyncExecutor());
     }
 
     /**
@@ -199,7 +210,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #insertAll(Iterable)}.
      */
     default CompletableFuture<Boolean> insertAllAsync(Iterable<T> entities) {
-        return CompletableFuture.supplyAsync(() -> insertAll(entities));
+        return CompletableFuture.supplyAsync(() -> insertAll(entities), getAsyncExecutor());
     }
 
     /**
@@ -221,7 +232,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #updateAll(Iterable)}.
      */
     default CompletableFuture<Boolean> updateAllAsync(Iterable<T> entities) {
-        return CompletableFuture.supplyAsync(() -> updateAll(entities));
+        return CompletableFuture.supplyAsync(() -> updateAll(entities), getAsyncExecutor());
     }
 
     /**
@@ -243,7 +254,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #deleteAll(Iterable)}.
      */
     default CompletableFuture<Boolean> deleteAllAsync(Iterable<T> entities) {
-        return CompletableFuture.supplyAsync(() -> deleteAll(entities));
+        return CompletableFuture.supplyAsync(() -> deleteAll(entities), getAsyncExecutor());
     }
 
     /**
@@ -269,7 +280,7 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
      * Async variant of {@link #deleteAllById(Iterable)}.
      */
     default CompletableFuture<Boolean> deleteAllByIdAsync(Iterable<ID> ids) {
-        return CompletableFuture.supplyAsync(() -> deleteAllById(ids));
+        return CompletableFuture.supplyAsync(() -> deleteAllById(ids), getAsyncExecutor());
     }
 
     @CheckReturnValue
@@ -299,6 +310,6 @@ public interface DatabaseSession<ID, T, C> extends TransactionContext<C>, AutoCl
     default <R> CompletableFuture<TransactionResult<R>> runAsync(
         Function<DatabaseSession<ID, T, C>, R> block
     ) {
-        return CompletableFuture.supplyAsync(() -> run(block));
+        return CompletableFuture.supplyAsync(() -> run(block), getAsyncExecutor());
     }
 }
\ No newline at end of file
@@ -1,17 +1,44 @@
 package io.github.flameyossnowy.universal.api.cache;
 
 import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.algorithms.ConcurrentWTinyLFUCache;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpiringEntry;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFRUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLRUCache;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Smart query result cache with selective invalidation.
  * Tracks which queries contain which entity IDs for efficient cache invalidation.
+ * Expired results are dropped proactively by a {@link TimerWheel}.
+ * <p>
+ * The reverse index is exact: every cached query is linked to the IDs of its results and
+ * those links are removed together with the result, whether it is replaced, invalidated,
+ * expired or evicted by size. Changes that cannot be attributed to specific IDs are
+ * handled by two generation counters instead of clearing the map:
+ * <ul>
+ *   <li>{@link #invalidateTable()} bumps the table generation, which makes every result
+ *   cached before it stale, for bulk updates and deletes.</li>
+ *   <li>{@link #invalidateForInserts(Collection)} bumps the insert generation. Results cached
+ *   with an insert filter are only dropped if one of the new entities matches it, the rest
+ *   become stale because a new row could belong to them.</li>
+ * </ul>
+ * Stale results are removed lazily the next time they are fetched, so both operations are O(1)
+ * apart from the filters that have to be checked.
+ * <p>
+ * Results are cached with the {@link #generation()} read before their query ran, so a write
+ * that completes while the query runs leaves them stale instead of going unnoticed.
  * 
  * @param <Q> the query type
  * @param <T> the entity type
@@ -19,18 +46,39 @@ import java.util.function.Function;
  */
 public class DefaultResultCache<Q, T, ID> {
     private static final long DEFAULT_TTL_MILLIS = 120_000; // 2 minutes
+    private static final int MIN_PRUNE_SLACK = 16;
 
-    private final Map<Q, CacheEntry<T>> cache;
-    private final Map<ID, Set<Q>> idToQueries = new ConcurrentLRUCache<>(16);
+    private final Map<Q, ExpiringEntry<CachedResult<T, ID>>> cache;
+    private final Map<Q, ExpiringEntry<CachedResult<T, ID>>> queryToIds = new ConcurrentHashMap<>();
+    private final Map<ID, Set<Q>> idToQueries = new ConcurrentHashMap<>();
+    private final Set<Q> filteredQueries = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tableGeneration = new AtomicLong();
+    private final AtomicLong insertGeneration = new AtomicLong();
+    private final AtomicBoolean pruning = new AtomicBoolean();
     private final CacheStatistics statistics = new CacheStatistics();
     private final long ttlMillis;
+    private final int pruneSlack;
+    private final ExpirationPolicy expirationPolicy;
+    private final TimerWheel timerWheel;
     
     public DefaultResultCache(int maxSize, long ttlMillis, CacheAlgorithmType type) {
+        this(maxSize, ttlMillis, type, ExpirationPolicy.AFTER_WRITE);
+    }
+
+    public DefaultResultCache(int maxSize, long ttlMillis, CacheAlgorithmType type, ExpirationPolicy expirationPolicy) {
+        this(maxSize, ttlMillis, type, expirationPolicy, TimerWheel.shared());
+    }
+
+    public DefaultResultCache(int maxSize, long ttlMillis, CacheAlgorithmType type, ExpirationPolicy expirationPolicy, TimerWheel timerWheel) {
         this.ttlMillis = ttlMillis;
+        this.expirationPolicy = expirationPolicy;
+        this.timerWheel = timerWheel;
+        this.pruneSlack = Math.max(MIN_PRUNE_SLACK, maxSize / 4);
         this.cache = switch (type) {
             case LEAST_RECENTLY_USED -> new ConcurrentLRUCache<>(maxSize);
             case LEAST_FREQUENTLY_USED -> new ConcurrentLFUCache<>(maxSize);
             case LEAST_FREQ_AND_RECENTLY_USED -> new ConcurrentLFRUCache<>(maxSize);
+            case WINDOW_TINY_LFU -> new ConcurrentWTinyLFUCache<>(maxSize);
             case NONE -> new ConcurrentHashMap<>(maxSize);
         };
     }
@@ -43,26 +91,29 @@ public class DefaultResultCache<Q, T, ID> {
      * Fetches cached query results.
      *
      * @param query the query to fetch results for
-     * @return the cached results, or null if not found or expired
+     * @return the cached results, or null if not found, expired or stale
      */
     public List<T> fetch(Q query) {
-        long start = System.currentTimeMillis();
-        CacheEntry<T> entry = cache.get(query);
-        long duration = System.currentTimeMillis() - start;
+        long start = System.nanoTime();
+        ExpiringEntry<CachedResult<T, ID>> entry = cache.get(query);
         if (entry == null) {
-            statistics.recordMiss(duration);
+            statistics.recordMissNanos(System.nanoTime() - start);
             return null;
         }
 
-        if (entry.isExpired()) {
-            cache.remove(query);
-            statistics.recordMiss(duration);
-            statistics.recordEviction();
+        long now = timerWheel.now();
+        if (entry.isExpired(now) || isStale(entry.value())) {
+            remove(query, entry);
+            statistics.recordMissNanos(System.nanoTime() - start);
             return null;
         }
 
+        if (expirationPolicy == ExpirationPolicy.AFTER_ACCESS) {
+            entry.touch(now);
+        }
+
         statistics.recordHit();
-        return entry.results;
+        return entry.value().results();
     }
     
     /**
@@ -73,25 +124,121 @@ public class DefaultResultCache<Q, T, ID> {
      * @param idExtractor function to extract ID from entity
      */
     public void insert(Q query, List<T> results, Function<T, ID> idExtractor) {
+        insert(query, results, idExtractor, ttlMillis, null, generation());
+    }
+
+    /**
+     * Inserts query results into the cache with their own TTL, overriding the cache-wide default.
+     *
+     * @param query the query
+     * @param results the query results
+     * @param idExtractor function to extract ID from entity
+     * @param ttlMillis the time-to-live of this entry, or {@code <= 0} to never expire
+     */
+    public void insert(Q query, List<T> results, Function<T, ID> idExtractor, long ttlMillis) {
+        insert(query, results, idExtractor, ttlMillis, null, generation());
+    }
+
+    /**
+     * Inserts query results with the cache-wide TTL and an insert filter.
+     *
+     * @see #insert(Object, List, Function, long, Predicate)
+     */
+    public void insert(Q query, List<T> results, Function<T, ID> idExtractor, @Nullable Predicate<? super T> insertFilter) {
+        insert(query, results, idExtractor, ttlMillis, insertFilter, generation());
+    }
+
+    /**
+     * Inserts query results with the cache-wide TTL, an insert filter and the generation read
+     * before their query ran.
+     *
+     * @see #insert(Object, List, Function, long, Predicate, Generation)
+     */
+    public void insert(
+        Q query,
+        List<T> results,
+        Function<T, ID> idExtractor,
+        @Nullable Predicate<? super T> insertFilter,
+        Generation generation
+    ) {
+        insert(query, results, idExtractor, ttlMillis, insertFilter, generation);
+    }
+
+    /**
+     * Inserts query results together with a filter that tells whether a newly inserted entity
+     * could be part of them.
+     *
+     * @param query the query
+     * @param results the query results
+     * @param idExtractor function to extract ID from entity
+     * @param ttlMillis the time-to-live of this entry, or {@code <= 0} to never expire
+     * @param insertFilter returns {@code true} for entities that may belong to the results, or
+     *                     {@code null} if unknown, in which case every insert invalidates them
+     */
+    public void insert(
+        Q query,
+        List<T> results,
+        Function<T, ID> idExtractor,
+        long ttlMillis,
+        @Nullable Predicate<? super T> insertFilter
+    ) {
+        insert(query, results, idExtractor, ttlMillis, insertFilter, generation());
+    }
+
+    /**
+     * Inserts query results that were read after {@code generation} was taken. Writes made since
+     * then may be missing from them, so they are cached stale: a later {@link #fetch} drops them.
+     *
+     * @param query the query
+     * @param results the query results
+     * @param idExtractor function to extract ID from entity
+     * @param ttlMillis the time-to-live of this entry, or {@code <= 0} to never expire
+     * @param insertFilter returns {@code true} for entities that may belong to the results, or
+     *                     {@code null} if unknown, in which case every insert invalidates them
+     * @param generation the {@link #generation()} read before the query ran
+     */
+    public void insert(
+        Q query,
+        List<T> results,
+        Function<T, ID> idExtractor,
+        long ttlMillis,
+        @Nullable Predicate<? super T> insertFilter,
+        Generation generation
+    ) {
         if (results == null || results.isEmpty()) {
             return;
         }
-        
-        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
-        cache.put(query, new CacheEntry<>(results, expiresAt));
-        statistics.recordPut();
-        
-        // Track which queries contain which IDs
+
+        Set<ID> ids = HashSet.newHashSet(results.size());
         for (T entity : results) {
             try {
                 ID id = idExtractor.apply(entity);
                 if (id != null) {
-                    idToQueries.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(query);
+                    ids.add(id);
                 }
             } catch (Exception e) {
                 // Ignore extraction errors
             }
         }
+
+        CachedResult<T, ID> result = new CachedResult<>(results, ids, generation.table(), generation.inserts(), insertFilter);
+        ExpiringEntry<CachedResult<T, ID>> entry = ExpiringEntry.create(timerWheel, result, ttlMillis, expired -> expire(query, expired));
+        ExpiringEntry<CachedResult<T, ID>> old = cache.put(query, entry);
+        if (old != null) {
+            old.cancel();
+        }
+        link(query, entry);
+        statistics.recordPut();
+
+        // Filtered results ignore the insert generation once linked, and inserts made before
+        // the link did not check them
+        if (insertFilter != null && insertGeneration.get() != generation.inserts()) {
+            remove(query, entry);
+        }
+
+        if (queryToIds.size() > cache.size() + pruneSlack) {
+            pruneEvicted();
+        }
     }
     
     /**
@@ -105,7 +252,8 @@ public class DefaultResultCache<Q, T, ID> {
         int count = 0;
         if (affectedQueries != null) {
             for (Q query : affectedQueries) {
-                if (cache.remove(query) != null) {
+                ExpiringEntry<CachedResult<T, ID>> entry = queryToIds.get(query);
+                if (entry != null && remove(query, entry)) {
                     count++;
                 }
             }
@@ -123,6 +271,47 @@ public class DefaultResultCache<Q, T, ID> {
             invalidate(id);
         }
     }
+
+    /**
+     * Invalidates the queries that newly inserted entities could appear in. Results cached with
+     * an insert filter are checked against the entities, all others become stale. Updated
+     * entities should be passed here as well, since their new state may match other queries.
+     *
+     * @param inserted the entities that were inserted or updated
+     */
+    public void invalidateForInserts(Collection<? extends T> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        insertGeneration.incrementAndGet();
+
+        int count = 0;
+        for (Q query : filteredQueries) {
+            ExpiringEntry<CachedResult<T, ID>> entry = queryToIds.get(query);
+            if (entry != null && entry.value().mayContainAny(inserted) && remove(query, entry)) {
+                count++;
+            }
+        }
+        statistics.recordEviction(count);
+    }
+
+    /**
+     * The current generations, to read before running a query whose results are then cached
+     * with {@link #insert(Object, List, Function, long, Predicate, Generation)}.
+     */
+    public Generation generation() {
+        return new Generation(tableGeneration.get(), insertGeneration.get());
+    }
+
+    /**
+     * Marks every cached result stale, for writes whose affected IDs are unknown such as bulk
+     * updates and deletes. Unlike {@link #clear()} this is O(1); stale results are dropped when
+     * they are next fetched or evicted.
+     */
+    public void invalidateTable() {
+        tableGeneration.incrementAndGet();
+    }
     
     /**
      * Clears a specific query from the cache.
@@ -130,7 +319,8 @@ public class DefaultResultCache<Q, T, ID> {
      * @param query the query to clear
      */
     public void clear(Q query) {
-        if (cache.remove(query) != null) {
+        ExpiringEntry<CachedResult<T, ID>> entry = cache.get(query);
+        if (entry != null && remove(query, entry)) {
             statistics.recordEviction();
         }
     }
@@ -140,8 +330,13 @@ public class DefaultResultCache<Q, T, ID> {
      */
     public void clear() {
         int size = cache.size();
+        for (ExpiringEntry<CachedResult<T, ID>> entry : cache.values()) {
+            entry.cancel();
+        }
         cache.clear();
+        queryToIds.clear();
         idToQueries.clear();
+        filteredQueries.clear();
         statistics.recordEviction(size - 1);
     }
     
@@ -151,6 +346,13 @@ public class DefaultResultCache<Q, T, ID> {
     public int size() {
         return cache.size();
     }
+
+    /**
+     * Gets the number of entity IDs currently linked to at least one cached query.
+     */
+    public int trackedIds() {
+        return idToQueries.size();
+    }
     
     /**
      * Gets cache statistics.
@@ -165,13 +367,119 @@ public class DefaultResultCache<Q, T, ID> {
     public CacheMetrics getMetrics() {
         return new CacheMetrics(statistics.getHits(), statistics.getMisses(), statistics.getEvictions(), statistics.getPuts(), statistics.getHitRate(), statistics.getAverageLoadTime(), statistics.getOpsPerSecond() * 60);
     }
+
+    private boolean isStale(CachedResult<T, ID> result) {
+        return result.tableGeneration() != tableGeneration.get()
+            || (result.insertFilter() == null && result.insertGeneration() != insertGeneration.get());
+    }
+
+    private boolean remove(Q query, ExpiringEntry<CachedResult<T, ID>> entry) {
+        boolean removed = cache.remove(query, entry);
+        if (removed) {
+            entry.cancel();
+        }
+        unlink(query, entry);
+        return removed;
+    }
     
+    private void expire(Q query, ExpiringEntry<CachedResult<T, ID>> entry) {
+        if (cache.remove(query, entry)) {
+            statistics.recordEviction();
+        }
+        unlink(query, entry);
+    }
+
+    /*
+     * Links and unlinks run inside compute() on the query's bin, so two threads replacing the
+     * same query cannot interleave. The ID sets are only mutated inside compute() on their own
+     * bin as well, which keeps them consistent without further locking.
+     */
+
+    private void link(Q query, ExpiringEntry<CachedResult<T, ID>> entry) {
+        queryToIds.compute(query, (key, previous) -> {
+            Set<ID> ids = entry.value().ids();
+            if (previous != null) {
+                detach(key, previous.value().ids(), ids);
+            }
+            for (ID id : ids) {
+                idToQueries.compute(id, (ignored, queries) -> {
+                    Set<Q> linked = queries == null ? new HashSet<>(4) : queries;
+                    linked.add(key);
+                    return linked;
+                });
+            }
+
+            if (entry.value().insertFilter() != null) {
+                filteredQueries.add(key);
+            } else {
+                filteredQueries.remove(key);
+            }
+            return entry;
+        });
+    }
+
+    private void unlink(Q query, ExpiringEntry<CachedResult<T, ID>> entry) {
+        queryToIds.computeIfPresent(query, (key, current) -> {
+            if (current != entry) {
+                return current;
+            }
+            detach(key, current.value().ids(), Set.of());
+            filteredQueries.remove(key);
+            return null;
+        });
+    }
+
+    private void detach(Q query, Set<ID> ids, Set<ID> keep) {
+        for (ID id : ids) {
+            if (keep.contains(id)) {
+                continue;
+            }
+            idToQueries.computeIfPresent(id, (ignored, queries) -> {
+                queries.remove(query);
+                return queries.isEmpty() ? null : queries;
+            });
+        }
+    }
+
+    /**
+     * Drops the links of results that the eviction policy removed behind our back. Runs once
+     * the index has outgrown the cache by a fraction of its capacity, so the cost is amortized
+     * over that many inserts.
+     */
+    private void pruneEvicted() {
+        if (!pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Map.Entry<Q, ExpiringEntry<CachedResult<T, ID>>> linked : queryToIds.entrySet()) {
+                if (!cache.containsKey(linked.getKey())) {
+                    unlink(linked.getKey(), linked.getValue());
+                }
+            }
+        } finally {
+            pruning.set(false);
+        }
+    }
+
     /**
-     * Cache entry with expiration time.
+     * The table and insert generations at some point in time, see {@link #generation()}.
      */
-    private record CacheEntry<T>(List<T> results, long expiresAt) {
-        boolean isExpired() {
-            return System.currentTimeMillis() > expiresAt;
+    public record Generation(long table, long inserts) {}
+
+    private record CachedResult<T, ID>(
+        List<T> results,
+        Set<ID> ids,
+        long tableGeneration,
+        long insertGeneration,
+        @Nullable Predicate<? super T> insertFilter
+    ) {
+        boolean mayContainAny(Collection<? extends T> inserted) {
+            for (T entity : inserted) {
+                if (insertFilter.test(entity)) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 }
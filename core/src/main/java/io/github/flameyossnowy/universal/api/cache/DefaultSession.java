@@ -1,6 +1,7 @@
 package io.github.flameyossnowy.universal.api.cache;
 
 import io.github.flameyossnowy.universal.api.RepositoryAdapter;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.cache.graph.DefaultGraphCoordinator;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
@@ -54,6 +55,9 @@ public class DefaultSession<ID, T, C> implements DatabaseSession<ID, T, C> {
     @Override
     public long getId() { return id; }
 
+    @Override
+    public AsyncExecutor getAsyncExecutor() { return repository.getAsyncExecutor(); }
+
     @Override
     public void close() {
         transactionContext.close();
@@ -110,7 +114,7 @@ public class DefaultSession<ID, T, C> implements DatabaseSession<ID, T, C> {
      */
     @Override
     public CompletableFuture<Map<ID, T>> findAllByIdAsync(Collection<ID> ids) {
-        return CompletableFuture.supplyAsync(() -> findAllById(ids));
+        return CompletableFuture.supplyAsync(() -> findAllById(ids), getAsyncExecutor());
     }
 
     @Override
@@ -217,7 +221,7 @@ public class DefaultSession<ID, T, C> implements DatabaseSession<ID, T, C> {
      * Async variant of {@link #insertAll(Iterable)}.
      */
     public CompletableFuture<Boolean> insertAllAsync(Iterable<T> entities) {
-        return CompletableFuture.supplyAsync(() -> insertAll(entities));
+        return CompletableFuture.supplyAsync(() -> insertAll(entities), getAsyncExecutor());
     }
 
     /**
@@ -237,7 +241,7 @@ public class DefaultSession<ID, T, C> implements DatabaseSession<ID, T, C> {
      * Async variant of {@link #updateAll(Iterable)}.
      */
     public CompletableFuture<Boolean> updateAllAsync(Iterable<T> entities) {
-        return CompletableFuture.supplyAsync(() -> updateAll(entities));
+        return CompletableFuture.supplyAsync(() -> updateAll(entities), getAsyncExecutor());
     }
 
     /**
@@ -257,7 +261,7 @@ public class DefaultSession<ID, T, C> implements DatabaseSession<ID, T, C> {
      * Async variant of {@link #deleteAll(Iterable)}.
      */
     public CompletableFuture<Boolean> deleteAllAsync(Iterable<T> entities) {
-        return CompletableFuture.supplyAsync(() -> deleteAll(entities));
+        return CompletableFuture.supplyAsync(() -> deleteAll(entities), getAsyncExecutor());
     }
 
     /**
@@ -280,7 +284,7 @@ public class DefaultSession<ID, T, C> implements DatabaseSession<ID, T, C> {
      * Async variant of {@link #deleteAllById(Iterable)}.
      */
     public CompletableFuture<Boolean> deleteAllByIdAsync(Iterable<ID> ids) {
-        return CompletableFuture.supplyAsync(() -> deleteAllById(ids));
+        return CompletableFuture.supplyAsync(() -> deleteAllById(ids), getAsyncExecutor());
     }
 
     @Override
@@ -1,11 +1,14 @@
 package io.github.flameyossnowy.universal.api.cache;
 
 import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.algorithms.ConcurrentWTinyLFUCache;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpiringEntry;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFRUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLRUCache;
 
-import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -13,26 +16,48 @@ import java.util.concurrent.ConcurrentHashMap;
  * Partitioned cache that reduces contention in multi-threaded environments.
  * Distributes entries across multiple partitions based on key hash.
  * Use this when you need to scale your cache beyond the number of available JVM threads.
+ * Entries can be given a TTL, after which the {@link TimerWheel} drops them from their partition.
  * 
  * @param <K> the key type
  * @param <V> the value type
  */
 @SuppressWarnings("unused")
 public class PartitionedCache<K, V> implements SessionCache<K, V> {
-    private final Map<K, V>[] partitions;
+    private final Map<K, ExpiringEntry<V>>[] partitions;
     private final int partitionCount;
+    private final long ttlMillis;
+    private final ExpirationPolicy expirationPolicy;
+    private final TimerWheel timerWheel;
     private final CacheStatistics statistics = new CacheStatistics();
     
-    @SuppressWarnings("unchecked")
     public PartitionedCache(int partitionCount, int sizePerPartition, CacheAlgorithmType type) {
+        this(partitionCount, sizePerPartition, 0, type, ExpirationPolicy.AFTER_WRITE, TimerWheel.shared());
+    }
+
+    /**
+     * @param ttlMillis the time-to-live of entries, or {@code <= 0} to never expire them
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionedCache(
+        int partitionCount,
+        int sizePerPartition,
+        long ttlMillis,
+        CacheAlgorithmType type,
+        ExpirationPolicy expirationPolicy,
+        TimerWheel timerWheel
+    ) {
         this.partitionCount = partitionCount;
         this.partitions = new Map[partitionCount];
+        this.ttlMillis = ttlMillis;
+        this.expirationPolicy = expirationPolicy;
+        this.timerWheel = timerWheel;
         
         for (int i = 0; i < partitionCount; i++) {
             partitions[i] = switch (type) {
                 case LEAST_RECENTLY_USED -> new ConcurrentLRUCache<>(sizePerPartition);
                 case LEAST_FREQUENTLY_USED -> new ConcurrentLFUCache<>(sizePerPartition);
                 case LEAST_FREQ_AND_RECENTLY_USED -> new ConcurrentLFRUCache<>(sizePerPartition);
+                case WINDOW_TINY_LFU -> new ConcurrentWTinyLFUCache<>(sizePerPartition);
                 case NONE -> new ConcurrentHashMap<>(sizePerPartition);
             };
         }
@@ -41,7 +66,7 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
     /**
      * Gets the partition for a given key.
      */
-    private Map<K, V> getPartition(K key) {
+    private Map<K, ExpiringEntry<V>> getPartition(K key) {
         int hash = key == null ? 0 : key.hashCode();
         // Use power-of-2 partitionCount for faster masking than modulo
         int index = hash & (partitionCount - 1);
@@ -52,8 +77,10 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
     @Override
     public Map<K, V> getInternalCache() {
         ConcurrentHashMap<K, V> result = new ConcurrentHashMap<>();
-        for (Map<K, V> map : this.partitions) {
-            result.putAll(map);
+        for (Map<K, ExpiringEntry<V>> partition : this.partitions) {
+            for (Map.Entry<K, ExpiringEntry<V>> entry : partition.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().value());
+            }
         }
         return result;
     }
@@ -62,16 +89,33 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
      * Gets a value from the cache.
      * 
      * @param key the key
-     * @return the value, or null if not found
+     * @return the value, or null if not found or expired
      */
     public V get(K key) {
-        V value = getPartition(key).get(key);
-        if (value != null) {
-            statistics.recordHit();
-        } else {
-            statistics.recordMiss(0);
+        long start = System.nanoTime();
+        Map<K, ExpiringEntry<V>> partition = getPartition(key);
+        ExpiringEntry<V> cached = partition.get(key);
+        if (cached == null) {
+            statistics.recordMissNanos(System.nanoTime() - start);
+            return null;
+        }
+
+        long now = timerWheel.now();
+        if (cached.isExpired(now)) {
+            if (partition.remove(key, cached)) {
+                cached.cancel();
+                statistics.recordEviction();
+            }
+            statistics.recordMissNanos(System.nanoTime() - start);
+            return null;
+        }
+
+        if (expirationPolicy == ExpirationPolicy.AFTER_ACCESS) {
+            cached.touch(now);
         }
-        return value;
+
+        statistics.recordHit();
+        return cached.value();
     }
     
     /**
@@ -83,7 +127,14 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
     public V put(K key, V value) {
         if (value != null) {
             statistics.recordPut();
-            return getPartition(key).put(key, value);
+            Map<K, ExpiringEntry<V>> partition = getPartition(key);
+            ExpiringEntry<V> entry = ExpiringEntry.create(timerWheel, value, ttlMillis, expired -> expire(partition, key, expired));
+            ExpiringEntry<V> old = partition.put(key, entry);
+            if (old == null) {
+                return null;
+            }
+            old.cancel();
+            return old.value();
         }
         return remove(key);
     }
@@ -95,11 +146,13 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
      * @return the removed value, or null if not found
      */
     public V remove(K key) {
-        V removed = getPartition(key).remove(key);
+        ExpiringEntry<V> removed = getPartition(key).remove(key);
         if (removed != null) {
+            removed.cancel();
             statistics.recordEviction();
+            return removed.value();
         }
-        return removed;
+        return null;
     }
     
     /**
@@ -107,8 +160,11 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
      */
     public void clear() {
         int totalSize = 0;
-        for (Map<K, V> partition : partitions) {
+        for (Map<K, ExpiringEntry<V>> partition : partitions) {
             totalSize += partition.size();
+            for (ExpiringEntry<V> entry : partition.values()) {
+                entry.cancel();
+            }
             partition.clear();
         }
         statistics.recordEviction(totalSize - 1);
@@ -119,7 +175,7 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
      */
     public int size() {
         int total = 0;
-        for (Map<K, V> partition : partitions) {
+        for (Map<K, ExpiringEntry<V>> partition : partitions) {
             total += partition.size();
         }
         return total;
@@ -138,4 +194,10 @@ public class PartitionedCache<K, V> implements SessionCache<K, V> {
     public CacheMetrics getMetrics() {
         return new CacheMetrics(statistics.getHits(), statistics.getMisses(), statistics.getEvictions(), statistics.getPuts(), statistics.getHitRate(), statistics.getAverageLoadTime(), statistics.getOpsPerSecond() * 60);
     }
+
+    private void expire(Map<K, ExpiringEntry<V>> partition, K key, ExpiringEntry<V> entry) {
+        if (partition.remove(key, entry)) {
+            statistics.recordEviction();
+        }
+    }
 }
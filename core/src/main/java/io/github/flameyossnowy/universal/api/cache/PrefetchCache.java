@@ -49,7 +49,7 @@ public class PrefetchCache<ID, T> implements SessionCache<ID, T> {
             return cached;
         }
         
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         
         if (shouldPrefetch()) {
             List<ID> toPrefetch = predictNextIds(id);
@@ -57,8 +57,8 @@ public class PrefetchCache<ID, T> implements SessionCache<ID, T> {
             cache.putAll(loaded);
             statistics.recordPuts(loaded.size() - 1);
             
-            long duration = System.currentTimeMillis() - start;
-            statistics.recordMiss(duration);
+            long duration = System.nanoTime() - start;
+            statistics.recordMissNanos(duration);
             return loaded.get(id);
         }
         
@@ -67,8 +67,8 @@ public class PrefetchCache<ID, T> implements SessionCache<ID, T> {
         cache.putAll(loaded);
         statistics.recordPut();
         
-        long duration = System.currentTimeMillis() - start;
-        statistics.recordMiss(duration);
+        long duration = System.nanoTime() - start;
+        statistics.recordMissNanos(duration);
         return loaded.get(id);
     }
     
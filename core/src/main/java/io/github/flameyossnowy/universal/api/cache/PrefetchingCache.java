@@ -43,7 +43,7 @@ public class PrefetchingCache<ID, T> {
             return cached;
         }
         
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         
         if (shouldPrefetch()) {
             List<ID> toPrefetch = predictNextIds(id);
@@ -51,8 +51,8 @@ public class PrefetchingCache<ID, T> {
             cache.putAll(loaded);
             statistics.recordPuts(loaded.size() - 1);
             
-            long duration = System.currentTimeMillis() - start;
-            statistics.recordMiss(duration);
+            long duration = System.nanoTime() - start;
+            statistics.recordMissNanos(duration);
             return loaded.get(id);
         }
         
@@ -61,8 +61,8 @@ public class PrefetchingCache<ID, T> {
         cache.putAll(loaded);
         statistics.recordPut();
         
-        long duration = System.currentTimeMillis() - start;
-        statistics.recordMiss(duration);
+        long duration = System.nanoTime() - start;
+        statistics.recordMissNanos(duration);
         return loaded.get(id);
     }
     
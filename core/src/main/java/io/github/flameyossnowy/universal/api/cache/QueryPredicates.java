@@ -0,0 +1,245 @@
+package io.github.flameyossnowy.universal.api.cache;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.options.FilterOption;
+import io.github.flameyossnowy.universal.api.options.SelectOption;
+import io.github.flameyossnowy.universal.api.options.SelectQuery;
+import io.github.flameyossnowy.universal.api.options.SubQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the filters of a {@link SelectQuery} into an in-memory predicate for
+ * {@link DefaultResultCache#insert(Object, List, java.util.function.Function, Predicate)}.
+ * <p>
+ * The evaluation mirrors the file adapter's filter engine, but answers "could this entity be
+ * part of the results" rather than "is it": the database may compare with a case-insensitive
+ * collation, fill in defaults or generate keys, so whenever the outcome is not certain the
+ * predicate says {@code true} and the cached result is dropped. Only a definite mismatch keeps
+ * it.
+ * <p>
+ * Sorting and limits are deliberately ignored. An entity that fails the filters can never enter
+ * a sorted or limited result either, and one that passes may displace any row of it, so a
+ * match always invalidates the whole entry and results are never patched in place.
+ */
+public final class QueryPredicates {
+    private QueryPredicates() {
+    }
+
+    /**
+     * Builds the insert filter for a query.
+     *
+     * @return the predicate, or {@code null} if every inserted entity may match, either because
+     *         the query has no filters or because none of them can be evaluated in memory
+     */
+    public static <T> @Nullable Predicate<T> mayMatch(@NotNull RepositoryModel<T, ?> repositoryModel, @Nullable SelectQuery query) {
+        if (query == null || query.filters() == null || query.filters().isEmpty()) {
+            return null;
+        }
+
+        List<Predicate<T>> conjuncts = new ArrayList<>(query.filters().size());
+        for (FilterOption filter : query.filters()) {
+            if (!(filter instanceof SelectOption option)) {
+                // JSON paths and aggregates are left to the database
+                continue;
+            }
+
+            switch (option.operator()) {
+                // connectives change how the remaining filters combine, give up on the whole query
+                case "AND", "OR", "NOT" -> {
+                    return null;
+                }
+                default -> {
+                    Predicate<T> conjunct = conjunct(repositoryModel, option);
+                    if (conjunct != null) {
+                        conjuncts.add(conjunct);
+                    }
+                }
+            }
+        }
+
+        return switch (conjuncts.size()) {
+            case 0 -> null;
+            case 1 -> conjuncts.getFirst();
+            default -> entity -> {
+                for (Predicate<T> conjunct : conjuncts) {
+                    if (!conjunct.test(entity)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        };
+    }
+
+    private static <T> @Nullable Predicate<T> conjunct(RepositoryModel<T, ?> repositoryModel, SelectOption option) {
+        FieldModel<T> field = repositoryModel.fieldByName(option.option());
+        if (field == null || field.relationship() || option.value() instanceof SubQuery) {
+            return null;
+        }
+
+        Object expected = option.value();
+        Predicate<Object> test = switch (option.operator()) {
+            case "=" -> expected instanceof Collection<?> values
+                ? value -> anyMayEqual(value, values)
+                : value -> equality(value, expected) != Boolean.FALSE;
+            case "!=" -> value -> equality(value, expected) != Boolean.TRUE;
+            case "IN" -> expected instanceof Collection<?> values ? value -> anyMayEqual(value, values) : null;
+            case "NOT IN" -> expected instanceof Collection<?> values ? value -> !anyEquals(value, values) : null;
+            case ">" -> value -> mayCompare(value, expected, 1, false);
+            case ">=" -> value -> mayCompare(value, expected, 1, true);
+            case "<" -> value -> mayCompare(value, expected, -1, false);
+            case "<=" -> value -> mayCompare(value, expected, -1, true);
+            case "BETWEEN" -> expected instanceof Object[] range && range.length == 2
+                ? value -> mayCompare(value, range[0], 1, true) && mayCompare(value, range[1], -1, true)
+                : null;
+            case "LIKE" -> expected instanceof String pattern ? like(pattern) : null;
+            case "IS NULL" -> value -> false;
+            default -> null;
+        };
+
+        if (test == null) {
+            return null;
+        }
+
+        return entity -> {
+            try {
+                Object value = field.getValue(entity);
+                // a missing value may still be filled in by a default or a generated key
+                return value == null || test.test(value);
+            } catch (Exception e) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Compares two values for equality the way a database might.
+     *
+     * @return {@code TRUE} or {@code FALSE} when certain, {@code null} when the database could
+     *         decide either way
+     */
+    private static @Nullable Boolean equality(Object value, Object expected) {
+        if (expected == null) {
+            return null;
+        }
+        if (value instanceof Number a && expected instanceof Number b) {
+            BigDecimal left = decimal(a);
+            BigDecimal right = decimal(b);
+            if (left == null || right == null) {
+                return null;
+            }
+            if (left.compareTo(right) == 0) {
+                return true;
+            }
+            // the column may store a rounded binary fraction of either value
+            return floating(a) || floating(b) ? null : Boolean.FALSE;
+        }
+        if (value instanceof String a && expected instanceof String b) {
+            if (a.equals(b)) {
+                return true;
+            }
+            return a.stripTrailing().equalsIgnoreCase(b.stripTrailing()) ? null : Boolean.FALSE;
+        }
+        if (value.getClass() == expected.getClass()) {
+            return value.equals(expected);
+        }
+        return null;
+    }
+
+    private static boolean anyMayEqual(Object value, Collection<?> candidates) {
+        for (Object candidate : candidates) {
+            if (equality(value, candidate) != Boolean.FALSE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyEquals(Object value, Collection<?> candidates) {
+        for (Object candidate : candidates) {
+            if (equality(value, candidate) == Boolean.TRUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code value} may lie on the {@code sign} side of {@code bound}. Strings are never
+     * ruled out, since their ordering depends on the collation.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static boolean mayCompare(Object value, Object bound, int sign, boolean inclusive) {
+        int comparison;
+        if (value instanceof Number a && bound instanceof Number b) {
+            BigDecimal left = decimal(a);
+            BigDecimal right = decimal(b);
+            if (left == null || right == null) {
+                return true;
+            }
+            comparison = left.compareTo(right);
+        } else if (bound != null && !(value instanceof String)
+            && value instanceof Comparable comparable && value.getClass() == bound.getClass()) {
+            comparison = comparable.compareTo(bound);
+        } else {
+            return true;
+        }
+
+        return comparison == 0 ? inclusive : Integer.signum(comparison) == sign;
+    }
+
+    private static boolean floating(Number number) {
+        return number instanceof Float || number instanceof Double;
+    }
+
+    private static @Nullable BigDecimal decimal(Number number) {
+        return switch (number) {
+            case BigDecimal decimal -> decimal;
+            case BigInteger integer -> new BigDecimal(integer);
+            case Byte b -> BigDecimal.valueOf(b);
+            case Short s -> BigDecimal.valueOf(s);
+            case Integer i -> BigDecimal.valueOf(i);
+            case Long l -> BigDecimal.valueOf(l);
+            case Float f when Float.isFinite(f) -> new BigDecimal(f);
+            case Double d when Double.isFinite(d) -> new BigDecimal(d);
+            default -> null;
+        };
+    }
+
+    /**
+     * Case-insensitive translation of a {@code LIKE} pattern, which matches a superset of what
+     * both case-sensitive and case-insensitive collations accept.
+     */
+    private static Predicate<Object> like(String pattern) {
+        StringBuilder regex = new StringBuilder(pattern.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%' || c == '_') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+
+        Pattern compiled = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+        return value -> !(value instanceof String text) || compiled.matcher(text).matches();
+    }
+}
@@ -1,6 +1,10 @@
 package io.github.flameyossnowy.universal.api.cache;
 
 import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.algorithms.ConcurrentWTinyLFUCache;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpiringEntry;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFRUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLRUCache;
@@ -13,12 +17,18 @@ import java.util.function.Function;
 /**
  * Read-through cache that automatically loads values on cache miss.
  * Provides transparent caching with built-in statistics.
+ * <p>
+ * Loaded entries can be given a TTL, after which the {@link TimerWheel} drops them
+ * the same way {@link SecondLevelCache} drops its entries.
  * 
  * @param <K> the key type
  * @param <V> the value type
  */
 public class ReadThroughCache<K, V> implements SessionCache<K, V> {
-    private final Map<K, V> cache;
+    private final Map<K, ExpiringEntry<V>> cache;
+    private final long ttlMillis;
+    private final ExpirationPolicy expirationPolicy;
+    private final TimerWheel timerWheel;
     private final Function<K, V> loader;
     private final Function<List<K>, Map<K, V>> batchLoader;
     private final CacheStatistics statistics = new CacheStatistics();
@@ -33,19 +43,42 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
         Function<K, V> loader,
         Function<List<K>, Map<K, V>> batchLoader
     ) {
+        this(maxSize, 0, type, ExpirationPolicy.AFTER_WRITE, TimerWheel.shared(), loader, batchLoader);
+    }
+
+    /**
+     * @param ttlMillis the time-to-live of loaded entries, or {@code <= 0} to never expire them
+     */
+    public ReadThroughCache(
+        int maxSize,
+        long ttlMillis,
+        CacheAlgorithmType type,
+        ExpirationPolicy expirationPolicy,
+        TimerWheel timerWheel,
+        Function<K, V> loader,
+        Function<List<K>, Map<K, V>> batchLoader
+    ) {
+        this.ttlMillis = ttlMillis;
+        this.expirationPolicy = expirationPolicy;
+        this.timerWheel = timerWheel;
         this.loader = loader;
         this.batchLoader = batchLoader;
         this.cache = switch (type) {
             case LEAST_RECENTLY_USED -> new ConcurrentLRUCache<>(maxSize);
             case LEAST_FREQUENTLY_USED -> new ConcurrentLFUCache<>(maxSize);
             case LEAST_FREQ_AND_RECENTLY_USED -> new ConcurrentLFRUCache<>(maxSize);
+            case WINDOW_TINY_LFU -> new ConcurrentWTinyLFUCache<>(maxSize);
             case NONE -> new ConcurrentHashMap<>(maxSize);
         };
     }
 
     @Override
     public Map<K, V> getInternalCache() {
-        return cache;
+        Map<K, V> map = new HashMap<>(cache.size());
+        for (Map.Entry<K, ExpiringEntry<V>> entry : this.cache.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().value());
+        }
+        return map;
     }
 
     /**
@@ -55,20 +88,18 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
      * @return the value
      */
     public V get(K key) {
-        V cached = cache.get(key);
+        V cached = lookup(key);
         if (cached != null) {
             statistics.recordHit();
             return cached;
         }
         
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         V loaded = loader.apply(key);
-        long duration = System.currentTimeMillis() - start;
-        
-        statistics.recordMiss(duration);
+        statistics.recordMissNanos(System.nanoTime() - start);
+
         if (loaded != null) {
-            cache.put(key, loaded);
-            statistics.recordPut();
+            store(key, loaded);
         }
         return loaded;
     }
@@ -85,7 +116,7 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
         
         // Check cache first
         for (K key : keys) {
-            V cached = cache.get(key);
+            V cached = lookup(key);
             if (cached != null) {
                 result.put(key, cached);
                 statistics.recordHit();
@@ -96,7 +127,7 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
         
         // Batch load missing
         if (!toLoad.isEmpty()) {
-            long start = System.currentTimeMillis();
+            long start = System.nanoTime();
             Map<K, V> loaded;
             
             if (batchLoader != null) {
@@ -112,12 +143,12 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
                 }
             }
             
-            long duration = System.currentTimeMillis() - start;
-            statistics.recordMiss(duration);
+            statistics.recordMissNanos(System.nanoTime() - start);
             
             result.putAll(loaded);
-            cache.putAll(loaded);
-            statistics.recordPuts(loaded.size() - 1);
+            for (Map.Entry<K, V> entry : loaded.entrySet()) {
+                store(entry.getKey(), entry.getValue());
+            }
         }
         
         return result;
@@ -132,18 +163,18 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
     @Override
     public @Nullable V put(K key, V value) {
         if (value != null) {
-            statistics.recordPut();
-            return cache.put(key, value);
+            return store(key, value);
         }
         return null;
     }
 
     @Override
     public @Nullable V remove(K k) {
-        V remove = cache.remove(k);
+        ExpiringEntry<V> remove = cache.remove(k);
         if (remove != null) {
+            remove.cancel();
             statistics.recordEviction();
-            return remove;
+            return remove.value();
         }
         return null;
     }
@@ -154,9 +185,7 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
      * @param key the key to invalidate
      */
     public void invalidate(K key) {
-        if (cache.remove(key) != null) {
-            statistics.recordEviction();
-        }
+        remove(key);
     }
     
     /**
@@ -164,6 +193,9 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
      */
     public void clear() {
         int size = cache.size();
+        for (ExpiringEntry<V> entry : cache.values()) {
+            entry.cancel();
+        }
         cache.clear();
         statistics.recordEviction(size - 1);
     }
@@ -188,4 +220,45 @@ public class ReadThroughCache<K, V> implements SessionCache<K, V> {
     public CacheMetrics getMetrics() {
         return new CacheMetrics(statistics.getHits(), statistics.getMisses(), statistics.getEvictions(), statistics.getPuts(), statistics.getHitRate(), statistics.getAverageLoadTime(), statistics.getOpsPerSecond() * 60);
     }
+
+    /**
+     * The cached value of {@code key}, or {@code null} if it is missing or expired.
+     */
+    private @Nullable V lookup(K key) {
+        ExpiringEntry<V> cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        long now = timerWheel.now();
+        if (cached.isExpired(now)) {
+            if (cache.remove(key, cached)) {
+                cached.cancel();
+                statistics.recordEviction();
+            }
+            return null;
+        }
+
+        if (expirationPolicy == ExpirationPolicy.AFTER_ACCESS) {
+            cached.touch(now);
+        }
+        return cached.value();
+    }
+
+    private @Nullable V store(K key, V value) {
+        statistics.recordPut();
+        ExpiringEntry<V> entry = ExpiringEntry.create(timerWheel, value, ttlMillis, expired -> expire(key, expired));
+        ExpiringEntry<V> old = cache.put(key, entry);
+        if (old == null) {
+            return null;
+        }
+        old.cancel();
+        return old.value();
+    }
+
+    private void expire(K key, ExpiringEntry<V> entry) {
+        if (cache.remove(key, entry)) {
+            statistics.recordEviction();
+        }
+    }
 }
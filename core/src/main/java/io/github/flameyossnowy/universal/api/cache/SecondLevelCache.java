@@ -1,9 +1,16 @@
 package io.github.flameyossnowy.universal.api.cache;
 
 import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.algorithms.ConcurrentWTinyLFUCache;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpiringEntry;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import io.github.flameyossnowy.universal.api.cache.offheap.OffHeapMetrics;
+import io.github.flameyossnowy.universal.api.cache.offheap.OffHeapTier;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFRUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLFUCache;
 import io.github.flameyossnowy.velocis.cache.algorithms.ConcurrentLRUCache;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -12,22 +19,59 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Second-level cache (L2) that stores entities with TTL support.
  * This cache survives write operations and provides entity-level caching.
+ * <p>
+ * Expired entities are dropped proactively by a {@link TimerWheel}, so they do not linger
+ * in memory until they are read again or evicted by size.
+ * <p>
+ * An optional {@link OffHeapTier} can sit behind the on-heap map. Every put is written through
+ * to it, misses fall back to it, and entries read repeatedly from it are promoted back on-heap,
+ * so the heap only has to hold the hot working set.
  * 
  * @param <ID> the type of the entity identifier
  * @param <T> the type of the entity
  */
 @SuppressWarnings("unused")
 public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
-    private final Map<ID, CachedEntity<T>> cache;
+    private final Map<ID, ExpiringEntry<T>> cache;
     private final long ttlMillis;
+    private final ExpirationPolicy expirationPolicy;
+    private final TimerWheel timerWheel;
+    private final @Nullable OffHeapTier<ID, T> offHeapTier;
     private final CacheStatistics statistics = new CacheStatistics();
     
     public SecondLevelCache(int maxSize, long ttlMillis, CacheAlgorithmType type) {
+        this(maxSize, ttlMillis, type, ExpirationPolicy.AFTER_WRITE);
+    }
+
+    public SecondLevelCache(int maxSize, long ttlMillis, CacheAlgorithmType type, ExpirationPolicy expirationPolicy) {
+        this(maxSize, ttlMillis, type, expirationPolicy, TimerWheel.shared());
+    }
+
+    public SecondLevelCache(int maxSize, long ttlMillis, CacheAlgorithmType type, ExpirationPolicy expirationPolicy, TimerWheel timerWheel) {
+        this(maxSize, ttlMillis, type, expirationPolicy, timerWheel, null);
+    }
+
+    /**
+     * @param offHeapTier the serialized tier to back the on-heap map with, or {@code null} for none;
+     *                    its lifecycle stays with the caller
+     */
+    public SecondLevelCache(
+        int maxSize,
+        long ttlMillis,
+        CacheAlgorithmType type,
+        ExpirationPolicy expirationPolicy,
+        TimerWheel timerWheel,
+        @Nullable OffHeapTier<ID, T> offHeapTier
+    ) {
         this.ttlMillis = ttlMillis;
+        this.expirationPolicy = expirationPolicy;
+        this.timerWheel = timerWheel;
+        this.offHeapTier = offHeapTier;
         this.cache = switch (type) {
             case LEAST_RECENTLY_USED -> new ConcurrentLRUCache<>(maxSize);
             case LEAST_FREQUENTLY_USED -> new ConcurrentLFUCache<>(maxSize);
             case LEAST_FREQ_AND_RECENTLY_USED -> new ConcurrentLFRUCache<>(maxSize);
+            case WINDOW_TINY_LFU -> new ConcurrentWTinyLFUCache<>(maxSize);
             case NONE -> new ConcurrentHashMap<>(maxSize);
         };
     }
@@ -35,8 +79,8 @@ public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
     @Override
     public Map<ID, T> getInternalCache() {
         Map<ID, T> map = new HashMap<>();
-        for (Map.Entry<ID, CachedEntity<T>> entry : this.cache.entrySet()) {
-            Map.Entry<ID, T> mapEntry = Map.entry(entry.getKey(), entry.getValue().entity);
+        for (Map.Entry<ID, ExpiringEntry<T>> entry : this.cache.entrySet()) {
+            Map.Entry<ID, T> mapEntry = Map.entry(entry.getKey(), entry.getValue().value());
             if (map.put(mapEntry.getKey(), mapEntry.getValue()) != null) {
                 throw new IllegalStateException("Duplicate key");
             }
@@ -51,23 +95,27 @@ public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
      * @return the cached entity, or null if not found or expired
      */
     public T get(ID id) {
-        long start = System.currentTimeMillis();
-        CachedEntity<T> cached = cache.get(id);
-        long duration = System.currentTimeMillis() - start;
+        long start = System.nanoTime();
+        ExpiringEntry<T> cached = cache.get(id);
+        long now = timerWheel.now();
         if (cached == null) {
-            statistics.recordMiss(duration);
-            return null;
+            return getOffHeap(id, now, start);
         }
         
-        if (cached.isExpired()) {
-            cache.remove(id);
-            statistics.recordMiss(duration);
-            statistics.recordEviction();
-            return null;
+        if (cached.isExpired(now)) {
+            if (cache.remove(id, cached)) {
+                cached.cancel();
+                statistics.recordEviction();
+            }
+            return getOffHeap(id, now, start);
+        }
+
+        if (expirationPolicy == ExpirationPolicy.AFTER_ACCESS) {
+            cached.touch(now);
         }
         
         statistics.recordHit();
-        return cached.entity;
+        return cached.value();
     }
     
     /**
@@ -79,25 +127,45 @@ public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
      */
     @Override
     public T put(ID id, T entity) {
+        return put(id, entity, ttlMillis);
+    }
+
+    /**
+     * Puts an entity into the cache with its own TTL, overriding the cache-wide default.
+     *
+     * @param id        the entity identifier
+     * @param entity    the entity to cache
+     * @param ttlMillis the time-to-live of this entry, or {@code <= 0} to never expire
+     * @return the previous cached entity, or null if not found
+     */
+    public T put(ID id, T entity, long ttlMillis) {
         if (entity == null) {
             return remove(id);
         }
         
-        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
         statistics.recordPut();
-        CachedEntity<T> old = cache.put(id, new CachedEntity<>(entity, expiresAt));
+        ExpiringEntry<T> entry = ExpiringEntry.create(timerWheel, entity, ttlMillis, expired -> expire(id, expired));
+        ExpiringEntry<T> old = cache.put(id, entry);
+        if (offHeapTier != null) {
+            offHeapTier.put(id, entity, entry.expiresAt());
+        }
         if (old == null) {
             return null;
         }
-        return old.entity;
+        old.cancel();
+        return old.value();
     }
 
     @Override
     public T remove(ID id) {
-        CachedEntity<T> remove = cache.remove(id);
+        if (offHeapTier != null) {
+            offHeapTier.remove(id);
+        }
+        ExpiringEntry<T> remove = cache.remove(id);
         if (remove != null) {
+            remove.cancel();
             statistics.recordEviction();
-            return remove.entity;
+            return remove.value();
         }
         return null;
     }
@@ -108,7 +176,12 @@ public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
      * @param id the entity identifier to invalidate
      */
     public void invalidate(ID id) {
-        if (cache.remove(id) != null) {
+        if (offHeapTier != null) {
+            offHeapTier.remove(id);
+        }
+        ExpiringEntry<T> removed = cache.remove(id);
+        if (removed != null) {
+            removed.cancel();
             statistics.recordEviction();
         }
     }
@@ -119,7 +192,13 @@ public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
     @Override
     public void clear() {
         int size = cache.size();
+        for (ExpiringEntry<T> entry : cache.values()) {
+            entry.cancel();
+        }
         cache.clear();
+        if (offHeapTier != null) {
+            offHeapTier.clear();
+        }
         statistics.recordEviction(size - 1);
     }
     
@@ -148,11 +227,34 @@ public class SecondLevelCache<ID, T> implements SessionCache<ID, T> {
     }
     
     /**
-     * Cached entity wrapper with expiration time.
+     * Gets a snapshot of the off-heap tier, or {@link OffHeapMetrics#empty()} if there is none.
      */
-    private record CachedEntity<T>(T entity, long expiresAt) {
-        boolean isExpired() {
-            return System.currentTimeMillis() > expiresAt;
+    public OffHeapMetrics getOffHeapMetrics() {
+        return offHeapTier == null ? OffHeapMetrics.empty() : offHeapTier.getMetrics();
+    }
+
+    private T getOffHeap(ID id, long now, long startNanos) {
+        OffHeapTier.Hit<T> hit = offHeapTier == null ? null : offHeapTier.get(id);
+        if (hit == null) {
+            statistics.recordMissNanos(System.nanoTime() - startNanos);
+            return null;
+        }
+
+        if (hit.hot()) {
+            long remaining = hit.expiresAt() == Long.MAX_VALUE ? 0 : Math.max(1, hit.expiresAt() - now);
+            ExpiringEntry<T> promoted = ExpiringEntry.create(timerWheel, hit.entity(), remaining, expired -> expire(id, expired));
+            if (cache.putIfAbsent(id, promoted) != null) {
+                promoted.cancel();
+            }
+        }
+
+        statistics.recordHit();
+        return hit.entity();
+    }
+
+    private void expire(ID id, ExpiringEntry<T> entry) {
+        if (cache.remove(id, entry)) {
+            statistics.recordEviction();
         }
     }
 }
@@ -16,13 +16,13 @@ public class StatisticSessionCache<ID, T> implements SessionCache<ID, T> {
 
     @Override
     public T get(ID id) {
-        long l = System.currentTimeMillis();
+        long l = System.nanoTime();
         T t = internalCache.get(id);
-        long duration = System.currentTimeMillis() - l;
+        long duration = System.nanoTime() - l;
         if (t != null) {
             statistics.recordHit();
         } else {
-            statistics.recordMiss(duration);
+            statistics.recordMissNanos(duration);
         }
         return t;
     }
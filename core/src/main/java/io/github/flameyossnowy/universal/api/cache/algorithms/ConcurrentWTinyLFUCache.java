@@ -0,0 +1,312 @@
+package io.github.flameyossnowy.universal.api.cache.algorithms;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded cache using the W-TinyLFU admission policy.
+ * <p>
+ * New entries land in a small LRU window (1% of the capacity). When an entry falls out
+ * of the window it competes with the least valuable entry of the main region, and the
+ * {@link FrequencySketch} decides which of the two is kept. The main region is a
+ * segmented LRU split into a probation segment (20%) and a protected segment (80%);
+ * entries are promoted to the protected segment on their second hit.
+ * <p>
+ * Compared to plain LRU this keeps the hot working set alive through one-off scans,
+ * and compared to plain LFU it still adapts quickly when popularity shifts.
+ * All operations are guarded by a single lock.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ConcurrentWTinyLFUCache<K, V> extends AbstractMap<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Node<K, V>> data;
+    private final FrequencySketch sketch;
+
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+
+    private final int maximumSize;
+    private final int maxWindow;
+    private final int maxProtected;
+
+    public ConcurrentWTinyLFUCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+
+        this.maximumSize = maximumSize;
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        int maxMain = maximumSize - maxWindow;
+        this.maxProtected = (int) (maxMain * 0.8);
+        this.data = new HashMap<>(Math.min(maximumSize, 1 << 16));
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) return null;
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<K, V> node = data.get(key);
+            if (node == null) {
+                return null;
+            }
+            onHit(node);
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (key == null) return false;
+        lock.lock();
+        try {
+            return data.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Keys and values cannot be null");
+        }
+
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                V old = node.value;
+                node.value = value;
+                onHit(node);
+                return old;
+            }
+
+            node = new Node<>(key, value);
+            data.put(key, node);
+            window.addLast(node);
+            evict();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K key, @NotNull Function<? super K, ? extends V> mappingFunction) {
+        lock.lock();
+        try {
+            V existing = get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            V created = mappingFunction.apply(key);
+            if (created != null) {
+                put(key, created);
+            }
+            return created;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) return null;
+        lock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node == null) {
+                return null;
+            }
+            segmentOf(node).unlink(node);
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            sketch.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return data.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the entries; changes to the cache are not reflected in it.
+     */
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        lock.lock();
+        try {
+            Set<Entry<K, V>> snapshot = new LinkedHashSet<>(data.size());
+            for (Node<K, V> node : data.values()) {
+                snapshot.add(new SimpleImmutableEntry<>(node.key, node.value));
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                probation.unlink(node);
+                node.segment = PROTECTED;
+                protectedSegment.addLast(node);
+                demoteProtectedOverflow();
+            }
+            case PROTECTED -> protectedSegment.moveToLast(node);
+            default -> throw new IllegalStateException("Unknown segment " + node.segment);
+        }
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedSegment.size > maxProtected) {
+            Node<K, V> demoted = protectedSegment.head;
+            protectedSegment.unlink(demoted);
+            demoted.segment = PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    private void evict() {
+        while (window.size > maxWindow) {
+            Node<K, V> candidate = window.head;
+            window.unlink(candidate);
+
+            if (data.size() <= maximumSize) {
+                candidate.segment = PROBATION;
+                probation.addLast(candidate);
+                continue;
+            }
+
+            Node<K, V> victim = probation.head != null ? probation.head : protectedSegment.head;
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                segmentOf(victim).unlink(victim);
+                data.remove(victim.key);
+                candidate.segment = PROBATION;
+                probation.addLast(candidate);
+            } else {
+                data.remove(candidate.key);
+            }
+        }
+    }
+
+    private AccessOrder<K, V> segmentOf(Node<K, V> node) {
+        return switch (node.segment) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedSegment;
+            default -> throw new IllegalStateException("Unknown segment " + node.segment);
+        };
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        int segment = WINDOW;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Intrusive doubly linked list ordered from least to most recently used.
+     */
+    private static final class AccessOrder<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void unlink(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node == tail) return;
+            unlink(node);
+            addLast(node);
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.flameyossnowy.universal.api.cache.expiry;
+
+/**
+ * When the time-to-live of a cache entry starts counting.
+ * <p>
+ * AFTER_WRITE: the entry expires a fixed time after it was inserted or replaced
+ * AFTER_ACCESS: every read pushes the expiration back, so only idle entries expire
+ */
+public enum ExpirationPolicy {
+    AFTER_WRITE,
+    AFTER_ACCESS
+}
@@ -0,0 +1,102 @@
+package io.github.flameyossnowy.universal.api.cache.expiry;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
+
+/**
+ * A cached value with its own time-to-live, registered on a {@link TimerWheel}.
+ * <p>
+ * Caches store these instead of raw values. When the wheel fires, the entry checks whether it
+ * was accessed in the meantime (see {@link #touch(long)}); if so it moves its timer forward,
+ * otherwise it hands itself to the cache's expiration callback. Reads therefore never touch the
+ * wheel, they only compare against the coarse clock and bump a volatile deadline.
+ * <p>
+ * The wheel only holds a weak reference to the entry, so entries that the cache already evicted
+ * by size are not kept alive until their timer fires.
+ *
+ * @param <V> the value type
+ */
+public final class ExpiringEntry<V> {
+    private final V value;
+    private final long ttlMillis;
+    private volatile long expiresAt;
+    private volatile TimerWheel.Timeout timeout;
+
+    private ExpiringEntry(V value, long ttlMillis, long expiresAt) {
+        this.value = value;
+        this.ttlMillis = ttlMillis;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Creates an entry and, if {@code ttlMillis} is positive, schedules its expiration.
+     *
+     * @param wheel the wheel that drives expiration
+     * @param value the cached value
+     * @param ttlMillis the time-to-live, or {@code <= 0} to never expire
+     * @param onExpire called with the entry once it has expired; usually removes it from the cache
+     */
+    public static <V> @NotNull ExpiringEntry<V> create(
+        @NotNull TimerWheel wheel,
+        V value,
+        long ttlMillis,
+        @NotNull Consumer<ExpiringEntry<V>> onExpire
+    ) {
+        if (ttlMillis <= 0) {
+            return new ExpiringEntry<>(value, ttlMillis, Long.MAX_VALUE);
+        }
+
+        ExpiringEntry<V> entry = new ExpiringEntry<>(value, ttlMillis, wheel.now() + ttlMillis);
+        WeakReference<ExpiringEntry<V>> reference = new WeakReference<>(entry);
+        entry.timeout = wheel.schedule(ttlMillis, () -> {
+            ExpiringEntry<V> live = reference.get();
+            if (live != null) {
+                live.fire(wheel, onExpire);
+            }
+        });
+        return entry;
+    }
+
+    public V value() {
+        return value;
+    }
+
+    public long expiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now > expiresAt;
+    }
+
+    /**
+     * Pushes the deadline back by the entry's time-to-live, for expire-after-access caches.
+     */
+    public void touch(long now) {
+        if (ttlMillis > 0) {
+            expiresAt = now + ttlMillis;
+        }
+    }
+
+    /**
+     * Stops the expiration timer, typically because the entry was removed or replaced.
+     */
+    public void cancel() {
+        TimerWheel.Timeout current = timeout;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private void fire(TimerWheel wheel, Consumer<ExpiringEntry<V>> onExpire) {
+        long remaining = expiresAt - wheel.now();
+        TimerWheel.Timeout current = timeout;
+        if (remaining > 0 && current != null) {
+            current.reschedule(remaining);
+            return;
+        }
+        onExpire.accept(this);
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.flameyossnowy.universal.api.cache.expiry;
+
+import io.github.flameyossnowy.universal.api.utils.Logging;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel used to expire cache entries proactively.
+ * <p>
+ * Timers are hashed into buckets by deadline. The first level has 64 buckets of ~1 second,
+ * the next levels cover ~1 minute, ~1 hour and ~1 day per bucket, and anything further away
+ * lands in a single overflow bucket. Scheduling, rescheduling and cancelling are O(1); when the
+ * wheel advances, each bucket that the clock passed is drained and its timers either fire or
+ * cascade down to a finer level, so the cost is amortized O(1) per timer.
+ * <p>
+ * The {@link #shared() shared} wheel is driven by a single daemon thread that also maintains a
+ * coarse clock ({@link #currentTimeMillis()}), which caches should use on their read paths instead of
+ * calling {@link System#currentTimeMillis()} for every lookup. Private wheels can be advanced
+ * manually through {@link #advance(long)}.
+ */
+public final class TimerWheel {
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final int[] SHIFT = {10, 16, 22, 27, 29};
+    private static final long[] SPANS = {
+        1L << SHIFT[0], // 1.02s
+        1L << SHIFT[1], // 1.09m
+        1L << SHIFT[2], // 1.16h
+        1L << SHIFT[3], // 1.55d
+        (1L << SHIFT[3]) * BUCKETS[3], // 6.2d
+    };
+
+    private static final long CLOCK_RESOLUTION_MILLIS = 10;
+
+    private static volatile TimerWheel shared;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Timeout[][] wheel;
+    private volatile long now;
+
+    public TimerWheel(long startMillis) {
+        this.now = startMillis;
+        this.wheel = new Timeout[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = new Timeout[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                wheel[i][j] = Timeout.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Returns the process-wide wheel, starting its ticker thread on first use.
+     */
+    public static @NotNull TimerWheel shared() {
+        TimerWheel instance = shared;
+        if (instance != null) {
+            return instance;
+        }
+
+        synchronized (TimerWheel.class) {
+            if (shared == null) {
+                TimerWheel created = new TimerWheel(System.currentTimeMillis());
+                Thread ticker = new Thread(created::tickLoop, "universal-timer-wheel");
+                ticker.setDaemon(true);
+                ticker.start();
+                shared = created;
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Coarse wall clock maintained by the shared wheel, accurate to roughly 10 milliseconds.
+     */
+    public static long currentTimeMillis() {
+        return shared().now;
+    }
+
+    /**
+     * The time this wheel was last advanced to.
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Schedules a task to run once the delay has elapsed.
+     *
+     * @param delayMillis the delay relative to {@link #now()}
+     * @param task the task, executed on the thread that advances the wheel
+     * @return a handle that can cancel or reschedule the task
+     */
+    public @NotNull Timeout schedule(long delayMillis, @NotNull Runnable task) {
+        Timeout timeout = new Timeout(this, task);
+        lock.lock();
+        try {
+            timeout.deadline = now + Math.max(0, delayMillis);
+            link(timeout);
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel to the given time and runs every task whose deadline has passed.
+     *
+     * @param currentMillis the new current time
+     */
+    public void advance(long currentMillis) {
+        List<Timeout> expired = null;
+        lock.lock();
+        try {
+            long previous = now;
+            if (currentMillis <= previous) {
+                return;
+            }
+            now = currentMillis;
+
+            for (int level = 0; level < SHIFT.length; level++) {
+                long previousTicks = previous >>> SHIFT[level];
+                long currentTicks = currentMillis >>> SHIFT[level];
+                if (currentTicks - previousTicks <= 0) {
+                    break;
+                }
+                expired = expire(level, previousTicks, currentTicks - previousTicks, expired);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (expired == null) {
+            return;
+        }
+
+        for (Timeout timeout : expired) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                Logging.error("Timer wheel task failed", e);
+            }
+        }
+    }
+
+    private List<Timeout> expire(int level, long previousTicks, long delta, List<Timeout> expired) {
+        Timeout[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+
+        for (int i = start; i < end; i++) {
+            Timeout sentinel = buckets[i & mask];
+            Timeout node = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+
+            while (node != sentinel) {
+                Timeout next = node.next;
+                node.prev = null;
+                node.next = null;
+
+                if (node.deadline - now <= 0) {
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(node);
+                } else {
+                    link(node);
+                }
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    private void link(Timeout timeout) {
+        Timeout sentinel = bucketFor(timeout.deadline);
+        timeout.prev = sentinel.prev;
+        timeout.next = sentinel;
+        sentinel.prev.next = timeout;
+        sentinel.prev = timeout;
+    }
+
+    private static void unlink(Timeout timeout) {
+        if (timeout.next == null) {
+            return;
+        }
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private Timeout bucketFor(long deadline) {
+        long duration = deadline - now;
+        for (int level = 0; level < BUCKETS.length - 1; level++) {
+            if (duration < SPANS[level + 1]) {
+                long ticks = deadline >>> SHIFT[level];
+                int index = (int) (ticks & (BUCKETS[level] - 1));
+                return wheel[level][index];
+            }
+        }
+        return wheel[BUCKETS.length - 1][0];
+    }
+
+    private void tickLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(CLOCK_RESOLUTION_MILLIS);
+                advance(System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                Logging.error("Timer wheel tick failed", e);
+            }
+        }
+    }
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public static final class Timeout {
+        private final TimerWheel owner;
+        private final Runnable task;
+        private long deadline;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel owner, Runnable task) {
+            this.owner = owner;
+            this.task = task;
+        }
+
+        private static Timeout sentinel() {
+            Timeout sentinel = new Timeout(null, null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        /**
+         * The absolute time at which the task is due.
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        /**
+         * Whether the task is still waiting in the wheel.
+         */
+        public boolean isPending() {
+            owner.lock.lock();
+            try {
+                return next != null;
+            } finally {
+                owner.lock.unlock();
+            }
+        }
+
+        /**
+         * Removes the task from the wheel; it will not run unless rescheduled.
+         */
+        public void cancel() {
+            owner.lock.lock();
+            try {
+                unlink(this);
+            } finally {
+                owner.lock.unlock();
+            }
+        }
+
+        /**
+         * Moves the deadline to {@code delayMillis} after the wheel's current time, even if the
+         * task already fired or was cancelled.
+         */
+        public void reschedule(long delayMillis) {
+            owner.lock.lock();
+            try {
+                unlink(this);
+                deadline = owner.now + Math.max(0, delayMillis);
+                owner.link(this);
+            } finally {
+                owner.lock.unlock();
+            }
+        }
+    }
+}
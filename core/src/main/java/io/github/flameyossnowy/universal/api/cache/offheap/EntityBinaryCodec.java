@@ -0,0 +1,330 @@
+package io.github.flameyossnowy.universal.api.cache.offheap;
+
+import io.github.flameyossnowy.universal.api.factory.ObjectModel;
+import io.github.flameyossnowy.universal.api.factory.ValueReader;
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.result.DatabaseResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of an entity's scalar fields, used by the off-heap cache tier.
+ * <p>
+ * Fields are written in the same order the generated {@link ObjectModel#construct(ValueReader)}
+ * reads them, so decoding simply replays the values through a {@link ValueReader} and lets the
+ * generated code rebuild the entity without reflection. Only entities that can be rebuilt this
+ * way are supported, see {@link #supports(RepositoryModel)}.
+ *
+ * @param <T>  the entity type
+ * @param <ID> the identifier type
+ */
+final class EntityBinaryCodec<T, ID> {
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte CHAR = 8;
+    private static final byte STRING = 9;
+    private static final byte UUID_TAG = 10;
+    private static final byte INSTANT = 11;
+    private static final byte LOCAL_DATE = 12;
+    private static final byte LOCAL_DATE_TIME = 13;
+    private static final byte LOCAL_TIME = 14;
+    private static final byte BIG_DECIMAL = 15;
+    private static final byte BIG_INTEGER = 16;
+    private static final byte ENUM = 17;
+    private static final byte BYTES = 18;
+    private static final byte LIST = 19;
+    private static final byte SET = 20;
+    private static final byte MAP = 21;
+
+    private final RepositoryModel<T, ID> repositoryModel;
+    private final ObjectModel<T, ID> objectModel;
+    private final List<FieldModel<T>> fields;
+
+    EntityBinaryCodec(@NotNull RepositoryModel<T, ID> repositoryModel, @NotNull ObjectModel<T, ID> objectModel) {
+        this.repositoryModel = repositoryModel;
+        this.objectModel = objectModel;
+
+        List<FieldModel<T>> constructed = new ArrayList<>(repositoryModel.fields().size());
+        for (FieldModel<T> field : repositoryModel.fields()) {
+            if (!field.relationship() && !field.autoIncrement()) {
+                constructed.add(field);
+            }
+        }
+        this.fields = List.copyOf(constructed);
+    }
+
+    /**
+     * Whether entities of this repository can be round-tripped through the codec. Records are
+     * built through their canonical constructor rather than {@code construct}, and relationships
+     * would need a database round trip to restore, so both stay on-heap only.
+     */
+    static boolean supports(@NotNull RepositoryModel<?, ?> repositoryModel) {
+        return !repositoryModel.isRecord() && !repositoryModel.hasRelationships();
+    }
+
+    /**
+     * Encodes the entity.
+     *
+     * @throws UnsupportedOperationException if a field holds a type the codec cannot encode
+     */
+    byte[] encode(@NotNull T entity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (FieldModel<T> field : fields) {
+                writeValue(out, field.getValue(entity));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    T decode(byte @NotNull [] data, ID id) {
+        Object[] values = new Object[fields.size()];
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            for (int i = 0; i < values.length; i++) {
+                FieldModel<T> field = fields.get(i);
+                values[i] = readValue(in, field.type(), field.elementType(), field.mapKeyType(), field.mapValueType());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return objectModel.construct(new DecodedValueReader<>(values, id, repositoryModel));
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case Boolean b -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            }
+            case Byte b -> {
+                out.writeByte(BYTE);
+                out.writeByte(b);
+            }
+            case Short s -> {
+                out.writeByte(SHORT);
+                out.writeShort(s);
+            }
+            case Integer i -> {
+                out.writeByte(INT);
+                out.writeInt(i);
+            }
+            case Long l -> {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            }
+            case Float f -> {
+                out.writeByte(FLOAT);
+                out.writeFloat(f);
+            }
+            case Double d -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case Character c -> {
+                out.writeByte(CHAR);
+                out.writeChar(c);
+            }
+            case String s -> {
+                out.writeByte(STRING);
+                writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+            }
+            case UUID uuid -> {
+                out.writeByte(UUID_TAG);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            case Instant instant -> {
+                out.writeByte(INSTANT);
+                out.writeLong(instant.getEpochSecond());
+                out.writeInt(instant.getNano());
+            }
+            case LocalDate date -> {
+                out.writeByte(LOCAL_DATE);
+                out.writeLong(date.toEpochDay());
+            }
+            case LocalDateTime dateTime -> {
+                out.writeByte(LOCAL_DATE_TIME);
+                out.writeLong(dateTime.toLocalDate().toEpochDay());
+                out.writeLong(dateTime.toLocalTime().toNanoOfDay());
+            }
+            case LocalTime time -> {
+                out.writeByte(LOCAL_TIME);
+                out.writeLong(time.toNanoOfDay());
+            }
+            case BigDecimal decimal -> {
+                out.writeByte(BIG_DECIMAL);
+                out.writeInt(decimal.scale());
+                writeBytes(out, decimal.unscaledValue().toByteArray());
+            }
+            case BigInteger integer -> {
+                out.writeByte(BIG_INTEGER);
+                writeBytes(out, integer.toByteArray());
+            }
+            case Enum<?> constant -> {
+                out.writeByte(ENUM);
+                out.writeInt(constant.ordinal());
+            }
+            case byte[] array -> {
+                out.writeByte(BYTES);
+                writeBytes(out, array);
+            }
+            case List<?> list -> {
+                out.writeByte(LIST);
+                writeElements(out, list);
+            }
+            case Set<?> set -> {
+                out.writeByte(SET);
+                writeElements(out, set);
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+            }
+            default -> throw new UnsupportedOperationException(
+                "Cannot store " + value.getClass().getName() + " off-heap");
+        }
+    }
+
+    private static void writeElements(DataOutputStream out, Collection<?> elements) throws IOException {
+        out.writeInt(elements.size());
+        for (Object element : elements) {
+            writeValue(out, element);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Object readValue(
+        DataInputStream in,
+        Class<?> type,
+        Class<?> elementType,
+        Class<?> keyType,
+        Class<?> valueType
+    ) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case BOOLEAN -> in.readBoolean();
+            case BYTE -> in.readByte();
+            case SHORT -> in.readShort();
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case FLOAT -> in.readFloat();
+            case DOUBLE -> in.readDouble();
+            case CHAR -> in.readChar();
+            case STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+            case UUID_TAG -> new UUID(in.readLong(), in.readLong());
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case LOCAL_DATE -> LocalDate.ofEpochDay(in.readLong());
+            case LOCAL_DATE_TIME -> LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong()));
+            case LOCAL_TIME -> LocalTime.ofNanoOfDay(in.readLong());
+            case BIG_DECIMAL -> {
+                int scale = in.readInt();
+                yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+            }
+            case BIG_INTEGER -> new BigInteger(readBytes(in));
+            case ENUM -> enumConstant(type, in.readInt());
+            case BYTES -> readBytes(in);
+            case LIST -> {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in, elementType, null, null, null));
+                }
+                yield list;
+            }
+            case SET -> {
+                int size = in.readInt();
+                Set<Object> set = LinkedHashSet.newLinkedHashSet(size);
+                for (int i = 0; i < size; i++) {
+                    set.add(readValue(in, elementType, null, null, null));
+                }
+                yield set;
+            }
+            case MAP -> {
+                int size = in.readInt();
+                Map<Object, Object> map = LinkedHashMap.newLinkedHashMap(size);
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(in, keyType, null, null, null);
+                    map.put(key, readValue(in, valueType, null, null, null));
+                }
+                yield map;
+            }
+            default -> throw new IllegalStateException("Corrupt off-heap entry, unknown tag " + tag);
+        };
+    }
+
+    private static Object enumConstant(Class<?> type, int ordinal) {
+        if (type == null || !type.isEnum()) {
+            throw new IllegalStateException("Cannot restore enum constant without its type");
+        }
+        return type.getEnumConstants()[ordinal];
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private record DecodedValueReader<ID>(Object[] values, ID id, RepositoryModel<?, ?> repositoryModel) implements ValueReader<ID> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V read(int index) {
+            return (V) values[index];
+        }
+
+        @Override
+        public ID getId() {
+            return id;
+        }
+
+        @Override
+        public DatabaseResult getDatabaseResult() {
+            return null;
+        }
+
+        @Override
+        public RepositoryModel<?, ?> getRepositoryModel() {
+            return repositoryModel;
+        }
+    }
+}
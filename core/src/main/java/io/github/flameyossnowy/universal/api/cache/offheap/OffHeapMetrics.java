@@ -0,0 +1,49 @@
+package io.github.flameyossnowy.universal.api.cache.offheap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable snapshot of an {@link OffHeapTier}.
+ *
+ * @param capacityBytes the configured native memory budget
+ * @param allocatedBytes the native memory actually reserved so far
+ * @param liveBytes the bytes occupied by entries that are still reachable
+ * @param entries the number of entries stored off-heap
+ * @param hits lookups answered from native memory
+ * @param misses lookups that found nothing usable
+ * @param promotions entries copied back on-heap because they turned hot
+ * @param rejected entities that could not be encoded or did not fit and stayed on-heap only
+ * @param evictions entries dropped when their slab was recycled
+ * @param recycledSlabs the number of slab recycles
+ * @param averageDecodeNanos the average cost of rebuilding an entity from its bytes
+ */
+public record OffHeapMetrics(
+    long capacityBytes,
+    long allocatedBytes,
+    long liveBytes,
+    int entries,
+    long hits,
+    long misses,
+    long promotions,
+    long rejected,
+    long evictions,
+    long recycledSlabs,
+    double averageDecodeNanos
+) {
+    public static OffHeapMetrics empty() {
+        return new OffHeapMetrics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0.0);
+    }
+
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return String.format(
+            "OffHeapMetrics{entries=%d, live=%dB, allocated=%dB/%dB, hitRate=%.2f%%, promotions=%d, rejected=%d, evictions=%d, avgDecode=%.0fns}",
+            entries, liveBytes, allocatedBytes, capacityBytes, hitRate() * 100, promotions, rejected, evictions, averageDecodeNanos
+        );
+    }
+}
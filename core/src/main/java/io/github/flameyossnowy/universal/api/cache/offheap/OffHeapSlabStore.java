@@ -0,0 +1,322 @@
+package io.github.flameyossnowy.universal.api.cache.offheap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Log-structured byte store backed by native memory.
+ * <p>
+ * The capacity is split into fixed-size slabs that are allocated lazily and filled by appending.
+ * When every slab is full the oldest one is recycled: entries that were read since they were
+ * written get a second chance and are compacted to the front of the slab, everything else is
+ * dropped. This keeps eviction O(entries in one slab) and avoids fragmentation entirely.
+ * <p>
+ * Writers serialize on a single lock. Readers are lock-free: each slab carries a generation that
+ * is bumped before it is overwritten, and a read is only accepted if the generation is unchanged
+ * after the bytes were copied out.
+ *
+ * @param <K> the key type
+ */
+final class OffHeapSlabStore<K> implements AutoCloseable {
+    private static final long MIN_SLAB_SIZE = 64 * 1024;
+    private static final long MAX_SLAB_SIZE = 64 * 1024 * 1024;
+    private static final int TARGET_SLABS = 16;
+
+    private final Arena arena = Arena.ofShared();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentHashMap<K, Slot> index = new ConcurrentHashMap<>();
+    private final Slab[] slabs;
+    private final long slabSize;
+
+    private int current = -1;
+    private long liveBytes;
+    private long recycledSlabs;
+    private long evictedEntries;
+    private volatile boolean closed;
+
+    OffHeapSlabStore(long capacityBytes) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("capacityBytes must be positive: " + capacityBytes);
+        }
+
+        this.slabSize = Math.clamp(capacityBytes / TARGET_SLABS, MIN_SLAB_SIZE, MAX_SLAB_SIZE);
+        int count = (int) Math.max(1, capacityBytes / slabSize);
+        this.slabs = new Slab[count];
+        for (int i = 0; i < count; i++) {
+            slabs[i] = new Slab();
+        }
+    }
+
+    /**
+     * Appends a value, replacing any previous value for the key.
+     *
+     * @param expiresAt the absolute expiry time, used to skip dead entries during compaction
+     * @param isExpired tells whether an expiry time has passed
+     * @return {@code false} if the value does not fit into a single slab or the store is closed
+     */
+    boolean put(@NotNull K key, byte @NotNull [] value, long expiresAt, @NotNull LongPredicate isExpired) {
+        if (value.length > slabSize) {
+            return false;
+        }
+
+        writeLock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+
+            if (current < 0 || slabs[current].writeOffset + value.length > slabSize) {
+                advance(isExpired);
+                if (slabs[current].writeOffset + value.length > slabSize) {
+                    // the survivors of the recycled slab leave no room, drop them as well
+                    recycle(slabs[current], isExpired, false);
+                }
+            }
+
+            Slab slab = slabs[current];
+            MemorySegment.copy(value, 0, slab.segment, ValueLayout.JAVA_BYTE, slab.writeOffset, value.length);
+            Slot slot = new Slot(current, slab.generation, slab.writeOffset, value.length, expiresAt);
+            slab.writeOffset += value.length;
+            slab.keys.add(key);
+
+            Slot previous = index.put(key, slot);
+            if (previous != null) {
+                liveBytes -= previous.length;
+            }
+            liveBytes += value.length;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Nullable Slot slot(@NotNull K key) {
+        return index.get(key);
+    }
+
+    /**
+     * Copies the bytes of a slot out of native memory.
+     *
+     * @return the bytes, or {@code null} if the slot was overwritten in the meantime
+     */
+    byte @Nullable [] read(@NotNull Slot slot) {
+        Slab slab = slabs[slot.slab];
+        int generation = slab.generation;
+        if (generation != slot.generation || closed) {
+            return null;
+        }
+
+        byte[] bytes = new byte[slot.length];
+        try {
+            MemorySegment.copy(slab.segment, ValueLayout.JAVA_BYTE, slot.offset, bytes, 0, slot.length);
+        } catch (IllegalStateException closedConcurrently) {
+            return null;
+        }
+
+        VarHandle.loadLoadFence();
+        return slab.generation == generation ? bytes : null;
+    }
+
+    void remove(@NotNull K key) {
+        writeLock.lock();
+        try {
+            Slot removed = index.remove(key);
+            if (removed != null) {
+                liveBytes -= removed.length;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(@NotNull K key, @NotNull Slot slot) {
+        writeLock.lock();
+        try {
+            if (index.remove(key, slot)) {
+                liveBytes -= slot.length;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void clear() {
+        writeLock.lock();
+        try {
+            index.clear();
+            for (Slab slab : slabs) {
+                slab.generation++;
+                slab.writeOffset = 0;
+                slab.keys.clear();
+            }
+            current = -1;
+            liveBytes = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long capacityBytes() {
+        return slabSize * slabs.length;
+    }
+
+    long allocatedBytes() {
+        writeLock.lock();
+        try {
+            long allocated = 0;
+            for (Slab slab : slabs) {
+                if (slab.segment != null) {
+                    allocated += slabSize;
+                }
+            }
+            return allocated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long liveBytes() {
+        writeLock.lock();
+        try {
+            return liveBytes;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long recycledSlabs() {
+        writeLock.lock();
+        try {
+            return recycledSlabs;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long evictedEntries() {
+        writeLock.lock();
+        try {
+            return evictedEntries;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            index.clear();
+            for (Slab slab : slabs) {
+                slab.generation++;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        arena.close();
+    }
+
+    private void advance(LongPredicate isExpired) {
+        current = (current + 1) % slabs.length;
+        Slab slab = slabs[current];
+        if (slab.segment == null) {
+            slab.segment = arena.allocate(slabSize);
+            return;
+        }
+        recycle(slab, isExpired, true);
+    }
+
+    /**
+     * Empties a slab for reuse, compacting entries that were read since they were written.
+     * Survivors are moved towards the start of the slab in offset order, so the destination never
+     * overtakes the source, and {@link MemorySegment#copy} handles the overlap.
+     */
+    @SuppressWarnings("unchecked")
+    private void recycle(Slab slab, LongPredicate isExpired, boolean secondChance) {
+        recycledSlabs++;
+        int oldGeneration = slab.generation;
+        slab.generation = oldGeneration + 1;
+        VarHandle.storeStoreFence();
+
+        List<Map.Entry<K, Slot>> survivors = new ArrayList<>();
+        Set<K> seen = new HashSet<>();
+        for (Object raw : slab.keys) {
+            K key = (K) raw;
+            Slot slot = index.get(key);
+            if (slot == null || slot.slab != current || slot.generation != oldGeneration) {
+                continue;
+            }
+
+            if (!secondChance || slot.hits.get() == 0 || isExpired.test(slot.expiresAt)) {
+                index.remove(key, slot);
+                liveBytes -= slot.length;
+                evictedEntries++;
+            } else if (seen.add(key)) {
+                survivors.add(Map.entry(key, slot));
+            }
+        }
+
+        slab.keys.clear();
+        slab.writeOffset = 0;
+        survivors.sort(Comparator.comparingLong(entry -> entry.getValue().offset));
+
+        for (Map.Entry<K, Slot> survivor : survivors) {
+            Slot slot = survivor.getValue();
+            MemorySegment.copy(slab.segment, slot.offset, slab.segment, slab.writeOffset, slot.length);
+            index.put(survivor.getKey(), new Slot(current, slab.generation, slab.writeOffset, slot.length, slot.expiresAt));
+            slab.writeOffset += slot.length;
+            slab.keys.add(survivor.getKey());
+        }
+    }
+
+    private static final class Slab {
+        MemorySegment segment;
+        long writeOffset;
+        volatile int generation;
+        final List<Object> keys = new ArrayList<>();
+    }
+
+    /**
+     * Location of a value inside a slab. {@link #hits} counts reads since the value was written
+     * or last compacted.
+     */
+    static final class Slot {
+        final int slab;
+        final int generation;
+        final long offset;
+        final int length;
+        final long expiresAt;
+        final AtomicInteger hits = new AtomicInteger();
+
+        Slot(int slab, int generation, long offset, int length, long expiresAt) {
+            this.slab = slab;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.flameyossnowy.universal.api.cache.offheap;
+
+import io.github.flameyossnowy.universal.api.cache.CacheConfig;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import io.github.flameyossnowy.universal.api.factory.ObjectModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.utils.Logging;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Serialized entity tier that lives in native memory, behind the on-heap second-level cache.
+ * <p>
+ * Entities are encoded into a compact binary form and appended to an {@link OffHeapSlabStore},
+ * so a large cache costs the garbage collector nothing but a small index. Reads decode the bytes
+ * into a fresh instance; entries that are read repeatedly are reported as hot so the on-heap
+ * cache can promote them and skip the decoding cost from then on.
+ * <p>
+ * Only entities supported by the binary codec can be stored, see {@link #supports(RepositoryModel)}.
+ * Entities holding a value the codec cannot encode are counted as rejected and simply stay on-heap.
+ *
+ * @param <ID> the identifier type
+ * @param <T>  the entity type
+ */
+public final class OffHeapTier<ID, T> implements AutoCloseable {
+    private static final int PROMOTION_THRESHOLD = 2;
+
+    private final EntityBinaryCodec<T, ID> codec;
+    private final OffHeapSlabStore<ID> store;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder decodes = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+
+    /**
+     * @param capacityBytes the native memory budget
+     * @param clock the time source used to check entry expiry, usually the cache's timer wheel
+     */
+    public OffHeapTier(
+        @NotNull RepositoryModel<T, ID> repositoryModel,
+        @NotNull ObjectModel<T, ID> objectModel,
+        long capacityBytes,
+        @NotNull LongSupplier clock
+    ) {
+        if (!supports(repositoryModel)) {
+            throw new IllegalArgumentException("Entities of " + repositoryModel.tableName() + " cannot be stored off-heap");
+        }
+        this.codec = new EntityBinaryCodec<>(repositoryModel, objectModel);
+        this.store = new OffHeapSlabStore<>(capacityBytes);
+        this.clock = clock;
+    }
+
+    /**
+     * Creates the tier configured by the repository's {@code @Cacheable(offHeapCapacity = ...)}.
+     *
+     * @return the tier, or {@code null} if none is configured or the entity cannot be stored off-heap
+     */
+    public static <ID, T> @Nullable OffHeapTier<ID, T> fromConfig(
+        @NotNull RepositoryModel<T, ID> repositoryModel,
+        @NotNull ObjectModel<T, ID> objectModel
+    ) {
+        CacheConfig config = repositoryModel.getCacheConfig();
+        if (config == null || !config.isOffHeapEnabled()) {
+            return null;
+        }
+
+        if (!supports(repositoryModel)) {
+            Logging.warn("Ignoring off-heap cache capacity for " + repositoryModel.tableName()
+                + ": records and entities with relationships are only cached on-heap");
+            return null;
+        }
+
+        TimerWheel wheel = TimerWheel.shared();
+        return new OffHeapTier<>(repositoryModel, objectModel, config.offHeapCapacityBytes(), wheel::now);
+    }
+
+    /**
+     * Whether entities of the repository can be stored off-heap. Records and entities with
+     * relationships are not supported.
+     */
+    public static boolean supports(@NotNull RepositoryModel<?, ?> repositoryModel) {
+        return EntityBinaryCodec.supports(repositoryModel);
+    }
+
+    /**
+     * Stores an entity, replacing any previous copy.
+     *
+     * @param expiresAt the absolute expiry time, or {@link Long#MAX_VALUE} to never expire
+     */
+    public void put(@NotNull ID id, @NotNull T entity, long expiresAt) {
+        byte[] bytes;
+        try {
+            bytes = codec.encode(entity);
+        } catch (UnsupportedOperationException e) {
+            rejected.increment();
+            store.remove(id);
+            Logging.deepInfo(() -> "Keeping entity " + id + " on-heap only: " + e.getMessage());
+            return;
+        }
+
+        if (!store.put(id, bytes, expiresAt, this::isExpired)) {
+            rejected.increment();
+            store.remove(id);
+        }
+    }
+
+    /**
+     * Looks up an entity.
+     *
+     * @return the decoded entity together with its expiry and whether it should be promoted,
+     *         or {@code null} if it is absent, expired or was overwritten concurrently
+     */
+    public @Nullable Hit<T> get(@NotNull ID id) {
+        OffHeapSlabStore.Slot slot = store.slot(id);
+        if (slot == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (isExpired(slot.expiresAt)) {
+            store.remove(id, slot);
+            misses.increment();
+            return null;
+        }
+
+        byte[] bytes = store.read(slot);
+        if (bytes == null) {
+            misses.increment();
+            return null;
+        }
+
+        long start = System.nanoTime();
+        T entity;
+        try {
+            entity = codec.decode(bytes, id);
+        } catch (RuntimeException e) {
+            Logging.error("Failed to decode off-heap entry " + id + ", dropping it", e);
+            store.remove(id, slot);
+            misses.increment();
+            return null;
+        }
+        decodeNanos.add(System.nanoTime() - start);
+        decodes.increment();
+        hits.increment();
+
+        boolean hot = slot.hits.incrementAndGet() >= PROMOTION_THRESHOLD;
+        if (hot) {
+            promotions.increment();
+        }
+        return new Hit<>(entity, slot.expiresAt, hot);
+    }
+
+    public void remove(@NotNull ID id) {
+        store.remove(id);
+    }
+
+    public void clear() {
+        store.clear();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public @NotNull OffHeapMetrics getMetrics() {
+        long decodeCount = decodes.sum();
+        return new OffHeapMetrics(
+            store.capacityBytes(),
+            store.allocatedBytes(),
+            store.liveBytes(),
+            store.size(),
+            hits.sum(),
+            misses.sum(),
+            promotions.sum(),
+            rejected.sum(),
+            store.evictedEntries(),
+            store.recycledSlabs(),
+            decodeCount == 0 ? 0.0 : (double) decodeNanos.sum() / decodeCount
+        );
+    }
+
+    /**
+     * Releases the native memory. The tier behaves as empty afterwards.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private boolean isExpired(long expiresAt) {
+        return clock.getAsLong() > expiresAt;
+    }
+
+    /**
+     * Result of a successful lookup.
+     *
+     * @param entity a freshly decoded copy of the entity
+     * @param expiresAt the absolute expiry time of the entry
+     * @param hot whether the entry was read often enough to be promoted on-heap
+     */
+    public record Hit<T>(T entity, long expiresAt, boolean hot) {}
+}
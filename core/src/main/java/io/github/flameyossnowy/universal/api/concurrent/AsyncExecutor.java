@@ -0,0 +1,48 @@
+package io.github.flameyossnowy.universal.api.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking work behind the {@code *Async} repository methods, parallel relationship
+ * prefetching and parallel file scans.
+ * <p>
+ * The process-wide instance is obtained from {@link AsyncExecutors#shared()}, which uses virtual
+ * threads unless another implementation is registered. Implementations can be plugged in through
+ * {@link AsyncExecutors#setShared(AsyncExecutor)} or as a {@link java.util.ServiceLoader service}
+ * of this interface.
+ */
+public interface AsyncExecutor extends Executor, AutoCloseable {
+
+    /**
+     * Runs a task and completes the returned future with its result.
+     */
+    default <R> @NotNull CompletableFuture<R> supply(@NotNull Supplier<R> task) {
+        return CompletableFuture.supplyAsync(task, this);
+    }
+
+    /**
+     * Runs a task and completes the returned future when it finishes.
+     */
+    default @NotNull CompletableFuture<Void> run(@NotNull Runnable task) {
+        return CompletableFuture.runAsync(task, this);
+    }
+
+    /**
+     * Returns a view of this executor that runs at most {@code permits} tasks at a time. Further
+     * tasks wait for a permit on their own thread, so they are cheap to queue with virtual threads.
+     * Closing the view rejects new tasks but leaves this executor running.
+     */
+    default @NotNull AsyncExecutor bounded(int permits) {
+        return new BoundedAsyncExecutor(() -> this, permits);
+    }
+
+    /**
+     * Stops accepting tasks and waits briefly for running ones to finish.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,127 @@
+package io.github.flameyossnowy.universal.api.concurrent;
+
+import io.github.flameyossnowy.universal.api.utils.Logging;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * Holds the process-wide {@link AsyncExecutor}.
+ * <p>
+ * On first use the executor is looked up through {@link ServiceLoader}; if no implementation is
+ * registered, a {@link VirtualThreadAsyncExecutor} is created. Adapters never use the shared
+ * executor directly for database work, they take a {@link #bounded(int) bounded} view sized to
+ * their connection pool, so async calls queue for a connection instead of piling up on the pool.
+ * Adapters sharing a pool share its view through {@link #boundedFor(Object, int)}.
+ */
+public final class AsyncExecutors {
+    private static final Object LOCK = new Object();
+
+    private static volatile AsyncExecutor shared;
+
+    private static final Map<Object, Owned> OWNED = new WeakHashMap<>();
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * Returns the process-wide executor, creating it on first use.
+     */
+    public static @NotNull AsyncExecutor shared() {
+        AsyncExecutor instance = shared;
+        if (instance != null) {
+            return instance;
+        }
+
+        synchronized (LOCK) {
+            if (shared == null) {
+                shared = ServiceLoader.load(AsyncExecutor.class)
+                    .findFirst()
+                    .orElseGet(VirtualThreadAsyncExecutor::new);
+                Logging.deepInfo(() -> "Using async executor " + shared.getClass().getName());
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Replaces the process-wide executor. The previous one is closed once running tasks finish;
+     * bounded views created earlier switch to the new executor for their next task.
+     */
+    public static void setShared(@NotNull AsyncExecutor executor) {
+        AsyncExecutor previous;
+        synchronized (LOCK) {
+            previous = shared;
+            shared = executor;
+        }
+        if (previous != null && previous != executor) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Returns a view of the shared executor that runs at most {@code permits} tasks at a time.
+     * The view follows {@link #setShared(AsyncExecutor)} replacements.
+     */
+    public static @NotNull AsyncExecutor bounded(int permits) {
+        return new BoundedAsyncExecutor(AsyncExecutors::shared, permits);
+    }
+
+    /**
+     * Returns the bounded view of {@code owner}, creating it with {@code permits} on first use.
+     * Every caller passing the same owner, such as the connection pool several repositories were
+     * built on, shares one limit instead of each getting {@code permits} of its own.
+     * <p>
+     * Every call must be paired with a {@link #release(Object)}; the view is closed once the last
+     * caller released it, or dropped when the owner is garbage collected.
+     */
+    public static @NotNull AsyncExecutor boundedFor(@NotNull Object owner, int permits) {
+        synchronized (OWNED) {
+            Owned owned = OWNED.computeIfAbsent(owner, ignored -> new Owned(bounded(permits)));
+            owned.references++;
+            return owned.executor;
+        }
+    }
+
+    /**
+     * Gives back a view taken with {@link #boundedFor(Object, int)}, closing it once every caller
+     * that took it has given it back.
+     */
+    public static void release(@NotNull Object owner) {
+        Owned owned;
+        synchronized (OWNED) {
+            owned = OWNED.get(owner);
+            if (owned == null || --owned.references > 0) {
+                return;
+            }
+            OWNED.remove(owner);
+        }
+        owned.executor.close();
+    }
+
+    /**
+     * Closes the process-wide executor. A later call to {@link #shared()} creates a new one.
+     */
+    public static void shutdown() {
+        AsyncExecutor previous;
+        synchronized (LOCK) {
+            previous = shared;
+            shared = null;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /** A view handed out by {@link #boundedFor(Object, int)}, and how many callers hold it. */
+    private static final class Owned {
+        final AsyncExecutor executor;
+        int references;
+
+        Owned(AsyncExecutor executor) {
+            this.executor = executor;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.flameyossnowy.universal.api.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many tasks of one owner, such as a connection pool, run on a shared executor at
+ * the same time.
+ * <p>
+ * Permits are taken on the worker thread rather than the caller, so submitting never blocks.
+ * The wait is uninterruptible on purpose: a task that gave up its slot would leave the future
+ * wrapping it incomplete forever.
+ * <p>
+ * A task submitted from inside another task of the same view runs inline. Its parent already
+ * holds a permit and usually joins on the result, so queueing it could deadlock once every permit
+ * is held by a parent.
+ */
+final class BoundedAsyncExecutor implements AsyncExecutor {
+    private static final ThreadLocal<BoundedAsyncExecutor> RUNNING = new ThreadLocal<>();
+
+    private final Supplier<? extends Executor> delegate;
+    private final Semaphore permits;
+    private final int maxPermits;
+    private volatile boolean closed;
+
+    BoundedAsyncExecutor(@NotNull Supplier<? extends Executor> delegate, int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be at least 1: " + permits);
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(permits);
+        this.maxPermits = permits;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("Executor has been closed");
+        }
+
+        if (RUNNING.get() == this) {
+            task.run();
+            return;
+        }
+
+        delegate.get().execute(() -> {
+            permits.acquireUninterruptibly();
+            BoundedAsyncExecutor outer = RUNNING.get();
+            RUNNING.set(this);
+            try {
+                task.run();
+            } finally {
+                RUNNING.set(outer);
+                permits.release();
+            }
+        });
+    }
+
+    /** Number of tasks currently running through this view. */
+    int active() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedAsyncExecutor{permits=" + maxPermits + ", active=" + active() + ", closed=" + closed + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.flameyossnowy.universal.api.concurrent;
+
+import io.github.flameyossnowy.universal.api.utils.Logging;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default {@link AsyncExecutor}: one virtual thread per task. Blocking JDBC, file and HTTP calls
+ * park the virtual thread instead of pinning a platform thread, so slow I/O no longer starves the
+ * common {@link java.util.concurrent.ForkJoinPool} used by parallel streams.
+ */
+public final class VirtualThreadAsyncExecutor implements AsyncExecutor {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ExecutorService executor;
+
+    public VirtualThreadAsyncExecutor() {
+        this("universal-async-");
+    }
+
+    public VirtualThreadAsyncExecutor(@NotNull String namePrefix) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+
+    @Override
+    public void execute(@NotNull Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Logging.warn("Async executor did not finish within " + SHUTDOWN_TIMEOUT_SECONDS + "s, interrupting remaining tasks");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -51,4 +51,10 @@ public interface RelationshipLoader<T, ID> {
         ID id,
         Class<E> componentType
     );
-}
\ No newline at end of file
+
+    /**
+     * Drops whatever this loader has memoized for the entity with the given id.
+     */
+    default void invalidateRelationshipsForId(ID id) {
+    }
+}
@@ -24,6 +24,18 @@ public interface ValueReader<ID> {
 
     ID getId();
 
+    /**
+     * Re-points this reader at the current row of its result, whose primary key is {@code id}.
+     * <p>
+     * Lets one reader serve every row of a result instead of one reader per row. Readers that
+     * are not bound to a result do not support it.
+     *
+     * @param id the primary key of the current row
+     */
+    default void advance(ID id) {
+        throw new UnsupportedOperationException(getClass().getName() + " cannot be re-pointed at another row");
+    }
+
     DatabaseResult getDatabaseResult();
 
     /**
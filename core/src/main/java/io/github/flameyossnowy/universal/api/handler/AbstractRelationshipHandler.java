@@ -4,6 +4,8 @@ import io.github.flameyossnowy.universal.api.ReadPolicy;
 import io.github.flameyossnowy.universal.api.RepositoryAdapter;
 import io.github.flameyossnowy.universal.api.RepositoryRegistry;
 import io.github.flameyossnowy.universal.api.cache.LazyArrayList;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.meta.FieldModel;
 import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
 import io.github.flameyossnowy.universal.api.meta.RelationshipKind;
@@ -22,12 +24,8 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
@@ -130,7 +128,7 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
     protected final Class<ID> idClass;
     protected final TypeResolverRegistry resolverRegistry;
 
-    private final ExecutorService parallelExecutor;
+    private volatile AsyncExecutor parallelExecutor;
 
     // Static caches shared across all handlers - tunable via static methods
     private static volatile int l1CacheInitialCapacity = 64;
@@ -147,6 +145,7 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
 
     private static final int MIN_BATCH_SIZE = 50;
     private static final int MAX_BATCH_SIZE = 1000;
+    public static final int DEFAULT_STREAM_CHUNK_SIZE = 256;
     private final Map<String, Integer> optimalBatchSizes = new ConcurrentHashMap<>(32);
 
     private final AtomicLong cacheMisses   = new AtomicLong();
@@ -163,6 +162,7 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
     private volatile boolean autoWarmCache             = false;
     private volatile boolean autoDeepPrefetch          = false;
     private volatile int     autoDeepPrefetchDepth     = 2;
+    private volatile int     streamChunkSize           = DEFAULT_STREAM_CHUNK_SIZE;
 
     private static final Pattern PATTERN = Pattern.compile("\\.");
 
@@ -197,18 +197,7 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
         this.adapterCache = new ConcurrentLRUCache<>(cacheConfig.adapterCacheSize());
         this.queryResultCache = new ConcurrentLRUCache<>(cacheConfig.queryResultCacheSize());
         this.entityPrefix    = repositoryModel.entitySimpleName() + ":";
-        this.parallelExecutor = Executors.newFixedThreadPool(
-            prefetchThreadPoolSize,
-            new ThreadFactory() {
-                private final AtomicInteger counter = new AtomicInteger(0);
-                @Override
-                public Thread newThread(Runnable r) {
-                    Thread t = new Thread(r, "RelationshipHandler-" + counter.incrementAndGet());
-                    t.setDaemon(true);
-                    return t;
-                }
-            }
-        );
+        this.parallelExecutor = AsyncExecutors.bounded(prefetchThreadPoolSize);
     }
 
     /**
@@ -230,14 +219,17 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
     }
 
     /**
-     * Set the thread pool size for parallel operations.
+     * Set how many relationship loads may run concurrently on the shared async executor.
      * Only takes effect when parallel prefetch is enabled.
      *
-     * @param size number of threads (default: number of processors)
+     * @param size maximum concurrent loads (default: number of processors)
      */
     public void setPrefetchThreadPoolSize(int size) {
         if (size < 1) throw new IllegalArgumentException("Thread pool size must be at least 1");
         this.prefetchThreadPoolSize = size;
+        AsyncExecutor previous = this.parallelExecutor;
+        this.parallelExecutor = AsyncExecutors.bounded(size);
+        previous.close();
     }
 
     /**
@@ -292,6 +284,22 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
         return autoDeepPrefetchDepth;
     }
 
+    /**
+     * Set how many rows a streaming read ({@code findStream}/{@code findIterator}) buffers before
+     * resolving their relationships together, with one IN-query per relationship field.
+     * Larger chunks mean fewer queries but more entities held in memory at once.
+     *
+     * @param size rows per chunk, 1 resolves every row on its own (default: 256)
+     */
+    public void setStreamChunkSize(int size) {
+        if (size < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+        this.streamChunkSize = size;
+    }
+
+    public int getStreamChunkSize() {
+        return streamChunkSize;
+    }
+
     // ==================== Global Cache Configuration ====================
 
     /**
@@ -664,6 +672,67 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
         incrementQueryCount(field.name());
     }
 
+    /**
+     * Batch-loads the targets of an owning OneToOne field by their foreign key values, so that
+     * {@link #handleOneToOneRelationshipOwning} is answered from the cache.
+     * {@link #prefetch} cannot do this, since it only knows the parents' own ids.
+     *
+     * @param field    the owning OneToOne field
+     * @param fkValues foreign key values read from the parents' rows, nulls are ignored
+     */
+    public void prefetchOwning(@NotNull FieldModel<T> field, Collection<?> fkValues) {
+        List<Object> keys = new ArrayList<>(fkValues.size());
+        for (Object fkValue : fkValues) {
+            if (fkValue != null) keys.add(fkValue);
+        }
+        if (keys.isEmpty()) return;
+
+        RepositoryModel<Object, ?> target =
+            (RepositoryModel<Object, ?>) GeneratedMetadata.getByEntityClass(field.type());
+        if (target == null) { Logging.error("Unknown repository for type: " + field.type()); return; }
+
+        RepositoryAdapter<Object, Object, ?> adapter = resolveAdapterCached(field, target);
+        if (adapter == null) { Logging.error("No adapter found for type: " + field.type()); return; }
+
+        List<Object> results = adapter.find(
+            Query.select().where(target.getPrimaryKey().columnName()).in(keys).build(),
+            policyFor(field)
+        );
+
+        FieldModel<Object> pkField = target.getPrimaryKey();
+        Map<Object, Object> byKey  = new HashMap<>(results.size());
+        for (Object result : results) {
+            byKey.put(pkField.getValue(result), result);
+        }
+
+        for (Object key : keys) {
+            Object result = byKey.get(key);
+            putCached(buildCacheKey(field.name() + "#fk", key), result == null ? NULL_MARKER : result);
+        }
+
+        incrementQueryCount(field.name());
+    }
+
+    /**
+     * Caches a relationship target that was read together with its parent, for example through
+     * a join, so that loading the relationship of {@code parentId} needs no query.
+     *
+     * @param target the target, or {@code null} if the parent has none
+     */
+    public void cacheLoaded(@NotNull FieldModel<T> field, @NotNull ID parentId, @Nullable Object target) {
+        if (!policyFor(field).allowStale()) return;
+        putCached(buildCacheKey(field.name(), parentId), target == null ? NULL_MARKER : target);
+    }
+
+    /**
+     * Like {@link #cacheLoaded}, for an owning OneToOne field whose target is looked up by the
+     * foreign key held in the parent's row.
+     */
+    public void cacheLoadedOwning(@NotNull FieldModel<T> field, @NotNull Object fkValue, @NotNull Object target) {
+        if (!policyFor(field).allowStale()) return;
+        putCached(buildCacheKey(field.name() + "#fk", fkValue), target);
+    }
+
     @SuppressWarnings("ObjectAllocationInLoop")
     @Override
     public void prefetch(Collection<Object> parents, Set<String> fields) {
@@ -890,15 +959,7 @@ public abstract class AbstractRelationshipHandler<T, ID> implements Relationship
 
     public void shutdown() {
         clearThreadLocalCache();
-        parallelExecutor.shutdown();
-        try {
-            if (!parallelExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                parallelExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            parallelExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        parallelExecutor.close();
     }
 
     @NotNull
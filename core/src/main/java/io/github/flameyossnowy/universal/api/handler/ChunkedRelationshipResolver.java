@@ -0,0 +1,242 @@
+package io.github.flameyossnowy.universal.api.handler;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.Consistency;
+import io.github.flameyossnowy.universal.api.factory.ObjectModel;
+import io.github.flameyossnowy.universal.api.factory.RelationshipLoader;
+import io.github.flameyossnowy.universal.api.factory.ValueReader;
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.result.DatabaseResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Resolves the relationships of streamed entities a chunk at a time instead of row by row.
+ * <p>
+ * {@link #defer} runs {@link ObjectModel#populateRelationships} against a recording loader
+ * while the entity's row is still current. The recorder notes which eager
+ * relationship fields the entity has and, for owning OneToOne fields, the foreign key read from
+ * the row. {@link #complete} then loads every noted field for the whole chunk with one IN-query
+ * through the handler's batch loaders, and populates the entities again with the real loader,
+ * which now answers from the relationship cache.
+ * <p>
+ * Relationships with {@link Consistency#STRONG} consistency bypass the cache, so they are not
+ * prefetched and still load per row. Lazy relationships are untouched unless a fetch plan
+ * requests them, in which case their batch is left in the relationship cache for the proxies.
+ * <p>
+ * One instance serves one stream and is not thread-safe.
+ */
+public final class ChunkedRelationshipResolver<T, ID> {
+    private final RepositoryModel<T, ID> repositoryModel;
+    private final ObjectModel<T, ID> objectModel;
+    private final RelationshipHandler<T, ID> handler;
+    private final RelationshipLoader<T, ID> loader;
+
+    private final Set<String> fields = new HashSet<>(8);
+    private final Map<FieldModel<T>, List<Object>> owningKeys = new HashMap<>(4);
+    private final RelationshipLoader<T, ID> recorder = new Recorder();
+
+    public ChunkedRelationshipResolver(
+        RepositoryModel<T, ID> repositoryModel,
+        ObjectModel<T, ID> objectModel,
+        RelationshipHandler<T, ID> handler,
+        RelationshipLoader<T, ID> loader
+    ) {
+        this.repositoryModel = repositoryModel;
+        this.objectModel = objectModel;
+        this.handler = handler;
+        this.loader = loader;
+    }
+
+    /**
+     * Records the relationships of a freshly constructed entity. Must be called while
+     * {@code reader} is still positioned on the entity's row.
+     */
+    public @NotNull DeferredRow<T, ID> defer(T entity, ID id, ValueReader<?> reader) {
+        RecordedReader<?> recorded = new RecordedReader<>(reader);
+        objectModel.populateRelationships(entity, id, recorder, recorded);
+        recorded.detach();
+        return new DeferredRow<>(entity, id, recorded);
+    }
+
+    /**
+     * Prefetches the relationships recorded since the last call and populates the entities.
+     *
+     * @return the entities of {@code rows}, in order
+     */
+    public @NotNull List<T> complete(List<DeferredRow<T, ID>> rows) {
+        return complete(rows, Set.of(), Set.of());
+    }
+
+    /**
+     * Like {@link #complete(List)}, but skips {@code preloaded} fields, whose values the caller
+     * has already put in the relationship cache, and also prefetches {@code requested} fields
+     * the entities did not ask for, such as lazy ones.
+     *
+     * @return the entities of {@code rows}, in order
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull List<T> complete(List<DeferredRow<T, ID>> rows, Set<String> preloaded, Set<String> requested) {
+        if (rows.isEmpty()) return List.of();
+
+        try {
+            for (String name : requested) {
+                FieldModel<T> field = cacheableField(name);
+                if (field != null) fields.add(field.name());
+            }
+            if (!preloaded.isEmpty()) {
+                fields.removeAll(preloaded);
+                owningKeys.keySet().removeIf(field -> preloaded.contains(field.name()));
+            }
+
+            if (!fields.isEmpty()) {
+                List<Object> parents = new ArrayList<>(rows.size());
+                for (DeferredRow<T, ID> row : rows) parents.add(row.entity());
+                handler.prefetch(parents, fields);
+            }
+            if (!owningKeys.isEmpty() && handler instanceof AbstractRelationshipHandler<?, ?> abstractHandler) {
+                AbstractRelationshipHandler<T, ID> typed = (AbstractRelationshipHandler<T, ID>) abstractHandler;
+                owningKeys.forEach(typed::prefetchOwning);
+            }
+
+            // Requested fields may be lazy and read only after this returns, so their batch stays cached.
+            boolean keepCached = !requested.isEmpty();
+            List<T> entities = new ArrayList<>(rows.size());
+            for (DeferredRow<T, ID> row : rows) {
+                objectModel.populateRelationships(row.entity(), row.id(), loader, row.reader());
+                // The entity holds its relationships now; keeping them memoized would grow with the stream.
+                if (!keepCached) loader.invalidateRelationshipsForId(row.id());
+                entities.add(row.entity());
+            }
+            return entities;
+        } finally {
+            fields.clear();
+            owningKeys.clear();
+            AbstractRelationshipHandler.clearThreadLocalCache();
+        }
+    }
+
+    private @Nullable FieldModel<T> cacheableField(String name) {
+        FieldModel<T> field = repositoryModel.fieldByName(name);
+        if (field == null) field = repositoryModel.columnFieldByName(name);
+        return field == null || field.consistency() == Consistency.STRONG ? null : field;
+    }
+
+    /**
+     * An entity whose relationships are not populated yet.
+     */
+    public record DeferredRow<T, ID>(T entity, ID id, ValueReader<?> reader) {
+    }
+
+    private final class Recorder implements RelationshipLoader<T, ID> {
+        private void note(String fieldName) {
+            FieldModel<T> field = cacheableField(fieldName);
+            if (field != null) fields.add(field.name());
+        }
+
+        @Override
+        public <E> E oneToOne(String fieldName, ID id, T entity, Class<E> elementType) {
+            note(fieldName);
+            return null;
+        }
+
+        @Override
+        public <E> E oneToOneOwning(String fieldName, ID fkValue, Class<E> elementType) {
+            FieldModel<T> field = cacheableField(fieldName);
+            if (field != null && fkValue != null) {
+                owningKeys.computeIfAbsent(field, f -> new ArrayList<>(64)).add(fkValue);
+            }
+            return null;
+        }
+
+        @Override
+        public <E> E manyToOne(String fieldName, ID id, T entity, Class<E> elementType) {
+            note(fieldName);
+            return null;
+        }
+
+        @Override
+        public <E> Collection<E> oneToMany(String fieldName, ID id, Class<E> elementType) {
+            note(fieldName);
+            return null;
+        }
+
+        @Override
+        public <E> Collection<E> loadList(String fieldName, ID id, Class<E> elementType) {
+            return null;
+        }
+
+        @Override
+        public <E> Collection<E> loadSet(String fieldName, ID id, Class<E> elementType) {
+            return null;
+        }
+
+        @Override
+        public <E, K> Map<E, K> loadMap(String fieldName, ID id, Class<E> keyType, Class<K> valueType) {
+            return null;
+        }
+
+        @Override
+        public <E> E[] loadArray(String fieldName, ID id, Class<E> componentType) {
+            return null;
+        }
+    }
+
+    /**
+     * Remembers the values read while the row was current, and replays them once the
+     * underlying result has moved on.
+     */
+    private static final class RecordedReader<ID> implements ValueReader<ID> {
+        private final Map<Integer, Object> values = new HashMap<>(4);
+        private final ID id;
+        private final RepositoryModel<?, ?> repositoryModel;
+        private ValueReader<ID> delegate;
+        private DatabaseResult databaseResult;
+
+        RecordedReader(ValueReader<ID> delegate) {
+            this.delegate = delegate;
+            this.id = delegate.getId();
+            this.repositoryModel = delegate.getRepositoryModel();
+            this.databaseResult = delegate.getDatabaseResult();
+        }
+
+        void detach() {
+            delegate = null;
+            databaseResult = null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <V> V read(int index) {
+            if (delegate != null) {
+                V value = delegate.read(index);
+                values.put(index, value);
+                return value;
+            }
+            if (!values.containsKey(index)) {
+                throw new IllegalStateException("Column " + index + " was not read while its row was current");
+            }
+            return (V) values.get(index);
+        }
+
+        @Override
+        public ID getId() {
+            return id;
+        }
+
+        @Override
+        public DatabaseResult getDatabaseResult() {
+            if (databaseResult == null) {
+                throw new IllegalStateException("The result has moved past this row");
+            }
+            return databaseResult;
+        }
+
+        @Override
+        public RepositoryModel<?, ?> getRepositoryModel() {
+            return repositoryModel;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package io.github.flameyossnowy.universal.api.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the paths that changed between two JSON documents.
+ * <p>
+ * Objects are compared key by key and descended into while both sides are objects. Anything
+ * else, arrays included, is compared as a whole value, so a changed array element replaces the
+ * array. Values are compared without insignificant whitespace, which makes a document read back
+ * from a database compare equal to the one that was written, however the database formats it.
+ */
+public final class JsonDiff {
+
+    private JsonDiff() {
+        throw new AssertionError("No instances");
+    }
+
+    /**
+     * One changed path.
+     *
+     * @param path  the object keys leading to the value
+     * @param value the new value as JSON, or {@code null} when the key was removed
+     */
+    public record Change(@NotNull List<String> path, @Nullable String value) {
+        public boolean isRemoval() {
+            return value == null;
+        }
+
+        /**
+         * @return roughly the number of characters a patch applying this change sends
+         */
+        public int weight() {
+            int weight = value == null ? 0 : value.length();
+            for (String key : path) weight += key.length() + 3;
+            return weight;
+        }
+    }
+
+    /**
+     * @return the changes turning {@code before} into {@code after}, or {@code null} when either
+     *         is not a JSON object or cannot be parsed
+     */
+    public static @Nullable List<Change> between(@NotNull String before, @NotNull String after) {
+        Object oldTree;
+        Object newTree;
+        try {
+            oldTree = new Parser(before).parseDocument();
+            newTree = new Parser(after).parseDocument();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+        if (!(oldTree instanceof Map<?, ?> oldObject) || !(newTree instanceof Map<?, ?> newObject)) return null;
+
+        List<Change> changes = new ArrayList<>();
+        diff(new ArrayList<>(), cast(oldObject), cast(newObject), changes);
+        return changes;
+    }
+
+    /**
+     * @return the summed {@link Change#weight()} of {@code changes}
+     */
+    public static int weight(@NotNull List<Change> changes) {
+        int weight = 0;
+        for (Change change : changes) weight += change.weight();
+        return weight;
+    }
+
+    private static void diff(List<String> path, Map<String, Object> before, Map<String, Object> after, List<Change> out) {
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) out.add(new Change(append(path, key), null));
+        }
+
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            Object old = before.get(key);
+
+            if (old instanceof Map<?, ?> oldObject && value instanceof Map<?, ?> newObject) {
+                path.add(key);
+                diff(path, cast(oldObject), cast(newObject), out);
+                path.removeLast();
+            } else if (old == null || !old.equals(value)) {
+                out.add(new Change(append(path, key), write(value)));
+            }
+        }
+    }
+
+    private static List<String> append(List<String> path, String key) {
+        List<String> full = new ArrayList<>(path.size() + 1);
+        full.addAll(path);
+        full.add(key);
+        return List.copyOf(full);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Map<?, ?> object) {
+        return (Map<String, Object>) object;
+    }
+
+    private static String write(Object node) {
+        if (node instanceof String text) return text;
+
+        StringBuilder builder = new StringBuilder();
+        write(node, builder);
+        return builder.toString();
+    }
+
+    private static void write(Object node, StringBuilder out) {
+        if (!(node instanceof Map<?, ?> object)) {
+            out.append((String) node);
+            return;
+        }
+
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : object.entrySet()) {
+            if (!first) out.append(',');
+            first = false;
+            quote((String) entry.getKey(), out);
+            out.append(':');
+            write(entry.getValue(), out);
+        }
+        out.append('}');
+    }
+
+    private static void quote(String key, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            switch (c) {
+                case '"'  -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Parses objects into maps of their keys and every other value into its text without
+     * insignificant whitespace. Only the keys are decoded; string values are kept as written.
+     */
+    private static final class Parser {
+        private final String json;
+        private int position;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Object parseDocument() {
+            Object value = parseValue();
+            skipWhitespace();
+            if (position != json.length()) throw error("Trailing characters");
+            return value;
+        }
+
+        private Object parseValue() {
+            skipWhitespace();
+            if (position >= json.length()) throw error("Unexpected end");
+
+            char c = json.charAt(position);
+            if (c == '{') return parseObject();
+
+            StringBuilder text = new StringBuilder();
+            copyValue(text);
+            return text.toString();
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') throw error("Expected a key");
+                StringBuilder raw = new StringBuilder();
+                copyString(raw);
+                String key = decode(raw);
+
+                skipWhitespace();
+                if (peek() != ':') throw error("Expected ':'");
+                position++;
+                object.put(key, parseValue());
+
+                skipWhitespace();
+                char next = peek();
+                position++;
+                if (next == '}') return object;
+                if (next != ',') throw error("Expected ',' or '}'");
+            }
+        }
+
+        /** Copies one value, nested objects and arrays included, without the whitespace between tokens. */
+        private void copyValue(StringBuilder out) {
+            skipWhitespace();
+            char c = peek();
+            switch (c) {
+                case '"' -> copyString(out);
+                case '{', '[' -> {
+                    char close = c == '{' ? '}' : ']';
+                    out.append(c);
+                    position++;
+                    skipWhitespace();
+                    if (peek() == close) {
+                        out.append(close);
+                        position++;
+                        return;
+                    }
+                    while (true) {
+                        if (c == '{') {
+                            skipWhitespace();
+                            if (peek() != '"') throw error("Expected a key");
+                            copyString(out);
+                            skipWhitespace();
+                            if (peek() != ':') throw error("Expected ':'");
+                            out.append(':');
+                            position++;
+                        }
+                        copyValue(out);
+                        skipWhitespace();
+                        char next = peek();
+                        position++;
+                        out.append(next);
+                        if (next == close) return;
+                        if (next != ',') throw error("Expected ',' or '" + close + "'");
+                    }
+                }
+                default -> {
+                    int start = position;
+                    while (position < json.length() && isLiteral(json.charAt(position))) position++;
+                    if (start == position) throw error("Unexpected character '" + c + "'");
+                    out.append(json, start, position);
+                }
+            }
+        }
+
+        private void copyString(StringBuilder out) {
+            int start = position++;
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '\\') position++;
+                else if (c == '"') {
+                    out.append(json, start, position);
+                    return;
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private String decode(StringBuilder raw) {
+            if (raw.indexOf("\\") < 0) return raw.substring(1, raw.length() - 1);
+
+            StringBuilder key = new StringBuilder(raw.length());
+            for (int i = 1; i < raw.length() - 1; i++) {
+                char c = raw.charAt(i);
+                if (c != '\\') {
+                    key.append(c);
+                    continue;
+                }
+                char escaped = raw.charAt(++i);
+                switch (escaped) {
+                    case 'n' -> key.append('\n');
+                    case 'r' -> key.append('\r');
+                    case 't' -> key.append('\t');
+                    case 'b' -> key.append('\b');
+                    case 'f' -> key.append('\f');
+                    case 'u' -> {
+                        key.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    default -> key.append(escaped);
+                }
+            }
+            return key.toString();
+        }
+
+        private static boolean isLiteral(char c) {
+            return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-' || c == '+' || c == '.';
+        }
+
+        private char peek() {
+            if (position >= json.length()) throw error("Unexpected end");
+            return json.charAt(position);
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) position++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + position);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.flameyossnowy.universal.api.json;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.JsonStorageKind;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON last read or written for the partially updatable fields of recently used entities,
+ * which updates diff the new values against to only write the paths that changed.
+ * <p>
+ * A snapshot is only a base to diff against. If another writer changed the stored document since,
+ * the patch still only touches the paths this update changed and leaves the others as the
+ * database has them. Anything that changes rows without the repository knowing which ones has to
+ * {@link #clear()} the snapshots, and a write that may be rolled back has to {@link #forget} them.
+ * <p>
+ * At most {@code capacity} entities are remembered; the least recently used are dropped first.
+ */
+@ApiStatus.Internal
+public final class JsonSnapshots<ID> {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** Patches of more changes than this are written whole, so statements stay short. */
+    private static final int MAX_CHANGES = 32;
+
+    private final int fields;
+    private final Map<ID, String[]> snapshots;
+
+    public JsonSnapshots(int fields, int capacity) {
+        this.fields = fields;
+        this.snapshots = new LinkedHashMap<>(Math.min(capacity, 256), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ID, String[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the JSON column fields of {@code repositoryModel} declared with
+     *         {@code supportsPartialUpdate}, in declaration order
+     */
+    public static <T> @NotNull List<FieldModel<T>> partialUpdateFields(@NotNull RepositoryModel<T, ?> repositoryModel) {
+        List<FieldModel<T>> partial = new ArrayList<>(2);
+        for (FieldModel<T> field : repositoryModel.fields()) {
+            if (field == null || !field.isJson() || !field.jsonPartialUpdate()) continue;
+            if (field.jsonStorageKind() == JsonStorageKind.TABLE) continue;
+            partial.add(field);
+        }
+        return partial;
+    }
+
+    public int fields() {
+        return fields;
+    }
+
+    /**
+     * Remembers the stored JSON of field {@code field}, or forgets it when {@code json} is {@code null}.
+     */
+    public synchronized void remember(@NotNull ID id, int field, @Nullable String json) {
+        String[] snapshot = snapshots.get(id);
+        if (snapshot == null) {
+            if (json == null) return;
+            snapshot = new String[fields];
+            snapshots.put(id, snapshot);
+        }
+        snapshot[field] = json;
+    }
+
+    public synchronized @Nullable String get(@NotNull ID id, int field) {
+        String[] snapshot = snapshots.get(id);
+        return snapshot == null ? null : snapshot[field];
+    }
+
+    /**
+     * The changes that turn the remembered JSON of {@code field} into {@code after}.
+     *
+     * @return the changes, empty when nothing changed, or {@code null} when the field should be
+     *         written whole: nothing is remembered, either side is not an object, or the patch
+     *         would not be clearly smaller than the document
+     */
+    public @Nullable List<JsonDiff.Change> patch(@NotNull ID id, int field, @NotNull String after) {
+        String before = get(id, field);
+        if (before == null) return null;
+
+        List<JsonDiff.Change> changes = JsonDiff.between(before, after);
+        if (changes == null || changes.size() > MAX_CHANGES) return null;
+        // Rewriting a document costs about its size, a patch about twice its own
+        if (JsonDiff.weight(changes) * 2 > after.length()) return null;
+        return changes;
+    }
+
+    public synchronized void forget(@NotNull ID id) {
+        snapshots.remove(id);
+    }
+
+    public synchronized void forget(@NotNull Collection<? extends ID> ids) {
+        for (ID id : ids) snapshots.remove(id);
+    }
+
+    public synchronized void clear() {
+        snapshots.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.flameyossnowy.universal.api.meta;
+
+/**
+ * The bounds of adaptive batch sizing, from {@link io.github.flameyossnowy.universal.api.annotations.BatchSize}.
+ *
+ * @param min the smallest batch size, also the size oversized batches are split down to
+ * @param max the largest batch size
+ * @param targetMillis how long one batch should take to execute
+ */
+public record BatchSizeBounds(int min, int max, long targetMillis) {
+    public static final BatchSizeBounds DEFAULT = new BatchSizeBounds(16, 4096, 50);
+
+    public BatchSizeBounds {
+        if (min < 1) throw new IllegalArgumentException("min must be at least 1: " + min);
+        if (max < min) throw new IllegalArgumentException("max must be at least min: " + max + " < " + min);
+        if (targetMillis < 1) throw new IllegalArgumentException("targetMillis must be positive: " + targetMillis);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.flameyossnowy.universal.api.meta;
+
+import io.github.flameyossnowy.universal.api.RepositoryAdapter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Implementations of proxy repository interfaces ({@code @Select}, {@code @Insert},
+ * {@code @Update}) generated at compile time, keyed by the interface they implement.
+ */
+public final class GeneratedRepositoryImplementations {
+    private static final Map<Class<?>, Entry<?>> IMPLEMENTATIONS = new ConcurrentHashMap<>(16);
+
+    private record Entry<A>(Class<?> elementType, Function<RepositoryAdapter<?, ?, ?>, A> factory) {
+    }
+
+    private GeneratedRepositoryImplementations() {}
+
+    /**
+     * Register the generated implementation of {@code type}, serving entities of {@code elementType}.
+     */
+    public static <A> void add(Class<A> type, Class<?> elementType, Function<RepositoryAdapter<?, ?, ?>, A> factory) {
+        IMPLEMENTATIONS.put(type, new Entry<>(elementType, factory));
+    }
+
+    /**
+     * Create the generated implementation of {@code type} backed by {@code adapter}.
+     *
+     * @return the implementation, or {@code null} if none was generated for {@code type}
+     * @throws IllegalArgumentException if the implementation serves another entity than the adapter
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> @Nullable A create(Class<A> type, RepositoryAdapter<?, ?, ?> adapter) {
+        Entry<A> entry = (Entry<A>) IMPLEMENTATIONS.get(type);
+        if (entry == null) return null;
+
+        if (entry.elementType() != adapter.getElementType()) {
+            throw new IllegalArgumentException(type.getName() + " queries " + entry.elementType().getName()
+                + ", but the adapter serves " + adapter.getElementType().getName());
+        }
+        return entry.factory().apply(adapter);
+    }
+}
@@ -26,15 +26,33 @@ public final class GeneratedValueReaders {
         TypeResolverRegistry registry,
         ID id
     ) {
-        @SuppressWarnings("unchecked")
+        ValueReaderRegistration<ID> factory = factory(tableName);
+        RepositoryModel<?, ?> model = result.repositoryModel();
+        return factory.apply(result, registry, id, model);
+    }
+
+    /**
+     * Creates a reader for every row of {@code result}. It is positioned on no row until
+     * {@link ValueReader#advance(Object)} is called.
+     */
+    @SuppressWarnings("unchecked")
+    public static <ID> ValueReader<ID> bind(
+        String tableName,
+        DatabaseResult result,
+        TypeResolverRegistry registry
+    ) {
+        ValueReaderRegistration<ID> factory = factory(tableName);
+        return (ValueReader<ID>) factory.apply(result, registry, null, result.repositoryModel());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <ID> ValueReaderRegistration<ID> factory(String tableName) {
         ValueReaderRegistration<ID> factory = (ValueReaderRegistration<ID>) FACTORIES.get(tableName);
 
         if (factory == null) {
             throw new IllegalArgumentException("No ValueReader registered for: " + tableName);
         }
-
-        RepositoryModel<?, ?> model = result.repositoryModel();
-        return factory.apply(result, registry, id, model);
+        return factory;
     }
 
     @FunctionalInterface
@@ -2,5 +2,10 @@ package io.github.flameyossnowy.universal.api.meta;
 
 public record JsonIndexModel(
     String path,
-    boolean unique
-) {}
+    boolean unique,
+    int length
+) {
+    public JsonIndexModel(String path, boolean unique) {
+        this(path, unique, 255);
+    }
+}
@@ -69,6 +69,13 @@ public interface RepositoryModel<T, ID> {
 
     int getFetchPageSize();
 
+    /**
+     * Bounds for adaptive batch inserts, from {@code @BatchSize}.
+     */
+    default BatchSizeBounds getBatchSizeBounds() {
+        return BatchSizeBounds.DEFAULT;
+    }
+
     Class<T> getEntityClass();
 
     Class<ID> getIdClass();
@@ -1,6 +1,7 @@
 package io.github.flameyossnowy.universal.api.operation;
 
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -46,7 +47,7 @@ public interface Operation<T, ID, R, C> {
      */
     @NotNull
     default CompletableFuture<TransactionResult<R>> executeAsync(@NotNull OperationContext<T, ID, C> context) {
-        return CompletableFuture.supplyAsync(() -> execute(context));
+        return CompletableFuture.supplyAsync(() -> execute(context), AsyncExecutors.shared());
     }
 
     /**
@@ -20,9 +20,20 @@ public record SelectQuery(
     List<FilterOption> filters,
     List<SortOption> sortOptions,
     int limit,
-    String joinTable
+    String joinTable,
+    List<String> fetch
 ) implements Query {
 
+    public SelectQuery(
+        List<String> columns,
+        List<FilterOption> filters,
+        List<SortOption> sortOptions,
+        int limit,
+        String joinTable
+    ) {
+        this(columns, filters, sortOptions, limit, joinTable, List.of());
+    }
+
     /**
      * Fluent builder for {@link SelectQuery}.
      *
@@ -34,6 +45,7 @@ public record SelectQuery(
 
         private final List<FilterOption> filters = new ArrayList<>();
         private final List<SortOption> sortOptions = new ArrayList<>();
+        private final List<String> fetch = new ArrayList<>();
         private final List<String> columns;
 
         private int limit = -1;
@@ -168,13 +180,38 @@ public record SelectQuery(
             return this;
         }
 
+        /**
+         * Loads the given relationship fields together with the results.
+         *
+         * <p>SQL backends read {@code @ManyToOne} and {@code @OneToOne} fields in the
+         * same statement through a {@code LEFT JOIN}; {@code @OneToMany} fields are
+         * loaded with one batch query each. Other backends may ignore the plan.</p>
+         *
+         * <p>{@code findStream} and {@code findIterator} ignore the plan as well: they read
+         * the plain select and resolve relationships a chunk at a time, as without it.</p>
+         *
+         * <pre>{@code
+         * Query.select()
+         *   .where("name").like("A%")
+         *   .fetch("warp", "something")
+         *   .build();
+         * }</pre>
+         */
+        public SelectQueryBuilder fetch(String... fields) {
+            for (String field : fields) {
+                if (!this.fetch.contains(field)) this.fetch.add(field);
+            }
+            return this;
+        }
+
         public SelectQuery build() {
             return new SelectQuery(
                 new ArrayList<>(columns),
                 new ArrayList<>(filters),
                 new ArrayList<>(sortOptions),
                 limit,
-                joinTable
+                joinTable,
+                List.copyOf(fetch)
             );
         }
 
@@ -4,6 +4,8 @@ import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * Represents a database-agnostic way to set parameters for a query
  * without depending on any specific database implementation.
@@ -45,6 +47,33 @@ public interface DatabaseParameters {
      * @param type the expected type of the parameter
      */
     void setNull(@NotNull String name, @NotNull Class<?> type);
+
+    /**
+     * Resolves where each of {@code names} is bound, so a caller binding the same names again and
+     * again looks them up once. Callers pass the same array every time, typically a constant.
+     *
+     * @param names the parameter names, in the order the caller binds them
+     * @return the position of every name, or {@code -1} for names bound by name only
+     */
+    default int @NotNull [] positionsOf(@NotNull String @NotNull [] names) {
+        int[] positions = new int[names.length];
+        Arrays.fill(positions, -1);
+        return positions;
+    }
+
+    /**
+     * Sets a parameter value at a position resolved by {@link #positionsOf(String[])}, or by
+     * {@code name} when the position is {@code -1}.
+     *
+     * @param position the position of the parameter, or {@code -1}
+     * @param name the name of the parameter
+     * @param value the value to set
+     * @param type the type of the value
+     * @param <T> the type of the value
+     */
+    default <T> void set(int position, @NotNull String name, @Nullable T value, @NotNull Class<?> type) {
+        set(name, value, type);
+    }
     
     /**
      * Gets the number of parameters that have been set.
@@ -20,7 +20,7 @@ import java.util.stream.Stream;
 public class ProxiedAdapterHandler<T, ID, C> implements InvocationHandler {
     private final RepositoryAdapter<T, ID, C> adapter;
     private final Class<T> elementType;
-    private final Map<String, MethodData> methodCache = new ConcurrentHashMap<>(5);
+    private final Map<Method, MethodData> methodCache = new ConcurrentHashMap<>(5);
 
     public ProxiedAdapterHandler(RepositoryAdapter<T, ID, C> adapter) {
         this.adapter = adapter;
@@ -28,7 +28,7 @@ public class ProxiedAdapterHandler<T, ID, C> implements InvocationHandler {
     }
 
     private MethodData getMethodData(@NotNull Method method) {
-        return methodCache.computeIfAbsent(method.getName(), name -> {
+        return methodCache.computeIfAbsent(method, key -> {
             Filter[] filters = method.getAnnotationsByType(Filter.class);
             Limit limit = method.getAnnotation(Limit.class);
             OrderBy orderBy = method.getAnnotation(OrderBy.class);
@@ -0,0 +1,51 @@
+package io.github.flameyossnowy.universal.api.resolver;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A resolver lookup captured once, typically in a static field of generated code, so reading
+ * a column costs an array read instead of a lookup in the {@link TypeResolverRegistry}.
+ * <p>
+ * The handle itself is only an index; each registry keeps the resolver it found for it, so one
+ * handle serves every registry without them evicting each other. A registration forgets those
+ * resolvers and the next read resolves again.
+ *
+ * @param <T> the resolved type
+ */
+@ApiStatus.Internal
+public final class ResolverHandle<T> {
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private final Class<T> type;
+    private final int index;
+
+    private ResolverHandle(Class<T> type) {
+        this.type = type;
+        this.index = NEXT_INDEX.getAndIncrement();
+    }
+
+    @Contract("_ -> new")
+    public static <T> @NotNull ResolverHandle<T> of(@NotNull Class<T> type) {
+        return new ResolverHandle<>(type);
+    }
+
+    /**
+     * @return the same resolver as {@link TypeResolverRegistry#resolve(Class)} for the handle's type
+     */
+    public @Nullable TypeResolver<T> get(@NotNull TypeResolverRegistry registry) {
+        return registry.resolve(this);
+    }
+
+    Class<T> type() {
+        return type;
+    }
+
+    int index() {
+        return index;
+    }
+}
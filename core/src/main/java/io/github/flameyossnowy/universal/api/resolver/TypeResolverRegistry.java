@@ -37,6 +37,7 @@ import java.time.Year;
 import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.Locale;
@@ -53,6 +54,12 @@ public class TypeResolverRegistry {
     private final Map<Class<?>, DataHandler<?>> dataHandlers = new ConcurrentHashMap<>(24);
     private final LRUCache<ResolverKey, TypeResolver<?>> assignableCache = new LRUCache<>(32);
 
+    /**
+     * The fully resolved resolvers per class, replaced as a whole by every registration
+     * so a lookup never sees a stale answer. See {@link #resolve(Class)}.
+     */
+    private volatile ResolvedTypes resolved = new ResolvedTypes();
+
     private final Map<Class<? extends JsonCodec<?>>, JsonCodec<?>> jsonCodecs = new ConcurrentHashMap<>(8);
     private volatile Supplier<JsonAdapter> objectMapperSupplier;
 
@@ -330,12 +337,28 @@ public class TypeResolverRegistry {
             new ResolverKey(resolver.getType(), resolver.getEncoding()),
             resolver
         );
+        invalidate();
+    }
+
+    /**
+     * Forgets every resolved lookup, including those of {@link ResolverHandle}s, after a registration
+     * that may change what a class resolves to.
+     */
+    void invalidate() {
+        assignableCache.clear();
+        resolved = new ResolvedTypes();
+    }
+
+    /**
+     * Identifies the registrations lookups are currently resolved against; changes with every registration.
+     */
+    Object generation() {
+        return resolved;
     }
 
     public <T> void register(TypeResolver<T> resolver) {
         registerInternal(resolver);
         sqlTypeMappings.put(resolver.getType(), sqlTypeMappings.get(resolver.getDatabaseType()));
-        assignableCache.remove(new ResolverKey(resolver.getType(), resolver.getEncoding()));
     }
 
     public <T> void register(DataHandler<T> handler) {
@@ -361,13 +384,36 @@ public class TypeResolverRegistry {
         return (DataHandler<T>) dataHandlers.get(type);
     }
 
+    /**
+     * The resolver for {@code type}, preferring the {@link SqlEncoding#VISUAL} one.
+     * <p>
+     * Runs per column and row, so the answer, including the encoding fallback and the
+     * enum and subtype lookups, is computed once per class and then read lock-free from a
+     * {@link ClassValue}. Generated code that knows its types up front can skip even that
+     * through a {@link ResolverHandle}.
+     */
+    @SuppressWarnings("unchecked")
     public <T> TypeResolver<T> resolve(Class<T> type) {
-        TypeResolver<T> visual = resolve(type, SqlEncoding.VISUAL);
-        return visual != null ? visual : resolve(type, SqlEncoding.BINARY);
+        return (TypeResolver<T>) resolved.get(type).any();
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    /**
+     * The resolver of {@code handle} in this registry, looked up once per handle and
+     * {@link #generation() generation}.
+     */
+    @SuppressWarnings("unchecked")
+    <T> @Nullable TypeResolver<T> resolve(ResolverHandle<T> handle) {
+        return (TypeResolver<T>) resolved.handle(handle);
+    }
+
+    @SuppressWarnings("unchecked")
     public <T> @Nullable TypeResolver<T> resolve(Class<T> type, SqlEncoding encoding) {
+        Resolution resolution = resolved.get(type);
+        return (TypeResolver<T>) (encoding == SqlEncoding.VISUAL ? resolution.visual() : resolution.binary());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> @Nullable TypeResolver<T> resolveUncached(Class<T> type, SqlEncoding encoding) {
         ResolverKey key = new ResolverKey(type, encoding);
 
         Object direct = resolvers.get(key);
@@ -602,7 +648,7 @@ public class TypeResolverRegistry {
      */
     public void registerSqlTypeMapping(Class<?> javaType, SqlTypeMapping mapping) {
         sqlTypeMappings.put(javaType, mapping);
-        assignableCache.clear(); // Clear cache as mappings changed
+        invalidate(); // Clear cache as mappings changed
     }
 
     /**
@@ -651,8 +697,6 @@ public class TypeResolverRegistry {
                 parameters.set(index, value != null ? value.name() : null, String.class);
             }
         });
-
-        assignableCache.clear();
     }
 
     public <E extends Enum<E>> void registerEnum(Class<E> enumClass) {
@@ -679,7 +723,6 @@ public class TypeResolverRegistry {
             TypeResolver<T> resolver) {
         sqlTypeMappings.put(javaType, sqlTypeMapping);
         registerInternal(resolver);
-        assignableCache.clear();
     }
 
     /**
@@ -706,4 +749,48 @@ public class TypeResolverRegistry {
         String resolved = mapping.resolve(SqlEncoding.VISUAL, dialect.getIdentifier());
         return resolved != null && !resolved.equals(mapping.resolve(SqlEncoding.VISUAL));
     }
-}
\ No newline at end of file
+
+    /**
+     * @param visual the resolver for {@link SqlEncoding#VISUAL}, or {@code null}
+     * @param binary the resolver for {@link SqlEncoding#BINARY}, or {@code null}
+     * @param any the visual resolver, or else the binary one
+     */
+    private record Resolution(@Nullable TypeResolver<?> visual, @Nullable TypeResolver<?> binary, @Nullable TypeResolver<?> any) {}
+
+    private final class ResolvedTypes extends ClassValue<Resolution> {
+        /**
+         * The resolvers of the {@link ResolverHandle}s used with this registry, by handle index.
+         * Copied on write, which only happens the first time a handle is used in a generation.
+         */
+        private volatile TypeResolver<?>[] handles = new TypeResolver<?>[16];
+
+        @Override
+        protected Resolution computeValue(Class<?> type) {
+            TypeResolver<?> visual = resolveUncached(type, SqlEncoding.VISUAL);
+            TypeResolver<?> binary = resolveUncached(type, SqlEncoding.BINARY);
+            return new Resolution(visual, binary, visual != null ? visual : binary);
+        }
+
+        @Nullable TypeResolver<?> handle(ResolverHandle<?> handle) {
+            TypeResolver<?>[] current = handles;
+            int index = handle.index();
+            if (index < current.length) {
+                TypeResolver<?> resolver = current[index];
+                if (resolver != null) {
+                    return resolver == NULL_MARKER ? null : resolver;
+                }
+            }
+
+            TypeResolver<?> resolver = get(handle.type()).any();
+            store(index, resolver == null ? NULL_MARKER : resolver);
+            return resolver;
+        }
+
+        private synchronized void store(int index, TypeResolver<?> resolver) {
+            TypeResolver<?>[] current = handles;
+            TypeResolver<?>[] copy = Arrays.copyOf(current, Math.max(current.length, Integer.highestOneBit(index) << 1));
+            copy[index] = resolver;
+            handles = copy;
+        }
+    }
+}
@@ -0,0 +1,732 @@
+package io.github.flameyossnowy.universal.api.result;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The rows of an aggregation or window query, stored column by column.
+ * <p>
+ * Integral columns are kept in a {@code long[]}, floating point columns in a {@code double[]} and
+ * text columns dictionary-encoded, as an {@code int[]} of codes into the distinct strings of the
+ * column. Anything else is kept as objects. A column holding values of different kinds falls back
+ * to objects as well, except that mixed integral (or floating point) widths widen to
+ * {@code Long} (or {@code Double}).
+ * <p>
+ * Rows are read through {@link #row(int)}, by iterating the result, or through {@link #asMaps()}
+ * for code written against {@code List<Map<String, Object>>}. None of them copy the columns.
+ * <p>
+ * A result is immutable once built. The arrays returned by {@link #longs(int)},
+ * {@link #doubles(int)} and {@link #codes(int)} are the backing arrays and must not be modified.
+ */
+public final class ColumnarResult implements Iterable<ColumnarResult.Row> {
+    private static final ColumnarResult EMPTY = new ColumnarResult(new String[0], new Column[0], Map.of(), 0);
+
+    private final String[] names;
+    private final Column[] columns;
+    private final Map<String, Integer> indexes;
+    private final int rowCount;
+
+    private ColumnarResult(String[] names, Column[] columns, Map<String, Integer> indexes, int rowCount) {
+        this.names = names;
+        this.columns = columns;
+        this.indexes = indexes;
+        this.rowCount = rowCount;
+    }
+
+    public static @NotNull ColumnarResult empty() {
+        return EMPTY;
+    }
+
+    @Contract(" -> new")
+    public static @NotNull Builder builder() {
+        return new Builder(16);
+    }
+
+    /**
+     * @param expectedRows the number of rows to allocate room for up front
+     */
+    @Contract("_ -> new")
+    public static @NotNull Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    /**
+     * Stores rows that were already materialized as maps, for backends without a columnar path.
+     */
+    public static @NotNull ColumnarResult fromMaps(@NotNull List<? extends Map<String, ?>> rows) {
+        Builder builder = new Builder(rows.size());
+        for (Map<String, ?> row : rows) {
+            for (Map.Entry<String, ?> entry : row.entrySet()) {
+                builder.set(builder.column(entry.getKey()), entry.getValue());
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int columnCount() {
+        return names.length;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    public @NotNull List<String> columnNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    public @NotNull String columnName(int column) {
+        return names[column];
+    }
+
+    /**
+     * @return the index of the column named {@code name}, or {@code -1}
+     */
+    public int columnIndex(@NotNull String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public @NotNull ColumnType columnType(int column) {
+        return columns[column].type;
+    }
+
+    /**
+     * @return whether the row has no value, or a null value, in the column
+     */
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return columns[column].isNull(row);
+    }
+
+    /**
+     * @return whether the row has the column at all; rows of a result do not need to share all columns
+     */
+    public boolean has(int row, int column) {
+        checkRow(row);
+        return columns[column].written.get(row);
+    }
+
+    /**
+     * @throws IllegalStateException if the column is not a {@link ColumnType#LONG} column
+     */
+    public long getLong(int row, int column) {
+        checkRow(row);
+        Column values = columns[column].expect(ColumnType.LONG);
+        return values.longs[row];
+    }
+
+    /**
+     * Reads {@link ColumnType#LONG} columns as well.
+     *
+     * @throws IllegalStateException if the column is neither a {@link ColumnType#DOUBLE} nor a {@link ColumnType#LONG} column
+     */
+    public double getDouble(int row, int column) {
+        checkRow(row);
+        Column values = columns[column];
+        if (values.type == ColumnType.LONG) return values.longs[row];
+        return values.expect(ColumnType.DOUBLE).doubles[row];
+    }
+
+    public @Nullable String getString(int row, int column) {
+        checkRow(row);
+        Column values = columns[column];
+        if (values.type != ColumnType.STRING) {
+            Object value = values.get(row);
+            return value == null ? null : value.toString();
+        }
+        int code = values.codes[row];
+        return code < 0 ? null : values.dictionary.get(code);
+    }
+
+    /**
+     * @return the value boxed as the type it was stored with
+     */
+    public @Nullable Object get(int row, int column) {
+        checkRow(row);
+        return columns[column].get(row);
+    }
+
+    public @Nullable Object get(int row, @NotNull String column) {
+        int index = columnIndex(column);
+        return index < 0 ? null : get(row, index);
+    }
+
+    /**
+     * The values of a {@link ColumnType#LONG} column, meaningful where the row is not null.
+     */
+    public long @NotNull [] longs(int column) {
+        return columns[column].expect(ColumnType.LONG).longs;
+    }
+
+    /**
+     * The values of a {@link ColumnType#DOUBLE} column, meaningful where the row is not null.
+     */
+    public double @NotNull [] doubles(int column) {
+        return columns[column].expect(ColumnType.DOUBLE).doubles;
+    }
+
+    /**
+     * The dictionary codes of a {@link ColumnType#STRING} column, {@code -1} for null.
+     *
+     * @see #dictionary(int)
+     */
+    public int @NotNull [] codes(int column) {
+        return columns[column].expect(ColumnType.STRING).codes;
+    }
+
+    /**
+     * The distinct strings of a {@link ColumnType#STRING} column, indexed by code.
+     */
+    public @NotNull List<String> dictionary(int column) {
+        return Collections.unmodifiableList(columns[column].expect(ColumnType.STRING).dictionary);
+    }
+
+    /**
+     * A view of one row.
+     */
+    public @NotNull Row row(int row) {
+        checkRow(row);
+        return new Row(row);
+    }
+
+    /**
+     * Iterates the rows through a single view that moves along, so a view must not be kept past
+     * the next call to {@code next()}. Use {@link #row(int)} for views that stay put.
+     */
+    @Override
+    public @NotNull Iterator<Row> iterator() {
+        return new Iterator<>() {
+            private final Row view = new Row(-1);
+
+            @Override
+            public boolean hasNext() {
+                return view.index + 1 < rowCount;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                view.index++;
+                return view;
+            }
+        };
+    }
+
+    /**
+     * The rows as read-only maps from column name to value. A map holds the columns its row has,
+     * in column order, and reads them from the columns on access.
+     */
+    public @NotNull List<Map<String, Object>> asMaps() {
+        return new AbstractList<>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return new RowMap(row(index));
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    /**
+     * A new result holding the given rows, in the given order.
+     */
+    public @NotNull ColumnarResult select(int @NotNull [] rows) {
+        for (int row : rows) checkRow(row);
+
+        Column[] selected = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            selected[i] = columns[i].select(rows);
+        }
+        return new ColumnarResult(names, selected, indexes, rows.length);
+    }
+
+    /**
+     * The first {@code limit} rows, or this result if it has no more.
+     */
+    public @NotNull ColumnarResult limit(int limit) {
+        if (limit < 0 || limit >= rowCount) return this;
+
+        int[] rows = new int[limit];
+        for (int i = 0; i < limit; i++) rows[i] = i;
+        return select(rows);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{columns=" + Arrays.toString(names) + ", rows=" + rowCount + '}';
+    }
+
+    /**
+     * How a column is stored.
+     */
+    public enum ColumnType {
+        /** Only nulls so far. */
+        EMPTY,
+        LONG,
+        DOUBLE,
+        STRING,
+        OBJECT
+    }
+
+    /**
+     * A view of one row of the result.
+     */
+    public final class Row {
+        private int index;
+
+        private Row(int index) {
+            this.index = index;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public @Nullable Object get(int column) {
+            return columns[column].get(index);
+        }
+
+        public @Nullable Object get(@NotNull String column) {
+            int position = columnIndex(column);
+            return position < 0 ? null : columns[position].get(index);
+        }
+
+        public boolean has(@NotNull String column) {
+            int position = columnIndex(column);
+            return position >= 0 && columns[position].written.get(index);
+        }
+
+        public boolean isNull(int column) {
+            return columns[column].isNull(index);
+        }
+
+        public long getLong(int column) {
+            return ColumnarResult.this.getLong(index, column);
+        }
+
+        public long getLong(@NotNull String column) {
+            return getLong(require(column));
+        }
+
+        public double getDouble(int column) {
+            return ColumnarResult.this.getDouble(index, column);
+        }
+
+        public double getDouble(@NotNull String column) {
+            return getDouble(require(column));
+        }
+
+        public @Nullable String getString(int column) {
+            return ColumnarResult.this.getString(index, column);
+        }
+
+        public @Nullable String getString(@NotNull String column) {
+            return getString(require(column));
+        }
+
+        private int require(String column) {
+            int position = columnIndex(column);
+            if (position < 0) throw new IllegalArgumentException("No such column: " + column);
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return new RowMap(this).toString();
+        }
+    }
+
+    private final class RowMap extends AbstractMap<String, Object> {
+        private final Row row;
+
+        RowMap(Row row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String name ? row.get(name) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && row.has(name);
+        }
+
+        @Override
+        public @NotNull Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            int column = from;
+                            while (column < columns.length && !columns[column].written.get(row.index)) column++;
+                            return column;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < columns.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            int column = next;
+                            next = advance(column + 1);
+                            return new SimpleImmutableEntry<>(names[column], row.get(column));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Column column : columns) {
+                        if (column.written.get(row.index)) size++;
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Appends rows column by column. Values are written into the current row with the
+     * {@code set} methods, and {@link #endRow()} moves on to the next one. A row leaves out the
+     * columns it was not given.
+     */
+    public static final class Builder {
+        private final List<String> names = new ArrayList<>(8);
+        private final List<Column> columns = new ArrayList<>(8);
+        private final Map<String, Integer> indexes = new HashMap<>(16);
+        private int capacity;
+        private int row;
+
+        private Builder(int expectedRows) {
+            this.capacity = Math.max(expectedRows, 1);
+        }
+
+        /**
+         * @return the index of the column named {@code name}, added if it does not exist yet
+         */
+        public int column(@NotNull String name) {
+            Integer index = indexes.get(name);
+            if (index != null) return index;
+
+            int added = columns.size();
+            names.add(name);
+            columns.add(new Column(capacity));
+            indexes.put(name, added);
+            return added;
+        }
+
+        public @NotNull Builder setLong(int column, long value) {
+            columns.get(column).setLong(row, value, Long.class);
+            return this;
+        }
+
+        public @NotNull Builder setDouble(int column, double value) {
+            columns.get(column).setDouble(row, value, Double.class);
+            return this;
+        }
+
+        public @NotNull Builder setString(int column, @Nullable String value) {
+            Column target = columns.get(column);
+            if (value == null) target.setNull(row);
+            else target.setString(row, value);
+            return this;
+        }
+
+        public @NotNull Builder setNull(int column) {
+            columns.get(column).setNull(row);
+            return this;
+        }
+
+        /**
+         * Stores {@code value} in the column vector matching its type.
+         */
+        public @NotNull Builder set(int column, @Nullable Object value) {
+            Column target = columns.get(column);
+            switch (value) {
+                case null -> target.setNull(row);
+                case Long l -> target.setLong(row, l, Long.class);
+                case Integer i -> target.setLong(row, i, Integer.class);
+                case Short s -> target.setLong(row, s, Short.class);
+                case Byte b -> target.setLong(row, b, Byte.class);
+                case Double d -> target.setDouble(row, d, Double.class);
+                case Float f -> target.setDouble(row, f, Float.class);
+                case String s -> target.setString(row, s);
+                default -> target.setObject(row, value);
+            }
+            return this;
+        }
+
+        public @NotNull Builder set(@NotNull String column, @Nullable Object value) {
+            return set(column(column), value);
+        }
+
+        /**
+         * Finishes the current row.
+         */
+        public @NotNull Builder endRow() {
+            row++;
+            if (row == capacity) {
+                capacity = capacity + (capacity >> 1) + 1;
+                for (Column column : columns) column.grow(capacity);
+            }
+            return this;
+        }
+
+        public int rowCount() {
+            return row;
+        }
+
+        public @NotNull ColumnarResult build() {
+            if (row == 0 && columns.isEmpty()) return EMPTY;
+
+            Column[] built = new Column[columns.size()];
+            for (int i = 0; i < built.length; i++) {
+                built[i] = columns.get(i).trim(row);
+            }
+            return new ColumnarResult(names.toArray(new String[0]), built, Map.copyOf(indexes), row);
+        }
+    }
+
+    /**
+     * One column vector. Only the array matching {@link #type} is allocated.
+     */
+    private static final class Column {
+        private ColumnType type = ColumnType.EMPTY;
+        private int capacity;
+
+        /** Rows that have the column, null or not. */
+        private final BitSet written;
+        /** Rows whose value is null. */
+        private final BitSet nulls;
+
+        /** The boxed type {@code LONG} and {@code DOUBLE} values are handed out as. */
+        private Class<?> boxed;
+        private long[] longs;
+        private double[] doubles;
+        private int[] codes;
+        private List<String> dictionary;
+        private Map<String, Integer> dictionaryCodes;
+        private Object[] objects;
+
+        Column(int capacity) {
+            this.capacity = capacity;
+            this.written = new BitSet(capacity);
+            this.nulls = new BitSet(capacity);
+        }
+
+        private Column(ColumnType type, int capacity, BitSet written, BitSet nulls) {
+            this.type = type;
+            this.capacity = capacity;
+            this.written = written;
+            this.nulls = nulls;
+        }
+
+        boolean isNull(int row) {
+            return nulls.get(row) || !written.get(row);
+        }
+
+        Column expect(ColumnType expected) {
+            if (type != expected) {
+                throw new IllegalStateException("Column is stored as " + type + ", not " + expected);
+            }
+            return this;
+        }
+
+        void setNull(int row) {
+            written.set(row);
+            nulls.set(row);
+            if (type == ColumnType.STRING) codes[row] = -1;
+            else if (type == ColumnType.OBJECT) objects[row] = null;
+        }
+
+        void setLong(int row, long value, Class<?> box) {
+            if (type == ColumnType.EMPTY) {
+                type = ColumnType.LONG;
+                boxed = box;
+                longs = new long[capacity];
+            } else if (type == ColumnType.LONG && boxed != box) {
+                boxed = Long.class;
+            } else if (type != ColumnType.LONG) {
+                setObject(row, box(value, box));
+                return;
+            }
+            mark(row);
+            longs[row] = value;
+        }
+
+        void setDouble(int row, double value, Class<?> box) {
+            if (type == ColumnType.EMPTY) {
+                type = ColumnType.DOUBLE;
+                boxed = box;
+                doubles = new double[capacity];
+            } else if (type == ColumnType.DOUBLE && boxed != box) {
+                boxed = Double.class;
+            } else if (type != ColumnType.DOUBLE) {
+                setObject(row, box == Float.class ? (Object) (float) value : (Object) value);
+                return;
+            }
+            mark(row);
+            doubles[row] = value;
+        }
+
+        void setString(int row, String value) {
+            if (type == ColumnType.EMPTY) {
+                type = ColumnType.STRING;
+                codes = new int[capacity];
+                Arrays.fill(codes, -1);
+                dictionary = new ArrayList<>(16);
+                dictionaryCodes = new HashMap<>(16);
+            } else if (type != ColumnType.STRING) {
+                setObject(row, value);
+                return;
+            }
+            mark(row);
+            Integer code = dictionaryCodes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                dictionaryCodes.put(value, code);
+            }
+            codes[row] = code;
+        }
+
+        void setObject(int row, Object value) {
+            if (type != ColumnType.OBJECT) toObjects();
+            mark(row);
+            objects[row] = value;
+        }
+
+        private void mark(int row) {
+            written.set(row);
+            nulls.clear(row);
+        }
+
+        /**
+         * Falls back to objects once a column holds values of different kinds.
+         */
+        private void toObjects() {
+            Object[] boxedValues = new Object[capacity];
+            for (int row = written.nextSetBit(0); row >= 0; row = written.nextSetBit(row + 1)) {
+                boxedValues[row] = get(row);
+            }
+            type = ColumnType.OBJECT;
+            objects = boxedValues;
+            longs = null;
+            doubles = null;
+            codes = null;
+            dictionary = null;
+            dictionaryCodes = null;
+        }
+
+        Object get(int row) {
+            if (isNull(row)) return null;
+            return switch (type) {
+                case EMPTY -> null;
+                case LONG -> box(longs[row], boxed);
+                case DOUBLE -> boxed == Float.class ? (Object) (float) doubles[row] : (Object) doubles[row];
+                case STRING -> dictionary.get(codes[row]);
+                case OBJECT -> objects[row];
+            };
+        }
+
+        private static Object box(long value, Class<?> box) {
+            if (box == Integer.class) return (int) value;
+            if (box == Short.class) return (short) value;
+            if (box == Byte.class) return (byte) value;
+            return value;
+        }
+
+        void grow(int newCapacity) {
+            capacity = newCapacity;
+            switch (type) {
+                case LONG -> longs = Arrays.copyOf(longs, newCapacity);
+                case DOUBLE -> doubles = Arrays.copyOf(doubles, newCapacity);
+                case STRING -> {
+                    int old = codes.length;
+                    codes = Arrays.copyOf(codes, newCapacity);
+                    if (newCapacity > old) Arrays.fill(codes, old, newCapacity, -1);
+                }
+                case OBJECT -> objects = Arrays.copyOf(objects, newCapacity);
+                case EMPTY -> { }
+            }
+        }
+
+        Column trim(int rows) {
+            if (capacity != rows) grow(rows);
+            return this;
+        }
+
+        Column select(int[] rows) {
+            BitSet selectedWritten = new BitSet(rows.length);
+            BitSet selectedNulls = new BitSet(rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                if (written.get(rows[i])) selectedWritten.set(i);
+                if (nulls.get(rows[i])) selectedNulls.set(i);
+            }
+
+            Column selected = new Column(type, rows.length, selectedWritten, selectedNulls);
+            selected.boxed = boxed;
+            switch (type) {
+                case LONG -> {
+                    selected.longs = new long[rows.length];
+                    for (int i = 0; i < rows.length; i++) selected.longs[i] = longs[rows[i]];
+                }
+                case DOUBLE -> {
+                    selected.doubles = new double[rows.length];
+                    for (int i = 0; i < rows.length; i++) selected.doubles[i] = doubles[rows[i]];
+                }
+                case STRING -> {
+                    selected.codes = new int[rows.length];
+                    for (int i = 0; i < rows.length; i++) selected.codes[i] = codes[rows[i]];
+                    selected.dictionary = dictionary;
+                    selected.dictionaryCodes = dictionaryCodes;
+                }
+                case OBJECT -> {
+                    selected.objects = new Object[rows.length];
+                    for (int i = 0; i < rows.length; i++) selected.objects[i] = objects[rows[i]];
+                }
+                case EMPTY -> { }
+            }
+            return selected;
+        }
+    }
+}
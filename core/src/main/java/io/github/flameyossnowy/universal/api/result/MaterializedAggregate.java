@@ -0,0 +1,651 @@
+package io.github.flameyossnowy.universal.api.result;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.options.AggregateFieldDefinition;
+import io.github.flameyossnowy.universal.api.options.AggregateFilterOption;
+import io.github.flameyossnowy.universal.api.options.AggregationQuery;
+import io.github.flameyossnowy.universal.api.options.AggregationType;
+import io.github.flameyossnowy.universal.api.options.FieldDefinition;
+import io.github.flameyossnowy.universal.api.options.FilterOption;
+import io.github.flameyossnowy.universal.api.options.SelectOption;
+import io.github.flameyossnowy.universal.api.options.SimpleFieldDefinition;
+import io.github.flameyossnowy.universal.api.options.SortOption;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import io.github.flameyossnowy.universal.api.options.SubQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The result of an {@link AggregationQuery}, kept up to date in memory from the writes of a
+ * repository instead of being recomputed by the store on every read.
+ * <p>
+ * Obtained from {@link io.github.flameyossnowy.universal.api.RepositoryAdapter#materialize(AggregationQuery)}.
+ * The adapter hands every entity it inserts or updates to {@link #apply(Object)} and every id it
+ * deletes to {@link #remove(Object)}; writes whose rows are not known, such as update and delete
+ * queries or writes inside a transaction that may still roll back, {@link #invalidate()} the
+ * aggregate instead, and the next read rebuilds it from the store.
+ * <p>
+ * Supported are group-by fields and {@code COUNT}, {@code SUM}, {@code AVG}, {@code MIN} and
+ * {@code MAX} over plain fields, WHERE filters comparing a field with a value
+ * ({@code =, !=, <, <=, >, >=, IN, NOT IN, BETWEEN, IS NULL, IS NOT NULL}), HAVING, ORDER BY on
+ * the selected columns and a limit. The WHERE filters are evaluated in Java with
+ * {@link Comparable} semantics, so a store comparing text with a case-insensitive collation may
+ * disagree with them.
+ * <p>
+ * Each entity's group key and aggregated values are remembered by id, so an update or delete
+ * retracts exactly what the entity contributed without reading its previous state. Counts and
+ * sums are adjusted in place. {@code MIN} and {@code MAX} keep the extreme and how many entities
+ * share it; once the last of them is retracted, the group is recomputed from the remembered
+ * values of its members on the next read.
+ * <p>
+ * Sums of floating point fields are adjusted by subtraction as well and may drift from a
+ * recomputed sum in the last bits; {@link #refresh()} rebuilds the aggregate from scratch.
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class MaterializedAggregate<T, ID> implements AutoCloseable {
+    private final RepositoryModel<T, ID> repositoryModel;
+    private final AggregationQuery query;
+    private final Supplier<? extends Iterable<T>> source;
+    private final @Nullable Consumer<MaterializedAggregate<T, ID>> detach;
+
+    private final List<Predicate<T>> where;
+    private final List<FieldModel<T>> groupBy;
+    /** The aggregates of the select fields, followed by those only HAVING refers to. */
+    private final List<Slot<T>> slots = new ArrayList<>();
+    private final List<Predicate<Object[]>> having = new ArrayList<>();
+
+    private final String[] columns;
+    /** For each select field, the index of its group-by value, or -1 for an aggregate. */
+    private final int[] keyOf;
+    /** For each select field, the index of its aggregate slot, or -1 for a group-by value. */
+    private final int[] slotOf;
+    private final @Nullable Comparator<Object[]> order;
+
+    private final Map<ID, Contribution> contributions = new HashMap<>();
+    private final Map<List<Object>, Group> groups = new LinkedHashMap<>();
+    private int dirtyGroups;
+
+    private boolean stale = true;
+    private boolean closed;
+    private @Nullable ColumnarResult result;
+
+    /**
+     * Creates an aggregate that is maintained by hand through {@link #apply(Object)} and
+     * {@link #remove(Object)}.
+     *
+     * @param source supplies every stored entity matching the WHERE filters of the query, the
+     *               aggregate is built from it on the first read and on every rebuild; entities
+     *               that do not match are skipped
+     * @throws IllegalArgumentException if the query uses anything the aggregate cannot maintain
+     */
+    public MaterializedAggregate(
+        @NotNull RepositoryModel<T, ID> repositoryModel,
+        @NotNull AggregationQuery query,
+        @NotNull Supplier<? extends Iterable<T>> source
+    ) {
+        this(repositoryModel, query, source, null);
+    }
+
+    MaterializedAggregate(
+        @NotNull RepositoryModel<T, ID> repositoryModel,
+        @NotNull AggregationQuery query,
+        @NotNull Supplier<? extends Iterable<T>> source,
+        @Nullable Consumer<MaterializedAggregate<T, ID>> detach
+    ) {
+        if (repositoryModel.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Materialized aggregates need a primary key: " + repositoryModel.tableName());
+        }
+        this.repositoryModel = repositoryModel;
+        this.query = query;
+        this.source = source;
+        this.detach = detach;
+
+        List<FilterOption> whereFilters = query.whereFilters() == null ? List.of() : query.whereFilters();
+        this.where = new ArrayList<>(whereFilters.size());
+        for (FilterOption filter : whereFilters) {
+            where.add(condition(filter));
+        }
+
+        List<String> groupFields = query.groupByFields() == null ? List.of() : query.groupByFields();
+        this.groupBy = new ArrayList<>(groupFields.size());
+        for (String name : groupFields) {
+            groupBy.add(field(name));
+        }
+
+        List<FieldDefinition> select = query.selectFields();
+        this.columns = new String[select.size()];
+        this.keyOf = new int[select.size()];
+        this.slotOf = new int[select.size()];
+        for (int i = 0; i < columns.length; i++) {
+            FieldDefinition fd = select.get(i);
+            if (fd instanceof AggregateFieldDefinition a) {
+                columns[i] = a.alias();
+                keyOf[i] = -1;
+                slotOf[i] = slot(a.field(), a.jsonPath(), a.aggregationType(), a.condition());
+            } else if (fd instanceof SimpleFieldDefinition s && groupFields.contains(s.field())) {
+                columns[i] = s.getFieldName();
+                keyOf[i] = groupFields.indexOf(s.field());
+                slotOf[i] = -1;
+            } else {
+                throw new IllegalArgumentException("Select field " + fd.getFieldName() + " is neither grouped nor a supported aggregate");
+            }
+        }
+
+        if (query.havingFilters() != null) {
+            for (FilterOption filter : query.havingFilters()) {
+                having.add(havingCondition(filter));
+            }
+        }
+        this.order = query.orderBy() == null || query.orderBy().isEmpty() ? null : comparator(query.orderBy());
+    }
+
+    /**
+     * Adds an inserted entity, or replaces what an updated one contributed before.
+     */
+    public synchronized void apply(@NotNull T entity) {
+        if (stale || closed) return;
+
+        ID id = repositoryModel.getPrimaryKeyValue(entity);
+        if (id == null) {
+            // the store assigns the key, so a later update or delete could not be matched up
+            invalidate();
+            return;
+        }
+
+        Contribution previous = contributions.remove(id);
+        if (previous != null) accumulate(previous, -1);
+        if (matches(entity)) {
+            Contribution added = contribution(entity);
+            contributions.put(id, added);
+            accumulate(added, 1);
+        }
+        if (previous != null || contributions.containsKey(id)) result = null;
+    }
+
+    /**
+     * Retracts what a deleted entity contributed.
+     */
+    public synchronized void remove(@NotNull ID id) {
+        if (stale || closed) return;
+
+        Contribution previous = contributions.remove(id);
+        if (previous == null) return;
+        accumulate(previous, -1);
+        result = null;
+    }
+
+    /**
+     * Drops the maintained state; the next read rebuilds it from the store.
+     */
+    public synchronized void invalidate() {
+        stale = true;
+        result = null;
+        contributions.clear();
+        groups.clear();
+        dirtyGroups = 0;
+    }
+
+    /**
+     * Rebuilds the aggregate from the store now.
+     */
+    public synchronized void refresh() {
+        ensureOpen();
+        rebuild();
+    }
+
+    /**
+     * @return the current result, with HAVING, ORDER BY and the limit of the query applied
+     */
+    public synchronized @NotNull ColumnarResult result() {
+        ensureOpen();
+        if (stale) rebuild();
+        if (dirtyGroups > 0) recomputeExtremes();
+
+        ColumnarResult current = result;
+        if (current == null) {
+            current = build();
+            result = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return the current result as one map per row
+     */
+    public @NotNull List<Map<String, Object>> rows() {
+        return result().asMaps();
+    }
+
+    /**
+     * @return the number of groups before HAVING and the limit are applied
+     */
+    public synchronized int groupCount() {
+        ensureOpen();
+        if (stale) rebuild();
+        return groups.size();
+    }
+
+    public @NotNull AggregationQuery query() {
+        return query;
+    }
+
+    /**
+     * Stops maintaining the aggregate and releases its state.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            invalidate();
+        }
+        if (detach != null) detach.accept(this);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private – maintenance
+    // -------------------------------------------------------------------------
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Materialized aggregate is closed");
+    }
+
+    private void rebuild() {
+        contributions.clear();
+        groups.clear();
+        dirtyGroups = 0;
+        result = null;
+
+        for (T entity : source.get()) {
+            if (!matches(entity)) continue;
+            ID id = repositoryModel.getPrimaryKeyValue(entity);
+            Contribution added = contribution(entity);
+            Contribution previous = contributions.put(id, added);
+            if (previous != null) accumulate(previous, -1);
+            accumulate(added, 1);
+        }
+        stale = false;
+    }
+
+    private boolean matches(T entity) {
+        for (Predicate<T> condition : where) {
+            if (!condition.test(entity)) return false;
+        }
+        return true;
+    }
+
+    private Contribution contribution(T entity) {
+        Object[] key = new Object[groupBy.size()];
+        for (int k = 0; k < key.length; k++) key[k] = groupBy.get(k).getValue(entity);
+
+        Object[] values = new Object[slots.size()];
+        for (int s = 0; s < values.length; s++) {
+            FieldModel<T> field = slots.get(s).field();
+            values[s] = field == null ? null : field.getValue(entity);
+        }
+        return new Contribution(Arrays.asList(key), values);
+    }
+
+    private void accumulate(Contribution contribution, int sign) {
+        Group group = groups.get(contribution.key());
+        if (group == null) {
+            if (sign < 0) return;
+            group = new Group(slots.size());
+            groups.put(contribution.key(), group);
+        }
+
+        group.rows += sign;
+        Object[] values = contribution.values();
+        for (int s = 0; s < values.length; s++) {
+            Object value = values[s];
+            if (value == null) continue;
+
+            Slot<T> slot = slots.get(s);
+            group.counts[s] += sign;
+            switch (slot.type()) {
+                case SUM, AVG -> {
+                    if (slot.integral()) group.longSums[s] += sign * ((Number) value).longValue();
+                    else group.sums[s] += sign * ((Number) value).doubleValue();
+                }
+                case MIN, MAX -> {
+                    // a dirty group recomputes its extremes from all members anyway
+                    if (group.dirty) continue;
+                    if (sign > 0) offer(group, s, slot.type(), value);
+                    else retract(group, s, value);
+                }
+                default -> {}
+            }
+        }
+
+        if (group.rows == 0) {
+            if (group.dirty) dirtyGroups--;
+            groups.remove(contribution.key());
+        }
+    }
+
+    private static void offer(Group group, int slot, AggregationType type, Object value) {
+        Object extreme = group.extremes[slot];
+        int c = extreme == null ? -1 : compareValues(value, extreme);
+        if (c == 0) {
+            group.multiplicity[slot]++;
+        } else if (extreme == null || (type == AggregationType.MIN ? c < 0 : c > 0)) {
+            group.extremes[slot] = value;
+            group.multiplicity[slot] = 1;
+        }
+    }
+
+    private void retract(Group group, int slot, Object value) {
+        Object extreme = group.extremes[slot];
+        if (extreme == null || compareValues(value, extreme) != 0 || --group.multiplicity[slot] > 0) return;
+
+        group.extremes[slot] = null;
+        if (group.counts[slot] > 0) {
+            group.dirty = true;
+            dirtyGroups++;
+        }
+    }
+
+    /** Recomputes MIN and MAX of every group whose extreme was retracted, in one pass over the members. */
+    private void recomputeExtremes() {
+        for (Group group : groups.values()) {
+            if (!group.dirty) continue;
+            Arrays.fill(group.extremes, null);
+            Arrays.fill(group.multiplicity, 0);
+        }
+
+        for (Contribution contribution : contributions.values()) {
+            Group group = groups.get(contribution.key());
+            if (!group.dirty) continue;
+            for (int s = 0; s < slots.size(); s++) {
+                AggregationType type = slots.get(s).type();
+                Object value = contribution.values()[s];
+                if (value != null && (type == AggregationType.MIN || type == AggregationType.MAX)) {
+                    offer(group, s, type, value);
+                }
+            }
+        }
+
+        for (Group group : groups.values()) group.dirty = false;
+        dirtyGroups = 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private – output
+    // -------------------------------------------------------------------------
+
+    private ColumnarResult build() {
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        if (groups.isEmpty() && groupBy.isEmpty()) {
+            // like SQL, an ungrouped aggregate over no rows is one row of zero counts and nulls
+            rows.add(row(List.of(), new Group(slots.size())));
+        } else {
+            for (Map.Entry<List<Object>, Group> entry : groups.entrySet()) {
+                rows.add(row(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        if (!having.isEmpty()) {
+            rows.removeIf(row -> {
+                for (Predicate<Object[]> condition : having) {
+                    if (!condition.test(row)) return true;
+                }
+                return false;
+            });
+        }
+        if (order != null) rows.sort(order);
+
+        int limit = query.limit() >= 0 ? Math.min(query.limit(), rows.size()) : rows.size();
+        ColumnarResult.Builder builder = ColumnarResult.builder(limit);
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < indexes.length; i++) indexes[i] = builder.column(columns[i]);
+        for (int r = 0; r < limit; r++) {
+            Object[] row = rows.get(r);
+            for (int i = 0; i < indexes.length; i++) builder.set(indexes[i], row[i]);
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    /** The select columns of a group, followed by its hidden HAVING aggregates. */
+    private Object[] row(List<Object> key, Group group) {
+        Object[] row = new Object[columns.length + slots.size()];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = keyOf[i] >= 0 ? key.get(keyOf[i]) : value(group, slotOf[i]);
+        }
+        for (int s = 0; s < slots.size(); s++) {
+            row[columns.length + s] = value(group, s);
+        }
+        return row;
+    }
+
+    private @Nullable Object value(Group group, int s) {
+        Slot<T> slot = slots.get(s);
+        return switch (slot.type()) {
+            case COUNT -> slot.field() == null ? group.rows : group.counts[s];
+            case SUM -> group.counts[s] == 0 ? null : slot.integral() ? (Object) group.longSums[s] : (Object) group.sums[s];
+            case AVG -> group.counts[s] == 0 ? null
+                : (slot.integral() ? (double) group.longSums[s] : group.sums[s]) / group.counts[s];
+            case MIN, MAX -> group.extremes[s];
+            default -> null;
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    // Private – compiling the query
+    // -------------------------------------------------------------------------
+
+    private FieldModel<T> field(String name) {
+        FieldModel<T> field = repositoryModel.fieldByName(name);
+        if (field == null || field.relationship()) {
+            throw new IllegalArgumentException("Unknown field for a materialized aggregate: " + name);
+        }
+        return field;
+    }
+
+    private int slot(String name, @Nullable String jsonPath, AggregationType type, @Nullable FilterOption condition) {
+        if (jsonPath != null || condition != null) {
+            throw new IllegalArgumentException("JSON and conditional aggregates cannot be materialized: " + name);
+        }
+
+        FieldModel<T> field = type == AggregationType.COUNT && "*".equals(name) ? null : field(name);
+        boolean integral = field != null && integral(field.type());
+        switch (type) {
+            case COUNT, MIN, MAX -> {}
+            case SUM, AVG -> {
+                if (!integral && !numeric(field.type())) {
+                    throw new IllegalArgumentException(type + " needs a numeric field: " + name);
+                }
+            }
+            default -> throw new IllegalArgumentException("Aggregate cannot be materialized: " + type);
+        }
+
+        slots.add(new Slot<>(type, field, integral));
+        return slots.size() - 1;
+    }
+
+    private Predicate<Object[]> havingCondition(FilterOption filter) {
+        int column;
+        String operator;
+        Object expected;
+        if (filter instanceof SelectOption(String option, String op, Object value)) {
+            column = column(option);
+            operator = op;
+            expected = value;
+        } else if (filter instanceof AggregateFilterOption a) {
+            column = a.alias() == null || a.alias().isBlank()
+                ? columns.length + slot(a.field(), a.jsonPath(), a.aggregationType(), a.condition())
+                : column(a.alias());
+            operator = a.operator();
+            expected = a.value();
+        } else {
+            throw new IllegalArgumentException("HAVING filter cannot be materialized: " + filter);
+        }
+
+        Predicate<Object> test = test(operator, expected);
+        if (test == null) throw new IllegalArgumentException("HAVING operator cannot be materialized: " + operator);
+        return row -> test.test(row[column]);
+    }
+
+    private int column(String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (name.equals(columns[i])) return i;
+        }
+        throw new IllegalArgumentException("Not a selected column: " + name);
+    }
+
+    /** Nulls sort first, and last once the column is descending. */
+    private Comparator<Object[]> comparator(List<SortOption> orderBy) {
+        Comparator<Object[]> comparator = null;
+        for (SortOption sort : orderBy) {
+            int column = column(sort.field());
+            Comparator<Object[]> next = (x, y) -> {
+                Object a = x[column];
+                Object b = y[column];
+                if (a == null || b == null) return a == b ? 0 : (a == null ? -1 : 1);
+                return compareValues(a, b);
+            };
+            if (sort.order() == SortOrder.DESCENDING) next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private Predicate<T> condition(FilterOption filter) {
+        if (!(filter instanceof SelectOption(String option, String operator, Object expected)) || expected instanceof SubQuery) {
+            throw new IllegalArgumentException("WHERE filter cannot be evaluated in memory: " + filter);
+        }
+
+        FieldModel<T> field = field(option);
+        Predicate<Object> test = test(operator, expected);
+        if (test == null) throw new IllegalArgumentException("WHERE operator cannot be evaluated in memory: " + operator);
+        return entity -> test.test(field.getValue(entity));
+    }
+
+    /**
+     * Compares like SQL: apart from {@code IS NULL}, nothing matches a null on either side.
+     */
+    private static @Nullable Predicate<Object> test(String operator, @Nullable Object expected) {
+        return switch (operator) {
+            case "=" -> expected instanceof Collection<?> values
+                ? value -> contains(values, value)
+                : value -> compares(value, expected, c -> c == 0);
+            case "!=" -> value -> compares(value, expected, c -> c != 0);
+            case ">" -> value -> compares(value, expected, c -> c > 0);
+            case ">=" -> value -> compares(value, expected, c -> c >= 0);
+            case "<" -> value -> compares(value, expected, c -> c < 0);
+            case "<=" -> value -> compares(value, expected, c -> c <= 0);
+            case "IN" -> expected instanceof Collection<?> values ? value -> contains(values, value) : null;
+            case "NOT IN" -> expected instanceof Collection<?> values
+                ? value -> value != null && !contains(values, value)
+                : null;
+            case "BETWEEN" -> expected instanceof Object[] range && range.length == 2
+                ? value -> compares(value, range[0], c -> c >= 0) && compares(value, range[1], c -> c <= 0)
+                : null;
+            case "IS NULL" -> Objects::isNull;
+            case "IS NOT NULL" -> Objects::nonNull;
+            default -> null;
+        };
+    }
+
+    private static boolean contains(Collection<?> values, @Nullable Object value) {
+        for (Object candidate : values) {
+            if (compares(value, candidate, c -> c == 0)) return true;
+        }
+        return false;
+    }
+
+    private static boolean compares(@Nullable Object value, @Nullable Object expected, IntPredicate outcome) {
+        Integer c = compare(value, expected);
+        return c != null && outcome.test(c);
+    }
+
+    /**
+     * @return the order of the values, or {@code null} if either is null or they are not comparable
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static @Nullable Integer compare(@Nullable Object value, @Nullable Object expected) {
+        if (value == null || expected == null) return null;
+        if (value instanceof Enum<?> e) value = e.name();
+        if (expected instanceof Enum<?> e) expected = e.name();
+
+        if (value instanceof Number a && expected instanceof Number b) {
+            if (integral(a.getClass()) && integral(b.getClass())) return Long.compare(a.longValue(), b.longValue());
+            if (a instanceof BigDecimal || b instanceof BigDecimal || a instanceof BigInteger || b instanceof BigInteger) {
+                return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+            }
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        if (value instanceof CharSequence && expected instanceof CharSequence) {
+            return value.toString().compareTo(expected.toString());
+        }
+        if (value instanceof Comparable c && value.getClass().isInstance(expected)) return c.compareTo(expected);
+        return value.equals(expected) ? 0 : null;
+    }
+
+    private static int compareValues(Object a, Object b) {
+        Integer c = compare(a, b);
+        return c == null ? 0 : c;
+    }
+
+    private static boolean integral(Class<?> type) {
+        return type == long.class || type == Long.class
+            || type == int.class || type == Integer.class
+            || type == short.class || type == Short.class
+            || type == byte.class || type == Byte.class;
+    }
+
+    private static boolean numeric(Class<?> type) {
+        return type == double.class || type == float.class || Number.class.isAssignableFrom(type);
+    }
+
+    // -------------------------------------------------------------------------
+    // State
+    // -------------------------------------------------------------------------
+
+    /** One aggregate; a {@code null} field is {@code COUNT(*)}. */
+    private record Slot<T>(AggregationType type, @Nullable FieldModel<T> field, boolean integral) {
+    }
+
+    /** What one entity adds to its group: the group key and the value of each slot's field. */
+    private record Contribution(List<Object> key, Object[] values) {
+    }
+
+    private static final class Group {
+        long rows;
+        /** Non-null values per slot. */
+        final long[] counts;
+        final long[] longSums;
+        final double[] sums;
+        final Object[] extremes;
+        /** How many values are equal to the extreme of each slot. */
+        final long[] multiplicity;
+        /** Whether an extreme was retracted and must be recomputed from the members. */
+        boolean dirty;
+
+        Group(int slots) {
+            this.counts = new long[slots];
+            this.longSums = new long[slots];
+            this.sums = new double[slots];
+            this.extremes = new Object[slots];
+            this.multiplicity = new long[slots];
+        }
+    }
+}
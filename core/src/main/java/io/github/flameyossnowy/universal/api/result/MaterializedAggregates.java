@@ -0,0 +1,67 @@
+package io.github.flameyossnowy.universal.api.result;
+
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.options.AggregationQuery;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * The {@link MaterializedAggregate}s of one repository, which its write paths feed.
+ * <p>
+ * Writes only check {@link #isEmpty()} when nothing is materialized, so repositories that never
+ * call {@code materialize} pay nothing for it.
+ */
+@ApiStatus.Internal
+public final class MaterializedAggregates<T, ID> {
+    private final RepositoryModel<T, ID> repositoryModel;
+    private final List<MaterializedAggregate<T, ID>> maintained = new CopyOnWriteArrayList<>();
+
+    public MaterializedAggregates(@NotNull RepositoryModel<T, ID> repositoryModel) {
+        this.repositoryModel = repositoryModel;
+    }
+
+    /**
+     * Creates an aggregate that is maintained until it is closed.
+     *
+     * @param source supplies every stored entity matching the WHERE filters of the query
+     */
+    public @NotNull MaterializedAggregate<T, ID> register(@NotNull AggregationQuery query, @NotNull Supplier<? extends Iterable<T>> source) {
+        MaterializedAggregate<T, ID> aggregate = new MaterializedAggregate<>(repositoryModel, query, source, maintained::remove);
+        maintained.add(aggregate);
+        return aggregate;
+    }
+
+    public boolean isEmpty() {
+        return maintained.isEmpty();
+    }
+
+    /**
+     * Applies entities that were inserted or updated.
+     */
+    public void onWrite(@NotNull Collection<? extends T> written) {
+        for (MaterializedAggregate<T, ID> aggregate : maintained) {
+            for (T entity : written) aggregate.apply(entity);
+        }
+    }
+
+    /**
+     * Retracts entities that were deleted.
+     */
+    public void onDelete(@NotNull Collection<? extends ID> deleted) {
+        for (MaterializedAggregate<T, ID> aggregate : maintained) {
+            for (ID id : deleted) aggregate.remove(id);
+        }
+    }
+
+    /**
+     * Rebuilds every aggregate on its next read, after writes whose rows are not known.
+     */
+    public void invalidate() {
+        for (MaterializedAggregate<T, ID> aggregate : maintained) aggregate.invalidate();
+    }
+}
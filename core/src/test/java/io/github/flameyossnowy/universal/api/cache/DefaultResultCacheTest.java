@@ -0,0 +1,124 @@
+package io.github.flameyossnowy.universal.api.cache;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultResultCacheTest {
+    private static final Function<Integer, Integer> IDENTITY = Function.identity();
+
+    @Test
+    void invalidatesEveryQueryContainingAnId() {
+        DefaultResultCache<String, Integer, Integer> cache = newCache(CacheAlgorithmType.NONE);
+
+        for (int query = 0; query < 100; query++) {
+            List<Integer> results = new ArrayList<>();
+            for (int id = query; id < query + 10; id++) {
+                results.add(id);
+            }
+            cache.insert("q" + query, results, IDENTITY);
+        }
+
+        cache.invalidate(50);
+
+        for (int query = 0; query < 100; query++) {
+            boolean contains50 = query <= 50 && query + 10 > 50;
+            assertEquals(contains50, cache.fetch("q" + query) == null, "q" + query);
+        }
+        assertEquals(90, cache.size());
+    }
+
+    @Test
+    void linksAreDroppedWithTheirResults() {
+        DefaultResultCache<String, Integer, Integer> cache = newCache(CacheAlgorithmType.NONE);
+
+        cache.insert("a", List.of(1, 2, 3), IDENTITY);
+        cache.insert("b", List.of(3, 4), IDENTITY);
+        assertEquals(4, cache.trackedIds());
+
+        cache.insert("a", List.of(1), IDENTITY);
+        assertEquals(3, cache.trackedIds());
+
+        cache.clear("b");
+        assertEquals(1, cache.trackedIds());
+
+        cache.invalidate(1);
+        assertEquals(0, cache.trackedIds());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void insertsOnlyDropResultsWhoseFilterMatches() {
+        DefaultResultCache<String, Integer, Integer> cache = newCache(CacheAlgorithmType.NONE);
+
+        cache.insert("even", List.of(2, 4), IDENTITY, 60_000, id -> id % 2 == 0);
+        cache.insert("odd", List.of(1, 3), IDENTITY, 60_000, id -> id % 2 != 0);
+        cache.insert("unknown", List.of(1, 2), IDENTITY);
+
+        cache.invalidateForInserts(List.of(6));
+
+        assertNull(cache.fetch("even"));
+        assertEquals(List.of(1, 3), cache.fetch("odd"));
+        assertNull(cache.fetch("unknown"), "results without a filter could contain any new row");
+    }
+
+    @Test
+    void tableGenerationMakesEverythingStale() {
+        DefaultResultCache<String, Integer, Integer> cache = newCache(CacheAlgorithmType.NONE);
+
+        cache.insert("a", List.of(1), IDENTITY, 60_000, id -> false);
+        cache.invalidateTable();
+        assertNull(cache.fetch("a"));
+
+        cache.insert("a", List.of(1), IDENTITY);
+        assertEquals(List.of(1), cache.fetch("a"));
+    }
+
+    @Test
+    void resultsReadBeforeAWriteAreCachedStale() {
+        DefaultResultCache<String, Integer, Integer> cache = newCache(CacheAlgorithmType.NONE);
+
+        // the write completes while the query runs
+        DefaultResultCache.Generation before = cache.generation();
+        cache.invalidateTable();
+        cache.insert("a", List.of(1), IDENTITY, null, before);
+        assertNull(cache.fetch("a"));
+
+        before = cache.generation();
+        cache.invalidateForInserts(List.of(2));
+        cache.insert("b", List.of(1), IDENTITY, null, before);
+        assertNull(cache.fetch("b"));
+
+        before = cache.generation();
+        cache.insert("c", List.of(1), IDENTITY, null, before);
+        assertEquals(List.of(1), cache.fetch("c"));
+    }
+
+    @Test
+    void filteredResultsReadBeforeAnInsertAreDropped() {
+        DefaultResultCache<String, Integer, Integer> cache = newCache(CacheAlgorithmType.NONE);
+
+        // the insert could not check a filter that was not cached yet
+        DefaultResultCache.Generation before = cache.generation();
+        cache.invalidateForInserts(List.of(2));
+        cache.insert("even", List.of(4), IDENTITY, id -> id % 2 == 0, before);
+        assertNull(cache.fetch("even"));
+        assertEquals(0, cache.trackedIds());
+
+        before = cache.generation();
+        cache.insert("even", List.of(4), IDENTITY, id -> id % 2 == 0, before);
+        cache.invalidateForInserts(List.of(3));
+        assertEquals(List.of(4), cache.fetch("even"));
+    }
+
+    private static DefaultResultCache<String, Integer, Integer> newCache(CacheAlgorithmType type) {
+        return new DefaultResultCache<>(1024, 60_000, type, ExpirationPolicy.AFTER_WRITE, new TimerWheel(0));
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.flameyossnowy.universal.api.cache;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedCacheTest {
+
+    @Test
+    void expiredEntriesAreDroppedFromTheirPartition() {
+        TimerWheel wheel = new TimerWheel(0);
+        PartitionedCache<Integer, String> cache =
+            new PartitionedCache<>(4, 16, 5_000, CacheAlgorithmType.NONE, ExpirationPolicy.AFTER_WRITE, wheel);
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        assertEquals("one", cache.get(1));
+
+        wheel.advance(7_000);
+        assertEquals(0, cache.size());
+        assertNull(cache.get(1));
+        assertEquals(2, cache.getStatistics().getEvictions());
+        assertEquals(1, cache.getStatistics().getMisses());
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.flameyossnowy.universal.api.cache;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadThroughCacheTest {
+
+    @Test
+    void expiredEntriesAreLoadedAgain() {
+        TimerWheel wheel = new TimerWheel(0);
+        AtomicInteger loads = new AtomicInteger();
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(
+            16, 5_000, CacheAlgorithmType.NONE, ExpirationPolicy.AFTER_WRITE, wheel,
+            key -> "v" + key + '.' + loads.incrementAndGet(), null
+        );
+
+        assertEquals("v1.1", cache.get(1));
+        assertEquals("v1.1", cache.get(1));
+
+        wheel.advance(7_000);
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getStatistics().getEvictions());
+        assertEquals("v1.2", cache.get(1));
+    }
+
+    @Test
+    void missesAndHitsAreCounted() {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(
+            16, 0, CacheAlgorithmType.NONE, ExpirationPolicy.AFTER_WRITE, new TimerWheel(0),
+            String::valueOf, null
+        );
+
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+        assertEquals(2, statistics.getPuts());
+        assertTrue(statistics.getAverageLoadTime() >= 0);
+    }
+
+}
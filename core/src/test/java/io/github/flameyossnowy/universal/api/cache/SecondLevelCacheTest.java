@@ -0,0 +1,58 @@
+package io.github.flameyossnowy.universal.api.cache;
+
+import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheTest {
+
+    @Test
+    void expiredEntriesAreRemovedWithoutBeingRead() {
+        TimerWheel wheel = new TimerWheel(0);
+        SecondLevelCache<Integer, String> cache =
+            new SecondLevelCache<>(16, 5_000, CacheAlgorithmType.NONE, ExpirationPolicy.AFTER_WRITE, wheel);
+
+        cache.put(1, "one");
+        cache.put(2, "two", 60_000);
+        assertEquals(2, cache.size());
+
+        wheel.advance(7_000);
+        assertEquals(1, cache.size());
+        assertNull(cache.get(1));
+        assertEquals("two", cache.get(2));
+    }
+
+    @Test
+    void expireAfterAccessKeepsReadEntriesAlive() {
+        TimerWheel wheel = new TimerWheel(0);
+        SecondLevelCache<Integer, String> cache =
+            new SecondLevelCache<>(16, 5_000, CacheAlgorithmType.NONE, ExpirationPolicy.AFTER_ACCESS, wheel);
+
+        cache.put(1, "one");
+        cache.put(2, "two");
+        for (long t = 1_000; t <= 20_000; t += 1_000) {
+            wheel.advance(t);
+            assertEquals("one", cache.get(1));
+        }
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    void replacedEntriesDoNotExpireTheReplacement() {
+        TimerWheel wheel = new TimerWheel(0);
+        SecondLevelCache<Integer, String> cache =
+            new SecondLevelCache<>(16, 5_000, CacheAlgorithmType.NONE, ExpirationPolicy.AFTER_WRITE, wheel);
+
+        cache.put(1, "old");
+        wheel.advance(4_000);
+        cache.put(1, "new");
+        wheel.advance(7_000);
+
+        assertEquals("new", cache.get(1));
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.flameyossnowy.universal.api.cache.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentWTinyLFUCacheTest {
+
+    @Test
+    void neverExceedsMaximumSize() {
+        ConcurrentWTinyLFUCache<Integer, Integer> cache = new ConcurrentWTinyLFUCache<>(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100);
+        }
+    }
+
+    @Test
+    void putReplacesValueAndReturnsPrevious() {
+        ConcurrentWTinyLFUCache<String, String> cache = new ConcurrentWTinyLFUCache<>(10);
+        assertNull(cache.put("a", "1"));
+        assertEquals("1", cache.put("a", "2"));
+        assertEquals("2", cache.get("a"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void removeAndClear() {
+        ConcurrentWTinyLFUCache<Integer, Integer> cache = new ConcurrentWTinyLFUCache<>(10);
+        for (int i = 0; i < 10; i++) cache.put(i, i);
+
+        assertEquals(3, cache.remove(3));
+        assertNull(cache.get(3));
+        assertEquals(9, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertTrue(cache.entrySet().isEmpty());
+    }
+
+    @Test
+    void hotKeysSurviveSequentialScan() {
+        ConcurrentWTinyLFUCache<Integer, Integer> cache = new ConcurrentWTinyLFUCache<>(100);
+        for (int round = 0; round < 20; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                if (cache.get(hot) == null) cache.put(hot, hot);
+            }
+        }
+
+        for (int scan = 1_000; scan < 1_200; scan++) {
+            if (cache.get(scan) == null) cache.put(scan, scan);
+        }
+
+        int survivors = 0;
+        for (int hot = 0; hot < 50; hot++) {
+            if (cache.containsKey(hot)) survivors++;
+        }
+        assertEquals(50, survivors);
+    }
+
+    @Test
+    void computeIfAbsentOnlyComputesOnce() {
+        ConcurrentWTinyLFUCache<Integer, String> cache = new ConcurrentWTinyLFUCache<>(10);
+        assertEquals("x", cache.computeIfAbsent(1, k -> "x"));
+        assertEquals("x", cache.computeIfAbsent(1, k -> fail("should not recompute")));
+    }
+}
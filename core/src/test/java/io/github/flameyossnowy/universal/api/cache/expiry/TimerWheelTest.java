@@ -0,0 +1,69 @@
+package io.github.flameyossnowy.universal.api.cache.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void firesOnlyAfterDeadline() {
+        TimerWheel wheel = new TimerWheel(0);
+        AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(5_000, fired::incrementAndGet);
+
+        wheel.advance(4_000);
+        assertEquals(0, fired.get());
+
+        wheel.advance(6_000);
+        assertEquals(1, fired.get());
+
+        wheel.advance(60_000);
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    void cascadesFromCoarseLevels() {
+        TimerWheel wheel = new TimerWheel(0);
+        List<Long> delays = List.of(1_500L, 90_000L, 2 * 3_600_000L, 3 * 86_400_000L, 10 * 86_400_000L);
+        List<Long> firedAt = new ArrayList<>();
+        for (long delay : delays) {
+            wheel.schedule(delay, () -> firedAt.add(wheel.now()));
+        }
+
+        for (long t = 0; t <= 11 * 86_400_000L; t += 1_000) {
+            wheel.advance(t);
+        }
+
+        assertEquals(delays.size(), firedAt.size());
+        for (int i = 0; i < delays.size(); i++) {
+            long lateness = firedAt.get(i) - delays.get(i);
+            assertTrue(lateness >= 0 && lateness <= 2_048, "timer " + i + " fired " + lateness + "ms late");
+        }
+    }
+
+    @Test
+    void cancelAndReschedule() {
+        TimerWheel wheel = new TimerWheel(0);
+        AtomicInteger fired = new AtomicInteger();
+
+        TimerWheel.Timeout cancelled = wheel.schedule(1_000, fired::incrementAndGet);
+        cancelled.cancel();
+        assertFalse(cancelled.isPending());
+
+        TimerWheel.Timeout pushed = wheel.schedule(1_000, fired::incrementAndGet);
+        wheel.advance(900);
+        pushed.reschedule(10_000);
+
+        wheel.advance(5_000);
+        assertEquals(0, fired.get());
+        assertTrue(pushed.isPending());
+
+        wheel.advance(12_000);
+        assertEquals(1, fired.get());
+    }
+}
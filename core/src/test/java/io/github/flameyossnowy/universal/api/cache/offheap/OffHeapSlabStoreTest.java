@@ -0,0 +1,65 @@
+package io.github.flameyossnowy.universal.api.cache.offheap;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapSlabStoreTest {
+    private static final int ENTRY_SIZE = 1024;
+
+    @Test
+    void storesAndReadsBytes() {
+        try (OffHeapSlabStore<String> store = new OffHeapSlabStore<>(1 << 20)) {
+            assertTrue(store.put("a", "alpha".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE, expiresAt -> false));
+            assertTrue(store.put("b", "beta".getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE, expiresAt -> false));
+
+            assertEquals("alpha", new String(store.read(store.slot("a")), StandardCharsets.UTF_8));
+            assertEquals("beta", new String(store.read(store.slot("b")), StandardCharsets.UTF_8));
+            assertEquals(2, store.size());
+            assertEquals(9, store.liveBytes());
+
+            store.remove("a");
+            assertNull(store.slot("a"));
+            assertEquals(4, store.liveBytes());
+        }
+    }
+
+    @Test
+    void recyclesOldestSlabButKeepsEntriesThatWereRead() {
+        try (OffHeapSlabStore<Integer> store = new OffHeapSlabStore<>(1 << 20)) {
+            long capacity = store.capacityBytes();
+            int fits = (int) (capacity / ENTRY_SIZE);
+
+            for (int i = 0; i < fits; i++) {
+                store.put(i, payload(i), Long.MAX_VALUE, expiresAt -> false);
+            }
+            store.slot(0).hits.incrementAndGet();
+
+            store.put(fits, payload(fits), Long.MAX_VALUE, expiresAt -> false);
+
+            assertNotNull(store.slot(0), "entry that was read gets a second chance");
+            assertArrayEquals(payload(0), store.read(store.slot(0)));
+            assertNull(store.slot(1), "unread entries of the recycled slab are dropped");
+            assertNotNull(store.slot(fits));
+            assertEquals(1, store.recycledSlabs());
+            assertTrue(store.allocatedBytes() <= capacity);
+        }
+    }
+
+    @Test
+    void rejectsValuesLargerThanASlab() {
+        try (OffHeapSlabStore<String> store = new OffHeapSlabStore<>(1 << 20)) {
+            assertFalse(store.put("big", new byte[2 << 20], Long.MAX_VALUE, expiresAt -> false));
+            assertNull(store.slot("big"));
+        }
+    }
+
+    private static byte[] payload(int seed) {
+        byte[] bytes = new byte[ENTRY_SIZE];
+        Arrays.fill(bytes, (byte) seed);
+        return bytes;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.flameyossnowy.universal.api.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncExecutorsTest {
+
+    @Test
+    void ownersShareOneLimit() throws Exception {
+        Object pool = new Object();
+        AsyncExecutor first = AsyncExecutors.boundedFor(pool, 2);
+        AsyncExecutor second = AsyncExecutors.boundedFor(pool, 2);
+        assertSame(first, second);
+        assertNotSame(first, AsyncExecutors.boundedFor(new Object(), 2));
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[6];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            }, i % 2 == 0 ? first : second);
+        }
+
+        Thread.sleep(200);
+        release.countDown();
+        CompletableFuture.allOf(tasks).get(5, TimeUnit.SECONDS);
+        assertEquals(2, peak.get());
+
+        // the view stays open until every owner handed it back
+        AsyncExecutors.release(pool);
+        CompletableFuture.runAsync(() -> {}, second).get(5, TimeUnit.SECONDS);
+        AsyncExecutors.release(pool);
+        assertThrows(RejectedExecutionException.class, () -> second.execute(() -> {}));
+    }
+
+    @Test
+    void releasedOwnersGetANewExecutor() {
+        Object pool = new Object();
+        AsyncExecutor executor = AsyncExecutors.boundedFor(pool, 1);
+
+        AsyncExecutors.release(pool);
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+        assertNotSame(executor, AsyncExecutors.boundedFor(pool, 1));
+        AsyncExecutors.release(pool);
+    }
+}
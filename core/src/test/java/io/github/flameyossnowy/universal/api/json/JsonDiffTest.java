@@ -0,0 +1,49 @@
+package io.github.flameyossnowy.universal.api.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonDiffTest {
+
+    @Test
+    void nestedChangesAreReportedByPath() {
+        List<JsonDiff.Change> changes = JsonDiff.between(
+            "{\"a\": 1, \"b\": {\"c\": \"x\", \"d\": [1, 2]}, \"gone\": true}",
+            "{\"a\":1,\"b\":{\"c\":\"y\",\"d\":[1,2]},\"new\":{\"e\":null}}"
+        );
+
+        assertEquals(List.of(
+            new JsonDiff.Change(List.of("gone"), null),
+            new JsonDiff.Change(List.of("b", "c"), "\"y\""),
+            new JsonDiff.Change(List.of("new"), "{\"e\":null}")
+        ), changes);
+    }
+
+    @Test
+    void arraysAreReplacedWhole() {
+        List<JsonDiff.Change> changes = JsonDiff.between("{\"d\":[1,{\"x\":2}]}", "{\"d\":[1,{\"x\":3}]}");
+
+        assertEquals(List.of(new JsonDiff.Change(List.of("d"), "[1,{\"x\":3}]")), changes);
+    }
+
+    @Test
+    void nonObjectsAndMalformedJsonHaveNoDiff() {
+        assertNull(JsonDiff.between("[1]", "[2]"));
+        assertNull(JsonDiff.between("{\"a\":1}", "null"));
+        assertNull(JsonDiff.between("{\"a\":", "{\"a\":1}"));
+        assertEquals(List.of(), JsonDiff.between("{\"a\":\"b c\"}", "{ \"a\" : \"b c\" }"));
+    }
+
+    @Test
+    void largePatchesFallBackToFullWrites() {
+        JsonSnapshots<String> snapshots = new JsonSnapshots<>(1, 2);
+        snapshots.remember("id", 0, "{\"a\":1,\"bio\":\"" + "x".repeat(100) + "\"}");
+
+        assertEquals(1, snapshots.patch("id", 0, "{\"a\":2,\"bio\":\"" + "x".repeat(100) + "\"}").size());
+        assertNull(snapshots.patch("id", 0, "{\"a\":1,\"bio\":\"" + "y".repeat(100) + "\"}"));
+        assertNull(snapshots.patch("other", 0, "{\"a\":1}"));
+    }
+}
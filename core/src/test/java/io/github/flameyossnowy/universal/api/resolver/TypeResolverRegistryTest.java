@@ -0,0 +1,105 @@
+package io.github.flameyossnowy.universal.api.resolver;
+
+import io.github.flameyossnowy.universal.api.params.DatabaseParameters;
+import io.github.flameyossnowy.universal.api.result.DatabaseResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeResolverRegistryTest {
+
+    @Test
+    void generationChangesWithEveryRegistration() {
+        TypeResolverRegistry registry = new TypeResolverRegistry();
+
+        Object generation = registry.generation();
+        registry.resolve(Money.class);
+        assertSame(generation, registry.generation(), "resolving does not change the registrations");
+
+        registry.register(resolver(Money.class));
+        assertNotSame(generation, registry.generation());
+
+        generation = registry.generation();
+        registry.invalidate();
+        assertNotSame(generation, registry.generation());
+    }
+
+    @Test
+    void resolversRegisteredAfterTheFirstResolutionAreFound() {
+        TypeResolverRegistry registry = new TypeResolverRegistry();
+        ResolverHandle<Money> handle = ResolverHandle.of(Money.class);
+
+        TypeResolver<Money> money = resolver(Money.class);
+        assertNotSame(money, registry.resolve(Money.class));
+        assertNotSame(money, handle.get(registry));
+
+        registry.register(money);
+        assertSame(money, registry.resolve(Money.class));
+        assertSame(money, handle.get(registry));
+    }
+
+    @Test
+    void subtypesFindResolversRegisteredAfterThem() {
+        TypeResolverRegistry registry = new TypeResolverRegistry();
+        ResolverHandle<Circle> handle = ResolverHandle.of(Circle.class);
+
+        // resolved, including a negative answer, before Shape has a resolver
+        TypeResolver<?> before = registry.resolve(Circle.class);
+        assertSame(before, handle.get(registry));
+
+        TypeResolver<Shape> shape = resolver(Shape.class);
+        registry.register(shape);
+        assertSame(shape, registry.resolve(Circle.class));
+        assertSame(shape, handle.get(registry));
+    }
+
+    @Test
+    void handlesKeepAResolverPerRegistry() {
+        TypeResolverRegistry first = new TypeResolverRegistry();
+        TypeResolverRegistry second = new TypeResolverRegistry();
+        TypeResolver<Money> firstMoney = resolver(Money.class);
+        TypeResolver<Money> secondMoney = resolver(Money.class);
+        first.register(firstMoney);
+        second.register(secondMoney);
+
+        ResolverHandle<Money> handle = ResolverHandle.of(Money.class);
+        for (int i = 0; i < 3; i++) {
+            assertSame(firstMoney, handle.get(first));
+            assertSame(secondMoney, handle.get(second));
+        }
+
+        TypeResolver<Money> replacement = resolver(Money.class);
+        first.register(replacement);
+        assertSame(replacement, handle.get(first));
+        assertSame(secondMoney, handle.get(second));
+    }
+
+    private static <T> TypeResolver<T> resolver(Class<T> type) {
+        return new TypeResolver<>() {
+            @Override
+            public Class<T> getType() {
+                return type;
+            }
+
+            @Override
+            public Class<?> getDatabaseType() {
+                return String.class;
+            }
+
+            @Override
+            public T resolve(DatabaseResult result, String columnName) {
+                return null;
+            }
+
+            @Override
+            public void insert(DatabaseParameters parameters, String index, T value) {
+            }
+        };
+    }
+
+    private record Money(long cents) {}
+
+    private interface Shape {}
+
+    private record Circle(double radius) implements Shape {}
+}
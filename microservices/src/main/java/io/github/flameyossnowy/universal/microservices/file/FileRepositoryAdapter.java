@@ -8,12 +8,16 @@ import io.github.flameyossnowy.universal.api.RepositoryRegistry;
 import io.github.flameyossnowy.universal.api.annotations.FileRepository;
 import io.github.flameyossnowy.universal.api.annotations.enums.CompressionType;
 import io.github.flameyossnowy.universal.api.annotations.enums.FileFormat;
+import io.github.flameyossnowy.universal.api.cache.CacheConfig;
 import io.github.flameyossnowy.universal.api.cache.DatabaseSession;
+import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
+import io.github.flameyossnowy.universal.api.cache.QueryPredicates;
 import io.github.flameyossnowy.universal.api.cache.SessionOption;
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.factory.ObjectModel;
 import io.github.flameyossnowy.universal.api.factory.RelationshipLoader;
+import io.github.flameyossnowy.universal.api.handler.AbstractRelationshipHandler;
 import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
 import io.github.flameyossnowy.universal.api.meta.FieldModel;
 import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
@@ -33,6 +37,9 @@ import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverBridge;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
 import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegistry;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregate;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregates;
 import io.github.flameyossnowy.universal.microservices.file.executor.FileAggregationEngine;
 import io.github.flameyossnowy.universal.microservices.file.executor.FileEntityStore;
 import io.github.flameyossnowy.universal.microservices.file.validation.FileValidationTranslator;
@@ -75,6 +82,8 @@ import java.util.stream.Stream;
  */
 @SuppressWarnings("unused")
 public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, FileContext> {
+    /** Result cache key for {@link #find()}, which has no query of its own. */
+    private static final SelectQuery FIND_ALL = new SelectQuery(List.of(), List.of(), List.of(), -1, null);
 
     private final Class<T> entityType;
     private final Class<ID> idType;
@@ -91,6 +100,8 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
     private final FileAggregationEngine<T, ID> aggregationEngine;
     private final FileIndexManager<T, ID> indexManager;
     private final FileMutationExecutor<T, ID> mutationExecutor;
+    private final @Nullable DefaultResultCache<SelectQuery, T, ID> resultCache;
+    private final MaterializedAggregates<T, ID> materialized;
 
     private final JsonAdapter objectMapper;
     private final boolean hasAnyValidation;
@@ -108,6 +119,7 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
         IndexPathStrategy indexPathStrategy,
         boolean autoCreate,
         boolean parallelReads,
+        int aggregationGroupBudget,
         TypeRegistration typeRegistration
     ) {
         this.entityType = entityType;
@@ -161,9 +173,16 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
 
         this.filterEngine      = new FileFilterEngine<>(repositoryModel, objectMapper);
         this.queryExecutor     = new FileQueryExecutor<>(entityStore, filterEngine, repositoryModel);
-        this.aggregationEngine = new FileAggregationEngine<>(repositoryModel, objectMapper, filterEngine, queryExecutor);
+        this.aggregationEngine = new FileAggregationEngine<>(
+            repositoryModel, objectMapper, filterEngine, queryExecutor, aggregationGroupBudget);
         this.indexManager      = new FileIndexManager<>(repositoryModel, objectMapper, indexRoot);
-        this.mutationExecutor  = new FileMutationExecutor<>(repositoryModel, entityStore, filterEngine, indexManager, this);
+
+        CacheConfig cacheConfig = repositoryModel.getCacheConfig();
+        this.resultCache = cacheConfig != null && cacheConfig.isEnabled()
+            ? new DefaultResultCache<>(cacheConfig.maxSize(), cacheConfig.cacheAlgorithmType())
+            : null;
+        this.materialized      = new MaterializedAggregates<>(repositoryModel);
+        this.mutationExecutor  = new FileMutationExecutor<>(repositoryModel, entityStore, filterEngine, indexManager, this, resultCache, materialized);
 
         RepositoryRegistry.register(repositoryModel.tableName(), this);
         initDirectories(basePath, sharding, shardCount, autoCreate);
@@ -212,6 +231,7 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
             IndexPathStrategies.underBase(),
             true,
             false,
+            FileAggregationEngine.DEFAULT_GROUP_BUDGET,
             null
         );
     }
@@ -293,7 +313,20 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
     @Override
     public List<T> find(SelectQuery query, ReadPolicy policy) {
         try {
-            return query == null ? queryExecutor.findAll() : queryExecutor.find(query);
+            if (resultCache == null || (policy != null && policy.bypassCache())) {
+                return query == null ? queryExecutor.findAll() : queryExecutor.find(query);
+            }
+
+            SelectQuery key = query == null ? FIND_ALL : query;
+            List<T> cached = resultCache.fetch(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            DefaultResultCache.Generation generation = resultCache.generation();
+            List<T> results = query == null ? queryExecutor.findAll() : queryExecutor.find(query);
+            resultCache.insert(key, results, this::extractId, QueryPredicates.mayMatch(repositoryModel, query), generation);
+            return results;
         } catch (IOException e) {
             throw new RuntimeException("Failed to find entities", e);
         }
@@ -369,15 +402,24 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
 
     @Override
     public List<Map<String, Object>> aggregate(@NotNull AggregationQuery query) {
+        return aggregateColumnar(query).asMaps();
+    }
+
+    @Override
+    public @NotNull ColumnarResult aggregateColumnar(@NotNull AggregationQuery query) {
         try {
-            List<T> base = find(new SelectQuery(
-                Collections.emptyList(), query.whereFilters(), Collections.emptyList(), -1, null));
-            return aggregationEngine.aggregate(query, base);
+            return aggregationEngine.aggregateColumnar(query);
         } catch (Exception e) {
             throw new RuntimeException("Failed to aggregate", e);
         }
     }
 
+    @Override
+    public @NotNull MaterializedAggregate<T, ID> materialize(@NotNull AggregationQuery query) {
+        SelectQuery source = new SelectQuery(List.of(), query.whereFilters(), List.of(), -1, null);
+        return materialized.register(query, () -> find(source));
+    }
+
     @Override
     public <R> R aggregateScalar(@NotNull AggregationQuery query, @NotNull String fieldName, @NotNull Class<R> type) {
         List<Map<String, Object>> rows = aggregate(query);
@@ -387,14 +429,16 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
 
     @Override
     public List<Map<String, Object>> window(@NotNull WindowQuery query) {
-        List<T> base = find(new SelectQuery(
-            Collections.emptyList(), query.whereFilters(), Collections.emptyList(), -1, null));
+        return windowColumnar(query).asMaps();
+    }
 
-        if (!query.orderBy().isEmpty()) {
-            queryExecutor.applySorting(base, query.orderBy());
+    @Override
+    public @NotNull ColumnarResult windowColumnar(@NotNull WindowQuery query) {
+        try {
+            return aggregationEngine.windowColumnar(query);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to evaluate window query", e);
         }
-
-        return aggregationEngine.window(query, base);
     }
 
     @Override
@@ -485,12 +529,7 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
     public TransactionResult<Boolean> deleteById(ID id) {
         // Avoid reading entity when there are no indexes that require it
         if (indexManager.isEmpty()) {
-            try {
-                entityStore.delete(id);
-                return TransactionResult.success(true);
-            } catch (Exception e) {
-                return TransactionResult.failure(e);
-            }
+            return mutationExecutor.deleteById(id, null);
         }
         T entity = findById(id);
         return mutationExecutor.deleteById(id, entity);
@@ -501,6 +540,44 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
         return deleteById(id);
     }
 
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities) {
+        return mutationExecutor.updateAll(entities);
+    }
+
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities, TransactionContext<FileContext> tx) {
+        return mutationExecutor.updateAll(entities);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities) {
+        List<ID> ids = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            ids.add(repositoryModel.getPrimaryKeyValue(entity));
+        }
+        return mutationExecutor.deleteAll(ids, entities);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities, TransactionContext<FileContext> tx) {
+        return deleteAll(entities);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids) {
+        // Avoid reading the entities when there are no indexes that require them
+        if (indexManager.isEmpty()) {
+            return mutationExecutor.deleteAll(ids, List.of());
+        }
+        return mutationExecutor.deleteAll(ids, findAllById(ids).values());
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids, TransactionContext<FileContext> tx) {
+        return deleteAllById(ids);
+    }
+
     @Override
     public TransactionResult<Boolean> delete(@NotNull DeleteQuery query) {
         return mutationExecutor.deleteByQuery(query);
@@ -529,6 +606,8 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
             }
 
             indexManager.clearAll();
+            if (resultCache != null) resultCache.clear();
+            materialized.invalidate();
             return TransactionResult.success(true);
         } catch (IOException e) {
             return TransactionResult.failure(e);
@@ -547,6 +626,8 @@ public class FileRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, Fi
 
     @Override
     public void close() {
+        queryExecutor.close();
+        if (relationshipHandler instanceof AbstractRelationshipHandler<?, ?> handler) handler.shutdown();
         entityStore.clearCache();
         RepositoryRegistry.unregister(repositoryModel.tableName());
     }
@@ -6,6 +6,7 @@ import io.github.flameyossnowy.universal.api.annotations.enums.CompressionType;
 import io.github.flameyossnowy.universal.api.annotations.enums.FileFormat;
 import io.github.flameyossnowy.universal.api.resolver.TypeRegistration;
 import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegistry;
+import io.github.flameyossnowy.universal.microservices.file.executor.FileAggregationEngine;
 import io.github.flameyossnowy.universal.microservices.file.indexes.IndexPathStrategies;
 import io.github.flameyossnowy.universal.microservices.file.indexes.IndexPathStrategy;
 import org.jetbrains.annotations.NotNull;
@@ -40,6 +41,7 @@ public class FileRepositoryBuilder<T, ID> {
 
     private IndexPathStrategy indexPathStrategy = IndexPathStrategies.underBase();
     private boolean parallelReads;
+    private int aggregationGroupBudget = FileAggregationEngine.DEFAULT_GROUP_BUDGET;
     private final List<TypeRegistration> typeRegistrations = new ArrayList<>();
 
     /**
@@ -114,6 +116,15 @@ public class FileRepositoryBuilder<T, ID> {
         return this;
     }
 
+    /**
+     * Sets how many groups an aggregation keeps in memory. Entities of further groups are
+     * spilled to temporary files and aggregated partition by partition afterwards.
+     */
+    public FileRepositoryBuilder<T, ID> aggregationGroupBudget(int aggregationGroupBudget) {
+        this.aggregationGroupBudget = aggregationGroupBudget;
+        return this;
+    }
+
     /**
      * Registers custom types with the repository adapter.
      *
@@ -155,6 +166,7 @@ public class FileRepositoryBuilder<T, ID> {
                 indexPathStrategy,
                 autoCreate,
                 parallelReads,
+                aggregationGroupBudget,
                 combinedRegistration
         );
     }
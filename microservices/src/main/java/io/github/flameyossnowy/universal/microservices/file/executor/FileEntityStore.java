@@ -3,6 +3,7 @@ package io.github.flameyossnowy.universal.microservices.file.executor;
 import io.github.flameyossnowy.uniform.json.dom.JsonObject;
 import io.github.flameyossnowy.universal.api.annotations.enums.CompressionType;
 import io.github.flameyossnowy.universal.api.annotations.enums.FileFormat;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.factory.ObjectModel;
 import io.github.flameyossnowy.universal.api.factory.RelationshipLoader;
 import io.github.flameyossnowy.universal.api.meta.GeneratedValueReaders;
@@ -30,7 +31,8 @@ import java.util.zip.GZIPOutputStream;
  * and listing entity files. Knows nothing about queries, filters, or indexes.
  *
  * <p>When constructed with {@code parallelReads = true}, multi-shard {@link #readAll()}
- * calls submit each shard to a shared {@link ForkJoinPool} and join the results,
+ * calls submit each shard to the shared
+ * {@link io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor} and join the results,
  * rather than deserializing shards sequentially. Single-directory reads are always
  * sequential (parallelism across files in one directory would create more overhead
  * than it saves for typical shard sizes).
@@ -203,7 +205,7 @@ public class FileEntityStore<T, ID> {
 
     /**
      * Reads every entity. When {@code parallelReads} is enabled and sharding is
-     * active, each shard directory is submitted to {@link ForkJoinPool#commonPool()}
+     * active, each shard directory is submitted to {@link AsyncExecutors#shared()}
      * as an independent task; results are joined and merged after all tasks complete.
      *
      * <p>Single-directory (non-sharded) reads are always sequential - the overhead
@@ -245,7 +247,7 @@ public class FileEntityStore<T, ID> {
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
-            });
+            }, AsyncExecutors.shared());
         }
 
         // Collect - propagate the first IOException if any task failed.
@@ -0,0 +1,493 @@
+package io.github.flameyossnowy.universal.microservices.file.executor;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.options.*;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.uniform.json.JsonAdapter;
+import io.github.flameyossnowy.uniform.json.dom.JsonArray;
+import io.github.flameyossnowy.uniform.json.dom.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streaming hash aggregation for one {@link AggregationQuery}. Entities are folded into
+ * per-group accumulators as they are read, so a group costs a handful of primitive slots
+ * instead of a list of its entities.
+ *
+ * <p>Once {@code groupBudget} groups are resident, an entity that would open another group
+ * is not folded; its file path is appended to one of {@value #PARTITIONS} hash partitions in
+ * a temporary directory instead. After the scan every partition is aggregated on its own by
+ * re-reading its entities, and split again with a different hash if it still holds too many
+ * groups. Entities handed over without a path (in-memory input) are never spilled.
+ */
+final class FileGroupAggregator<T, ID> {
+
+    private static final int PARTITIONS      = 16;
+    private static final int MAX_SPILL_DEPTH = 4;
+
+    private final RepositoryModel<T, ID>   repositoryModel;
+    private final JsonAdapter              objectMapper;
+    private final FileFilterEngine<T, ID>  filterEngine;
+    private final FileQueryExecutor<T, ID> queryExecutor;
+    private final AggregationQuery         query;
+    private final int                      groupBudget;
+
+    private final List<FieldModel<T>> groupBy;
+    /** The select fields in order, followed by the aggregates only HAVING refers to. */
+    private final List<Slot<T>> slots = new ArrayList<>();
+    private final int selected;
+    private final Map<FilterOption, Integer> havingSlots = new IdentityHashMap<>();
+
+    FileGroupAggregator(
+            @NotNull RepositoryModel<T, ID> repositoryModel,
+            @NotNull JsonAdapter objectMapper,
+            @NotNull FileFilterEngine<T, ID> filterEngine,
+            @NotNull FileQueryExecutor<T, ID> queryExecutor,
+            @NotNull AggregationQuery query,
+            int groupBudget
+    ) {
+        this.repositoryModel = repositoryModel;
+        this.objectMapper    = objectMapper;
+        this.filterEngine    = filterEngine;
+        this.queryExecutor   = queryExecutor;
+        this.query           = query;
+        this.groupBudget     = groupBudget;
+
+        List<String> groupFields = query.groupByFields() == null ? Collections.emptyList() : query.groupByFields();
+        this.groupBy = new ArrayList<>(groupFields.size());
+        for (String field : groupFields) {
+            groupBy.add(repositoryModel.fieldByName(field));
+        }
+
+        for (FieldDefinition fd : query.selectFields()) {
+            slots.add(compile(fd));
+        }
+        this.selected = slots.size();
+
+        if (query.havingFilters() != null) {
+            for (FilterOption filter : query.havingFilters()) {
+                if (filter instanceof AggregateFilterOption(
+                    String field, String jsonPath, String ignored, Object ignoredValue,
+                    AggregationType aggregationType, FilterOption condition, String alias
+                ) && (alias == null || alias.isBlank())) {
+                    havingSlots.put(filter, slots.size());
+                    slots.add(compileAggregate(new AggregateFieldDefinition(field, jsonPath, aggregationType, condition, "__having")));
+                }
+            }
+        }
+    }
+
+    /** Aggregates every stored entity matching the WHERE filters of the query. */
+    @NotNull ColumnarResult aggregate() throws IOException {
+        Pass root = new Pass(0);
+        try {
+            queryExecutor.scan(query.whereFilters(), root::accept);
+            return finish(root);
+        } finally {
+            root.discard();
+        }
+    }
+
+    /** Aggregates already loaded entities; nothing is spilled. */
+    @NotNull ColumnarResult aggregate(@NotNull List<T> base) throws IOException {
+        Pass root = new Pass(0);
+        for (T entity : base) {
+            root.accept(null, entity);
+        }
+        return finish(root);
+    }
+
+    private ColumnarResult finish(Pass root) throws IOException {
+        Output output = new Output();
+        root.drain(output);
+        ColumnarResult all = output.builder.build();
+
+        List<ColumnarResult.Row> rows = new ArrayList<>(all.rowCount());
+        for (int i = 0; i < all.rowCount(); i++) {
+            ColumnarResult.Row row = all.row(i);
+            if (matchesHaving(row, output.hidden == null ? null : output.hidden.get(i))) {
+                rows.add(row);
+            }
+        }
+
+        if (query.orderBy() != null && !query.orderBy().isEmpty()) {
+            rows.sort(buildRowComparator(query.orderBy()));
+        }
+
+        int[] kept = new int[rows.size()];
+        for (int i = 0; i < kept.length; i++) kept[i] = rows.get(i).index();
+        return all.select(kept).limit(query.limit());
+    }
+
+    // -------------------------------------------------------------------------
+    // Passes and spilling
+    // -------------------------------------------------------------------------
+
+    private final class Pass {
+        private final int depth;
+        private final Map<List<Object>, Group> groups = new LinkedHashMap<>(32);
+        private final List<Object> probe = new ArrayList<>(groupBy.size());
+
+        private Path spillDirectory;
+        private BufferedWriter[] partitions;
+
+        Pass(int depth) {
+            this.depth = depth;
+        }
+
+        void accept(@Nullable Path path, @NotNull T entity) throws IOException {
+            for (FieldModel<T> field : groupBy) {
+                probe.add(field != null ? field.getValue(entity) : null);
+            }
+
+            Group group = groups.get(probe);
+            if (group == null) {
+                if (path != null && groups.size() >= groupBudget && depth < MAX_SPILL_DEPTH) {
+                    spill(path);
+                    probe.clear();
+                    return;
+                }
+                group = new Group(slots.size());
+                groups.put(new ArrayList<>(probe), group);
+            }
+            probe.clear();
+            fold(group, entity);
+        }
+
+        private void spill(Path path) throws IOException {
+            if (partitions == null) {
+                spillDirectory = Files.createTempDirectory("universal-aggregate");
+                partitions = new BufferedWriter[PARTITIONS];
+            }
+
+            int partition = Integer.rotateLeft(probe.hashCode() * 0x9E3779B9, depth * 4) >>> 28;
+            BufferedWriter writer = partitions[partition];
+            if (writer == null) {
+                writer = Files.newBufferedWriter(spillDirectory.resolve(partition + ".paths"));
+                partitions[partition] = writer;
+            }
+            writer.write(path.toString());
+            writer.newLine();
+        }
+
+        /** Emits the resident groups, then aggregates and emits every spilled partition. */
+        void drain(Output output) throws IOException {
+            for (Group group : groups.values()) {
+                output.add(group);
+            }
+            groups.clear();
+            if (partitions == null) return;
+
+            try {
+                for (BufferedWriter writer : partitions) {
+                    if (writer != null) writer.close();
+                }
+
+                for (int i = 0; i < PARTITIONS; i++) {
+                    if (partitions[i] == null) continue;
+
+                    Pass next = new Pass(depth + 1);
+                    try {
+                        try (BufferedReader reader = Files.newBufferedReader(spillDirectory.resolve(i + ".paths"))) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                Path path = Path.of(line);
+                                T entity;
+                                try {
+                                    entity = queryExecutor.read(path);
+                                } catch (NoSuchFileException deletedSinceScan) {
+                                    continue;
+                                }
+                                next.accept(path, entity);
+                            }
+                        }
+                        next.drain(output);
+                    } finally {
+                        next.discard();
+                    }
+                }
+            } finally {
+                discard();
+            }
+        }
+
+        void discard() throws IOException {
+            if (partitions == null) return;
+
+            for (BufferedWriter writer : partitions) {
+                if (writer != null) writer.close();
+            }
+            try (Stream<Path> files = Files.walk(spillDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            partitions = null;
+        }
+    }
+
+    private final class Output {
+        private final ColumnarResult.Builder builder = ColumnarResult.builder();
+        private final int[] columns = new int[selected];
+        private final @Nullable List<Object[]> hidden = havingSlots.isEmpty() ? null : new ArrayList<>();
+
+        Output() {
+            for (int i = 0; i < selected; i++) {
+                FieldDefinition fd = query.selectFields().get(i);
+                columns[i] = builder.column(fd instanceof AggregateFieldDefinition a ? a.alias() : fd.getFieldName());
+            }
+        }
+
+        void add(Group group) {
+            for (int i = 0; i < selected; i++) {
+                builder.set(columns[i], result(group, i));
+            }
+            builder.endRow();
+
+            if (hidden != null) {
+                Object[] values = new Object[slots.size() - selected];
+                for (int i = 0; i < values.length; i++) values[i] = result(group, selected + i);
+                hidden.add(values);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Accumulators
+    // -------------------------------------------------------------------------
+
+    private enum Kind { FIRST, COUNT, COUNT_DISTINCT, MIN, MAX, SUM, AVG, COUNT_IF, SUM_IF, ARRAY_LENGTH }
+
+    private record Slot<T>(Kind kind, @Nullable Function<T, Object> value, @Nullable FilterOption condition) {}
+
+    /**
+     * One group's accumulators, indexed by slot: {@code counts} holds counts and the number of
+     * summed values, {@code sums} running sums, and {@code values} the first value, MIN/MAX,
+     * array lengths and the distinct sets.
+     */
+    private static final class Group {
+        final long[] counts;
+        final double[] sums;
+        final Object[] values;
+
+        Group(int slots) {
+            this.counts = new long[slots];
+            this.sums   = new double[slots];
+            this.values = new Object[slots];
+        }
+    }
+
+    private Slot<T> compile(FieldDefinition fd) {
+        return switch (fd) {
+            case SimpleFieldDefinition s -> new Slot<>(Kind.FIRST, fieldValue(s.field()), null);
+            case QueryField<?> q -> new Slot<>(Kind.FIRST, fieldValue(q.getFieldName()), null);
+            case AggregateFieldDefinition a -> compileAggregate(a);
+            case SubQuery.SubQueryFieldDefinition ignored ->
+                throw new UnsupportedOperationException(
+                    "Scalar subqueries in SELECT are not supported by file aggregation yet");
+            case WindowFieldDefinition w -> throw new UnsupportedOperationException(
+                "Window fields are not valid in AggregationQuery: " + w.alias());
+            default -> throw new UnsupportedOperationException(
+                "Unsupported field definition: " + fd.getClass().getName());
+        };
+    }
+
+    private Slot<T> compileAggregate(AggregateFieldDefinition a) {
+        Function<T, Object> value = aggregateValue(a);
+        FilterOption condition = a.condition() == null ? null : resolveEffectiveFilter(a.field(), a.condition());
+
+        return switch (a.aggregationType()) {
+            case COUNT          -> new Slot<>(Kind.COUNT, null, null);
+            case COUNT_DISTINCT -> new Slot<>(Kind.COUNT_DISTINCT, value, null);
+            case MIN            -> new Slot<>(Kind.MIN, value, null);
+            case MAX            -> new Slot<>(Kind.MAX, value, null);
+            case SUM            -> new Slot<>(Kind.SUM, value, null);
+            case AVG            -> new Slot<>(Kind.AVG, value, null);
+            case COUNT_IF       -> new Slot<>(condition == null ? Kind.COUNT : Kind.COUNT_IF, null, condition);
+            case SUM_IF         -> new Slot<>(condition == null ? Kind.SUM : Kind.SUM_IF, value, condition);
+            case ARRAY_LENGTH   -> new Slot<>(Kind.ARRAY_LENGTH, value, null);
+            default             -> throw new UnsupportedOperationException(
+                "Aggregation not supported in file adapter: " + a.aggregationType());
+        };
+    }
+
+    private Function<T, Object> fieldValue(String field) {
+        FieldModel<T> fm = repositoryModel.fieldByName(field);
+        return fm == null ? entity -> null : fm::getValue;
+    }
+
+    private Function<T, Object> aggregateValue(AggregateFieldDefinition a) {
+        Function<T, Object> base = fieldValue(a.field());
+        if (!a.isJson()) return base;
+
+        return entity -> {
+            JsonObject root     = objectMapper.valueToTree(base.apply(entity));
+            JsonObject selected = FileFilterEngine.selectJsonPath(root, a.jsonPath());
+            return selected == null ? null : objectMapper.treeToValue(selected, Object.class);
+        };
+    }
+
+    /**
+     * The DSL helper {@code Query.eq(value)} builds a {@link SelectOption} with an empty
+     * option field, meaning "apply this operator to the field from the surrounding context".
+     * We rewrite such anonymous filters to attach the correct field name.
+     */
+    private static FilterOption resolveEffectiveFilter(String contextField, FilterOption condition) {
+        if (condition instanceof SelectOption(String option, String operator, Object value)
+                && (option == null || option.isBlank())) {
+            return new SelectOption(contextField, operator, value);
+        }
+        return condition;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void fold(Group group, T entity) {
+        for (int i = 0; i < slots.size(); i++) {
+            Slot<T> slot = slots.get(i);
+            switch (slot.kind()) {
+                case FIRST -> {
+                    if (group.counts[i]++ == 0) group.values[i] = slot.value().apply(entity);
+                }
+                case COUNT -> group.counts[i]++;
+                case COUNT_DISTINCT -> {
+                    Object v = slot.value().apply(entity);
+                    if (v == null) continue;
+                    if (group.values[i] == null) group.values[i] = new HashSet<>();
+                    ((Set<Object>) group.values[i]).add(v);
+                }
+                case MIN -> {
+                    Object v = slot.value().apply(entity);
+                    if (v != null && (group.values[i] == null || ((Comparable) v).compareTo(group.values[i]) < 0)) {
+                        group.values[i] = v;
+                    }
+                }
+                case MAX -> {
+                    Object v = slot.value().apply(entity);
+                    if (v != null && (group.values[i] == null || ((Comparable) v).compareTo(group.values[i]) > 0)) {
+                        group.values[i] = v;
+                    }
+                }
+                case SUM, AVG -> {
+                    if (slot.value().apply(entity) instanceof Number n) { group.sums[i] += n.doubleValue(); group.counts[i]++; }
+                }
+                case COUNT_IF -> {
+                    if (filterEngine.matches(entity, slot.condition())) group.counts[i]++;
+                }
+                case SUM_IF -> {
+                    if (filterEngine.matches(entity, slot.condition())
+                            && slot.value().apply(entity) instanceof Number n) {
+                        group.sums[i] += n.doubleValue();
+                        group.counts[i]++;
+                    }
+                }
+                case ARRAY_LENGTH -> {
+                    if (group.values[i] == null) group.values[i] = arrayLength(slot.value().apply(entity));
+                }
+            }
+        }
+    }
+
+    private @Nullable Object result(Group group, int slot) {
+        return switch (slots.get(slot).kind()) {
+            case FIRST, MIN, MAX, ARRAY_LENGTH -> group.values[slot];
+            case COUNT, COUNT_IF -> group.counts[slot];
+            case COUNT_DISTINCT -> group.values[slot] == null ? 0L : (long) ((Set<?>) group.values[slot]).size();
+            case SUM, SUM_IF -> group.counts[slot] == 0 ? null : group.sums[slot];
+            case AVG -> group.counts[slot] == 0 ? null : group.sums[slot] / group.counts[slot];
+        };
+    }
+
+    private static @Nullable Integer arrayLength(@Nullable Object v) {
+        if (v instanceof Collection<?> c)        return c.size();
+        if (v != null && v.getClass().isArray()) return java.lang.reflect.Array.getLength(v);
+        if (v instanceof JsonArray node)         return node.size();
+        return null;
+    }
+
+    // -------------------------------------------------------------------------
+    // HAVING and ORDER BY
+    // -------------------------------------------------------------------------
+
+    private boolean matchesHaving(@NotNull ColumnarResult.Row row, Object @Nullable [] hidden) {
+        List<FilterOption> filters = query.havingFilters();
+        if (filters == null || filters.isEmpty()) return true;
+
+        for (FilterOption filter : filters) {
+            Object actual;
+            String operator;
+            Object expected;
+            if (filter instanceof SelectOption(String option, String op, Object value)) {
+                actual = row.get(option);
+                operator = op;
+                expected = value;
+            } else if (filter instanceof AggregateFilterOption a) {
+                Integer slot = havingSlots.get(filter);
+                actual = slot != null ? hidden[slot - selected] : row.get(a.alias());
+                operator = a.operator();
+                expected = a.value();
+            } else {
+                return false;
+            }
+            if (!matchesAggregatedValue(actual, operator, expected)) return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static boolean matchesAggregatedValue(
+            @Nullable Object actual,
+            @NotNull String operator,
+            @Nullable Object expected
+    ) {
+        if (actual == null) return expected == null;
+
+        if (actual instanceof Number an && expected instanceof Number en) {
+            double a = an.doubleValue(), e = en.doubleValue();
+            return switch (operator) {
+                case "="  -> Double.compare(a, e) == 0;
+                case "!=" -> Double.compare(a, e) != 0;
+                case ">"  -> a > e;
+                case "<"  -> a < e;
+                case ">=" -> a >= e;
+                case "<=" -> a <= e;
+                default   -> false;
+            };
+        }
+
+        return switch (operator) {
+            case "="  -> actual.equals(expected);
+            case "!=" -> !actual.equals(expected);
+            case ">"  -> actual instanceof Comparable c && expected != null && c.compareTo(expected) > 0;
+            case "<"  -> actual instanceof Comparable c && expected != null && c.compareTo(expected) < 0;
+            case ">=" -> actual instanceof Comparable c && expected != null && c.compareTo(expected) >= 0;
+            case "<=" -> actual instanceof Comparable c && expected != null && c.compareTo(expected) <= 0;
+            case "IN" -> expected instanceof Collection<?> list && list.contains(actual);
+            default   -> false;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nullable Comparator<ColumnarResult.Row> buildRowComparator(@NotNull List<SortOption> orderBy) {
+        Comparator<ColumnarResult.Row> comparator = null;
+        for (SortOption sort : orderBy) {
+            Comparator<ColumnarResult.Row> next = Comparator.comparing(
+                row -> (Comparable<Object>) row.get(sort.field()),
+                Comparator.nullsFirst(Comparator.naturalOrder())
+            );
+            if (sort.order() == SortOrder.DESCENDING) next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+}
@@ -1,12 +1,16 @@
 package io.github.flameyossnowy.universal.microservices.file.executor;
 
+import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.options.DeleteQuery;
+import io.github.flameyossnowy.universal.api.options.SelectQuery;
 import io.github.flameyossnowy.universal.api.options.UpdateQuery;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregates;
 import io.github.flameyossnowy.universal.api.validation.ValidationException;
 import io.github.flameyossnowy.universal.microservices.file.FileRepositoryAdapter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -17,6 +21,9 @@ import java.util.Map;
  * Executes write mutations: insert, update-by-query, and delete-by-query.
  * Delegates raw I/O to {@link FileEntityStore}, filter evaluation to
  * {@link FileFilterEngine}, and index bookkeeping to {@link FileIndexManager}.
+ * Every mutation knows exactly which entities it touched, so cached query
+ * results are invalidated per entity rather than wholesale, and materialized
+ * aggregates are handed exactly the entities that changed.
  */
 public class FileMutationExecutor<T, ID> {
 
@@ -25,18 +32,24 @@ public class FileMutationExecutor<T, ID> {
     private final FileFilterEngine<T, ID> filterEngine;
     private final FileIndexManager<T, ID> indexManager;
     private final FileRepositoryAdapter<T, ID> adapter;
+    private final @Nullable DefaultResultCache<SelectQuery, T, ID> resultCache;
+    private final MaterializedAggregates<T, ID> materialized;
 
     public FileMutationExecutor(
         @NotNull RepositoryModel<T, ID> repositoryModel,
         @NotNull FileEntityStore<T, ID> store,
         @NotNull FileFilterEngine<T, ID> filterEngine,
-        @NotNull FileIndexManager<T, ID> indexManager, FileRepositoryAdapter<T, ID> adapter
+        @NotNull FileIndexManager<T, ID> indexManager, FileRepositoryAdapter<T, ID> adapter,
+        @Nullable DefaultResultCache<SelectQuery, T, ID> resultCache,
+        @NotNull MaterializedAggregates<T, ID> materialized
     ) {
         this.repositoryModel = repositoryModel;
         this.store           = store;
         this.filterEngine    = filterEngine;
         this.indexManager    = indexManager;
         this.adapter = adapter;
+        this.resultCache     = resultCache;
+        this.materialized    = materialized;
     }
 
     public TransactionResult<Boolean> insert(T entity) {
@@ -44,6 +57,8 @@ public class FileMutationExecutor<T, ID> {
             ID id = extractId(entity);
             store.write(entity, id);
             indexManager.onInsertOrUpdate(entity, id);
+            if (resultCache != null) resultCache.invalidateForInserts(List.of(entity));
+            materialized.onWrite(List.of(entity));
             return TransactionResult.success(true);
         } catch (Exception e) {
             return TransactionResult.failure(e);
@@ -60,6 +75,8 @@ public class FileMutationExecutor<T, ID> {
                 store.write(entity, extractId(entity));
             }
             indexManager.onInsertOrUpdateBatch(entities);
+            if (resultCache != null) resultCache.invalidateForInserts(entities);
+            materialized.onWrite(entities);
             return TransactionResult.success(true);
         } catch (Exception e) {
             return TransactionResult.failure(e);
@@ -72,12 +89,31 @@ public class FileMutationExecutor<T, ID> {
             ID id = extractId(entity);
             store.write(entity, id);
             indexManager.onInsertOrUpdate(entity, id);
+            invalidateUpdated(List.of(entity));
             return TransactionResult.success(true);
         } catch (Exception e) {
             return TransactionResult.failure(e);
         }
     }
 
+    /** Writes every entity back to disk, and updates the indexes and cached results once for all of them. */
+    public TransactionResult<Boolean> updateAll(Collection<T> entities) {
+        try {
+            for (T entity : entities) {
+                ValidationException validationException = adapter.validateEntity(entity);
+                if (validationException != null) {
+                    return TransactionResult.failure(validationException);
+                }
+                store.write(entity, extractId(entity));
+            }
+            indexManager.onInsertOrUpdateBatch(entities);
+            invalidateUpdated(entities);
+            return TransactionResult.success(!entities.isEmpty());
+        } catch (Exception e) {
+            return TransactionResult.failure(e);
+        }
+    }
+
     /** Applies field-level updates to all entities that match the query's filters. */
     public TransactionResult<Boolean> updateByQuery(@NotNull UpdateQuery query) {
         try {
@@ -93,6 +129,7 @@ public class FileMutationExecutor<T, ID> {
             }
 
             indexManager.onInsertOrUpdateBatch(updated);
+            invalidateUpdated(updated);
             return TransactionResult.success(!updated.isEmpty());
         } catch (Exception e) {
             return TransactionResult.failure(e);
@@ -104,6 +141,8 @@ public class FileMutationExecutor<T, ID> {
             ID id = extractId(entity);
             store.delete(id);
             indexManager.onDelete(id, entity);
+            if (resultCache != null) resultCache.invalidate(id);
+            materialized.onDelete(List.of(id));
             return TransactionResult.success(true);
         } catch (Exception e) {
             return TransactionResult.failure(e);
@@ -116,25 +155,51 @@ public class FileMutationExecutor<T, ID> {
             if (entity != null) {
                 indexManager.onDelete(id, entity);
             }
+            if (resultCache != null) resultCache.invalidate(id);
+            materialized.onDelete(List.of(id));
             return TransactionResult.success(true);
         } catch (Exception e) {
             return TransactionResult.failure(e);
         }
     }
 
+    /**
+     * Deletes every id, and updates the indexes and cached results once for all of them.
+     *
+     * @param entities the entities stored under the ids, needed only when there are indexes
+     */
+    public TransactionResult<Boolean> deleteAll(Collection<ID> ids, Collection<T> entities) {
+        try {
+            for (ID id : ids) {
+                store.delete(id);
+            }
+            indexManager.onDeleteBatch(entities);
+            if (resultCache != null) resultCache.invalidateAll(ids);
+            materialized.onDelete(ids);
+            return TransactionResult.success(!ids.isEmpty());
+        } catch (Exception e) {
+            return TransactionResult.failure(e);
+        }
+    }
+
     public TransactionResult<Boolean> deleteByQuery(@NotNull DeleteQuery query) {
         try {
             List<T> all = store.readAll();
             List<T> deleted = new ArrayList<>(all.size());
+            List<ID> deletedIds = new ArrayList<>(all.size());
 
             for (T entity : all) {
                 if (!filterEngine.matchesAll(entity, query.filters())) continue;
 
-                store.delete(extractId(entity));
+                ID id = extractId(entity);
+                store.delete(id);
                 deleted.add(entity);
+                deletedIds.add(id);
             }
 
             indexManager.onDeleteBatch(deleted);
+            if (resultCache != null) resultCache.invalidateAll(deletedIds);
+            materialized.onDelete(deletedIds);
             return TransactionResult.success(!deleted.isEmpty());
         } catch (Exception e) {
             return TransactionResult.failure(e);
@@ -154,6 +219,21 @@ public class FileMutationExecutor<T, ID> {
         });
     }
 
+    /**
+     * Drops cached results that held the old state of the entities, and those their new state
+     * may now belong to, and moves the entities to their new groups in materialized aggregates.
+     */
+    private void invalidateUpdated(Collection<T> updated) {
+        materialized.onWrite(updated);
+        if (resultCache == null || updated.isEmpty()) return;
+        List<ID> ids = new ArrayList<>(updated.size());
+        for (T entity : updated) {
+            ids.add(extractId(entity));
+        }
+        resultCache.invalidateAll(ids);
+        resultCache.invalidateForInserts(updated);
+    }
+
     private ID extractId(T entity) {
         return repositoryModel.getPrimaryKeyValue(entity);
     }
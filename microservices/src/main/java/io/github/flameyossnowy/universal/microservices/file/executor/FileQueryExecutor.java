@@ -1,6 +1,8 @@
 package io.github.flameyossnowy.universal.microservices.file.executor;
 
 import io.github.flameyossnowy.universal.api.CloseableIterator;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.options.*;
 import org.jetbrains.annotations.NotNull;
@@ -21,7 +23,8 @@ import static io.github.flameyossnowy.universal.microservices.file.executor.File
  *
  * <p>When the underlying {@link FileEntityStore} is configured for parallel reads
  * and sharding is active, {@link #find(SelectQuery)} and {@link #count(SelectQuery)}
- * scan shards concurrently via {@link ForkJoinPool#commonPool()}. Limit-based early
+ * scan shards concurrently on the shared {@link AsyncExecutor}, at most
+ * {@value #MAX_PARALLEL_SCANS} at a time. Limit-based early
  * termination is best-effort under parallel execution - results may slightly exceed
  * the limit before being trimmed, which is consistent with the semantics of unordered
  * parallel scans.
@@ -32,7 +35,9 @@ public class FileQueryExecutor<T, ID> {
     private final FileFilterEngine<T, ID>   filterEngine;
     private final RepositoryModel<T, ID>    repositoryModel;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(32);
+    private static final int MAX_PARALLEL_SCANS = 32;
+
+    private final AsyncExecutor executor = AsyncExecutors.bounded(MAX_PARALLEL_SCANS);
 
     public FileQueryExecutor(
         @NotNull FileEntityStore<T, ID>  store,
@@ -44,6 +49,11 @@ public class FileQueryExecutor<T, ID> {
         this.repositoryModel = repositoryModel;
     }
 
+    /** Stops scheduling parallel shard scans. The shared executor itself keeps running. */
+    public void close() {
+        executor.close();
+    }
+
     public List<T> findAll() throws IOException {
         return store.readAll();
     }
@@ -107,6 +117,40 @@ public class FileQueryExecutor<T, ID> {
         return results;
     }
 
+    /**
+     * Hands every stored entity matching {@code filters} to {@code visitor} as it is read,
+     * shard by shard, without collecting them. Always sequential, so the visitor needs no
+     * synchronisation.
+     */
+    public void scan(@Nullable List<FilterOption> filters, @NotNull ScanVisitor<T> visitor) throws IOException {
+        int max    = store.isSharding() ? store.shardCount() : 1;
+        String ext = store.fileExtension();
+
+        for (int i = 0; i < max; i++) {
+            Path dir = resolveDirectory(i);
+            if (!Files.exists(dir)) continue;
+
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + ext)) {
+                for (Path path : ds) {
+                    if (!Files.isRegularFile(path)) continue;
+
+                    T entity = store.readFromPath(path);
+                    if (filterEngine.matchesAll(entity, filters)) visitor.visit(path, entity);
+                }
+            }
+        }
+    }
+
+    /** Reads the entity stored at {@code path}, as handed out by {@link #scan}. */
+    public T read(@NotNull Path path) throws IOException {
+        return store.readFromPath(path);
+    }
+
+    @FunctionalInterface
+    public interface ScanVisitor<T> {
+        void visit(@NotNull Path path, @NotNull T entity) throws IOException;
+    }
+
     public long countAll() throws IOException {
         return store.countFiles();
     }
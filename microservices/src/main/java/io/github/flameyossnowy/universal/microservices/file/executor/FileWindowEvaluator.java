@@ -0,0 +1,264 @@
+package io.github.flameyossnowy.universal.microservices.file.executor;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.options.*;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Evaluates the window functions of one {@link WindowQuery} over sorted runs.
+ *
+ * <p>Entities are dropped as soon as they are read; only the fields the query touches are
+ * kept, one array per field. For every window the row positions are sorted by partition and
+ * window order, which turns each partition into one contiguous run that is computed in a
+ * single pass.
+ */
+final class FileWindowEvaluator<T, ID> {
+
+    private final RepositoryModel<T, ID> repositoryModel;
+    private final WindowQuery query;
+
+    private final Map<String, Integer> fieldIndexes = new HashMap<>();
+    private final List<FieldModel<T>> fields = new ArrayList<>();
+    private Object[][] values;
+    private int capacity = 16;
+    private int rows;
+
+    FileWindowEvaluator(@NotNull RepositoryModel<T, ID> repositoryModel, @NotNull WindowQuery query) {
+        this.repositoryModel = repositoryModel;
+        this.query = query;
+
+        for (FieldDefinition fd : query.selectFields()) {
+            if (fd instanceof SimpleFieldDefinition s) {
+                field(s.field());
+            } else if (fd instanceof WindowFieldDefinition w) {
+                if (w.partitionBy() != null) w.partitionBy().forEach(this::field);
+                if (w.orderBy() != null) w.orderBy().forEach(sort -> field(sort.field()));
+                switch (w.functionType()) {
+                    case SUM, AVG, MIN, MAX -> field(w.field());
+                    default -> {}
+                }
+            } else {
+                throw new UnsupportedOperationException(
+                    "Unsupported field in WindowQuery: " + fd.getClass().getName());
+            }
+        }
+        query.orderBy().forEach(sort -> field(sort.field()));
+
+        this.values = new Object[fields.size()][capacity];
+    }
+
+    private int field(String name) {
+        Integer index = fieldIndexes.get(name);
+        if (index != null) return index;
+
+        fields.add(repositoryModel.fieldByName(name));
+        fieldIndexes.put(name, fields.size() - 1);
+        return fields.size() - 1;
+    }
+
+    void accept(@NotNull T entity) {
+        if (rows == capacity) {
+            capacity <<= 1;
+            for (int f = 0; f < values.length; f++) values[f] = Arrays.copyOf(values[f], capacity);
+        }
+        for (int f = 0; f < values.length; f++) {
+            FieldModel<T> fm = fields.get(f);
+            values[f][rows] = fm != null ? fm.getValue(entity) : null;
+        }
+        rows++;
+    }
+
+    @NotNull ColumnarResult finish() {
+        int[] order = new int[rows];
+        for (int i = 0; i < rows; i++) order[i] = i;
+        if (!query.orderBy().isEmpty()) {
+            int[] keys = columnsOf(query.orderBy());
+            boolean[] descending = descendingOf(query.orderBy());
+            sort(order, (a, b) -> compareKeys(a, b, keys, descending));
+        }
+
+        List<FieldDefinition> select = query.selectFields();
+        ColumnarResult.Builder builder = ColumnarResult.builder(rows);
+        int[] columns = new int[select.size()];
+        Object[][] outputs = new Object[select.size()][];
+
+        for (int i = 0; i < columns.length; i++) {
+            FieldDefinition fd = select.get(i);
+            if (fd instanceof WindowFieldDefinition w) {
+                columns[i] = builder.column(w.alias());
+                outputs[i] = evaluate(w, order);
+            } else {
+                columns[i] = builder.column(fd.getFieldName());
+                outputs[i] = values[fieldIndexes.get(((SimpleFieldDefinition) fd).field())];
+            }
+        }
+
+        int limit = query.limit() >= 0 ? Math.min(query.limit(), rows) : rows;
+        for (int r = 0; r < limit; r++) {
+            int row = order[r];
+            for (int i = 0; i < columns.length; i++) builder.set(columns[i], outputs[i][row]);
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private – one window over sorted runs
+    // -------------------------------------------------------------------------
+
+    private Object[] evaluate(WindowFieldDefinition w, int[] order) {
+        // Partition ids in first-seen order, so ties between partitions keep the base order
+        int[] partitionOf = new int[rows];
+        if (w.partitionBy() != null && !w.partitionBy().isEmpty()) {
+            int[] keys = new int[w.partitionBy().size()];
+            for (int k = 0; k < keys.length; k++) keys[k] = fieldIndexes.get(w.partitionBy().get(k));
+
+            Map<List<Object>, Integer> ids = new HashMap<>();
+            for (int row : order) {
+                List<Object> key = new ArrayList<>(keys.length);
+                for (int k : keys) key.add(values[k][row]);
+                Integer id = ids.putIfAbsent(key, ids.size());
+                partitionOf[row] = id != null ? id : ids.size() - 1;
+            }
+        }
+
+        List<SortOption> windowOrder = w.orderBy() == null ? List.of() : w.orderBy();
+        int[] keys = columnsOf(windowOrder);
+        boolean[] descending = descendingOf(windowOrder);
+
+        int[] run = order.clone();
+        sort(run, (a, b) -> {
+            int c = Integer.compare(partitionOf[a], partitionOf[b]);
+            return c != 0 ? c : compareKeys(a, b, keys, descending);
+        });
+
+        Object[] out = new Object[rows];
+        int start = 0;
+        while (start < rows) {
+            int end = start + 1;
+            while (end < rows && partitionOf[run[end]] == partitionOf[run[start]]) end++;
+            computeRun(w, run, start, end, keys, out);
+            start = end;
+        }
+        return out;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void computeRun(WindowFieldDefinition w, int[] run, int start, int end, int[] keys, Object[] out) {
+        switch (w.functionType()) {
+            case ROW_NUMBER -> {
+                for (int i = start; i < end; i++) out[run[i]] = (long) (i - start + 1);
+            }
+            case RANK -> {
+                long rank = 1;
+                for (int i = start; i < end; i++) {
+                    if (i > start && differentOrdering(run[i - 1], run[i], keys)) rank = i - start + 1L;
+                    out[run[i]] = rank;
+                }
+            }
+            case DENSE_RANK -> {
+                long rank = 1;
+                for (int i = start; i < end; i++) {
+                    if (i > start && differentOrdering(run[i - 1], run[i], keys)) rank++;
+                    out[run[i]] = rank;
+                }
+            }
+            case COUNT -> {
+                long running = 0;
+                for (int i = start; i < end; i++) out[run[i]] = ++running;
+            }
+            case SUM, AVG, MIN, MAX -> {
+                Object[] input = values[fieldIndexes.get(w.field())];
+                double runningSum     = 0d;
+                long runningCount     = 0;
+                Comparable runningMin = null;
+                Comparable runningMax = null;
+
+                for (int i = start; i < end; i++) {
+                    Object v = input[run[i]];
+                    if (v instanceof Number n)     { runningSum += n.doubleValue(); runningCount++; }
+                    if (v instanceof Comparable c) {
+                        runningMin = runningMin == null ? c : (runningMin.compareTo(c) <= 0 ? runningMin : c);
+                        runningMax = runningMax == null ? c : (runningMax.compareTo(c) >= 0 ? runningMax : c);
+                    }
+
+                    out[run[i]] = switch (w.functionType()) {
+                        case SUM -> runningCount == 0 ? null : runningSum;
+                        case AVG -> runningCount == 0 ? null : (runningSum / runningCount);
+                        case MIN -> runningMin;
+                        case MAX -> runningMax;
+                        default  -> null;
+                    };
+                }
+            }
+            default -> throw new UnsupportedOperationException(
+                "Window function not supported in file adapter: " + w.functionType());
+        }
+    }
+
+    private boolean differentOrdering(int a, int b, int[] keys) {
+        for (int k : keys) {
+            if (!Objects.equals(values[k][a], values[k][b])) return true;
+        }
+        return false;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private – ordering
+    // -------------------------------------------------------------------------
+
+    private int[] columnsOf(List<SortOption> order) {
+        int[] keys = new int[order.size()];
+        for (int k = 0; k < keys.length; k++) keys[k] = fieldIndexes.get(order.get(k).field());
+        return keys;
+    }
+
+    private static boolean[] descendingOf(List<SortOption> order) {
+        boolean[] descending = new boolean[order.size()];
+        for (int k = 0; k < descending.length; k++) descending[k] = order.get(k).order() == SortOrder.DESCENDING;
+        return descending;
+    }
+
+    /** Nulls sort first, and last once the key is descending. */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private int compareKeys(int a, int b, int[] keys, boolean[] descending) {
+        for (int k = 0; k < keys.length; k++) {
+            Object va = values[keys[k]][a];
+            Object vb = values[keys[k]][b];
+            int c;
+            if (va == null || vb == null) c = va == vb ? 0 : (va == null ? -1 : 1);
+            else c = ((Comparable) va).compareTo(vb);
+            if (c != 0) return descending[k] ? -c : c;
+        }
+        return 0;
+    }
+
+    @FunctionalInterface
+    private interface PositionComparator {
+        int compare(int a, int b);
+    }
+
+    /** Stable bottom-up merge sort of row positions. */
+    private static void sort(int[] positions, PositionComparator comparator) {
+        int n = positions.length;
+        int[] src = positions;
+        int[] dst = new int[n];
+
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi  = Math.min(lo + (width << 1), n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) dst[k++] = comparator.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+                while (i < mid) dst[k++] = src[i++];
+                while (j < hi)  dst[k++] = src[j++];
+            }
+            int[] swap = src; src = dst; dst = swap;
+        }
+        if (src != positions) System.arraycopy(src, 0, positions, 0, n);
+    }
+}
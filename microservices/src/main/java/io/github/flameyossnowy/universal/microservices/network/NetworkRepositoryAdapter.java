@@ -474,7 +474,7 @@ public class NetworkRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID,
                 } catch (IOException | InterruptedException e) {
                     throw new RuntimeException(e);
                 }
-            });
+            }, getAsyncExecutor());
 
             responseCache.put(cacheKey, newFuture);
             return (R) newFuture.join().data;
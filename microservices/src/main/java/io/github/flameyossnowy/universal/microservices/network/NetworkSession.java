@@ -36,7 +36,6 @@ public class NetworkSession<T, ID> implements DatabaseSession<ID, T, HttpClient>
     private final NetworkRepositoryAdapter<T, ID> adapter;
     private final EnumSet<SessionOption> options;
     private final SessionCache<ID, T> cache;
-    private final ExecutorService executorService;
 
     // Deduplication of in-flight fetches
     private final Map<ID, CompletableFuture<T>> pendingFutures = new ConcurrentHashMap<>(3);
@@ -84,9 +83,6 @@ public class NetworkSession<T, ID> implements DatabaseSession<ID, T, HttpClient>
         this.batchSize             = Math.max(1, batchSize);
         this.maxRetries            = Math.max(0, maxRetries);
         this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
-        this.executorService       = Executors.newFixedThreadPool(
-            Math.min(Runtime.getRuntime().availableProcessors(), this.maxConcurrentRequests)
-        );
     }
 
     private boolean noCache()  { return options.contains(SessionOption.NO_CACHE); }
@@ -496,7 +492,6 @@ public class NetworkSession<T, ID> implements DatabaseSession<ID, T, HttpClient>
             } finally {
                 rollback();
                 closed = true;
-                executorService.shutdown();
             }
         }
     }
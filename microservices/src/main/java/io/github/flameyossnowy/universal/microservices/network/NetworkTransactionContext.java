@@ -1,6 +1,8 @@
 package io.github.flameyossnowy.universal.microservices.network;
 
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 
 import java.net.http.HttpClient;
@@ -19,7 +21,7 @@ public class NetworkTransactionContext implements TransactionContext<HttpClient>
     private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
 
     private final HttpClient httpClient;
-    private final ExecutorService executorService;
+    private final AsyncExecutor executor;
     private final Deque<Runnable> pendingOperations = new ConcurrentLinkedDeque<>();
     private final ConcurrentLinkedQueue<CompletableFuture<?>> pendingFutures = new ConcurrentLinkedQueue<>();
 
@@ -39,9 +41,7 @@ public class NetworkTransactionContext implements TransactionContext<HttpClient>
         this.httpClient = httpClient;
         this.maxBatchSize = Math.max(1, maxBatchSize);
         this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
-
-        int poolSize = Math.min(Runtime.getRuntime().availableProcessors(), this.maxConcurrentRequests);
-        this.executorService = Executors.newFixedThreadPool(poolSize);
+        this.executor = AsyncExecutors.bounded(this.maxConcurrentRequests);
     }
 
     @Override
@@ -96,7 +96,7 @@ public class NetworkTransactionContext implements TransactionContext<HttpClient>
         while (!pendingOperations.isEmpty() && activeRequests.get() < maxConcurrentRequests) {
             Runnable op = pendingOperations.pollFirst();
             if (op != null) {
-                executorService.submit(op);
+                executor.execute(op);
             }
         }
     }
@@ -129,7 +129,7 @@ public class NetworkTransactionContext implements TransactionContext<HttpClient>
         CompletableFuture<Void> allDone = flushBatchAsync();
 
         // non-blocking completion handling
-        allDone.whenComplete((v, ex) -> executorService.shutdown());
+        allDone.whenComplete((v, ex) -> executor.close());
 
         if (allDone.isCompletedExceptionally()) {
             rollback();
@@ -150,15 +150,15 @@ public class NetworkTransactionContext implements TransactionContext<HttpClient>
         pendingFutures.forEach(f -> f.cancel(true));
         pendingFutures.clear();
 
-        executorService.shutdownNow();
+        executor.close();
     }
 
     @Override
     public void close() {
         if (!committed && !rolledBack) {
             rollback();
-        } else if (!executorService.isShutdown()) {
-            executorService.shutdown();
+        } else {
+            executor.close();
         }
     }
 
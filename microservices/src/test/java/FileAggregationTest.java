@@ -99,4 +99,35 @@ class FileAggregationTest {
         Long total = adapter.aggregateScalar(query, "total", Long.class);
         assertEquals(6L, total);
     }
+
+    @Test
+    void groups_beyond_the_budget_spill_and_still_aggregate() {
+        FileRepositoryAdapter<TestEntity, String> spilling = FileRepositoryAdapter.builder(TestEntity.class, String.class)
+                .basePath(tempDir)
+                .sharding(false)
+                .format(FileFormat.JSON)
+                .compressed(false)
+                .indexPathStrategy(IndexPathStrategies.underBase())
+                .aggregationGroupBudget(1)
+                .build();
+
+        var query = Query.aggregate()
+            .select(
+                Query.field("name"),
+                Query.field("id").count().as("cnt")
+            )
+            .groupBy("name")
+            .orderBy("name", io.github.flameyossnowy.universal.api.options.SortOrder.ASCENDING)
+            .build();
+
+        List<Map<String, Object>> rows = spilling.aggregate(query);
+
+        assertEquals(3, rows.size());
+        assertEquals("Alice", rows.get(0).get("name"));
+        assertEquals(2L, ((Number) rows.get(0).get("cnt")).longValue());
+        assertEquals("Bob", rows.get(1).get("name"));
+        assertEquals(1L, ((Number) rows.get(1).get("cnt")).longValue());
+        assertEquals("Charlie", rows.get(2).get("name"));
+        assertEquals(3L, ((Number) rows.get(2).get("cnt")).longValue());
+    }
 }
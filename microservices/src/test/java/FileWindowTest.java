@@ -0,0 +1,190 @@
+import io.github.flameyossnowy.universal.api.ModelsBootstrap;
+import io.github.flameyossnowy.universal.api.annotations.enums.CompressionType;
+import io.github.flameyossnowy.universal.api.annotations.enums.FileFormat;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.api.options.SortOption;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import io.github.flameyossnowy.universal.api.options.WindowFieldDefinition;
+import io.github.flameyossnowy.universal.api.options.WindowFunctionType;
+import io.github.flameyossnowy.universal.api.options.WindowQuery;
+import io.github.flameyossnowy.universal.microservices.file.FileRepositoryAdapter;
+import io.github.flameyossnowy.universal.microservices.file.indexes.IndexPathStrategies;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileWindowTest {
+
+    @TempDir
+    Path tempDir;
+
+    FileRepositoryAdapter<ScoreEntity, String> adapter;
+
+    @BeforeEach
+    void setup() {
+        ModelsBootstrap.init();
+
+        adapter = FileRepositoryAdapter.builder(ScoreEntity.class, String.class)
+                .basePath(tempDir)
+                .sharding(false)
+                .format(FileFormat.JSON)
+                .compressionType(CompressionType.GZIP)
+                .compressed(false)
+                .shardCount(0)
+                .indexPathStrategy(IndexPathStrategies.underBase())
+                .build();
+
+        adapter.createRepository(true);
+
+        adapter.insert(new ScoreEntity("a1", "red", 10));
+        adapter.insert(new ScoreEntity("a2", "red", 30));
+        adapter.insert(new ScoreEntity("a3", "red", 30));
+        adapter.insert(new ScoreEntity("a4", "red", 20));
+        adapter.insert(new ScoreEntity("b1", "blue", 5));
+        adapter.insert(new ScoreEntity("b2", "blue", 5));
+        adapter.insert(new ScoreEntity("b3", "blue", 15));
+    }
+
+    private static WindowFieldDefinition window(WindowFunctionType type, String field, SortOption order, String alias) {
+        return new WindowFieldDefinition(field, type, List.of("team"), List.of(order), null, null, alias);
+    }
+
+    /** The rows of {@code query}, keyed by entity id. */
+    private Map<String, Map<String, Object>> byId(WindowQuery query) {
+        List<Map<String, Object>> rows = adapter.window(query);
+        assertEquals(7, rows.size());
+
+        Map<String, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> row : rows) byId.put((String) row.get("id"), row);
+        return byId;
+    }
+
+    private static long longOf(Map<String, Map<String, Object>> rows, String id, String column) {
+        return ((Number) rows.get(id).get(column)).longValue();
+    }
+
+    private static double doubleOf(Map<String, Map<String, Object>> rows, String id, String column) {
+        return ((Number) rows.get(id).get(column)).doubleValue();
+    }
+
+    @Test
+    void rowNumber_rank_and_denseRank_with_ties() {
+        SortOption byScore = new SortOption("score", SortOrder.DESCENDING);
+        WindowQuery query = Query.window()
+            .select("id")
+            .select("team")
+            .select("score")
+            .select(
+                window(WindowFunctionType.ROW_NUMBER, "id", byScore, "rn"),
+                window(WindowFunctionType.RANK, "id", byScore, "rnk"),
+                window(WindowFunctionType.DENSE_RANK, "id", byScore, "dense")
+            )
+            .orderBy("id", SortOrder.ASCENDING)
+            .build();
+
+        Map<String, Map<String, Object>> rows = byId(query);
+
+        // red: 30, 30, 20, 10
+        assertEquals(1, longOf(rows, "a2", "rn"));
+        assertEquals(2, longOf(rows, "a3", "rn"));
+        assertEquals(3, longOf(rows, "a4", "rn"));
+        assertEquals(4, longOf(rows, "a1", "rn"));
+
+        assertEquals(1, longOf(rows, "a2", "rnk"));
+        assertEquals(1, longOf(rows, "a3", "rnk"));
+        assertEquals(3, longOf(rows, "a4", "rnk"));
+        assertEquals(4, longOf(rows, "a1", "rnk"));
+
+        assertEquals(1, longOf(rows, "a2", "dense"));
+        assertEquals(1, longOf(rows, "a3", "dense"));
+        assertEquals(2, longOf(rows, "a4", "dense"));
+        assertEquals(3, longOf(rows, "a1", "dense"));
+
+        // blue: 15, 5, 5
+        assertEquals(1, longOf(rows, "b3", "rn"));
+        assertEquals(2, longOf(rows, "b1", "rn"));
+        assertEquals(3, longOf(rows, "b2", "rn"));
+
+        assertEquals(1, longOf(rows, "b3", "rnk"));
+        assertEquals(2, longOf(rows, "b1", "rnk"));
+        assertEquals(2, longOf(rows, "b2", "rnk"));
+
+        assertEquals(1, longOf(rows, "b3", "dense"));
+        assertEquals(2, longOf(rows, "b1", "dense"));
+        assertEquals(2, longOf(rows, "b2", "dense"));
+    }
+
+    @Test
+    void partitioned_running_count_sum_avg_min_max() {
+        SortOption byId = new SortOption("id", SortOrder.ASCENDING);
+        WindowQuery query = Query.window()
+            .select("id")
+            .select(
+                window(WindowFunctionType.COUNT, "id", byId, "count"),
+                window(WindowFunctionType.SUM, "score", byId, "sum"),
+                window(WindowFunctionType.AVG, "score", byId, "avg"),
+                window(WindowFunctionType.MIN, "score", byId, "min"),
+                window(WindowFunctionType.MAX, "score", byId, "max")
+            )
+            .build();
+
+        Map<String, Map<String, Object>> rows = byId(query);
+
+        // red: 10, 30, 30, 20
+        assertEquals(List.of(1L, 2L, 3L, 4L), List.of(
+            longOf(rows, "a1", "count"), longOf(rows, "a2", "count"), longOf(rows, "a3", "count"), longOf(rows, "a4", "count")));
+        assertEquals(List.of(10d, 40d, 70d, 90d), List.of(
+            doubleOf(rows, "a1", "sum"), doubleOf(rows, "a2", "sum"), doubleOf(rows, "a3", "sum"), doubleOf(rows, "a4", "sum")));
+        assertEquals(10d, doubleOf(rows, "a1", "avg"), 1e-9);
+        assertEquals(20d, doubleOf(rows, "a2", "avg"), 1e-9);
+        assertEquals(70d / 3, doubleOf(rows, "a3", "avg"), 1e-9);
+        assertEquals(22.5d, doubleOf(rows, "a4", "avg"), 1e-9);
+        assertEquals(List.of(10L, 10L, 10L, 10L), List.of(
+            longOf(rows, "a1", "min"), longOf(rows, "a2", "min"), longOf(rows, "a3", "min"), longOf(rows, "a4", "min")));
+        assertEquals(List.of(10L, 30L, 30L, 30L), List.of(
+            longOf(rows, "a1", "max"), longOf(rows, "a2", "max"), longOf(rows, "a3", "max"), longOf(rows, "a4", "max")));
+
+        // blue: 5, 5, 15, with nothing carried over from red
+        assertEquals(List.of(1L, 2L, 3L), List.of(
+            longOf(rows, "b1", "count"), longOf(rows, "b2", "count"), longOf(rows, "b3", "count")));
+        assertEquals(List.of(5d, 10d, 25d), List.of(
+            doubleOf(rows, "b1", "sum"), doubleOf(rows, "b2", "sum"), doubleOf(rows, "b3", "sum")));
+        assertEquals(5d, doubleOf(rows, "b1", "avg"), 1e-9);
+        assertEquals(5d, doubleOf(rows, "b2", "avg"), 1e-9);
+        assertEquals(25d / 3, doubleOf(rows, "b3", "avg"), 1e-9);
+        assertEquals(List.of(5L, 5L, 5L), List.of(
+            longOf(rows, "b1", "min"), longOf(rows, "b2", "min"), longOf(rows, "b3", "min")));
+        assertEquals(List.of(5L, 5L, 15L), List.of(
+            longOf(rows, "b1", "max"), longOf(rows, "b2", "max"), longOf(rows, "b3", "max")));
+    }
+
+    @Test
+    void equal_sort_keys_keep_the_query_order() {
+        SortOption byScore = new SortOption("score", SortOrder.DESCENDING);
+        WindowQuery query = Query.window()
+            .select("id")
+            .select(window(WindowFunctionType.ROW_NUMBER, "id", byScore, "rn"))
+            .orderBy("id", SortOrder.DESCENDING)
+            .build();
+
+        List<Map<String, Object>> rows = adapter.window(query);
+        assertEquals(List.of("b3", "b2", "b1", "a4", "a3", "a2", "a1"), rows.stream().map(row -> row.get("id")).toList());
+
+        Map<String, Map<String, Object>> byId = byId(query);
+        // a3 and a2 tie on 30, b2 and b1 on 5: ties are numbered in the order of the query
+        assertEquals(1, longOf(byId, "a3", "rn"));
+        assertEquals(2, longOf(byId, "a2", "rn"));
+        assertEquals(2, longOf(byId, "b2", "rn"));
+        assertEquals(3, longOf(byId, "b1", "rn"));
+
+        // The same query twice numbers its ties the same way
+        assertEquals(rows, adapter.window(query));
+    }
+}
@@ -0,0 +1,42 @@
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+
+@Repository(name = "score-entity")
+public class ScoreEntity {
+    @Id
+    private String id;
+    private String team;
+    private int score;
+
+    public ScoreEntity() {}
+
+    public ScoreEntity(String id, String team, int score) {
+        this.id = id;
+        this.team = team;
+        this.score = score;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public void setTeam(String team) {
+        this.team = team;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
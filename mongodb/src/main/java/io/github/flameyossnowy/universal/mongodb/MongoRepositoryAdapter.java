@@ -1,6 +1,7 @@
 package io.github.flameyossnowy.universal.mongodb;
 
 import com.mongodb.MongoClientSettings;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.*;
 import com.mongodb.client.model.*;
 import com.mongodb.client.result.DeleteResult;
@@ -11,6 +12,9 @@ import io.github.flameyossnowy.universal.api.*;
 import io.github.flameyossnowy.universal.api.IndexOptions;
 import io.github.flameyossnowy.universal.api.annotations.enums.IndexType;
 import io.github.flameyossnowy.universal.api.cache.*;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import io.github.flameyossnowy.universal.api.cache.offheap.OffHeapTier;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.exceptions.handler.DefaultExceptionHandler;
 import io.github.flameyossnowy.universal.api.exceptions.handler.ExceptionHandler;
@@ -40,8 +44,13 @@ import io.github.flameyossnowy.universal.api.resolver.TypeRegistry;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
 import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegistry;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregate;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregates;
 import io.github.flameyossnowy.universal.api.utils.Logging;
 import io.github.flameyossnowy.universal.api.json.JsonCodec;
+import io.github.flameyossnowy.universal.api.json.JsonDiff;
+import io.github.flameyossnowy.universal.api.json.JsonSnapshots;
 import io.github.flameyossnowy.universal.mongodb.aggregate.MongoAggregationImplementation;
 import io.github.flameyossnowy.universal.mongodb.codec.DelegatingMongoCodecProvider;
 import io.github.flameyossnowy.universal.mongodb.codec.MongoJsonCodecBridge;
@@ -76,6 +85,9 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
 
     private static final Document EMPTY = new Document();
 
+    /** Ids listed in one {@code $in} filter of a batch delete. */
+    private static final int IDS_PER_DELETE = 10_000;
+
     private final MongoAggregationImplementation<T, ID> aggregationImpl;
 
     MongoCollection<Document> collection;
@@ -94,9 +106,20 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
     @Nullable
     private final SecondLevelCache<ID, T> l2Cache;
 
+    @Nullable
+    private final OffHeapTier<ID, T> offHeapTier;
+
     @Nullable
     private final ReadThroughCache<ID, T> readThroughCache;
 
+    private final MaterializedAggregates<T, ID> materialized;
+    private final Runnable rebuildMaterialized;
+
+    /** The partially updatable JSON fields, whose embedded documents updates diff against {@link #jsonSnapshots}. */
+    private final List<FieldModel<T>> partialJsonFields;
+    @Nullable
+    private final JsonSnapshots<ID> jsonSnapshots;
+
     private final Logger logger = LoggerFactory.getLogger(MongoRepositoryAdapter.class);
 
     private static final Set<Class<?>> NUMBERS = Set.of(
@@ -185,17 +208,34 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         this.operationContext = new OperationContext<>(repositoryModel, typeResolverRegistry, this.operationExecutor);
 
         RepositoryRegistry.register(this.repositoryModel.tableName(), this);
+        this.objectModel = GeneratedObjectFactories.getObjectModel(repositoryModel);
+        this.materialized = new MaterializedAggregates<>(repositoryModel);
+        this.rebuildMaterialized = materialized::invalidate;
+        this.partialJsonFields = JsonSnapshots.partialUpdateFields(repositoryModel);
+        this.jsonSnapshots = partialJsonFields.isEmpty() ? null : new JsonSnapshots<>(partialJsonFields.size(), JsonSnapshots.DEFAULT_CAPACITY);
         CacheConfig cacheConfig = repositoryModel.getCacheConfig();
         if (cacheConfig != null && cacheConfig.isEnabled()) {
+            this.offHeapTier = OffHeapTier.fromConfig(repositoryModel, objectModel);
             this.resultCache = new DefaultResultCache<>(cacheConfig.maxSize(), cacheConfig.cacheAlgorithmType());
-            this.l2Cache = new SecondLevelCache<>(cacheConfig.maxSize(), 300000, cacheConfig.cacheAlgorithmType());
+            this.l2Cache = new SecondLevelCache<>(
+                cacheConfig.maxSize(),
+                300000,
+                cacheConfig.cacheAlgorithmType(),
+                ExpirationPolicy.AFTER_WRITE,
+                TimerWheel.shared(),
+                offHeapTier
+            );
             this.readThroughCache = new ReadThroughCache<>(
                 cacheConfig.maxSize(),
+                300000,
                 cacheConfig.cacheAlgorithmType(),
+                ExpirationPolicy.AFTER_WRITE,
+                TimerWheel.shared(),
                 this::loadFromDatabase,
                 this::loadFromDatabaseBatch
             );
         } else {
+            this.offHeapTier = null;
             this.resultCache = null;
             this.l2Cache = null;
             this.readThroughCache = null;
@@ -246,8 +286,6 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             repositoryModel
         );
 
-        this.objectModel = GeneratedObjectFactories.getObjectModel(repositoryModel);
-
         List<IndexOptions> queuedIndexes = initializeIndexes(repositoryModel);
         for (IndexOptions idx : queuedIndexes) {
             createIndex(idx).expect("Should be able to create index successfully");
@@ -312,6 +350,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             if (cached != null) return cached;
         }
 
+        DefaultResultCache.Generation generation = resultCache == null ? null : resultCache.generation();
         FindIterable<Document> iterable = process(query, collection.find(filterDoc), repositoryModel.getFetchPageSize());
         if (query.limit() == 1) {
             Document doc = iterable.first();
@@ -339,11 +378,12 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             }
 
             ValueReader valueReader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, typeResolverRegistry, id);
+            rememberJson(id, databaseResult);
             T result = objectModel.construct(valueReader);
             objectModel.populateRelationships(result, id, relationshipLoader, valueReader);
             List<T> single = List.of(result);
             if (resultCache != null) {
-                resultCache.insert(filterDoc, single, objectModel::getId);
+                resultCache.insert(filterDoc, single, objectModel::getId, null, generation);
             }
             return single;
         }
@@ -354,7 +394,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                 results.add(createObject(cursor));
             }
             if (resultCache != null) {
-                resultCache.insert(filterDoc, results, objectModel::getId);
+                resultCache.insert(filterDoc, results, objectModel::getId, null, generation);
             }
             return results;
         }
@@ -376,6 +416,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             logger.warn("constructObject: resolved null ID for pk={} in {}", pk, repositoryModel.tableName());
         }
         ValueReader valueReader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, typeResolverRegistry, id);
+        rememberJson(id, databaseResult);
         T construct = objectModel.construct(valueReader);
         objectModel.populateRelationships(construct, id, relationshipLoader, valueReader);
         return construct;
@@ -400,6 +441,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             if (cached != null) return cached;
         }
 
+        DefaultResultCache.Generation generation = resultCache == null ? null : resultCache.generation();
         try (MongoCursor<Document> iterable = collection.find().iterator()) {
             List<T> results = new ArrayList<>(iterable.available());
             MongoDatabaseResult databaseResult = new MongoDatabaseResult(null, collectionHandler, repositoryModel);
@@ -413,13 +455,14 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                 String pk = mongoPrimaryKeyName(pkField);
                 ID id = typeResolverRegistry.resolve(idType).resolve(databaseResult, pk);
                 ValueReader valueReader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, typeResolverRegistry, id);
+                rememberJson(id, databaseResult);
                 T construct = objectModel.construct(valueReader);
                 objectModel.populateRelationships(construct, id, relationshipLoader, valueReader);
                 results.add(construct);
                 databaseResult.clear();
             }
 
-            if (resultCache != null) resultCache.insert(EMPTY, results, objectModel::getId);
+            if (resultCache != null) resultCache.insert(EMPTY, results, objectModel::getId, null, generation);
             return results;
         }
     }
@@ -602,14 +645,16 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
 
         String pk = mongoPrimaryKeyName(primaryKey);
         Document filter = new Document(pk, key);
+        DefaultResultCache.Generation generation = resultCache == null ? null : resultCache.generation();
         MongoDatabaseResult databaseResult = new MongoDatabaseResult(collection.find(filter).first(), collectionHandler, repositoryModel);
         ID id = typeResolverRegistry.resolve(idType).resolve(databaseResult, pk);
         ValueReader valueReader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, typeResolverRegistry, id);
+        rememberJson(id, databaseResult);
         T construct = objectModel.construct(valueReader);
         objectModel.populateRelationships(construct, id, relationshipLoader, valueReader);
         if (construct != null) {
             if (resultCache != null) {
-                resultCache.insert(filter, List.of(construct), objectModel::getId);
+                resultCache.insert(filter, List.of(construct), objectModel::getId, null, generation);
             }
         }
         return construct;
@@ -773,12 +818,124 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         return and(filters).toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
     }
 
-    private void invalidate(Bson filters) {
-        if (resultCache != null) resultCache.clear(filters);
+    private void invalidateResults(ID id) {
+        if (resultCache != null && id != null) resultCache.invalidate(id);
+    }
+
+    private void invalidateResults() {
+        if (resultCache != null) resultCache.invalidateTable();
+        // the written documents are not known either
+        materialized.invalidate();
+        if (jsonSnapshots != null) jsonSnapshots.clear();
+    }
+
+    /**
+     * Remembers the partially updatable fields of a read document that are stored as embedded
+     * documents, the only ones whose paths can be set.
+     */
+    private void rememberJson(@Nullable ID id, MongoDatabaseResult databaseResult) {
+        if (jsonSnapshots == null || id == null) return;
+        for (int i = 0; i < partialJsonFields.size(); i++) {
+            Object stored = databaseResult.get(partialJsonFields.get(i).columnName(), Object.class);
+            jsonSnapshots.remember(id, i, stored instanceof Document embedded ? embedded.toJson() : null);
+        }
+    }
+
+    /**
+     * The update of {@code doc} that sets only the changed paths of the partially updatable
+     * fields with a remembered document, or {@code null} when none of them changed less than
+     * their whole document.
+     */
+    private @Nullable PartialUpdate partialUpdate(@NotNull ID id, @NotNull T entity, @NotNull Document doc, @NotNull String pk) {
+        if (jsonSnapshots == null) return null;
+
+        String[] after = new String[partialJsonFields.size()];
+        Set<String> patched = new HashSet<>(4);
+        List<Bson> updates = new ArrayList<>(doc.size() + 4);
+
+        for (int i = 0; i < after.length; i++) {
+            FieldModel<T> field = partialJsonFields.get(i);
+            Object value = field.getValue(entity);
+            if (value == null) continue;
+
+            JsonCodec<Object> codec = typeResolverRegistry.getJsonCodecFromSupplier(field.jsonCodec(), field.jsonCodecSupplier(), objectMapper);
+            String json = codec.serialize(value, (Class<Object>) field.type());
+            List<JsonDiff.Change> changes = jsonSnapshots.patch(id, i, json);
+            if (changes == null || !settable(changes)) continue;
+
+            String column = field.columnName();
+            for (JsonDiff.Change change : changes) {
+                String path = column + '.' + String.join(".", change.path());
+                updates.add(change.isRemoval()
+                    ? Updates.unset(path)
+                    : Updates.set(path, MongoJsonCodecBridge.jsonToBsonFriendly(change.value())));
+            }
+            after[i] = json;
+            patched.add(column);
+        }
+        if (patched.isEmpty()) return null;
+
+        for (Map.Entry<String, Object> entry : doc.entrySet()) {
+            if (entry.getKey().equals(pk) || patched.contains(entry.getKey())) continue;
+            updates.add(Updates.set(entry.getKey(), entry.getValue()));
+        }
+        if (updates.isEmpty()) return null;
+        return new PartialUpdate(Updates.combine(updates), after);
+    }
+
+    /** Dotted paths cannot name keys containing dots or starting with {@code $}. */
+    private static boolean settable(List<JsonDiff.Change> changes) {
+        for (JsonDiff.Change change : changes) {
+            for (String key : change.path()) {
+                if (key.isEmpty() || key.indexOf('.') >= 0 || key.charAt(0) == '$') return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records what an update stored: the documents of the patched fields, and nothing for the
+     * others or for writes that may still be aborted.
+     */
+    private void rememberJsonWrite(@Nullable ID id, @Nullable PartialUpdate partial, boolean committed) {
+        if (jsonSnapshots == null || id == null) return;
+        if (partial == null || !committed) {
+            jsonSnapshots.forget(id);
+            return;
+        }
+        for (int i = 0; i < partial.after().length; i++) jsonSnapshots.remember(id, i, partial.after()[i]);
     }
 
-    private void invalidate() {
-        if (resultCache != null) resultCache.clear();
+    /**
+     * @param after the serialized document of every patched field, by partially updatable field
+     */
+    private record PartialUpdate(Bson update, String[] after) {}
+
+    private void invalidateResultsForInserts(Collection<T> inserted) {
+        if (resultCache != null) resultCache.invalidateForInserts(inserted);
+    }
+
+    /**
+     * Applies written entities to the materialized aggregates. A write inside a transaction may
+     * still be aborted, so the aggregates are rebuilt once it completes instead.
+     */
+    private void materializeWrites(Collection<T> written, @Nullable TransactionContext<ClientSession> tx) {
+        if (materialized.isEmpty()) return;
+        if (tx == null) materialized.onWrite(written);
+        else invalidateMaterialized(tx);
+    }
+
+    private void materializeDeletes(Collection<ID> deleted, @Nullable TransactionContext<ClientSession> tx) {
+        if (jsonSnapshots != null) jsonSnapshots.forget(deleted);
+        if (materialized.isEmpty()) return;
+        if (tx == null) materialized.onDelete(deleted);
+        else invalidateMaterialized(tx);
+    }
+
+    private void invalidateMaterialized(@NotNull TransactionContext<ClientSession> tx) {
+        materialized.invalidate();
+        // a read before the transaction ends would rebuild without its writes
+        if (tx instanceof SimpleTransactionContext context) context.onCompletion(rebuildMaterialized);
     }
 
     @Override
@@ -797,15 +954,17 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
 
             InsertOneResult result = collection.insertOne(tx.connection(), doc);
 
-            return notifyListenersAndCaches(value, primaryKey, result);
+            return notifyListenersAndCaches(value, primaryKey, result, tx);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
         }
     }
 
     @NotNull
-    private TransactionResult<Boolean> notifyListenersAndCaches(T value, FieldModel<T> primaryKey, InsertOneResult result) {
+    private TransactionResult<Boolean> notifyListenersAndCaches(T value, FieldModel<T> primaryKey, InsertOneResult result, @Nullable TransactionContext<ClientSession> tx) {
         ID id = (ID) primaryKey.getValue(value);
+        invalidateResultsForInserts(List.of(value));
+        if (result.wasAcknowledged()) materializeWrites(List.of(value), tx);
         if (l2Cache != null) {
             l2Cache.invalidate(id);
         }
@@ -835,7 +994,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
 
             InsertOneResult result = collection.insertOne(doc);
 
-            return notifyListenersAndCaches(value, primaryKey, result);
+            return notifyListenersAndCaches(value, primaryKey, result, null);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
         }
@@ -860,7 +1019,10 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
     public TransactionResult<Boolean> insertAll(Collection<T> values, @NotNull TransactionContext<ClientSession> tx) {
         try {
             TransactionResult<List<Document>> transactionResult = insertAll0(values);
-            return transactionResult.map(docs -> collection.insertMany(tx.connection(), docs).wasAcknowledged());
+            TransactionResult<Boolean> inserted = transactionResult.map(docs -> collection.insertMany(tx.connection(), docs).wasAcknowledged());
+            invalidateResultsForInserts(values);
+            if (inserted.isSuccess()) materializeWrites(values, tx);
+            return inserted;
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
         }
@@ -870,7 +1032,10 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
     public TransactionResult<Boolean> insertAll(Collection<T> values) {
         try {
             TransactionResult<List<Document>> transactionResult = insertAll0(values);
-            return transactionResult.map(docs -> collection.insertMany(docs).wasAcknowledged());
+            TransactionResult<Boolean> inserted = transactionResult.map(docs -> collection.insertMany(docs).wasAcknowledged());
+            invalidateResultsForInserts(values);
+            if (inserted.isSuccess()) materializeWrites(values, null);
+            return inserted;
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
         }
@@ -934,7 +1099,11 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             ID id = doc.get(pk, idType);
 
             Document document = new Document(pk, id);
-            Document replaced = collection.findOneAndReplace(document, doc);
+            PartialUpdate partial = id != null ? partialUpdate(id, entity, doc, pk) : null;
+            Document replaced = partial != null
+                ? collection.findOneAndUpdate(tx.connection(), document, partial.update())
+                : collection.findOneAndReplace(document, doc);
+            rememberJsonWrite(id, partial, false);
 
             if (id != null) {
                 if (globalCache != null) globalCache.put(id, entity);
@@ -947,7 +1116,9 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                     objectModel.populateRelationships(construct, id, relationshipLoader, valueReader);
                     auditLogger.onUpdate(entity, construct);
                 }
-                invalidate(document);
+                invalidateResults(id);
+                invalidateResultsForInserts(List.of(entity));
+                materializeWrites(List.of(entity), tx);
             }
 
             if (entityLifecycleListener != null) {
@@ -989,7 +1160,9 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             ID id = doc.get(pk, idType);
 
             Document document = new Document(pk, id);
-            Document replaced = collection.findOneAndUpdate(document, doc);
+            PartialUpdate partial = id != null ? partialUpdate(id, entity, doc, pk) : null;
+            Document replaced = collection.findOneAndUpdate(document, partial != null ? partial.update() : doc);
+            rememberJsonWrite(id, partial, replaced != null);
 
             if (id != null) {
                 if (globalCache != null) globalCache.put(id, entity);
@@ -999,7 +1172,9 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                 }
             }
 
-            invalidate(document);
+            invalidateResults(id);
+            invalidateResultsForInserts(List.of(entity));
+            if (replaced != null) materializeWrites(List.of(entity), null);
 
             if (entityLifecycleListener != null) entityLifecycleListener.onPostUpdate(entity);
             return TransactionResult.success(replaced != null);
@@ -1034,7 +1209,8 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             String pk = mongoPrimaryKeyName(primaryKey);
             Document filter = new Document(pk, id);
             DeleteResult result = collection.deleteOne(filter);
-            invalidate(filter);
+            invalidateResults(id);
+            if (result.getDeletedCount() > 0) materializeDeletes(List.of(id), null);
 
             if (auditLogger != null) {
                 auditLogger.onDelete(entity);
@@ -1064,7 +1240,8 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                 globalCache.remove(id);
             }
 
-            invalidate(filter);
+            invalidateResults(id);
+            materializeDeletes(List.of(id), transactionContext);
             return TransactionResult.success(result.getDeletedCount() > 0);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
@@ -1085,7 +1262,9 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
 
             if (globalCache != null) globalCache.remove(value);
 
-            invalidate(filter);
+            invalidateResults(value);
+            //noinspection ConstantValue
+            if (result != null && result.getDeletedCount() > 0) materializeDeletes(List.of(value), null);
 
             // False; it can actually be null.
             //noinspection ConstantValue
@@ -1095,6 +1274,171 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         }
     }
 
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities, @NotNull TransactionContext<ClientSession> tx) {
+        return updateAll0(entities, tx);
+    }
+
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities) {
+        return updateAll0(entities, null);
+    }
+
+    /**
+     * Replaces every entity's document through one unordered {@code bulkWrite}, loading the
+     * previous states the audit log needs with one lookup.
+     */
+    private TransactionResult<Boolean> updateAll0(@NotNull Collection<T> entities, @Nullable TransactionContext<ClientSession> tx) {
+        FieldModel<T> primaryKey = repositoryModel.getPrimaryKey();
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("Primary key not found for " + repositoryModel.tableName());
+        }
+        if (entities.isEmpty()) return TransactionResult.success(false);
+
+        try {
+            String pk = mongoPrimaryKeyName(primaryKey);
+            List<ID> ids = new ArrayList<>(entities.size());
+            List<ReplaceOneModel<Document>> replacements = new ArrayList<>(entities.size());
+
+            for (T entity : entities) {
+                ValidationException validationException = validateEntity(entity);
+                if (validationException != null) {
+                    return TransactionResult.failure(validationException);
+                }
+
+                MongoDatabaseParameters parameters = new MongoDatabaseParameters(collectionHandler);
+                objectModel.insertEntity(parameters, entity);
+                Document doc = parameters.toDocument();
+                if (!pk.equals(primaryKey.name()) && doc.containsKey(primaryKey.name()) && !doc.containsKey(pk)) {
+                    doc.put(pk, doc.remove(primaryKey.name()));
+                }
+
+                ID id = doc.get(pk, idType);
+                ids.add(id);
+                replacements.add(new ReplaceOneModel<>(new Document(pk, id), doc));
+            }
+
+            Map<ID, T> oldEntities = auditLogger != null ? findAllById(ids) : Map.of();
+            if (entityLifecycleListener != null) {
+                for (T entity : entities) entityLifecycleListener.onPreUpdate(entity);
+            }
+
+            BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+            BulkWriteResult result = tx == null
+                ? collection.bulkWrite(replacements, options)
+                : collection.bulkWrite(tx.connection(), replacements, options);
+
+            int index = 0;
+            for (T entity : entities) {
+                ID id = ids.get(index++);
+                if (id == null) continue;
+
+                if (globalCache != null) globalCache.put(id, entity);
+                if (l2Cache != null) l2Cache.invalidate(id);
+                if (readThroughCache != null) readThroughCache.invalidate(id);
+                invalidateResults(id);
+                if (auditLogger != null) auditLogger.onUpdate(oldEntities.get(id), entity);
+            }
+            invalidateResultsForInserts(entities);
+            materializeWrites(entities, tx);
+            // the replacements write every document whole and keep none of them
+            if (jsonSnapshots != null) jsonSnapshots.forget(ids);
+
+            if (entityLifecycleListener != null) {
+                for (T entity : entities) entityLifecycleListener.onPostUpdate(entity);
+            }
+            return TransactionResult.success(result.getMatchedCount() > 0);
+        } catch (Exception e) {
+            return this.exceptionHandler.handleInsert(e, repositoryModel, this);
+        }
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities, @NotNull TransactionContext<ClientSession> tx) {
+        return deleteAll0(byId(entities), tx);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities) {
+        return deleteAll0(byId(entities), null);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids, @NotNull TransactionContext<ClientSession> tx) {
+        return deleteAllById0(ids, tx);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids) {
+        return deleteAllById0(ids, null);
+    }
+
+    private @NotNull Map<ID, T> byId(@NotNull Collection<T> entities) {
+        Map<ID, T> byId = new LinkedHashMap<>(Math.max(entities.size() * 2, 8));
+        for (T entity : entities) {
+            byId.put(objectModel.getId(entity), entity);
+        }
+        return byId;
+    }
+
+    private TransactionResult<Boolean> deleteAllById0(@NotNull Collection<ID> ids, @Nullable TransactionContext<ClientSession> tx) {
+        if (auditLogger == null && entityLifecycleListener == null) {
+            Map<ID, T> unloaded = new LinkedHashMap<>(Math.max(ids.size() * 2, 8));
+            for (ID id : ids) unloaded.put(id, null);
+            return deleteAll0(unloaded, tx);
+        }
+        Map<ID, T> loaded = new LinkedHashMap<>(findAllById(ids));
+        for (ID id : ids) loaded.putIfAbsent(id, null);
+        return deleteAll0(loaded, tx);
+    }
+
+    /**
+     * Deletes the documents of every id through {@code deleteMany} with {@code $in} lists of at
+     * most {@value #IDS_PER_DELETE} ids, and invalidates the caches once per id.
+     *
+     * @param entities the deleted entities by id; an id without a loaded entity maps to {@code null}
+     */
+    private TransactionResult<Boolean> deleteAll0(@NotNull Map<ID, T> entities, @Nullable TransactionContext<ClientSession> tx) {
+        FieldModel<T> primaryKey = repositoryModel.getPrimaryKey();
+        if (primaryKey == null) {
+            throw new IllegalArgumentException("Primary key not found for " + repositoryModel.tableName());
+        }
+        if (entities.isEmpty()) return TransactionResult.success(false);
+
+        try {
+            if (entityLifecycleListener != null) {
+                for (T entity : entities.values()) {
+                    if (entity != null) entityLifecycleListener.onPreDelete(entity);
+                }
+            }
+
+            String pk = mongoPrimaryKeyName(primaryKey);
+            List<ID> ids = new ArrayList<>(entities.keySet());
+            long deleted = 0;
+            for (int from = 0; from < ids.size(); from += IDS_PER_DELETE) {
+                Bson filter = in(pk, ids.subList(from, Math.min(ids.size(), from + IDS_PER_DELETE)));
+                DeleteResult result = tx == null ? collection.deleteMany(filter) : collection.deleteMany(tx.connection(), filter);
+                deleted += result.getDeletedCount();
+            }
+
+            for (ID id : ids) {
+                if (globalCache != null) globalCache.remove(id);
+                if (l2Cache != null) l2Cache.invalidate(id);
+                if (readThroughCache != null) readThroughCache.invalidate(id);
+                invalidateResults(id);
+            }
+            materializeDeletes(ids, tx);
+            for (T entity : entities.values()) {
+                if (entity == null) continue;
+                if (auditLogger != null) auditLogger.onDelete(entity);
+                if (entityLifecycleListener != null) entityLifecycleListener.onPostDelete(entity);
+            }
+            return TransactionResult.success(deleted > 0);
+        } catch (Exception e) {
+            return this.exceptionHandler.handleInsert(e, repositoryModel, this);
+        }
+    }
+
     @Override
     public TransactionResult<Boolean> updateAll(@NotNull UpdateQuery query, TransactionContext<ClientSession> tx) {
         try {
@@ -1105,7 +1449,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                     conditions.isEmpty() ? new Document() : and(conditions),
                     Updates.combine(updates)
             );
-            if (query.filters() != null) invalidate(createFilterBson(query.filters()));
+            invalidateResults();
             return TransactionResult.success(result.getModifiedCount() > 0);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
@@ -1127,7 +1471,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
                             ? new Document()
                             : and(mongoUpdateResult.conditions()),
                     Updates.combine(mongoUpdateResult.updates()));
-            invalidate(createFilterBson(query.filters()));
+            invalidateResults();
             return TransactionResult.success(result.getModifiedCount() > 0);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
@@ -1154,12 +1498,12 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         try {
             if (query == null || query.filters().isEmpty()) {
                 DeleteResult result = collection.deleteMany(tx.connection(), new Document());
-                invalidate();
+                invalidateResults();
                 return TransactionResult.success(result.getDeletedCount() > 0);
             }
             Bson filterDoc = createFilterBson(query.filters());
             DeleteResult result = collection.deleteMany(tx.connection(), filterDoc);
-            invalidate(createFilterBson(query.filters()));
+            invalidateResults();
             return TransactionResult.success(result.getDeletedCount() > 0);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
@@ -1177,13 +1521,13 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         try {
             if (query.filters().isEmpty()) {
                 DeleteResult result = collection.deleteMany(new Document());
-                invalidate();
+                invalidateResults();
                 return TransactionResult.success(result.getDeletedCount() > 0);
             }
 
             Bson filterDoc = createFilterBson(query.filters());
             DeleteResult result = collection.deleteMany(filterDoc);
-            invalidate(createFilterBson(query.filters()));
+            invalidateResults();
             return TransactionResult.success(result.getDeletedCount() > 0);
         } catch (Exception e) {
             return this.exceptionHandler.handleInsert(e, repositoryModel, this);
@@ -1208,7 +1552,8 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
             Document filter = new Document(pk, id);
             DeleteResult result = collection.deleteOne(tx.connection(), filter);
 
-            invalidate(filter);
+            invalidateResults(id);
+            materializeDeletes(List.of(id), tx);
             if (globalCache != null) {
                 globalCache.remove(id);
             }
@@ -1504,9 +1849,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
     public TransactionResult<Boolean> clear() {
         try {
             DeleteResult result = collection.deleteMany(new Document());
-            if (resultCache != null) {
-                resultCache.clear();
-            }
+            invalidateResults();
             if (globalCache != null) {
                 globalCache.clear();
             }
@@ -1523,6 +1866,7 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
 
     @Override
     public void close() {
+        if (offHeapTier != null) offHeapTier.close();
         client.close();
         RepositoryRegistry.unregister(repositoryModel.tableName());
         collection = null;
@@ -1606,6 +1950,17 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         return aggregationImpl.aggregate(query);
     }
 
+    @Override
+    public @NotNull ColumnarResult aggregateColumnar(@NotNull AggregationQuery query) {
+        return aggregationImpl.aggregateColumnar(query);
+    }
+
+    @Override
+    public @NotNull MaterializedAggregate<T, ID> materialize(@NotNull AggregationQuery query) {
+        SelectQuery source = new SelectQuery(List.of(), query.whereFilters(), List.of(), -1, null);
+        return materialized.register(query, () -> find(source));
+    }
+
     @Override
     public @NotNull List<T> aggregateEntities(@NotNull AggregationQuery query) {
         return aggregationImpl.aggregateEntities(query, doc -> {
@@ -1619,6 +1974,11 @@ public class MongoRepositoryAdapter<T, ID> implements RepositoryAdapter<T, ID, C
         return aggregationImpl.window(query);
     }
 
+    @Override
+    public @NotNull ColumnarResult windowColumnar(@NotNull WindowQuery query) {
+        return aggregationImpl.windowColumnar(query);
+    }
+
     @Override
     public <R> List<R> window(@NotNull WindowQuery query, @NotNull Class<R> resultType) {
         return aggregationImpl.window(query, resultType);
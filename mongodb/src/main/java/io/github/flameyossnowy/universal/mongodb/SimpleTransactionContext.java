@@ -6,9 +6,14 @@ import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.exceptions.TransactionClosedException;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 public class SimpleTransactionContext implements TransactionContext<ClientSession> {
     private final ClientSession connection;
     private boolean commited = false;
+    private final Set<Runnable> completions = new LinkedHashSet<>();
 
     public SimpleTransactionContext(@NotNull ClientSession connection) {
         this.connection = connection;
@@ -20,6 +25,14 @@ public class SimpleTransactionContext implements TransactionContext<ClientSessio
         return connection;
     }
 
+    /**
+     * Runs {@code action} once the transaction is committed or closed. An action that is
+     * registered again is only run once.
+     */
+    public void onCompletion(Runnable action) {
+        completions.add(action);
+    }
+
     @Override
     public TransactionResult<Boolean> commit() {
         if (!commited) {
@@ -27,6 +40,7 @@ public class SimpleTransactionContext implements TransactionContext<ClientSessio
             else return TransactionResult.failure(new TransactionClosedException("Transaction was closed."));
         }
         commited = true;
+        complete();
         return TransactionResult.success(true);
     }
 
@@ -40,5 +54,13 @@ public class SimpleTransactionContext implements TransactionContext<ClientSessio
     public void close() {
         rollback();
         connection.close();
+        complete();
+    }
+
+    private void complete() {
+        if (completions.isEmpty()) return;
+        List<Runnable> actions = List.copyOf(completions);
+        completions.clear();
+        for (Runnable action : actions) action.run();
     }
 }
\ No newline at end of file
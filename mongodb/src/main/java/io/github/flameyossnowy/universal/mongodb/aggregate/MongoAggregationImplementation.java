@@ -6,6 +6,7 @@ import com.mongodb.client.MongoCursor;
 import io.github.flameyossnowy.universal.api.options.*;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.jetbrains.annotations.NotNull;
@@ -38,19 +39,14 @@ public class MongoAggregationImplementation<T, ID> {
      * Execute aggregation query and return raw results.
      */
     public List<Map<String, Object>> aggregate(@NotNull AggregationQuery query) {
-        List<Bson> pipeline = pipelineBuilder.build(query);
-        
-        AggregateIterable<Document> results = collection.aggregate(pipeline);
-        
-        List<Map<String, Object>> resultList = new ArrayList<>();
-        try (MongoCursor<Document> cursor = results.iterator()) {
-            while (cursor.hasNext()) {
-                Document doc = cursor.next();
-                resultList.add(documentToMap(doc));
-            }
-        }
-        
-        return resultList;
+        return aggregateColumnar(query).asMaps();
+    }
+
+    /**
+     * Execute aggregation query into column vectors.
+     */
+    public ColumnarResult aggregateColumnar(@NotNull AggregationQuery query) {
+        return collect(pipelineBuilder.build(query));
     }
 
     /**
@@ -79,19 +75,14 @@ public class MongoAggregationImplementation<T, ID> {
      * MongoDB 5.0+ supports $setWindowFields for window functions.
      */
     public List<Map<String, Object>> window(@NotNull WindowQuery query) {
-        List<Bson> pipeline = buildWindowPipeline(query);
-        
-        AggregateIterable<Document> results = collection.aggregate(pipeline);
-        
-        List<Map<String, Object>> resultList = new ArrayList<>();
-        try (MongoCursor<Document> cursor = results.iterator()) {
-            while (cursor.hasNext()) {
-                Document doc = cursor.next();
-                resultList.add(documentToMap(doc));
-            }
-        }
-        
-        return resultList;
+        return windowColumnar(query).asMaps();
+    }
+
+    /**
+     * Execute window function query into column vectors.
+     */
+    public ColumnarResult windowColumnar(@NotNull WindowQuery query) {
+        return collect(buildWindowPipeline(query));
     }
 
     /**
@@ -138,17 +129,7 @@ public class MongoAggregationImplementation<T, ID> {
             throw new IllegalArgumentException("MongoDB aggregation requires List<Bson> pipeline");
         }
         
-        AggregateIterable<Document> results = collection.aggregate(pipeline);
-        
-        List<Map<String, Object>> resultList = new ArrayList<>();
-        try (MongoCursor<Document> cursor = results.iterator()) {
-            while (cursor.hasNext()) {
-                Document doc = cursor.next();
-                resultList.add(documentToMap(doc));
-            }
-        }
-        
-        return resultList;
+        return collect(pipeline).asMaps();
     }
 
     /**
@@ -343,8 +324,24 @@ public class MongoAggregationImplementation<T, ID> {
     /**
      * Convert MongoDB Document to Map.
      */
-    private Map<String, Object> documentToMap(Document doc) {
-        return new LinkedHashMap<>(doc);
+    /**
+     * Runs {@code pipeline} and stores the documents column by column. Documents that lack a
+     * field leave it out of their row.
+     */
+    private ColumnarResult collect(List<Bson> pipeline) {
+        AggregateIterable<Document> results = collection.aggregate(pipeline);
+
+        ColumnarResult.Builder builder = ColumnarResult.builder();
+        try (MongoCursor<Document> cursor = results.iterator()) {
+            while (cursor.hasNext()) {
+                for (Map.Entry<String, Object> field : cursor.next().entrySet()) {
+                    builder.set(builder.column(field.getKey()), field.getValue());
+                }
+                builder.endRow();
+            }
+        }
+
+        return builder.build();
     }
 
     /**
@@ -8,7 +8,7 @@ import io.github.flameyossnowy.universal.sql.internals.AbstractRelationalReposit
 
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
-import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,7 +18,7 @@ import java.util.function.LongFunction;
 public class MySQLRepositoryAdapter<T, ID> extends AbstractRelationalRepositoryAdapter<T, ID> {
     protected MySQLRepositoryAdapter(
             @NotNull final SQLConnectionProvider dataSource,
-            final DefaultResultCache<ParameterizedSql, T, ID> cache,
+            final DefaultResultCache<ResultCacheKey, T, ID> cache,
             final Class<T> repository,
             final Class<ID> idClass,
             SessionCache<ID, T> globalCache,
@@ -14,7 +14,7 @@ import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegist
 import io.github.flameyossnowy.universal.mysql.connections.MySQLSimpleConnectionProvider;
 import io.github.flameyossnowy.universal.mysql.credentials.MySQLCredentials;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
-import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -123,7 +123,7 @@ public class MySQLRepositoryAdapterBuilder<T, ID> {
         boolean cacheEnabled = cacheConfig.isEnabled();
         int maxSize = 0;
 
-        DefaultResultCache<ParameterizedSql, T, ID> resultCache = null;
+        DefaultResultCache<ResultCacheKey, T, ID> resultCache = null;
 
         if (cacheEnabled) {
             maxSize = cacheConfig.maxSize();
@@ -30,6 +30,11 @@ public class MySQLHikariConnectionProvider extends MySQLSimpleConnectionProvider
         }
     }
 
+    @Override
+    public int maxConnections() {
+        return pool.getMaximumPoolSize();
+    }
+
     @Override
     public void close() {
         pool.close();
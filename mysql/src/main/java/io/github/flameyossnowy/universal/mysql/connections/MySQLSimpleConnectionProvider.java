@@ -1,5 +1,7 @@
 package io.github.flameyossnowy.universal.mysql.connections;
 
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
 import com.mysql.cj.jdbc.MysqlDataSource;
 import io.github.flameyossnowy.universal.api.Optimizations;
 import io.github.flameyossnowy.universal.mysql.credentials.MySQLCredentials;
@@ -8,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.EnumSet;
 
@@ -72,4 +75,31 @@ public class MySQLSimpleConnectionProvider implements SQLConnectionProvider {
     public PreparedStatement prepareStatement(String sql, Connection connection) throws Exception {
         return connection.prepareStatement(sql);
     }
+
+    /**
+     * Connector/J only pages with a server-side cursor when {@code useCursorFetch} is enabled (for example
+     * through the credentials' data source consumer). Otherwise the result is streamed row by row, which
+     * is the driver's other way of not buffering the whole result.
+     */
+    @Override
+    public PreparedStatement prepareStreamingStatement(String sql, Connection connection, int fetchSize) throws Exception {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(usesCursorFetch(connection) ? fetchSize : Integer.MIN_VALUE);
+        return statement;
+    }
+
+    /**
+     * Whether {@code connection} itself was opened with {@code useCursorFetch}, read from the driver
+     * connection behind it, so pooled connections configured apart from {@link #dataSource} are judged
+     * by their own settings.
+     */
+    protected boolean usesCursorFetch(Connection connection) throws SQLException {
+        if (connection.isWrapperFor(JdbcConnection.class)) {
+            return connection.unwrap(JdbcConnection.class)
+                .getPropertySet()
+                .getBooleanProperty(PropertyKey.useCursorFetch)
+                .getValue();
+        }
+        return dataSource.getUseCursorFetch();
+    }
 }
@@ -4,6 +4,7 @@ import io.github.flameyossnowy.universal.api.options.FilterOption;
 import io.github.flameyossnowy.universal.api.options.JsonSelectOption;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
 import io.github.flameyossnowy.universal.sql.internals.query.SqlConditionBuilder;
 import io.github.flameyossnowy.universal.sql.internals.repository.SqlParameterBinder;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
@@ -40,7 +41,17 @@ class MySqlJsonFilterTest {
 
         TypeResolverRegistry registry = new TypeResolverRegistry();
 
-        String sql = "SELECT * FROM mysql_json_entity WHERE JSON_UNQUOTE(JSON_EXTRACT(payload, '$.profile')) = ?";
+        List<FilterOption> filters = List.of(
+            new JsonSelectOption(
+                "payload",
+                "$.profile",
+                "=",
+                new MySqlJsonEntity.Payload("Flow", 21)
+            )
+        );
+
+        SqlConditionBuilder.BuiltCondition where = new SqlConditionBuilder<>(QueryParseEngine.SQLType.MYSQL, model).buildConditionsFull(filters);
+        ParameterizedSql sql = ParameterizedSql.of("SELECT * FROM mysql_json_entity WHERE " + where.sql(), where.paramNames());
 
         CapturingParameters params = new CapturingParameters(
             mock(PreparedStatement.class),
@@ -51,18 +62,10 @@ class MySqlJsonFilterTest {
 
         SqlParameterBinder<MySqlJsonEntity, String> binder = new SqlParameterBinder<>();
 
-        List<FilterOption> filters = List.of(
-            new JsonSelectOption(
-                "payload",
-                "$.profile",
-                "=",
-                new MySqlJsonEntity.Payload("Flow", 21)
-            )
-        );
-
         binder.addFilterToPreparedStatement(filters, params, registry, model, QueryParseEngine.SQLType.MYSQL);
 
-        assertEquals("JSON_UNQUOTE(JSON_EXTRACT(payload, '$.profile'))", params.lastName);
+        // bound at the placeholder of the JSON column, whichever expression the filter compares
+        assertEquals("payload", params.lastName);
         assertEquals("{\"n\":\"Flow\",\"a\":21}", params.lastValue);
     }
 
@@ -73,7 +76,7 @@ class MySqlJsonFilterTest {
         CapturingParameters(
             PreparedStatement statement,
             TypeResolverRegistry registry,
-            String sql,
+            ParameterizedSql sql,
             RepositoryModel<?, ?> model
         ) {
             super(statement, registry, sql, model, mock(io.github.flameyossnowy.universal.api.handler.CollectionHandler.class), false);
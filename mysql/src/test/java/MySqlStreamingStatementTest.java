@@ -0,0 +1,65 @@
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.mysql.connections.MySQLHikariConnectionProvider;
+import io.github.flameyossnowy.universal.mysql.credentials.MySQLCredentials;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.EnumSet;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MySqlStreamingStatementTest {
+
+    /** A pooled connection whose driver connection was opened with {@code useCursorFetch} as given. */
+    @SuppressWarnings("unchecked")
+    private static Connection pooledConnection(PreparedStatement statement, boolean useCursorFetch) throws Exception {
+        RuntimeProperty<Boolean> property = mock(RuntimeProperty.class);
+        when(property.getValue()).thenReturn(useCursorFetch);
+        PropertySet properties = mock(PropertySet.class);
+        when(properties.getBooleanProperty(PropertyKey.useCursorFetch)).thenReturn(property);
+        JdbcConnection driverConnection = mock(JdbcConnection.class);
+        when(driverConnection.getPropertySet()).thenReturn(properties);
+
+        Connection connection = mock(Connection.class);
+        when(connection.isWrapperFor(JdbcConnection.class)).thenReturn(true);
+        when(connection.unwrap(JdbcConnection.class)).thenReturn(driverConnection);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        return connection;
+    }
+
+    private static MySQLHikariConnectionProvider provider(boolean useCursorFetch) {
+        MySQLCredentials credentials = new MySQLCredentials("localhost", 3306, "test", "user", "password")
+            .setDataSourceConsumer(dataSource -> {
+                try {
+                    dataSource.setUseCursorFetch(useCursorFetch);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        return new MySQLHikariConnectionProvider(credentials, EnumSet.noneOf(Optimizations.class));
+    }
+
+    @Test
+    void pooled_connections_with_cursor_fetch_page_through_a_cursor() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        try (MySQLHikariConnectionProvider provider = provider(false)) {
+            provider.prepareStreamingStatement("SELECT 1", pooledConnection(statement, true), 500);
+        }
+        verify(statement).setFetchSize(500);
+    }
+
+    @Test
+    void pooled_connections_without_cursor_fetch_stream_row_by_row() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        try (MySQLHikariConnectionProvider provider = provider(true)) {
+            provider.prepareStreamingStatement("SELECT 1", pooledConnection(statement, false), 500);
+        }
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+    }
+}
@@ -89,6 +89,22 @@ tasks.named("processJmhResources") {
     dependsOn("compileJmhJava")
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("large")
+    }
+}
+
+// Million-row tests against the local PostgreSQL used by the other tests: ./gradlew :postgresql:largeTest
+tasks.register<Test>("largeTest") {
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("large")
+    }
+    maxHeapSize = "512m"
+}
+
 tasks.shadowJar {
     mergeServiceFiles()
 }
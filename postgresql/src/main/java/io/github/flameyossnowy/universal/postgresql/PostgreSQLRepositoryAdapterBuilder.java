@@ -14,7 +14,7 @@ import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegist
 import io.github.flameyossnowy.universal.postgresql.connections.PostgreSQLSimpleConnectionProvider;
 import io.github.flameyossnowy.universal.postgresql.credentials.PostgreSQLCredentials;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
-import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -124,7 +124,7 @@ public class PostgreSQLRepositoryAdapterBuilder<T, ID> {
         boolean cacheEnabled = cacheable.isEnabled();
         int maxSize = 0;
 
-        DefaultResultCache<ParameterizedSql, T, ID> resultCache = null;
+        DefaultResultCache<ResultCacheKey, T, ID> resultCache = null;
 
         if (cacheEnabled && cacheable.maxSize() > 0) {
             maxSize = cacheable.maxSize();
@@ -30,6 +30,11 @@ public class PostgreSQLHikariConnectionProvider extends PostgreSQLSimpleConnecti
         }
     }
 
+    @Override
+    public int maxConnections() {
+        return pool.getMaximumPoolSize();
+    }
+
     @Override
     public void close() {
         pool.close();
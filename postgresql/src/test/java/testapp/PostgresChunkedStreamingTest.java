@@ -0,0 +1,89 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.handler.AbstractRelationshipHandler;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.postgresql.PostgreSQLRepositoryAdapter;
+import io.github.flameyossnowy.universal.postgresql.credentials.PostgreSQLCredentials;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIf("canConnectToPostgreSQL")
+class PostgresChunkedStreamingTest {
+    private static final int FACTIONS = 600;
+    private static final int CHUNK_SIZE = 256;
+
+    private static final PostgreSQLCredentials CREDENTIALS =
+        new PostgreSQLCredentials("localhost", 5432, "test", "postgres", "test");
+
+    private static boolean canConnectToPostgreSQL() {
+        try {
+            PostgreSQLRepositoryAdapter.builder(Something.class, Long.class)
+                .withCredentials(CREDENTIALS)
+                .build()
+                .getQueryExecutor()
+                .executeRawQuery("SELECT 1");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Test
+    void streaming_loads_many_to_one_once_per_chunk() {
+        var somethingAdapter = PostgreSQLRepositoryAdapter
+            .builder(Something.class, Long.class)
+            .withCredentials(CREDENTIALS)
+            .withOptimizations(Optimizations.RECOMMENDED_SETTINGS)
+            .build();
+
+        var factionAdapter = PostgreSQLRepositoryAdapter
+            .builder(Faction.class, Long.class)
+            .withCredentials(CREDENTIALS)
+            .withOptimizations(Optimizations.RECOMMENDED_SETTINGS)
+            .build();
+
+        factionAdapter.getQueryExecutor().executeRawQuery("DROP TABLE IF EXISTS Factions CASCADE;");
+        factionAdapter.getQueryExecutor().executeRawQuery("DROP TABLE IF EXISTS Something CASCADE;");
+        somethingAdapter.createRepository(true);
+        factionAdapter.createRepository(true);
+
+        Something something = new Something();
+        something.setName("S1");
+        somethingAdapter.insert(something);
+
+        List<Faction> factions = new ArrayList<>(FACTIONS);
+        for (int i = 0; i < FACTIONS; i++) {
+            Faction faction = new Faction();
+            faction.setName("F" + i);
+            faction.setSomething(something);
+            factions.add(faction);
+        }
+        factionAdapter.insertAll(factions);
+
+        AbstractRelationshipHandler<Faction, Long> handler =
+            (AbstractRelationshipHandler<Faction, Long>) factionAdapter.getRelationshipHandler();
+        handler.setStreamChunkSize(CHUNK_SIZE);
+        handler.clear();
+        handler.resetMetrics();
+
+        long count;
+        try (Stream<Faction> stream = factionAdapter.findStream(Query.select().build())) {
+            count = stream.count();
+        }
+
+        assertEquals(FACTIONS, count);
+
+        AbstractRelationshipHandler.RelationshipMetrics metrics = handler.getMetrics();
+        long chunks = (FACTIONS + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        assertEquals(chunks, metrics.queryCountsByField().get("something"),
+            "expected one IN-query per chunk, not one query per row");
+        assertEquals(0, metrics.cacheMisses());
+    }
+}
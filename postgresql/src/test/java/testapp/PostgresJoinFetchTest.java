@@ -0,0 +1,159 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.handler.AbstractRelationshipHandler;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import io.github.flameyossnowy.universal.postgresql.PostgreSQLRepositoryAdapter;
+import io.github.flameyossnowy.universal.postgresql.credentials.PostgreSQLCredentials;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIf("canConnectToPostgreSQL")
+class PostgresJoinFetchTest {
+    private static final int FACTIONS = 50;
+
+    private static final PostgreSQLCredentials CREDENTIALS =
+        new PostgreSQLCredentials("localhost", 5432, "test", "postgres", "test");
+
+    private static boolean canConnectToPostgreSQL() {
+        try {
+            PostgreSQLRepositoryAdapter.builder(Something.class, Long.class)
+                .withCredentials(CREDENTIALS)
+                .build()
+                .getQueryExecutor()
+                .executeRawQuery("SELECT 1");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Recreates both tables, with {@value #FACTIONS} factions alternating between two targets. */
+    private static PostgreSQLRepositoryAdapter<Faction, Long> factions() {
+        var somethingAdapter = PostgreSQLRepositoryAdapter
+            .builder(Something.class, Long.class)
+            .withCredentials(CREDENTIALS)
+            .withOptimizations(Optimizations.RECOMMENDED_SETTINGS)
+            .build();
+
+        var factionAdapter = PostgreSQLRepositoryAdapter
+            .builder(Faction.class, Long.class)
+            .withCredentials(CREDENTIALS)
+            .withOptimizations(Optimizations.RECOMMENDED_SETTINGS)
+            .build();
+
+        factionAdapter.getQueryExecutor().executeRawQuery("DROP TABLE IF EXISTS Factions CASCADE;");
+        factionAdapter.getQueryExecutor().executeRawQuery("DROP TABLE IF EXISTS Something CASCADE;");
+        somethingAdapter.createRepository(true);
+        factionAdapter.createRepository(true);
+
+        Something even = new Something();
+        even.setName("even");
+        somethingAdapter.insert(even);
+
+        Something odd = new Something();
+        odd.setName("odd");
+        somethingAdapter.insert(odd);
+
+        List<Faction> factions = new ArrayList<>(FACTIONS);
+        for (int i = 0; i < FACTIONS; i++) {
+            Faction faction = new Faction();
+            faction.setName("F" + i);
+            faction.setSomething(i % 2 == 0 ? even : odd);
+            factions.add(faction);
+        }
+        factionAdapter.insertAll(factions);
+        return factionAdapter;
+    }
+
+    @Test
+    void fetch_reads_many_to_one_in_the_same_statement() {
+        var factionAdapter = factions();
+
+        AbstractRelationshipHandler<Faction, Long> handler =
+            (AbstractRelationshipHandler<Faction, Long>) factionAdapter.getRelationshipHandler();
+        handler.clear();
+        handler.resetMetrics();
+
+        List<Faction> loaded = factionAdapter.find(Query.select()
+            .orderBy("id", SortOrder.ASCENDING)
+            .limit(FACTIONS)
+            .fetch("something")
+            .build());
+
+        assertEquals(FACTIONS, loaded.size());
+        for (int i = 0; i < FACTIONS; i++) {
+            Faction faction = loaded.get(i);
+            assertEquals("F" + i, faction.getName());
+            assertNotNull(faction.getSomething());
+            assertEquals(i % 2 == 0 ? "even" : "odd", faction.getSomething().getName());
+        }
+
+        AbstractRelationshipHandler.RelationshipMetrics metrics = handler.getMetrics();
+        assertNull(metrics.queryCountsByField().get("something"), "the join should have loaded every target");
+        assertEquals(0, metrics.cacheMisses());
+    }
+
+    @Test
+    void fetch_loads_one_to_many_with_one_batch_query() {
+        factions();
+
+        var somethingAdapter = PostgreSQLRepositoryAdapter
+            .builder(Something.class, Long.class)
+            .withCredentials(CREDENTIALS)
+            .withOptimizations(Optimizations.RECOMMENDED_SETTINGS)
+            .build();
+
+        AbstractRelationshipHandler<Something, Long> handler =
+            (AbstractRelationshipHandler<Something, Long>) somethingAdapter.getRelationshipHandler();
+        handler.clear();
+        handler.resetMetrics();
+
+        // a one-to-many field cannot be joined, so the plan falls back to the batch loader
+        List<Something> loaded = somethingAdapter.find(Query.select()
+            .orderBy("id", SortOrder.ASCENDING)
+            .fetch("faction")
+            .build());
+
+        assertEquals(2, loaded.size());
+        for (int parity = 0; parity < 2; parity++) {
+            Something something = loaded.get(parity);
+            assertEquals(parity == 0 ? "even" : "odd", something.getName());
+
+            List<Faction> children = something.getFaction();
+            assertEquals(FACTIONS / 2, children.size());
+            for (Faction faction : children) {
+                assertEquals(parity, Integer.parseInt(faction.getName().substring(1)) % 2);
+            }
+        }
+
+        AbstractRelationshipHandler.RelationshipMetrics metrics = handler.getMetrics();
+        assertEquals(1L, metrics.queryCountsByField().get("faction"), "both parents should share one IN-query");
+        assertEquals(0, metrics.cacheMisses());
+    }
+
+    @Test
+    void streams_read_the_plain_select_of_a_fetch_plan() {
+        var factionAdapter = factions();
+
+        List<Faction> streamed;
+        try (var stream = factionAdapter.findStream(Query.select()
+            .orderBy("id", SortOrder.ASCENDING)
+            .fetch("something")
+            .build())) {
+            streamed = stream.toList();
+        }
+
+        assertEquals(FACTIONS, streamed.size());
+        for (int i = 0; i < FACTIONS; i++) {
+            assertEquals("F" + i, streamed.get(i).getName());
+            assertEquals(i % 2 == 0 ? "even" : "odd", streamed.get(i).getSomething().getName());
+        }
+    }
+}
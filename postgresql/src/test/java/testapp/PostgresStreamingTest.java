@@ -0,0 +1,109 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.CloseableIterator;
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.postgresql.PostgreSQLRepositoryAdapter;
+import io.github.flameyossnowy.universal.postgresql.credentials.PostgreSQLCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streams a million rows through a server-side cursor. Tagged {@code large}, so it only runs with
+ * {@code ./gradlew :postgresql:largeTest}.
+ */
+@Tag("large")
+@EnabledIf("canConnectToPostgreSQL")
+class PostgresStreamingTest {
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private static final PostgreSQLCredentials CREDENTIALS =
+        new PostgreSQLCredentials("localhost", 5432, "test", "postgres", "test");
+
+    private static boolean canConnectToPostgreSQL() {
+        try {
+            PostgreSQLRepositoryAdapter<StreamRow, Long> adapter = createAdapter();
+            adapter.getQueryExecutor().executeRawQuery("SELECT 1");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static PostgreSQLRepositoryAdapter<StreamRow, Long> createAdapter() {
+        return PostgreSQLRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(CREDENTIALS)
+            .withOptimizations(Optimizations.RECOMMENDED_SETTINGS)
+            .build();
+    }
+
+    private PostgreSQLRepositoryAdapter<StreamRow, Long> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = createAdapter();
+        adapter.getQueryExecutor().executeRawQuery("DROP TABLE IF EXISTS pg_stream_rows CASCADE;");
+        adapter.createRepository(true);
+        adapter.getQueryExecutor().executeRawQuery(
+            "INSERT INTO pg_stream_rows (id, name, score) " +
+            "SELECT x, 'row-' || x, x % 1000 FROM generate_series(1, " + ROWS + ") AS x;"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.getQueryExecutor().executeRawQuery("DROP TABLE IF EXISTS pg_stream_rows CASCADE;");
+        adapter.close();
+    }
+
+    @Test
+    void stream_over_million_rows_keeps_memory_bounded() {
+        long baseline = usedHeap();
+        long peak = 0;
+        long count = 0;
+
+        try (Stream<StreamRow> rows = adapter.findStream(Query.select().build())) {
+            Iterator<StreamRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+                if (count % 250_000 == 0) {
+                    peak = Math.max(peak, usedHeap());
+                }
+            }
+        }
+
+        assertEquals(ROWS, count);
+        assertTrue(peak - baseline < MAX_HEAP_GROWTH,
+            "heap grew by " + (peak - baseline) / (1024 * 1024) + " MiB while streaming");
+    }
+
+    @Test
+    void iterator_closed_early_returns_connection_to_pool() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            try (CloseableIterator<StreamRow> iterator = adapter.findIterator(Query.select().build())) {
+                assertTrue(iterator.hasNext());
+                assertNotNull(iterator.next());
+            }
+        }
+
+        // The pool would be exhausted by now if closing left the cursor's connection checked out.
+        assertEquals(1, adapter.find(Query.select().where("id").eq(1L).build()).size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,43 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.annotations.FetchPageSize;
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+
+@SuppressWarnings("unused")
+@Repository(name = "pg_stream_rows")
+@FetchPageSize(500)
+public class StreamRow {
+    @Id
+    private Long id;
+
+    private String name;
+    private int score;
+
+    public StreamRow() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
@@ -5,10 +5,14 @@ import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 public class SimpleTransactionContext implements TransactionContext<Connection> {
     private final Connection connection;
     private boolean commited = false;
+    private final Set<Runnable> completions = new LinkedHashSet<>();
 
     public SimpleTransactionContext(Connection connection) throws SQLException {
         this.connection = connection;
@@ -20,6 +24,14 @@ public class SimpleTransactionContext implements TransactionContext<Connection>
         return connection;
     }
 
+    /**
+     * Runs {@code action} once the transaction is committed or rolled back. An action that is
+     * registered again is only run once.
+     */
+    public void onCompletion(Runnable action) {
+        completions.add(action);
+    }
+
     @Override
     public TransactionResult<Boolean> commit() {
         if (commited) return TransactionResult.success(false);
@@ -29,12 +41,21 @@ public class SimpleTransactionContext implements TransactionContext<Connection>
             return TransactionResult.failure(e);
         }
         commited = true;
+        complete();
         return TransactionResult.success(true);
     }
 
     @Override
     public void rollback() throws SQLException {
         if (!commited && connection != null && !connection.isClosed()) connection.rollback();
+        complete();
+    }
+
+    private void complete() {
+        if (completions.isEmpty()) return;
+        List<Runnable> actions = List.copyOf(completions);
+        completions.clear();
+        for (Runnable action : actions) action.run();
     }
 
     @Override
@@ -44,6 +65,7 @@ public class SimpleTransactionContext implements TransactionContext<Connection>
                 if (!commited) connection.rollback();
                 connection.close();
             }
+            complete();
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -3,12 +3,18 @@ package io.github.flameyossnowy.universal.sql.internals;
 import io.github.flameyossnowy.universal.api.*;
 import io.github.flameyossnowy.universal.api.annotations.enums.CacheAlgorithmType;
 import io.github.flameyossnowy.universal.api.cache.*;
+import io.github.flameyossnowy.universal.api.cache.expiry.ExpirationPolicy;
+import io.github.flameyossnowy.universal.api.cache.expiry.TimerWheel;
+import io.github.flameyossnowy.universal.api.cache.offheap.OffHeapTier;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutor;
+import io.github.flameyossnowy.universal.api.concurrent.AsyncExecutors;
 import io.github.flameyossnowy.universal.api.connection.TransactionContext;
 import io.github.flameyossnowy.universal.api.exceptions.RepositoryException;
 import io.github.flameyossnowy.universal.api.exceptions.handler.DefaultExceptionHandler;
 import io.github.flameyossnowy.universal.api.exceptions.handler.ExceptionHandler;
 import io.github.flameyossnowy.universal.api.factory.ObjectModel;
 import io.github.flameyossnowy.universal.api.factory.RelationshipLoader;
+import io.github.flameyossnowy.universal.api.handler.AbstractRelationshipHandler;
 import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
 import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
 import io.github.flameyossnowy.universal.api.listener.AuditLogger;
@@ -32,10 +38,18 @@ import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverBridge;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
 import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegistry;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregate;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregates;
 import io.github.flameyossnowy.universal.api.utils.Logging;
 import io.github.flameyossnowy.universal.sql.SimpleTransactionContext;
+import io.github.flameyossnowy.universal.sql.internals.query.CompiledAggregation;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import io.github.flameyossnowy.universal.sql.internals.query.SqlAggregationImplementation;
+import io.github.flameyossnowy.universal.sql.internals.repository.AdaptiveBatchSizer;
+import io.github.flameyossnowy.universal.sql.internals.repository.BatchMetrics;
+import io.github.flameyossnowy.universal.sql.internals.repository.JsonPartialUpdates;
 import io.github.flameyossnowy.universal.sql.internals.repository.SqlCacheManager;
 import io.github.flameyossnowy.universal.sql.internals.repository.SqlIteratorBuilder;
 import io.github.flameyossnowy.universal.sql.internals.repository.SqlParameterBinder;
@@ -45,7 +59,6 @@ import io.github.flameyossnowy.universal.sql.internals.repository.SqlResultMappe
 import io.github.flameyossnowy.universal.sql.internals.repository.SqlWriteExecutor;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
 import io.github.flameyossnowy.universal.sql.query.SQLQueryValidator;
-import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
 import io.github.flameyossnowy.universal.sql.validation.SqlValidationTranslator;
 import io.github.flameyossnowy.uniform.json.JsonAdapter;
 import io.github.flameyossnowy.uniform.json.resolvers.CoreTypeResolverRegistry;
@@ -55,10 +68,12 @@ import org.jetbrains.annotations.Nullable;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -72,7 +87,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
     protected final ExceptionHandler<T, ID, Connection> exceptionHandler;
     protected final Class<T> repository;
     protected final Class<ID> idClass;
-    protected final DefaultResultCache<ParameterizedSql, T, ID> cache;
+    protected final DefaultResultCache<ResultCacheKey, T, ID> cache;
     protected final SessionCache<ID, T> globalCache;
     protected final LongFunction<SessionCache<ID, T>> sessionCacheSupplier;
     protected final QueryParseEngine<T, ID> engine;
@@ -87,6 +102,9 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
     @Nullable
     protected final SecondLevelCache<ID, T> l2Cache;
 
+    @Nullable
+    private final OffHeapTier<ID, T> offHeapTier;
+
     @Nullable
     protected final ReadThroughCache<ID, T> readThroughCache;
 
@@ -94,6 +112,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
     private final QueryParseEngine.SQLType sqlType;
 
     private final RelationshipHandler<T, ID> relationshipHandler;
+    private final AsyncExecutor asyncExecutor;
 
     protected long openedSessions = 1;
 
@@ -111,6 +130,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
     private final SqlCacheManager<T, ID> cacheManager;
     private final SqlQueryExecutor<T, ID> queryExecutor;
     private final SqlIteratorBuilder<T, ID> iteratorBuilder;
+    private final MaterializedAggregates<T, ID> materialized;
 
     private final ValidationTranslator<T> validationTranslator;
 
@@ -119,7 +139,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
 
     protected AbstractRelationalRepositoryAdapter(
             SQLConnectionProvider dataSource,
-            DefaultResultCache<ParameterizedSql, T, ID> cache,
+            DefaultResultCache<ResultCacheKey, T, ID> cache,
             @NotNull Class<T> repository,
             Class<ID> idClass,
             QueryParseEngine.SQLType sqlType,
@@ -133,6 +153,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         this.sessionCacheSupplier = sessionCacheSupplier;
         this.idClass = idClass;
         this.dataSource = dataSource;
+        this.asyncExecutor = AsyncExecutors.boundedFor(dataSource, dataSource.maxConnections());
         this.cache = cache;
         this.repository = repository;
         this.globalCache = globalCache;
@@ -172,15 +193,35 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         this.entityLifecycleListener = repositoryModel.getEntityLifecycleListener();
         this.auditLogger = repositoryModel.getAuditLogger();
         
+        this.objectModel = GeneratedObjectFactories.getObjectModel(repositoryModel);
+
         if (cacheEnabled) {
-            this.l2Cache = new SecondLevelCache<>(maxSize, 300000, CacheAlgorithmType.LEAST_FREQ_AND_RECENTLY_USED);
+            // an explicit @Cacheable algorithm, otherwise the LFRU these caches always used
+            CacheConfig cacheConfig = repositoryModel.getCacheConfig();
+            CacheAlgorithmType algorithm = cacheConfig != null && cacheConfig.isEnabled() && cacheConfig.explicitAlgorithm()
+                ? cacheConfig.cacheAlgorithmType()
+                : CacheAlgorithmType.LEAST_FREQ_AND_RECENTLY_USED;
+
+            this.offHeapTier = OffHeapTier.fromConfig(repositoryModel, objectModel);
+            this.l2Cache = new SecondLevelCache<>(
+                maxSize,
+                300000,
+                algorithm,
+                ExpirationPolicy.AFTER_WRITE,
+                TimerWheel.shared(),
+                offHeapTier
+            );
             this.readThroughCache = new ReadThroughCache<>(
                 maxSize,
-                CacheAlgorithmType.LEAST_FREQ_AND_RECENTLY_USED,
+                300000,
+                algorithm,
+                ExpirationPolicy.AFTER_WRITE,
+                TimerWheel.shared(),
                 this::loadFromDatabase,
                 this::loadFromDatabaseBatch
             );
         } else {
+            this.offHeapTier = null;
             this.l2Cache = null;
             this.readThroughCache = null;
         }
@@ -208,32 +249,35 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
             repositoryModel
         );
 
-        this.objectModel = GeneratedObjectFactories.getObjectModel(repositoryModel);
         this.parameterBinder = new SqlParameterBinder<>();
+        JsonPartialUpdates<T, ID> jsonUpdates = JsonPartialUpdates.of(repositoryModel, resolverRegistry, sqlType);
         this.resultMapper = new SqlResultMapper<>(
             repositoryModel, idClass, resolverRegistry, objectModel,
-            relationshipLoader, globalCache, cache
+            relationshipLoader, globalCache, cache, jsonUpdates
         );
         this.cacheManager = new SqlCacheManager<>(cache, objectModel, cacheEnabled, l2Cache, readThroughCache);
         SqlReadExecutor<T, ID> readExecutor = new SqlReadExecutor<>(
             dataSource, collectionHandler, supportsArrays, sqlType, parameterBinder,
-            resultMapper, cacheManager
+            resultMapper, cacheManager, relationshipHandler
         );
 
         this.queryExecutor = new SqlQueryExecutor<>(dataSource, this.exceptionHandler, cache, repositoryModel, readExecutor, this);
 
         String[] primaryKeyColumnNames = new String[] { repositoryModel.getPrimaryKey().name() };
         boolean isAutoIncrement = repositoryModel.getPrimaryKey() != null && repositoryModel.getPrimaryKey().autoIncrement();
+        this.materialized = new MaterializedAggregates<>(repositoryModel);
         this.writeExecutor = new SqlWriteExecutor<>(
             dataSource, repositoryModel, resolverRegistry, collectionHandler,
             supportsArrays, cache, globalCache, relationshipHandler, this.exceptionHandler,
             this, objectModel, idClass, auditLogger, entityLifecycleListener, parameterBinder,
-            sqlType, isAutoIncrement, primaryKeyColumnNames
+            sqlType, isAutoIncrement, primaryKeyColumnNames, engine,
+            AdaptiveBatchSizer.forInsert(repositoryModel, sqlType, engine.parseInsert()),
+            materialized, jsonUpdates
         );
 
         this.iteratorBuilder = new SqlIteratorBuilder<>(
             dataSource, repositoryModel, resolverRegistry, collectionHandler, supportsArrays,
-            objectModel, idClass, parameterBinder, sqlType, resultMapper, engine, relationshipLoader
+            objectModel, idClass, parameterBinder, sqlType, resultMapper, engine, relationshipLoader, relationshipHandler
         );
 
         if (autoCreate) {
@@ -248,6 +292,11 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
                     Logging.error("Failed to create index: " + index.name() + " for repository: " + repositoryModel.tableName());
                 }
             }
+            for (String jsonIndex : engine.parseJsonIndexes(this::hasColumn)) {
+                if (queryExecutor.executeRawQuery(jsonIndex).isError()) {
+                    Logging.error("Failed to create JSON index: " + jsonIndex + " for repository: " + repositoryModel.tableName());
+                }
+            }
         }
 
         this.aggregationImpl = new SqlAggregationImplementation<>(
@@ -263,8 +312,16 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         this.cachedSelectQuery = new ParameterizedSql("SELECT * FROM " + repositoryModel.tableName() + " WHERE " + repositoryModel.getPrimaryKey().name() + " = ?", List.of("id"));
     }
 
+    @Override
+    public @NotNull AsyncExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
     @Override
     public void close() {
+        AsyncExecutors.release(dataSource);
+        if (relationshipHandler instanceof AbstractRelationshipHandler<?, ?> handler) handler.shutdown();
+        if (offHeapTier != null) offHeapTier.close();
         dataSource.close();
         RepositoryRegistry.unregister(repositoryModel.tableName());
     }
@@ -273,7 +330,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
     public List<T> find(SelectQuery q, ReadPolicy policy) {
         ReadPolicy effective = policy == null ? ReadPolicy.NO_READ_POLICY : policy;
         ParameterizedSql query = engine.parseSelect(q, false);
-        return queryExecutor.executeQueryWithParams(query, q, effective, false, q == null ? List.of() : q.filters());
+        return queryExecutor.executeQueryWithParams(query, q, effective, false, q == null ? List.of() : q.filters(), engine.parseFetchPlan(q));
     }
 
     @Override
@@ -416,14 +473,14 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
      */
     private T loadFromDatabase(ID key) {
         // Optimization: Inline queries
-        List<T> results = queryExecutor.loadFromDatabase(cachedSelectQuery, null);
+        List<T> results = queryExecutor.loadFromDatabase(cachedSelectQuery, key);
         return results.isEmpty() ? null : results.getFirst();
     }
 
     @Override
     public @Nullable T first(final SelectQuery q) {
         ParameterizedSql query = engine.parseSelect(q, true);
-        List<T> results = queryExecutor.executeQueryWithParams(query, q, true, q.filters());
+        List<T> results = queryExecutor.executeQueryWithParams(query, q, ReadPolicy.NO_READ_POLICY, true, q.filters(), engine.parseFetchPlan(q));
         return results.isEmpty() ? null : results.getFirst();
     }
 
@@ -455,16 +512,8 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
             return TransactionResult.failure(validationException);
         }
         ID id = this.objectModel.getId(entity);
-        ParameterizedSql sql = engine.parseUpdateFromEntity();
-        TransactionResult<Boolean> result = writeExecutor.executeUpdate(
-            transactionContext, sql,
-            statement -> {
-                SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
-                this.parameterBinder.setUpdateParameters(parameters, entity, repositoryModel, resolverRegistry);
-            },
-            entity, id, this::findById
-        );
-        
+        TransactionResult<Boolean> result = writeExecutor.executeEntityUpdate(transactionContext, entity, id, this::findById);
+
         cacheManager.invalidateEntity(result, id);
         return result;
     }
@@ -489,6 +538,58 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         return writeExecutor.executeDeleteWithId(null, engine.parseDelete(value), value, this::findById);
     }
 
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities, TransactionContext<Connection> transactionContext) {
+        if (entities.isEmpty()) return TransactionResult.success(false);
+        for (T entity : entities) {
+            ValidationException validationException = validateEntity(entity);
+            if (validationException != null) {
+                return TransactionResult.failure(validationException);
+            }
+        }
+
+        TransactionResult<Boolean> result = writeExecutor.executeUpdateAll(transactionContext, engine.parseUpdateFromEntity(), entities, this::findAllById);
+        for (T entity : entities) {
+            cacheManager.invalidateEntity(result, this.objectModel.getId(entity));
+        }
+        return result;
+    }
+
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities) {
+        return updateAll(entities, null);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities, TransactionContext<Connection> transactionContext) {
+        if (entities.isEmpty()) return TransactionResult.success(false);
+        // Composite keys have no single column to list the ids in
+        if (repositoryModel.primaryKeys().size() > 1) return RepositoryAdapter.super.deleteAll(entities, transactionContext);
+
+        Map<ID, T> byId = new LinkedHashMap<>(Math.max(entities.size() * 2, 8));
+        for (T entity : entities) {
+            byId.put(this.objectModel.getId(entity), entity);
+        }
+        return writeExecutor.executeDeleteAll(transactionContext, byId.keySet(), byId, this::findAllById);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities) {
+        return deleteAll(entities, null);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids, TransactionContext<Connection> transactionContext) {
+        if (ids.isEmpty()) return TransactionResult.success(false);
+        if (repositoryModel.primaryKeys().size() > 1) return RepositoryAdapter.super.deleteAllById(ids, transactionContext);
+        return writeExecutor.executeDeleteAll(transactionContext, ids, null, this::findAllById);
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids) {
+        return deleteAllById(ids, null);
+    }
+
     @Override
     public TransactionResult<Boolean> createIndex(IndexOptions index) {
         return queryExecutor.executeRawQuery(engine.parseIndex(index));
@@ -508,10 +609,27 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
                             .build()));
                     if (indexResult.isError()) return indexResult;
                 }
+                for (String jsonIndex : engine.parseJsonIndexes(this::hasColumn)) {
+                    TransactionResult<Boolean> indexResult = queryExecutor.executeRawQuery(jsonIndex);
+                    if (indexResult.isError()) return indexResult;
+                }
                 return TransactionResult.success(true);
             });
     }
 
+    /**
+     * Whether the table has {@code column}, read from the database metadata so tables created by an
+     * earlier version of the entity are seen as they are.
+     */
+    private boolean hasColumn(String column) {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, repositoryModel.tableName(), column)) {
+            return columns.next();
+        } catch (SQLException e) {
+            throw new RepositoryException(e.getMessage());
+        }
+    }
+
     @Override
     public @NotNull TransactionContext<Connection> beginTransaction() {
         try {
@@ -572,7 +690,10 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
 
     @Override
     public TransactionResult<Boolean> clear() {
-        return queryExecutor.executeRawQuery("DELETE FROM " + repositoryModel.tableName());
+        TransactionResult<Boolean> result = queryExecutor.executeRawQuery("DELETE FROM " + repositoryModel.tableName());
+        if (cache != null) cache.invalidateTable();
+        materialized.invalidate();
+        return result;
     }
 
     @Override
@@ -586,15 +707,7 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         T oldEntity = null;
         if (auditLogger != null) oldEntity = findById(this.objectModel.getId(entity));
 
-        @NotNull ParameterizedSql sql = engine.parseUpdateFromEntity();
-        TransactionResult<Boolean> result = writeExecutor.executeUpdate(
-            null, sql,
-            statement -> {
-                SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
-                this.parameterBinder.setUpdateParameters(parameters, entity, repositoryModel, resolverRegistry);
-            },
-            entity, this.objectModel.getId(entity), this::findById
-        );
+        TransactionResult<Boolean> result = writeExecutor.executeEntityUpdate(null, entity, this.objectModel.getId(entity), this::findById);
         if (result.isSuccess()) {
             if (entityLifecycleListener != null) entityLifecycleListener.onPostUpdate(entity);
             if (auditLogger != null) auditLogger.onUpdate(oldEntity, entity);
@@ -634,6 +747,17 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         return queryExecutor;
     }
 
+    public SqlResultMapper<T, ID> getResultMapper() {
+        return resultMapper;
+    }
+
+    /**
+     * The batch size {@code insertAll} currently uses for this repository, and how it got there.
+     */
+    public BatchMetrics getBatchMetrics() {
+        return writeExecutor.getBatchMetrics();
+    }
+
     public @NotNull RepositoryModel<T, ID> getRepositoryModel() {
         return repositoryModel;
     }
@@ -683,6 +807,17 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         return aggregationImpl.aggregate(query);
     }
 
+    @Override
+    public @NotNull ColumnarResult aggregateColumnar(@NotNull AggregationQuery query) {
+        return aggregationImpl.aggregateColumnar(query);
+    }
+
+    @Override
+    public @NotNull MaterializedAggregate<T, ID> materialize(@NotNull AggregationQuery query) {
+        SelectQuery source = new SelectQuery(Collections.emptyList(), query.whereFilters(), Collections.emptyList(), -1, null);
+        return materialized.register(query, () -> find(source));
+    }
+
     @Override
     public @NotNull List<T> aggregateEntities(@NotNull AggregationQuery query) {
         return aggregationImpl.aggregateEntities(query);
@@ -693,6 +828,11 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
         return aggregationImpl.window(query);
     }
 
+    @Override
+    public @NotNull ColumnarResult windowColumnar(@NotNull WindowQuery query) {
+        return aggregationImpl.windowColumnar(query);
+    }
+
     @Override
     public <R> List<R> window(@NotNull WindowQuery query, @NotNull Class<R> resultType) {
         return aggregationImpl.window(query, resultType);
@@ -700,17 +840,34 @@ public class AbstractRelationalRepositoryAdapter<T, ID> implements RepositoryAda
 
     @Override
     public @NotNull List<T> windowEntities(@NotNull WindowQuery query) {
-        return aggregationImpl.windowEntities(query, rs ->
-            resultMapper.constructNewEntity(
-                new SQLDatabaseResult(
-                    rs,
-                    resolverRegistry,
-                    collectionHandler,
-                    supportsArrays,
-                    repositoryModel
-                )
-            )
-        );
+        return aggregationImpl.windowEntities(query, resultMapper.rowMapper(collectionHandler, supportsArrays));
+    }
+
+    /**
+     * Parses {@code query} once into a plan for {@link #executeCompiled(CompiledAggregation)}, for
+     * aggregations that run over and over, such as a dashboard refreshing every few seconds.
+     */
+    public @NotNull CompiledAggregation compileAggregation(@NotNull AggregationQuery query) {
+        return aggregationImpl.compile(query);
+    }
+
+    /**
+     * Parses {@code query} once into a plan for {@link #executeCompiled(CompiledAggregation)}.
+     */
+    public @NotNull CompiledAggregation compileWindow(@NotNull WindowQuery query) {
+        return aggregationImpl.compile(query);
+    }
+
+    public @NotNull ColumnarResult executeCompiled(@NotNull CompiledAggregation plan) {
+        return aggregationImpl.execute(plan);
+    }
+
+    /**
+     * Runs {@code plan} with other values bound to its placeholders, one per entry of
+     * {@link CompiledAggregation#parameters()}.
+     */
+    public @NotNull ColumnarResult executeCompiled(@NotNull CompiledAggregation plan, @NotNull List<?> parameters) {
+        return aggregationImpl.execute(plan, parameters);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package io.github.flameyossnowy.universal.sql.internals;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -8,11 +10,21 @@ import java.sql.Statement;
 public final class DelegatingResultSet extends ResultSetWrapper {
     private final Statement statement;
     private final Connection connection;
+    private final @Nullable SQLConnectionProvider streamingProvider;
 
     public DelegatingResultSet(ResultSet rs, Statement stmt, Connection conn) {
+        this(rs, stmt, conn, null);
+    }
+
+    /**
+     * @param streamingProvider the provider that set {@code conn} up for a streaming read, so the
+     *                          read transaction is ended before the connection is closed
+     */
+    public DelegatingResultSet(ResultSet rs, Statement stmt, Connection conn, @Nullable SQLConnectionProvider streamingProvider) {
         super(rs);
         this.statement = stmt;
         this.connection = conn;
+        this.streamingProvider = streamingProvider;
     }
 
     @Override
@@ -23,7 +35,11 @@ public final class DelegatingResultSet extends ResultSetWrapper {
             try {
                 statement.close();
             } finally {
-                connection.close();
+                try {
+                    if (streamingProvider != null) streamingProvider.endStreamingRead(connection);
+                } finally {
+                    connection.close();
+                }
             }
         }
     }
@@ -0,0 +1,322 @@
+package io.github.flameyossnowy.universal.sql.internals;
+
+import io.github.flameyossnowy.universal.api.utils.Logging;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, least recently used cache of prepared statements, kept separately for every physical
+ * connection, for {@link SQLConnectionProvider}s whose driver does not cache statements itself.
+ * <p>
+ * A provider passes each connection it hands out through {@link #track(Connection)} and prepares
+ * statements through {@link #prepare(Connection, String)}. Closing a cached statement returns it
+ * to its connection's cache with its parameters and pending batch cleared and its fetch size, max rows
+ * and query timeout back at their initial values, so callers keep closing statements as usual. A statement evicted while in use is closed once it is returned.
+ * <p>
+ * Statements are prepared on the physical connection behind a pooled one, so they outlive the
+ * pooled handle and are reused by whoever borrows the same physical connection next. They are
+ * closed once that physical connection is closed, or when the cache itself is {@link #close() closed}.
+ * <p>
+ * A statement that is already handed out is never shared: asking for the same SQL again on the
+ * same connection prepares a statement of its own that is closed as usual.
+ */
+public final class PreparedStatementCache {
+    public static final int DEFAULT_STATEMENTS_PER_CONNECTION = 64;
+
+    private final int statementsPerConnection;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** Keyed by identity: a pool may hand out the same physical connection under many handles. */
+    private final Map<Connection, ConnectionStatements> connections = new IdentityHashMap<>(16);
+
+    public PreparedStatementCache(int statementsPerConnection) {
+        if (statementsPerConnection < 1) {
+            throw new IllegalArgumentException("Statements per connection must be positive: " + statementsPerConnection);
+        }
+        this.statementsPerConnection = statementsPerConnection;
+    }
+
+    /**
+     * Wraps a connection so the statements prepared for it are cached for as long as the physical
+     * connection behind it stays open.
+     *
+     * @param connection a connection just opened or borrowed from a pool
+     * @return the connection to hand out in its place
+     * @throws SQLException if the physical connection cannot be reached
+     */
+    public @NotNull Connection track(@NotNull Connection connection) throws SQLException {
+        Connection physical = connection.unwrap(Connection.class);
+        ConnectionStatements statements;
+        synchronized (connections) {
+            purgeClosed();
+            statements = connections.computeIfAbsent(physical, ConnectionStatements::new);
+        }
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{ Connection.class },
+            new TrackedConnection(connection, statements)
+        );
+    }
+
+    /**
+     * Hands out the cached statement for {@code sql}, preparing and caching it on a miss.
+     * Connections that were not passed through {@link #track(Connection)} prepare it uncached.
+     *
+     * @param connection the connection to prepare the statement on
+     * @param sql the SQL to prepare
+     * @return the statement, to be closed by the caller when done
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public @NotNull PreparedStatement prepare(@NotNull Connection connection, @NotNull String sql) throws SQLException {
+        if (Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof TrackedConnection tracked) {
+            return tracked.prepare(sql);
+        }
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Closes the statements cached for every connection, for a provider that is shutting down.
+     */
+    public void close() {
+        List<ConnectionStatements> open;
+        synchronized (connections) {
+            open = new ArrayList<>(connections.values());
+            connections.clear();
+        }
+        for (ConnectionStatements statements : open) {
+            statements.close();
+        }
+    }
+
+    public @NotNull StatementCacheMetrics getMetrics() {
+        return new StatementCacheMetrics(hits.sum(), misses.sum(), evictions.sum(), statementsPerConnection);
+    }
+
+    /** Drops the statements of physical connections a pool has evicted since. */
+    private void purgeClosed() {
+        var entries = connections.entrySet().iterator();
+        while (entries.hasNext()) {
+            var entry = entries.next();
+            if (isClosed(entry.getKey())) {
+                entries.remove();
+                entry.getValue().close();
+            }
+        }
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** The pooled handle a caller holds; closing it hands the connection back but keeps its statements. */
+    private final class TrackedConnection implements InvocationHandler {
+        private final Connection connection;
+        private final ConnectionStatements statements;
+
+        TrackedConnection(Connection connection, ConnectionStatements statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "close" -> {
+                    connection.close();
+                    // Not pooled, or the pool closed it: its statements are gone with it
+                    if (isClosed(statements.physical)) {
+                        synchronized (connections) {
+                            connections.remove(statements.physical, statements);
+                        }
+                        statements.close();
+                    }
+                    yield null;
+                }
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> PreparedStatementCache.invoke(connection, method, args);
+            };
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            return statements.prepare(sql);
+        }
+    }
+
+    /** The statements cached for one physical connection, shared by every handle a pool wraps it in. */
+    private final class ConnectionStatements {
+        private final Connection physical;
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        private boolean closed;
+
+        ConnectionStatements(Connection physical) {
+            this.physical = physical;
+        }
+
+        synchronized PreparedStatement prepare(String sql) throws SQLException {
+            if (closed) throw new SQLException("Connection is closed");
+
+            CachedStatement cached = statements.get(sql);
+            // A statement whose connection went away behind our back
+            if (cached != null && !cached.inUse && cached.statement.isClosed()) {
+                statements.remove(sql);
+                cached = null;
+            }
+            if (cached != null && !cached.inUse) {
+                hits.increment();
+                cached.inUse = true;
+                return cached.view;
+            }
+
+            misses.increment();
+            // Prepared on the physical connection so a pool does not close it when the handle is returned
+            PreparedStatement statement = physical.prepareStatement(sql);
+            // Somebody still holds the cached one, this statement is theirs alone
+            if (cached != null) return statement;
+
+            try {
+                cached = new CachedStatement(this, sql, statement);
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+            cached.inUse = true;
+            statements.put(sql, cached);
+            if (statements.size() > statementsPerConnection) evictEldest();
+            return cached.view;
+        }
+
+        private void evictEldest() {
+            var eldest = statements.entrySet().iterator();
+            CachedStatement evicted = eldest.next().getValue();
+            eldest.remove();
+            evictions.increment();
+
+            evicted.evicted = true;
+            if (!evicted.inUse) evicted.closeQuietly();
+        }
+
+        synchronized void giveBack(CachedStatement cached) {
+            cached.inUse = false;
+            if (cached.evicted || closed) {
+                cached.closeQuietly();
+                return;
+            }
+
+            // Whatever the borrower left behind must not reach the next one, such as rows of a batch
+            // that failed before it was executed
+            try {
+                cached.reset();
+            } catch (SQLException e) {
+                statements.remove(cached.sql, cached);
+                cached.closeQuietly();
+            }
+        }
+
+        synchronized void close() {
+            if (closed) return;
+            closed = true;
+
+            List<CachedStatement> open = new ArrayList<>(statements.values());
+            statements.clear();
+            for (CachedStatement cached : open) {
+                // One still handed out is closed when it is returned
+                if (!cached.inUse) cached.closeQuietly();
+            }
+        }
+    }
+
+    private static final class CachedStatement implements InvocationHandler {
+        private final ConnectionStatements owner;
+        private final String sql;
+        private final PreparedStatement statement;
+        private final PreparedStatement view;
+
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(ConnectionStatements owner, String sql, PreparedStatement statement) throws SQLException {
+            this.owner = owner;
+            this.sql = sql;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.view = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{ PreparedStatement.class },
+                this
+            );
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "close" -> {
+                    // Closing twice must not hand the statement back while somebody else holds it
+                    synchronized (owner) {
+                        if (inUse) owner.giveBack(this);
+                    }
+                    yield null;
+                }
+                case "isClosed" -> {
+                    synchronized (owner) {
+                        yield !inUse || statement.isClosed();
+                    }
+                }
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> PreparedStatementCache.invoke(statement, method, args);
+            };
+        }
+
+        /** Puts the statement back the way it was prepared, for its next borrower. */
+        void reset() throws SQLException {
+            statement.clearParameters();
+            statement.clearBatch();
+            if (statement.getFetchSize() != fetchSize) statement.setFetchSize(fetchSize);
+            if (statement.getMaxRows() != maxRows) statement.setMaxRows(maxRows);
+            if (statement.getQueryTimeout() != queryTimeout) statement.setQueryTimeout(queryTimeout);
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                Logging.error("Failed to close a cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.flameyossnowy.universal.sql.internals;
 
 import io.github.flameyossnowy.universal.api.IndexOptions;
+import io.github.flameyossnowy.universal.api.json.JsonDiff;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.options.*;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
@@ -10,6 +11,7 @@ import io.github.flameyossnowy.universal.sql.query.SQLQueryValidator;
 import io.github.flameyossnowy.universal.sql.internals.query.DeleteSqlBuilder;
 import io.github.flameyossnowy.universal.sql.internals.query.IndexSqlBuilder;
 import io.github.flameyossnowy.universal.sql.internals.query.InsertSqlBuilder;
+import io.github.flameyossnowy.universal.sql.internals.query.JoinFetchPlan;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
 import io.github.flameyossnowy.universal.sql.internals.query.QueryStringCache;
 import io.github.flameyossnowy.universal.sql.internals.query.RepositoryDdlBuilder;
@@ -19,8 +21,12 @@ import io.github.flameyossnowy.universal.sql.internals.query.SqlSortBuilder;
 import io.github.flameyossnowy.universal.sql.internals.query.UpdateSqlBuilder;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 public class QueryParseEngine<T, ID> {
     private final SQLType sqlType;
@@ -37,6 +43,12 @@ public class QueryParseEngine<T, ID> {
     /** Eagerly-built INSERT so {@link #parseInsert()} is allocation-free. */
     private final ParameterizedSql insert;
 
+    /** Row counts of the multi-row INSERTs, largest first. */
+    private static final int[] INSERT_BUCKETS = { 256, 64, 8, 1 };
+
+    /** Multi-row INSERTs by bucket, built on first use. */
+    private final ParameterizedSql[] multiRowInserts = new ParameterizedSql[INSERT_BUCKETS.length];
+
     // Cached entity-update SQL (same shape every time for a given entity class).
     private final ParameterizedSql updateFromEntity;
 
@@ -78,6 +90,14 @@ public class QueryParseEngine<T, ID> {
         return indexSqlBuilder.parseIndex(index);
     }
 
+    /**
+     * @param columnExists whether the table already has a column, see {@link IndexSqlBuilder#parseJsonIndexes(Predicate)}
+     * @return the statements creating the indexes of the {@code @JsonIndex} paths
+     */
+    public @NotNull List<String> parseJsonIndexes(@NotNull Predicate<String> columnExists) {
+        return indexSqlBuilder.parseJsonIndexes(columnExists);
+    }
+
     public @NotNull ParameterizedSql parseSelect(SelectQuery query, boolean first) {
         String key = getSelectKey(query, first);
         ParameterizedSql cached = queryMap.get(key);
@@ -89,6 +109,24 @@ public class QueryParseEngine<T, ID> {
         return sql;
     }
 
+    /**
+     * Like {@link #parseSelect(SelectQuery, boolean)}, without joining the targets of the query's
+     * fetch plan: streamed rows are mapped one at a time, and never read joined columns.
+     */
+    public @NotNull ParameterizedSql parsePlainSelect(SelectQuery query) {
+        JoinFetchPlan<T> plan = selectSqlBuilder.parseFetchPlan(query);
+        if (plan == null || !plan.hasJoins()) return parseSelect(query, false);
+
+        String key = "QUERY:SELECT:PLAIN:" + query.hashCode();
+        ParameterizedSql cached = queryMap.get(key);
+        if (cached != null) return cached;
+
+        ParameterizedSql sql = selectSqlBuilder.parseSelect(query, false, false);
+        queryMap.put(key, sql);
+        Logging.info(() -> "Parsed query for selecting: " + sql);
+        return sql;
+    }
+
     public @NotNull ParameterizedSql parseCount(SelectQuery query) {
         String key = getCountKey(query);
         ParameterizedSql cached = queryMap.get(key);
@@ -100,6 +138,10 @@ public class QueryParseEngine<T, ID> {
         return sql;
     }
 
+    public @Nullable JoinFetchPlan<T> parseFetchPlan(SelectQuery query) {
+        return selectSqlBuilder.parseFetchPlan(query);
+    }
+
     public @NotNull ParameterizedSql parseQueryIds(SelectQuery query, boolean first) {
         return selectSqlBuilder.parseQueryIds(query, first);
     }
@@ -122,11 +164,53 @@ public class QueryParseEngine<T, ID> {
         return deleteSqlBuilder.parseDeleteEntity(value);
     }
 
+    /**
+     * Deletes the rows of {@code count} ids through one {@code IN} list.
+     */
+    public @NotNull ParameterizedSql parseDeleteByIds(int count) {
+        return deleteSqlBuilder.parseDeleteByIds(count);
+    }
+
     public @NotNull ParameterizedSql parseInsert() {
         Logging.deepInfo(() -> "Parsed query for insert: " + insert);
         return insert;
     }
 
+    /**
+     * The number of rows the next multi-row INSERT should carry when {@code remaining} rows are
+     * left: the largest bucket that fits both the rows and the dialect's parameter limit.
+     */
+    public int insertBucket(int remaining) {
+        int columns = Math.max(1, insert.parameterNames().size());
+        for (int rows : INSERT_BUCKETS) {
+            if (rows <= remaining && rows * columns <= sqlType.maxParameters()) return rows;
+        }
+        return 1;
+    }
+
+    /**
+     * {@code INSERT ... VALUES (...), (...)} for {@code rows} rows, a size returned by
+     * {@link #insertBucket(int)}. The parameter names repeat once per row. When the id is
+     * auto-incremented and the dialect supports it, the generated keys come back through
+     * {@code RETURNING}.
+     */
+    public @NotNull ParameterizedSql parseInsert(int rows) {
+        int bucket = bucketIndex(rows);
+        ParameterizedSql sql = multiRowInserts[bucket];
+        if (sql == null) {
+            sql = insertSqlBuilder.parseInsert(rows, sqlType.supportsReturning());
+            multiRowInserts[bucket] = sql;
+        }
+        return sql;
+    }
+
+    private static int bucketIndex(int rows) {
+        for (int i = 0; i < INSERT_BUCKETS.length; i++) {
+            if (INSERT_BUCKETS[i] == rows) return i;
+        }
+        throw new IllegalArgumentException("Not an insert bucket: " + rows);
+    }
+
     public @NotNull ParameterizedSql parseUpdate(@NotNull UpdateQuery query) {
         return updateSqlBuilder.parseUpdate(query);
     }
@@ -135,6 +219,14 @@ public class QueryParseEngine<T, ID> {
         return updateFromEntity;
     }
 
+    /**
+     * The entity update writing only the changed paths of {@code jsonPatches}. Its SQL depends on
+     * the changes, so it is built for every update and not cached.
+     */
+    public @NotNull ParameterizedSql parseUpdateFromEntity(@NotNull Map<String, List<JsonDiff.Change>> jsonPatches) {
+        return jsonPatches.isEmpty() ? updateFromEntity : updateSqlBuilder.parseUpdateFromEntity(jsonPatches);
+    }
+
     public @NotNull String parseRepository(boolean ifNotExists) {
         return repositoryDdlBuilder.parseRepository(ifNotExists);
     }
@@ -168,6 +260,45 @@ public class QueryParseEngine<T, ID> {
             return identifier;
         }
 
+        /**
+         * Whether {@code INSERT ... RETURNING} hands back the generated keys of every row.
+         * MySQL only reports them through {@code getGeneratedKeys()}.
+         */
+        public boolean supportsReturning() {
+            return this != MYSQL;
+        }
+
+        /**
+         * Whether a failed statement aborts the whole transaction until it is rolled back, as
+         * PostgreSQL does, instead of only undoing the statement.
+         */
+        public boolean abortsTransactionOnError() {
+            return this == POSTGRESQL;
+        }
+
+        /**
+         * The most bind parameters one statement may have.
+         */
+        public int maxParameters() {
+            return switch (this) {
+                case MYSQL      -> 65_535;
+                case POSTGRESQL -> 32_767;
+                case SQLITE     -> 32_766;
+            };
+        }
+
+        /**
+         * How many bytes of bound values one batch may carry: MySQL rejects packets over
+         * {@code max_allowed_packet} (4 MiB by default before 8.0), the others only need a
+         * bound on memory.
+         */
+        public long maxBatchBytes() {
+            return switch (this) {
+                case MYSQL                -> 4L * 1024 * 1024;
+                case POSTGRESQL, SQLITE   -> 64L * 1024 * 1024;
+            };
+        }
+
         public SQLQueryValidator.SQLDialect getDialect() {
             return switch (this) {
                 case MYSQL      -> SQLQueryValidator.SQLDialect.MYSQL;
@@ -9,6 +9,7 @@ import io.github.flameyossnowy.universal.sql.resolvers.MapTypeResolver;
 import io.github.flameyossnowy.universal.sql.resolvers.MultiMapTypeResolver;
 
 import java.lang.reflect.Array;
+import java.sql.Connection;
 import java.util.*;
 
 /**
@@ -416,4 +417,158 @@ public class SQLCollectionHandler implements CollectionHandler {
         
         return resolver.resolve(parentId, kind);
     }
-}
\ No newline at end of file
+
+    // ==================== Batched Writes ====================
+
+    /**
+     * A handler that collects the side-table rows of many entities and inserts them through one
+     * batch per side table on {@link WriteBatch#flush()}.
+     */
+    public WriteBatch insertBatch() {
+        return new WriteBatch(false);
+    }
+
+    /**
+     * A handler that collects the side-table rows of many updated entities and, on
+     * {@link WriteBatch#flush()}, deletes and inserts only the rows that differ from the stored
+     * ones, through one batch per side table.
+     */
+    public WriteBatch syncBatch() {
+        return new WriteBatch(true);
+    }
+
+    private CollectionTypeResolver<Object, Object> collectionResolver(Class<?> elementType, Object parentId, RepositoryModel<?, ?> repoInfo) {
+        return SQLCollections.INSTANCE.getResolver(
+            (Class<Object>) elementType,
+            (Class<Object>) parentId.getClass(),
+            connectionProvider,
+            (RepositoryModel<?, Object>) repoInfo,
+            resolverRegistry,
+            this,
+            supportsArrays
+        );
+    }
+
+    private MapTypeResolver<Object, Object, Object> mapResolver(Class<?> keyType, Class<?> valueType, Object parentId, RepositoryModel<?, ?> repoInfo) {
+        return SQLCollections.INSTANCE.getMapResolver(
+            (Class<Object>) keyType,
+            (Class<Object>) valueType,
+            (Class<Object>) parentId.getClass(),
+            connectionProvider,
+            (RepositoryModel<?, Object>) repoInfo,
+            resolverRegistry,
+            this,
+            supportsArrays
+        );
+    }
+
+    private MultiMapTypeResolver<Object, Object, Object> multiMapResolver(Class<?> keyType, Class<?> valueType, Object parentId, String fieldName, RepositoryModel<?, ?> repoInfo) {
+        return SQLCollections.INSTANCE.getMultiMapResolver(
+            (Class<Object>) keyType,
+            (Class<Object>) valueType,
+            (Class<Object>) parentId.getClass(),
+            fieldName,
+            connectionProvider,
+            (RepositoryModel<?, Object>) repoInfo,
+            resolverRegistry,
+            this,
+            supportsArrays
+        );
+    }
+
+    /**
+     * Collects the collection, array and map rows written for many entities instead of writing
+     * each entity's rows through statements of its own, and writes them on {@link #flush()}.
+     * <p>
+     * Values of several fields stored in the same side table are merged per parent. When
+     * syncing, a {@code null} or empty value is recorded too, as it clears the stored rows.
+     * Every other operation goes straight to the database.
+     */
+    public final class WriteBatch extends SQLCollectionHandler {
+        private final boolean sync;
+
+        private final Map<CollectionTypeResolver<Object, Object>, Map<Object, Collection<Object>>> collections = new LinkedHashMap<>();
+        private final Map<MapTypeResolver<Object, Object, Object>, Map<Object, Map<Object, Object>>> maps = new LinkedHashMap<>();
+        private final Map<MultiMapTypeResolver<Object, Object, Object>, Map<Object, Map<Object, Collection<Object>>>> multiMaps = new LinkedHashMap<>();
+
+        private WriteBatch(boolean sync) {
+            super(SQLCollectionHandler.this.connectionProvider, SQLCollectionHandler.this.resolverRegistry, SQLCollectionHandler.this.supportsArrays);
+            this.sync = sync;
+        }
+
+        @Override
+        public <T, ID> void insertCollection(ID parentId, String fieldName, Collection<?> values, Class<?> elementType, RepositoryModel<?, ID> repoInfo) {
+            if (values == null || values.isEmpty()) {
+                if (!sync) return;
+                values = List.of();
+            }
+
+            collections.computeIfAbsent(SQLCollectionHandler.this.collectionResolver(elementType, parentId, repoInfo), k -> new LinkedHashMap<>())
+                .computeIfAbsent(parentId, k -> new ArrayList<>())
+                .addAll(values);
+        }
+
+        @Override
+        public <T, ID> void insertArray(ID parentId, String fieldName, Object arrayValue, Class<T> elementType, RepositoryModel<?, ID> repoInfo) {
+            if (arrayValue == null) {
+                if (sync) insertCollection(parentId, fieldName, List.of(), elementType, repoInfo);
+                return;
+            }
+            super.insertArray(parentId, fieldName, arrayValue, elementType, repoInfo);
+        }
+
+        @Override
+        public <K, V, ID> void insertMap(ID parentId, String fieldName, Map<K, V> values, Class<K> keyType, Class<V> valueType, RepositoryModel<?, ID> repoInfo) {
+            if (values == null || values.isEmpty()) {
+                if (!sync) return;
+                values = Map.of();
+            }
+
+            maps.computeIfAbsent(SQLCollectionHandler.this.mapResolver(keyType, valueType, parentId, repoInfo), k -> new LinkedHashMap<>())
+                .computeIfAbsent(parentId, k -> new HashMap<>())
+                .putAll(values);
+        }
+
+        @Override
+        public <K, V, ID> void insertMultiMap(ID parentId, String fieldName, Map<K, ? extends Collection<V>> values, Class<K> keyType, Class<V> valueType, RepositoryModel<?, ID> repoInfo) {
+            if (values == null || values.isEmpty()) {
+                if (!sync) return;
+                values = Map.of();
+            }
+
+            Map<Object, Collection<Object>> merged = multiMaps
+                .computeIfAbsent(SQLCollectionHandler.this.multiMapResolver(keyType, valueType, parentId, fieldName, repoInfo), k -> new LinkedHashMap<>())
+                .computeIfAbsent(parentId, k -> new HashMap<>());
+            for (Map.Entry<K, ? extends Collection<V>> entry : values.entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+            }
+        }
+
+        /**
+         * Writes the collected rows, one batch per side table, and forgets them.
+         *
+         * @param connection the connection that wrote the parent rows, so the side tables
+         *                   commit or roll back with them
+         */
+        public void flush(Connection connection) throws Exception {
+            try {
+                for (var entry : collections.entrySet()) {
+                    if (sync) entry.getKey().sync(connection, entry.getValue());
+                    else entry.getKey().insertAll(connection, entry.getValue());
+                }
+                for (var entry : maps.entrySet()) {
+                    if (sync) entry.getKey().sync(connection, entry.getValue());
+                    else entry.getKey().insertAll(connection, entry.getValue());
+                }
+                for (var entry : multiMaps.entrySet()) {
+                    if (sync) entry.getKey().sync(connection, entry.getValue());
+                    else entry.getKey().insertAll(connection, entry.getValue());
+                }
+            } finally {
+                collections.clear();
+                maps.clear();
+                multiMaps.clear();
+            }
+        }
+    }
+}
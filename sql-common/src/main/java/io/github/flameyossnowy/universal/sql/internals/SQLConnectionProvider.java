@@ -1,9 +1,11 @@
 package io.github.flameyossnowy.universal.sql.internals;
 
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 @ApiStatus.Internal
 public interface SQLConnectionProvider extends AutoCloseable {
@@ -16,6 +18,35 @@ public interface SQLConnectionProvider extends AutoCloseable {
      */
     Connection getConnection();
 
+    /**
+     * The number of connections this provider can hand out at once. Asynchronous calls of every
+     * repository built on this provider are throttled to this many concurrent tasks together, so they
+     * wait for a connection on a cheap virtual thread instead of blocking inside the pool.
+     * <p>
+     * Providers that open a fresh connection per call have no hard limit; the default keeps them
+     * from opening an unbounded number of connections under load.
+     *
+     * @return the maximum number of connections in use at the same time
+     */
+    default int maxConnections() {
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Runs the effects of a write made outside a caller's transaction, such as cache updates and
+     * listeners, once the write is committed.
+     * <p>
+     * Connections of most providers commit each write before it returns, so the default runs
+     * {@code onCommit} right away. Providers that commit several writes together run it after that
+     * commit, or {@code onRollback} instead when the write is rolled back.
+     *
+     * @param onCommit the effects of the committed write
+     * @param onRollback undoes whatever state readers may have picked up from the uncommitted write
+     */
+    default void afterCommit(Runnable onCommit, Runnable onRollback) {
+        onCommit.run();
+    }
+
     /**
      * Close the connection provider.
      */
@@ -30,4 +61,59 @@ public interface SQLConnectionProvider extends AutoCloseable {
      * @throws Exception if an error occurs
      */
     PreparedStatement prepareStatement(String sql, Connection connection) throws Exception;
+
+    /**
+     * Hit, miss and eviction counts of the statement cache of this provider.
+     *
+     * @return the metrics, or {@code null} when the provider keeps no statement cache of its own
+     */
+    default @Nullable StatementCacheMetrics getStatementCacheMetrics() {
+        return null;
+    }
+
+    /**
+     * Prepares a connection of its own for a streaming read ({@code findStream}/{@code findIterator}).
+     * <p>
+     * The default opens a read-only transaction, which is what PostgreSQL needs before it honours the
+     * fetch size with a server-side cursor instead of sending the whole result at once.
+     *
+     * @param connection the connection that will run only the streaming query
+     * @throws SQLException if the connection cannot be configured
+     */
+    default void beginStreamingRead(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        connection.setReadOnly(true);
+    }
+
+    /**
+     * Prepares the streaming query so the driver fetches rows in pages of {@code fetchSize} instead of
+     * buffering the full result.
+     *
+     * @param sql the SQL to prepare
+     * @param connection a connection set up by {@link #beginStreamingRead(Connection)}
+     * @param fetchSize the number of rows to fetch per round trip, always positive
+     * @return the prepared statement
+     * @throws Exception if an error occurs
+     */
+    default PreparedStatement prepareStreamingStatement(String sql, Connection connection, int fetchSize) throws Exception {
+        PreparedStatement statement = prepareStatement(sql, connection);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    /**
+     * Ends the transaction opened by {@link #beginStreamingRead(Connection)} and restores the connection
+     * before it is closed or handed back to the pool.
+     *
+     * @param connection the streaming connection
+     * @throws SQLException if the connection cannot be restored
+     */
+    default void endStreamingRead(Connection connection) throws SQLException {
+        try {
+            connection.rollback();
+        } finally {
+            connection.setReadOnly(false);
+            connection.setAutoCommit(true);
+        }
+    }
 }
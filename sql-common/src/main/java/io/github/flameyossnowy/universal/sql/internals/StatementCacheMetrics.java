@@ -0,0 +1,29 @@
+package io.github.flameyossnowy.universal.sql.internals;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable snapshot of a {@link PreparedStatementCache}.
+ *
+ * @param hits statements handed out from the cache of their connection
+ * @param misses statements that had to be prepared, including ones prepared aside because the cached one was in use
+ * @param evictions cached statements closed to stay within the per-connection bound
+ * @param statementsPerConnection the most statements cached for one connection
+ */
+public record StatementCacheMetrics(long hits, long misses, long evictions, int statementsPerConnection) {
+    /**
+     * @return the share of requests served from the cache, {@code 0} before the first request
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return String.format(
+            "StatementCacheMetrics{hits=%d, misses=%d, hitRate=%.2f, evictions=%d, perConnection=%d}",
+            hits, misses, hitRate(), evictions, statementsPerConnection
+        );
+    }
+}
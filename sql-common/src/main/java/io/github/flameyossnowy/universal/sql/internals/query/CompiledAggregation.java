@@ -0,0 +1,102 @@
+package io.github.flameyossnowy.universal.sql.internals.query;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An aggregation or window query parsed once into SQL, obtained from
+ * {@link SqlAggregationImplementation#compile(io.github.flameyossnowy.universal.api.options.AggregationQuery)}
+ * or {@link SqlAggregationImplementation#compile(io.github.flameyossnowy.universal.api.options.WindowQuery)}.
+ * <p>
+ * Holds the SQL, the values the query bound to each placeholder and, once it has run, the labels
+ * and JDBC types of its result columns, which are checked against every later result. Executing the plan again only binds and runs the statement,
+ * which comes from the statement cache of the connection provider; other values can be bound to
+ * the same placeholders with {@link SqlAggregationImplementation#execute(CompiledAggregation, List)}.
+ */
+public final class CompiledAggregation {
+    private final ParameterizedSql sql;
+    private final List<Object> parameters;
+    private volatile @Nullable Columns columns;
+
+    CompiledAggregation(@NotNull String sql, @NotNull List<Object> parameters) {
+        // Placeholders are named by position, so a column filtered twice binds both of its values
+        List<String> names = new ArrayList<>(parameters.size());
+        for (int i = 1; i <= parameters.size(); i++) names.add(String.valueOf(i));
+
+        this.sql = ParameterizedSql.of(sql, names);
+        this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+    }
+
+    public @NotNull String sql() {
+        return sql.sql();
+    }
+
+    /**
+     * @return the values of the compiled query, in placeholder order
+     */
+    public @NotNull List<Object> parameters() {
+        return parameters;
+    }
+
+    public int parameterCount() {
+        return parameters.size();
+    }
+
+    @NotNull ParameterizedSql parameterizedSql() {
+        return sql;
+    }
+
+    /**
+     * The result columns of this run. Labels are read from {@code meta} once, but the types are
+     * checked every time: drivers such as SQLite report the type of the value in the current row,
+     * so a later run can see a {@code REAL} where the first one saw an {@code INTEGER}.
+     */
+    @NotNull Columns columns(@NotNull ResultSetMetaData meta) throws SQLException {
+        Columns known = columns;
+        if (known == null || !known.matches(meta)) {
+            known = Columns.of(meta);
+            columns = known;
+        }
+        return known;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledAggregation[" + sql.sql() + "]";
+    }
+
+    /**
+     * Labels and JDBC types of a result, 1-based like JDBC columns.
+     */
+    record Columns(String[] labels, int[] types) {
+        static @NotNull Columns of(@NotNull ResultSetMetaData meta) throws SQLException {
+            int count = meta.getColumnCount();
+            String[] labels = new String[count + 1];
+            int[] types = new int[count + 1];
+            for (int i = 1; i <= count; i++) {
+                labels[i] = meta.getColumnLabel(i);
+                types[i] = meta.getColumnType(i);
+            }
+            return new Columns(labels, types);
+        }
+
+        int count() {
+            return labels.length - 1;
+        }
+
+        boolean matches(@NotNull ResultSetMetaData meta) throws SQLException {
+            int count = meta.getColumnCount();
+            if (count != count()) return false;
+            for (int i = 1; i <= count; i++) {
+                if (types[i] != meta.getColumnType(i)) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.options.DeleteQuery;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 
@@ -59,4 +60,24 @@ public final class DeleteSqlBuilder<T, ID> {
             List.of(pkCol)
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code DELETE ... WHERE pk IN (?, ...)} for {@code count} ids, every one of them bound by
+     * the primary key's name with a row offset.
+     */
+    public ParameterizedSql parseDeleteByIds(int count) {
+        if (repositoryInformation.getPrimaryKey() == null) {
+            throw new IllegalArgumentException("Primary key must not be null");
+        }
+
+        String pkCol = repositoryInformation.getPrimaryKey().columnName();
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < count; i++) {
+            placeholders.add("?");
+        }
+        return ParameterizedSql.of(
+            "DELETE FROM " + repositoryInformation.tableName() + " WHERE " + pkCol + " IN " + placeholders,
+            Collections.nCopies(count, pkCol)
+        );
+    }
+}
@@ -2,10 +2,16 @@ package io.github.flameyossnowy.universal.sql.internals.query;
 
 import io.github.flameyossnowy.universal.api.IndexOptions;
 import io.github.flameyossnowy.universal.api.annotations.enums.IndexType;
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.JsonIndexModel;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 public final class IndexSqlBuilder<T, ID> {
     private final QueryParseEngine.SQLType sqlType;
     private final RepositoryModel<T, ID> repositoryInformation;
@@ -20,4 +26,40 @@ public final class IndexSqlBuilder<T, ID> {
         return "CREATE " + type + "INDEX " + sqlType.quoteChar() + index.indexName() + sqlType.quoteChar() + " ON "
             + sqlType.quoteChar() + repositoryInformation.tableName() + sqlType.quoteChar() + " (" + index.getJoinedFields() + ");";
     }
+
+    /**
+     * The expression indexes of the {@code @JsonIndex} paths, on the same expressions JSON filters
+     * compare. MySQL indexes generated columns instead, which {@code CREATE TABLE} defines; for a
+     * table created before the index was declared, the statements add the columns it lacks.
+     *
+     * @param columnExists whether the table already has a column, asked about MySQL generated columns only
+     */
+    public @NotNull List<String> parseJsonIndexes(@NotNull Predicate<String> columnExists) {
+        List<String> statements = new ArrayList<>(2);
+        char q = sqlType.quoteChar();
+        String table = repositoryInformation.tableName();
+        JsonPathSql.checkIndexes(repositoryInformation);
+        for (FieldModel<T> field : repositoryInformation.fields()) {
+            if (field == null || !field.isJson()) continue;
+            for (JsonIndexModel index : field.jsonIndexes()) {
+                String column = field.columnName();
+                if (sqlType == QueryParseEngine.SQLType.MYSQL) {
+                    String generated = JsonPathSql.generatedColumn(column, index.path());
+                    if (columnExists.test(generated)) continue;
+                    statements.add("ALTER TABLE " + q + table + q + " ADD COLUMN " + JsonPathSql.generatedColumnDefinition(column, index)
+                        + ", ADD " + (index.unique() ? "UNIQUE " : "") + "INDEX " + q + JsonPathSql.indexName(table, column, index.path()) + q
+                        + " (" + q + generated + q + ");");
+                    continue;
+                }
+
+                String expression = JsonPathSql.extract(sqlType, column, index.path());
+                // PostgreSQL only takes an operator expression in its own parentheses
+                if (sqlType == QueryParseEngine.SQLType.POSTGRESQL) expression = '(' + expression + ')';
+                statements.add("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX IF NOT EXISTS "
+                    + q + JsonPathSql.indexName(table, column, index.path()) + q + " ON " + q + table + q
+                    + " (" + expression + ");");
+            }
+        }
+        return statements;
+    }
 }
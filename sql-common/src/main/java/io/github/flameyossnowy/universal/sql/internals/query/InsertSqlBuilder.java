@@ -10,7 +10,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
-import java.util.stream.Collectors;
 
 import static io.github.flameyossnowy.universal.sql.internals.query.RepositoryDdlBuilder.hasPhysicalColumn;
 
@@ -24,6 +23,14 @@ public final class InsertSqlBuilder<T, ID> {
     }
 
     public ParameterizedSql parseInsert() {
+        return parseInsert(1, false);
+    }
+
+    /**
+     * An INSERT of {@code rows} rows. With {@code returning}, an auto-incremented id is handed
+     * back through {@code RETURNING}.
+     */
+    public ParameterizedSql parseInsert(int rows, boolean returning) {
         StringJoiner columnJoiner = new StringJoiner(", ");
         StringJoiner placeholderJoiner = new StringJoiner(", ");
         List<String> paramNames = new ArrayList<>(8);
@@ -57,9 +64,23 @@ public final class InsertSqlBuilder<T, ID> {
         }
 
         char q = sqlType.quoteChar();
-        String sql = "INSERT INTO " + q + repositoryInformation.tableName() + q
-            + " (" + columnJoiner + ") VALUES (" + placeholderJoiner + ");";
+        StringBuilder sql = new StringBuilder(64 + rows * (placeholderJoiner.length() + 4))
+            .append("INSERT INTO ").append(q).append(repositoryInformation.tableName()).append(q)
+            .append(" (").append(columnJoiner).append(") VALUES ");
+
+        String row = "(" + placeholderJoiner + ")";
+        List<String> allNames = new ArrayList<>(paramNames.size() * rows);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(row);
+            allNames.addAll(paramNames);
+        }
+
+        FieldModel<T> primaryKey = repositoryInformation.getPrimaryKey();
+        if (returning && primaryKey != null && primaryKey.autoIncrement()) {
+            sql.append(" RETURNING ").append(q).append(primaryKey.columnName()).append(q);
+        }
 
-        return ParameterizedSql.of(sql, paramNames);
+        return ParameterizedSql.of(sql.append(';').toString(), allNames);
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package io.github.flameyossnowy.universal.sql.internals.query;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The compiled form of {@link io.github.flameyossnowy.universal.api.options.SelectQuery#fetch()}.
+ *
+ * <p>{@code joins} are read in the select itself through a {@code LEFT JOIN}; the columns of
+ * each join are aliased {@code <alias>__<column>} so they cannot collide with the parent's.
+ * {@code batched} fields are loaded afterwards with one IN-query each, since joining a
+ * one-to-many field repeats every parent row once per child, and a second one multiplies that.
+ */
+public record JoinFetchPlan<T>(List<Join<T>> joins, Set<String> joinedFields, Set<String> batched) {
+
+    public boolean hasJoins() {
+        return !joins.isEmpty();
+    }
+
+    /**
+     * One joined relationship field, read as {@code LEFT JOIN target alias ON alias.targetColumn = t0.parentColumn}.
+     *
+     * @param owning  whether the parent row holds the foreign key, so the target is cached by
+     *                that key instead of by the parent id
+     * @param columns the target's columns, selected under {@link #prefix()}
+     */
+    public record Join<T>(
+        FieldModel<T> field,
+        RepositoryModel<?, ?> target,
+        boolean owning,
+        String alias,
+        String targetColumn,
+        String parentColumn,
+        List<String> columns
+    ) {
+        public String prefix() {
+            return alias + "__";
+        }
+    }
+}
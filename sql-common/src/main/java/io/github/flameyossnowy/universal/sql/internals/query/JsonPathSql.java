@@ -0,0 +1,145 @@
+package io.github.flameyossnowy.universal.sql.internals.query;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.JsonIndexModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL that reads a JSON path of a JSON column, shared by filters and the {@code @JsonIndex}
+ * indexes so both spell it the same way. Planners only use an expression index for a filter whose
+ * expression is the indexed one, character for character in the case of MySQL.
+ * <ul>
+ *   <li>PostgreSQL: {@code column #>> '{a,b}'}, indexed through an expression index</li>
+ *   <li>MySQL: {@code JSON_UNQUOTE(JSON_EXTRACT(column, '$.a.b'))}, stored in an indexed generated
+ *       column that indexed filters compare instead</li>
+ *   <li>SQLite: {@code json_extract(column, '$.a.b')}, indexed through an expression index</li>
+ * </ul>
+ */
+public final class JsonPathSql {
+    /** The paths spliced into the SQL: {@code $}, member names and array subscripts, never quotes. */
+    private static final Pattern PATH = Pattern.compile("\\$[A-Za-z0-9_.\\[\\]]*");
+
+    private JsonPathSql() {
+        throw new AssertionError("No instances");
+    }
+
+    /**
+     * @return the expression reading {@code jsonPath} of {@code column} as text
+     * @throws IllegalArgumentException if the path has characters other than those of member names
+     *         and array subscripts
+     */
+    public static @NotNull String extract(@NotNull QueryParseEngine.SQLType sqlType, @NotNull String column, @NotNull String jsonPath) {
+        checkPath(jsonPath);
+        return switch (sqlType) {
+            case POSTGRESQL -> column + " #>> '{" + jsonPath.replace("$.", "").replace(".", ",") + "}'";
+            case MYSQL -> "JSON_UNQUOTE(JSON_EXTRACT(" + column + ", '" + jsonPath + "'))";
+            case SQLITE -> "json_extract(" + column + ", '" + jsonPath + "')";
+        };
+    }
+
+    /**
+     * @return what a filter on {@code jsonPath} of {@code field} compares: the generated column of
+     *         a MySQL {@code @JsonIndex} on that path, the path expression otherwise
+     */
+    public static @NotNull String filterExpression(@NotNull QueryParseEngine.SQLType sqlType, @NotNull FieldModel<?> field, @NotNull String jsonPath) {
+        if (sqlType == QueryParseEngine.SQLType.MYSQL && index(field, jsonPath) != null) {
+            return generatedColumn(field.columnName(), jsonPath);
+        }
+        return extract(sqlType, field.columnName(), jsonPath);
+    }
+
+    /**
+     * @return the {@code @JsonIndex} of {@code field} on {@code jsonPath}, or {@code null}
+     */
+    public static @Nullable JsonIndexModel index(@NotNull FieldModel<?> field, @NotNull String jsonPath) {
+        if (!field.isJson()) return null;
+        String path = jsonPath.trim();
+        for (JsonIndexModel index : field.jsonIndexes()) {
+            if (index.path().trim().equals(path)) return index;
+        }
+        return null;
+    }
+
+    /**
+     * @return the type of the MySQL generated column of {@code index}; the text of a JSON value is
+     *         unbounded, index keys are not
+     */
+    public static @NotNull String generatedColumnType(@NotNull JsonIndexModel index) {
+        return "VARCHAR(" + index.length() + ')';
+    }
+
+    /**
+     * @return the definition of the MySQL generated column of {@code index} on {@code column}
+     */
+    public static @NotNull String generatedColumnDefinition(@NotNull String column, @NotNull JsonIndexModel index) {
+        return generatedColumn(column, index.path()) + ' ' + generatedColumnType(index) + " GENERATED ALWAYS AS ("
+            + extract(QueryParseEngine.SQLType.MYSQL, column, index.path()) + ") STORED";
+    }
+
+    /**
+     * Checks the {@code @JsonIndex} paths of {@code repository}, and that no two of them share a
+     * generated column or index name, as {@code $.a_b} of {@code profile} and {@code $.b} of a
+     * {@code profile__a} column would, nor with a column of the table.
+     *
+     * @throws IllegalArgumentException if a path is not supported or two names are the same
+     */
+    public static void checkIndexes(@NotNull RepositoryModel<?, ?> repository) {
+        Map<String, String> names = new HashMap<>(8);
+        for (FieldModel<?> field : repository.fields()) {
+            if (field != null) names.put(field.columnName().toLowerCase(Locale.ROOT), field.name());
+        }
+        for (FieldModel<?> field : repository.fields()) {
+            if (field == null || !field.isJson()) continue;
+            for (JsonIndexModel index : field.jsonIndexes()) {
+                checkPath(index.path());
+                String owner = field.name() + ' ' + index.path().trim();
+                String previous = names.putIfAbsent(generatedColumn(field.columnName(), index.path()).toLowerCase(Locale.ROOT), owner);
+                if (previous != null) {
+                    throw new IllegalArgumentException("The @JsonIndex on " + owner + " of " + repository.tableName()
+                        + " has the same column and index name as " + previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the MySQL generated column holding {@code jsonPath} of {@code column}
+     */
+    public static @NotNull String generatedColumn(@NotNull String column, @NotNull String jsonPath) {
+        return column + "__" + identifier(jsonPath);
+    }
+
+    /**
+     * @return the name of the index on {@code jsonPath} of {@code column}
+     */
+    public static @NotNull String indexName(@NotNull String table, @NotNull String column, @NotNull String jsonPath) {
+        return "idx_" + identifier(table) + '_' + column + "__" + identifier(jsonPath);
+    }
+
+    private static void checkPath(String jsonPath) {
+        if (!PATH.matcher(jsonPath.trim()).matches()) {
+            throw new IllegalArgumentException("Unsupported JSON path: " + jsonPath);
+        }
+    }
+
+    /** Keeps letters, digits and underscores, dropping the leading {@code $.} of a path. */
+    private static String identifier(String text) {
+        String trimmed = text.trim();
+        if (trimmed.startsWith("$.")) trimmed = trimmed.substring(2);
+
+        StringBuilder builder = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            builder.append(Character.isLetterOrDigit(c) || c == '_' ? c : '_');
+        }
+        return builder.toString();
+    }
+}
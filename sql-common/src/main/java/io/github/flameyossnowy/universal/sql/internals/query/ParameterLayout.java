@@ -0,0 +1,144 @@
+package io.github.flameyossnowy.universal.sql.internals.query;
+
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
+import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bind positions of a {@link ParameterizedSql}, computed once per SQL shape instead of once
+ * per statement execution.
+ * <p>
+ * Maps every parameter name to the 1-based JDBC index of its first occurrence, and remembers per
+ * position the type resolver and field model the last bind needed, so binding the same statement
+ * again looks nothing up in the registry or the repository model.
+ * <p>
+ * The remembered slots are shared by every thread binding the statement. A slot is replaced as a
+ * whole, and whoever reads a stale one simply resolves again.
+ */
+public final class ParameterLayout {
+    private static final ParameterLayout EMPTY = new ParameterLayout(new String[0]);
+
+    private final String[] names;
+    private final Map<String, Integer> indexes;
+
+    private final ResolverSlot[] resolvers;
+    private final FieldSlot[] fields;
+
+    private volatile @Nullable PositionsSlot positions;
+
+    private ParameterLayout(String[] names) {
+        this.names = names;
+        this.indexes = new HashMap<>(Math.max(names.length * 2, 8));
+        for (int i = 0; i < names.length; i++) {
+            indexes.putIfAbsent(names[i], i + 1);
+        }
+        this.resolvers = new ResolverSlot[names.length];
+        this.fields = new FieldSlot[names.length];
+    }
+
+    public static @NotNull ParameterLayout of(@NotNull List<String> names) {
+        return names.isEmpty() ? EMPTY : new ParameterLayout(names.toArray(new String[0]));
+    }
+
+    /**
+     * @return the number of {@code ?} placeholders
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the 1-based index of the first placeholder bound as {@code name}, or {@code -1}
+     */
+    public int indexOf(@NotNull String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index a 1-based placeholder index
+     * @return the name the placeholder is bound as
+     */
+    public @NotNull String nameAt(int index) {
+        return names[index - 1];
+    }
+
+    /**
+     * The 1-based index of each of {@code names}, or {@code -1} for names not in the layout,
+     * remembered for the array passed in: a generated binder passes the same constant on every call.
+     *
+     * @param names the names a binder binds, in its own order
+     * @return the positions, shared by every caller and not to be modified
+     */
+    public int @NotNull [] positionsOf(@NotNull String @NotNull [] names) {
+        PositionsSlot slot = positions;
+        if (slot != null && slot.names == names) return slot.positions;
+
+        int[] resolved = new int[names.length];
+        for (int i = 0; i < names.length; i++) resolved[i] = indexOf(names[i]);
+        positions = new PositionsSlot(names, resolved);
+        return resolved;
+    }
+
+    /**
+     * The resolver registered for {@code type}, remembered for the placeholder at {@code index}.
+     *
+     * @param index a 1-based placeholder index
+     * @param type the wrapper type of the bound value
+     */
+    public @Nullable TypeResolver<Object> resolver(int index, @NotNull TypeResolverRegistry registry, @NotNull Class<?> type) {
+        ResolverSlot slot = resolvers[index - 1];
+        if (slot != null && slot.type == type && slot.registry == registry) return slot.resolver;
+
+        @SuppressWarnings("unchecked")
+        TypeResolver<Object> resolver = (TypeResolver<Object>) registry.resolve(type);
+        resolvers[index - 1] = new ResolverSlot(registry, type, resolver);
+        return resolver;
+    }
+
+    /**
+     * The field bound at {@code index}, looked up by parameter name or column name and
+     * remembered for the placeholder.
+     *
+     * @param index a 1-based placeholder index
+     */
+    public @Nullable FieldModel<?> field(int index, @NotNull RepositoryModel<?, ?> model) {
+        FieldSlot slot = fields[index - 1];
+        if (slot != null && slot.model == model) return slot.field;
+
+        String name = names[index - 1];
+        FieldModel<?> field = model.fieldByName(name);
+        if (field == null) field = model.columnFieldByName(name);
+        fields[index - 1] = new FieldSlot(model, field);
+        return field;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ParameterLayout other && Arrays.equals(names, other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return "ParameterLayout" + Arrays.toString(names);
+    }
+
+    private record ResolverSlot(TypeResolverRegistry registry, Class<?> type, @Nullable TypeResolver<Object> resolver) {}
+
+    private record PositionsSlot(String[] names, int[] positions) {}
+
+    private record FieldSlot(RepositoryModel<?, ?> model, @Nullable FieldModel<?> field) {}
+}
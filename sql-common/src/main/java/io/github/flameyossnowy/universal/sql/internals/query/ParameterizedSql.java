@@ -10,10 +10,16 @@ import java.util.List;
  *
  * <p>Replacing the raw {@code String} return type with this record lets
  * {@link io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters}
- * build its name -> index map directly from builder output, removing the need for
- * any SQL tokenisation / parsing at runtime.
+ * bind by name directly from builder output, removing the need for
+ * any SQL tokenisation / parsing at runtime. The {@link ParameterLayout} is built
+ * once here, so SQL cached by the {@link io.github.flameyossnowy.universal.sql.internals.QueryParseEngine}
+ * is bound without building a name -> index map per execution.
  */
-public record ParameterizedSql(String sql, List<String> parameterNames) {
+public record ParameterizedSql(String sql, List<String> parameterNames, ParameterLayout layout) {
+
+    public ParameterizedSql(String sql, List<String> parameterNames) {
+        this(sql, parameterNames, ParameterLayout.of(parameterNames));
+    }
 
     /** Convenience factory when there are no bind parameters (e.g. SELECT *). */
     public static ParameterizedSql of(String sql) {
@@ -23,4 +29,4 @@ public record ParameterizedSql(String sql, List<String> parameterNames) {
     public static ParameterizedSql of(String sql, List<String> names) {
         return new ParameterizedSql(sql, List.copyOf(names));
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import io.github.flameyossnowy.universal.api.annotations.Validate;
 import io.github.flameyossnowy.universal.api.meta.ConstraintModel;
 import io.github.flameyossnowy.universal.api.meta.FieldModel;
 import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
+import io.github.flameyossnowy.universal.api.meta.JsonIndexModel;
 import io.github.flameyossnowy.universal.api.meta.RelationshipKind;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.meta.ValidationModel;
@@ -172,6 +173,11 @@ public final class RepositoryDdlBuilder<T, ID> {
                     joiner.add(versionColumn + " INT NOT NULL DEFAULT 1");
                 }
             }
+
+            // MySQL only uses indexes on JSON paths through generated columns, which filters on the path compare.
+            if (data.isJson() && sqlType == QueryParseEngine.SQLType.MYSQL) {
+                generateJsonIndexColumns(joiner, data);
+            }
         }
 
         if (primaryKeysJoiner.length() > 0) {
@@ -186,6 +192,17 @@ public final class RepositoryDdlBuilder<T, ID> {
         }
     }
 
+    private void generateJsonIndexColumns(StringJoiner joiner, FieldModel<T> data) {
+        String table = repositoryInformation.tableName();
+        JsonPathSql.checkIndexes(repositoryInformation);
+        for (JsonIndexModel index : data.jsonIndexes()) {
+            String column = JsonPathSql.generatedColumn(data.columnName(), index.path());
+            joiner.add(JsonPathSql.generatedColumnDefinition(data.columnName(), index));
+            joiner.add((index.unique() ? "UNIQUE INDEX " : "INDEX ")
+                + JsonPathSql.indexName(table, data.columnName(), index.path()) + " (" + column + ')');
+        }
+    }
+
     private void generateColumn(
         StringJoiner joiner,
         FieldModel<T> data,
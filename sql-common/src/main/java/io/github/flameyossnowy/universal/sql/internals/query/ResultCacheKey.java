@@ -0,0 +1,23 @@
+package io.github.flameyossnowy.universal.sql.internals.query;
+
+import java.util.List;
+
+/**
+ * Identifies a cached query result: the statement together with the values bound to it.
+ *
+ * <p>The statement alone is not enough, since {@code WHERE age > ?} produces the same
+ * {@link ParameterizedSql} for every age.  For filtered selects the bound values are the
+ * {@link io.github.flameyossnowy.universal.api.options.FilterOption}s themselves, which are
+ * records and compare by value.
+ */
+public record ResultCacheKey(ParameterizedSql sql, List<?> parameters) {
+
+    /** Key for a statement without bind parameters. */
+    public static ResultCacheKey of(ParameterizedSql sql) {
+        return new ResultCacheKey(sql, List.of());
+    }
+
+    public static ResultCacheKey of(ParameterizedSql sql, List<?> parameters) {
+        return new ResultCacheKey(sql, parameters == null ? List.of() : parameters);
+    }
+}
@@ -1,9 +1,22 @@
 package io.github.flameyossnowy.universal.sql.internals.query;
 
+import io.github.flameyossnowy.universal.api.annotations.enums.Consistency;
 import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
+import io.github.flameyossnowy.universal.api.meta.RelationshipKind;
+import io.github.flameyossnowy.universal.api.meta.RelationshipModel;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.options.SelectQuery;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class SelectSqlBuilder<T, ID> {
     private final QueryParseEngine.SQLType sqlType;
@@ -15,6 +28,8 @@ public final class SelectSqlBuilder<T, ID> {
     private final ParameterizedSql selectFirst;
     private final ParameterizedSql countAll;
 
+    private final Map<List<String>, JoinFetchPlan<T>> fetchPlans = new ConcurrentHashMap<>(8);
+
     public SelectSqlBuilder(
         QueryParseEngine.SQLType sqlType,
         RepositoryModel<T, ID> repositoryInformation,
@@ -36,6 +51,14 @@ public final class SelectSqlBuilder<T, ID> {
     }
 
     public ParameterizedSql parseSelect(SelectQuery query, boolean first) {
+        return parseSelect(query, first, true);
+    }
+
+    /**
+     * @param joins whether to join the targets of the query's fetch plan, which only a reader of
+     *              the {@link JoinFetchPlan} maps
+     */
+    public ParameterizedSql parseSelect(SelectQuery query, boolean first, boolean joins) {
         if (query == null) return first ? selectFirst : selectAll;
 
         char q = sqlType.quoteChar();
@@ -45,9 +68,141 @@ public final class SelectSqlBuilder<T, ID> {
         SqlConditionBuilder.BuiltCondition where = appendConditions(query, sql);
         appendSortingAndLimit(query, sql, first);
 
+        JoinFetchPlan<T> plan = joins ? parseFetchPlan(query) : null;
+        if (plan != null && plan.hasJoins()) {
+            return ParameterizedSql.of(wrapWithJoins(query, plan, sql), where.paramNames());
+        }
         return ParameterizedSql.of(sql.toString(), where.paramNames());
     }
 
+    /**
+     * Compiles the query's fetch plan, or returns {@code null} if it has none.
+     */
+    public @Nullable JoinFetchPlan<T> parseFetchPlan(SelectQuery query) {
+        if (query == null || query.fetch() == null || query.fetch().isEmpty()) return null;
+        return fetchPlans.computeIfAbsent(query.fetch(), this::compileFetchPlan);
+    }
+
+    private JoinFetchPlan<T> compileFetchPlan(List<String> fetch) {
+        List<JoinFetchPlan.Join<T>> joins = new ArrayList<>(fetch.size());
+        Set<String> joined = new HashSet<>(fetch.size());
+        Set<String> batched = new HashSet<>(fetch.size());
+
+        for (String name : fetch) {
+            FieldModel<T> field = repositoryInformation.fieldByName(name);
+            if (field == null || !field.relationship()) {
+                throw new IllegalArgumentException("Unknown relationship field in fetch plan: " + name);
+            }
+
+            JoinFetchPlan.Join<T> join = compileJoin(field, "j" + joins.size());
+            if (join == null) {
+                batched.add(field.name());
+            } else {
+                joins.add(join);
+                joined.add(field.name());
+            }
+        }
+
+        return new JoinFetchPlan<>(List.copyOf(joins), Set.copyOf(joined), Set.copyOf(batched));
+    }
+
+    /**
+     * Returns how to join {@code field}, or {@code null} if it has to be loaded by a batch query:
+     * one-to-many fields, fields of another repository, and {@link Consistency#STRONG} fields,
+     * which bypass the relationship cache a join fills.
+     */
+    private @Nullable JoinFetchPlan.Join<T> compileJoin(FieldModel<T> field, String alias) {
+        if (field.relationshipKind() == RelationshipKind.ONE_TO_MANY
+            || field.externalRepository() != null
+            || field.consistency() == Consistency.STRONG) {
+            return null;
+        }
+
+        RepositoryModel<?, ?> target = GeneratedMetadata.getByEntityClass(field.type());
+        if (target == null || target.getPrimaryKey() == null) return null;
+
+        List<String> columns = selectableColumns(target);
+        String targetKey = target.getPrimaryKey().columnName();
+
+        if (field.relationshipKind() == RelationshipKind.MANY_TO_ONE) {
+            return new JoinFetchPlan.Join<>(field, target, false, alias, targetKey, field.columnName(), columns);
+        }
+
+        if (isOwning(field)) {
+            return new JoinFetchPlan.Join<>(field, target, true, alias, targetKey, field.columnName(), columns);
+        }
+
+        FieldModel<?> backRef = target.getOneToOneBackReferences().get(repositoryInformation.getEntityClass().getName());
+        if (backRef == null) return null;
+        return new JoinFetchPlan.Join<>(field, target, false, alias, backRef.columnName(),
+            repositoryInformation.getPrimaryKey().columnName(), columns);
+    }
+
+    private boolean isOwning(FieldModel<T> field) {
+        for (RelationshipModel<T, ID> relationship : repositoryInformation.getRelationships()) {
+            if (relationship.fieldName().equals(field.name())) return relationship.isOwning();
+        }
+        return false;
+    }
+
+    /**
+     * The columns {@link RepositoryDdlBuilder} creates for {@code model}.
+     */
+    private List<String> selectableColumns(RepositoryModel<?, ?> model) {
+        List<String> columns = new ArrayList<>(model.fields().size());
+        for (FieldModel<?> field : model.fields()) {
+            Class<?> type = field.type();
+            if (!field.isJson()) {
+                if (field.relationshipKind() == RelationshipKind.ONE_TO_MANY) continue;
+                if (Map.class.isAssignableFrom(type)) continue;
+                if ((Collection.class.isAssignableFrom(type) || type.isArray()) && !sqlType.supportsArrays()) continue;
+            }
+            columns.add(field.columnName());
+        }
+        return List.copyOf(columns);
+    }
+
+    /**
+     * Turns the parent select into a derived table, so its filters, ordering and limit still
+     * apply to parent rows only, and joins the plan's targets onto it.
+     */
+    private String wrapWithJoins(SelectQuery query, JoinFetchPlan<T> plan, CharSequence parentSelect) {
+        char q = sqlType.quoteChar();
+        String parent = q + "t0" + q;
+        StringBuilder sql = new StringBuilder(parentSelect.length() + 256).append("SELECT ").append(parent).append(".*");
+
+        for (JoinFetchPlan.Join<T> join : plan.joins()) {
+            for (String column : join.columns()) {
+                sql.append(", ");
+                quoted(sql, join.alias()).append('.');
+                quoted(sql, column).append(" AS ");
+                quoted(sql, join.prefix() + column);
+            }
+        }
+
+        sql.append(" FROM (").append(parentSelect).append(") ").append(parent);
+
+        for (JoinFetchPlan.Join<T> join : plan.joins()) {
+            sql.append(" LEFT JOIN ");
+            quoted(sql, join.target().tableName()).append(' ');
+            quoted(sql, join.alias()).append(" ON ");
+            quoted(sql, join.alias()).append('.');
+            quoted(sql, join.targetColumn()).append(" = ").append(parent).append('.');
+            quoted(sql, join.parentColumn());
+        }
+
+        // A derived table's order is not kept by the outer select.
+        if (!query.sortOptions().isEmpty()) {
+            sql.append(" ORDER BY ").append(sortBuilder.buildSortOptions(query.sortOptions(), parent));
+        }
+        return sql.toString();
+    }
+
+    private StringBuilder quoted(StringBuilder sql, String identifier) {
+        char q = sqlType.quoteChar();
+        return sql.append(q).append(identifier).append(q);
+    }
+
     public ParameterizedSql parseCount(SelectQuery query) {
         if (query == null) return countAll;
 
@@ -4,6 +4,7 @@ import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
 import io.github.flameyossnowy.universal.api.options.*;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
 import io.github.flameyossnowy.universal.sql.internals.repository.SqlResultMapper;
@@ -14,7 +15,7 @@ import org.jetbrains.annotations.NotNull;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
+import java.sql.Types;
 import java.util.*;
 import java.util.function.Function;
 
@@ -23,6 +24,8 @@ import java.util.function.Function;
  * This is added to AbstractRelationalRepositoryAdapter.
  */
 public class SqlAggregationImplementation<T, ID> {
+    private static final int MAX_CACHED_PLANS = 256;
+
     
     private final SQLConnectionProvider dataSource;
     private final AggregationQueryParser<T, ID> aggregationParser;
@@ -33,6 +36,15 @@ public class SqlAggregationImplementation<T, ID> {
     private final CollectionHandler collectionHandler;
     private final boolean supportsArrays;
 
+    /** Compiled plans by query, least recently used first. */
+    private final Map<Query, CompiledAggregation> plans = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, CompiledAggregation> eldest) {
+                return size() > MAX_CACHED_PLANS;
+            }
+        });
+
     public SqlAggregationImplementation(
         SQLConnectionProvider dataSource,
         RepositoryModel<T, ID> repositoryModel,
@@ -52,32 +64,14 @@ public class SqlAggregationImplementation<T, ID> {
      * Execute aggregation query and return raw results.
      */
     public List<Map<String, Object>> aggregate(@NotNull AggregationQuery query) {
-        AggregationQueryParser.BoundSql pq = aggregationParser.parseParameterized(query);
-        String sql = pq.sql();
-        
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-        ) {
-
-            if (!pq.paramNames().isEmpty()) {
-                SQLDatabaseParameters parameters = new SQLDatabaseParameters(
-                    stmt,
-                    resolverRegistry,
-                    pq,
-                    repositoryModel,
-                    collectionHandler,
-                    supportsArrays
-                );
-                bindPositional(parameters, pq.paramValues());
-            }
+        return aggregateColumnar(query).asMaps();
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-            
-                return resultSetToMapList(rs);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to execute aggregation query: " + sql, e);
-        }
+    /**
+     * Execute aggregation query into column vectors.
+     */
+    public ColumnarResult aggregateColumnar(@NotNull AggregationQuery query) {
+        return execute(compile(query));
     }
 
     /**
@@ -87,78 +81,35 @@ public class SqlAggregationImplementation<T, ID> {
      * (or any other strategy) instead of reflection.</p>
      */
     public List<T> aggregateEntities(@NotNull AggregationQuery query) {
-        AggregationQueryParser.BoundSql pq = aggregationParser.parseParameterized(query);
-        String sql = pq.sql();
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)
-        ) {
-
-            if (!pq.paramNames().isEmpty()) {
-                SQLDatabaseParameters parameters = new SQLDatabaseParameters(
-                    stmt,
-                    resolverRegistry,
-                    sql,
-                    repositoryModel,
-                    collectionHandler,
-                    supportsArrays
-                );
-                bindPositional(parameters, pq.paramValues());
-            }
-
-            try (ResultSet rs = stmt.executeQuery()) {
-
-                List<T> out = new ArrayList<>();
-                while (rs.next()) {
-                    out.add(resultMapper.constructNewEntity(
-                        new SQLDatabaseResult(
-                            rs,
-                            resolverRegistry,
-                            collectionHandler,
-                            supportsArrays,
-                            repositoryModel
-                        )
-                    ));
-                }
-                return out;
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to execute aggregation query: " + sql, e);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private void bindPositional(SQLDatabaseParameters parameters, List<Object> params) {
-        for (int i = 0; i < params.size(); i++) {
-            Object v = params.get(i);
-            if (v == null) {
-                parameters.setNull(String.valueOf(i + 1), Object.class);
-                continue;
-            }
-
-            var resolver = (io.github.flameyossnowy.universal.api.resolver.TypeResolver<Object>) resolverRegistry.resolve(v.getClass());
-            if (resolver != null) {
-                resolver.insert(parameters, String.valueOf(i + 1), v);
-            } else {
-                parameters.setRaw(String.valueOf(i + 1), v, v.getClass());
+        CompiledAggregation plan = compile(query);
+        return run(plan, plan.parameters(), "aggregation query", rs -> {
+            List<T> out = new ArrayList<>();
+            var cursor = resultMapper.rows(new SQLDatabaseResult(
+                rs,
+                resolverRegistry,
+                collectionHandler,
+                supportsArrays,
+                repositoryModel
+            ));
+            while (rs.next()) {
+                out.add(cursor.construct());
             }
-        }
+            return out;
+        });
     }
 
     /**
      * Execute window function query.
      */
     public List<Map<String, Object>> window(@NotNull WindowQuery query) {
-        String sql = parseWindowQuery(query);
-        
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            return resultSetToMapList(rs);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to execute window query: " + sql, e);
-        }
+        return windowColumnar(query).asMaps();
+    }
+
+    /**
+     * Execute window function query into column vectors.
+     */
+    public ColumnarResult windowColumnar(@NotNull WindowQuery query) {
+        return execute(compile(query));
     }
 
     /**
@@ -179,37 +130,21 @@ public class SqlAggregationImplementation<T, ID> {
      * Execute window query and map each row to an entity using generated ObjectModel code.
      */
     public @NotNull List<T> windowEntities(@NotNull WindowQuery query) {
-        return windowEntities(query, rs ->
-            resultMapper.constructNewEntity(
-                new SQLDatabaseResult(
-                    rs,
-                    resolverRegistry,
-                    collectionHandler,
-                    supportsArrays,
-                    repositoryModel
-                )
-            )
-        );
+        return windowEntities(query, resultMapper.rowMapper(collectionHandler, supportsArrays));
     }
 
     /**
      * Execute window query and map each row to an entity using a caller-provided mapper.
      */
     public List<T> windowEntities(@NotNull WindowQuery query, @NotNull Function<ResultSet, T> rowMapper) {
-        String sql = parseWindowQuery(query);
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
+        CompiledAggregation plan = compile(query);
+        return run(plan, plan.parameters(), "window query", rs -> {
             List<T> out = new ArrayList<>();
             while (rs.next()) {
                 out.add(rowMapper.apply(rs));
             }
             return out;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to execute window query: " + sql, e);
-        }
+        });
     }
 
     /**
@@ -221,15 +156,100 @@ public class SqlAggregationImplementation<T, ID> {
         }
         
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement stmt = dataSource.prepareStatement(sql, conn);
              ResultSet rs = stmt.executeQuery()) {
             
-            return resultSetToMapList(rs);
+            return resultSetToColumnar(rs, CompiledAggregation.Columns.of(rs.getMetaData())).asMaps();
         } catch (Exception e) {
             throw new RuntimeException("Failed to execute raw aggregation: " + sql, e);
         }
     }
 
+    // -------------------------------------------------------------------------
+    // Compiled plans
+    // -------------------------------------------------------------------------
+
+    /**
+     * Parses {@code query} into a plan that can be executed repeatedly. Plans are remembered per
+     * query, so compiling an equal query again returns the same plan.
+     */
+    public @NotNull CompiledAggregation compile(@NotNull AggregationQuery query) {
+        CompiledAggregation plan = plans.get(query);
+        if (plan != null) return plan;
+
+        AggregationQueryParser.BoundSql pq = aggregationParser.parseParameterized(query);
+        plan = new CompiledAggregation(pq.sql(), pq.paramValues());
+        plans.put(query, plan);
+        return plan;
+    }
+
+    /**
+     * Parses {@code query} into a plan that can be executed repeatedly, like
+     * {@link #compile(AggregationQuery)}.
+     */
+    public @NotNull CompiledAggregation compile(@NotNull WindowQuery query) {
+        CompiledAggregation plan = plans.get(query);
+        if (plan != null) return plan;
+
+        List<Object> parameters = new ArrayList<>(4);
+        plan = new CompiledAggregation(parseWindowQuery(query, parameters), parameters);
+        plans.put(query, plan);
+        return plan;
+    }
+
+    /**
+     * Runs {@code plan} with the values it was compiled with.
+     */
+    public @NotNull ColumnarResult execute(@NotNull CompiledAggregation plan) {
+        return execute(plan, plan.parameters());
+    }
+
+    /**
+     * Runs {@code plan} with other values bound to its placeholders.
+     *
+     * @param parameters one value per placeholder, in the order of {@link CompiledAggregation#parameters()}
+     */
+    public @NotNull ColumnarResult execute(@NotNull CompiledAggregation plan, @NotNull List<?> parameters) {
+        if (parameters.size() != plan.parameterCount()) {
+            throw new IllegalArgumentException(
+                "Expected " + plan.parameterCount() + " parameters but got " + parameters.size() + " for: " + plan.sql());
+        }
+        return run(plan, parameters, "aggregation query", rs -> resultSetToColumnar(rs, plan.columns(rs.getMetaData())));
+    }
+
+    @FunctionalInterface
+    private interface ResultReader<R> {
+        R read(ResultSet rs) throws Exception;
+    }
+
+    private <R> R run(CompiledAggregation plan, List<?> values, String kind, ResultReader<R> reader) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = dataSource.prepareStatement(plan.sql(), conn)
+        ) {
+
+            if (!values.isEmpty()) {
+                SQLDatabaseParameters parameters = new SQLDatabaseParameters(
+                    stmt,
+                    resolverRegistry,
+                    plan.parameterizedSql(),
+                    repositoryModel,
+                    collectionHandler,
+                    supportsArrays
+                );
+                for (int i = 0; i < values.size(); i++) {
+                    Object value = values.get(i);
+                    parameters.set(i + 1, value, value == null ? Object.class : value.getClass());
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return reader.read(rs);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute " + kind + ": " + plan.sql(), e);
+        }
+    }
+
     /**
      * Get scalar value from aggregation.
      */
@@ -252,9 +272,9 @@ public class SqlAggregationImplementation<T, ID> {
     }
 
     /**
-     * Parse window query to SQL.
+     * Parse window query to SQL, adding the values of its placeholders to {@code parameters}.
      */
-    private String parseWindowQuery(WindowQuery query) {
+    private String parseWindowQuery(WindowQuery query, List<Object> parameters) {
         StringBuilder sql = new StringBuilder("SELECT ");
         
         // Build SELECT clause with window functions
@@ -290,7 +310,7 @@ public class SqlAggregationImplementation<T, ID> {
         // WHERE clause
         if (!query.whereFilters().isEmpty()) {
             sql.append(" WHERE ");
-            sql.append(buildWhereClause(query.whereFilters()));
+            sql.append(buildWhereClause(query.whereFilters(), parameters));
         }
         
         // ORDER BY clause
@@ -400,11 +420,11 @@ public class SqlAggregationImplementation<T, ID> {
     /**
      * Build WHERE clause from filters.
      */
-    private String buildWhereClause(List<FilterOption> filters) {
+    private String buildWhereClause(List<FilterOption> filters, List<Object> parameters) {
         boolean seen = false;
         StringBuilder acc = null;
         for (FilterOption filter : filters) {
-            String s = buildFilterClause(filter);
+            String s = buildFilterClause(filter, parameters);
             if (!seen) {
                 seen = true;
                 acc = new StringBuilder(s);
@@ -415,32 +435,52 @@ public class SqlAggregationImplementation<T, ID> {
         return seen ? acc.toString() : "1=1";
     }
 
-    private String buildFilterClause(FilterOption filter) {
+    private String buildFilterClause(FilterOption filter, List<Object> parameters) {
         if (filter instanceof SelectOption(String option, String operator, Object value)) {
-            return option + " " + operator + " " + formatValue(value);
+            if (value == null) return option + " " + operator + " NULL";
+            parameters.add(value);
+            return option + " " + operator + " ?";
         }
         throw new IllegalArgumentException("Unsupported filter type: " + filter.getClass());
     }
 
     /**
-     * Convert ResultSet to List of Maps.
+     * Reads a ResultSet into column vectors. Columns the driver reports as BIGINT, DOUBLE or
+     * text are read unboxed; anything else goes through {@link ResultSet#getObject(int)}.
      */
-    private List<Map<String, Object>> resultSetToMapList(ResultSet rs) throws Exception {
-        List<Map<String, Object>> results = new ArrayList<>();
-        ResultSetMetaData meta = rs.getMetaData();
-        int columnCount = meta.getColumnCount();
-        
+    private static ColumnarResult resultSetToColumnar(ResultSet rs, CompiledAggregation.Columns layout) throws Exception {
+        int columnCount = layout.count();
+        int[] types = layout.types();
+
+        ColumnarResult.Builder builder = ColumnarResult.builder(Math.max(rs.getFetchSize(), 16));
+        int[] columns = new int[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            columns[i] = builder.column(layout.labels()[i]);
+        }
+
         while (rs.next()) {
-            Map<String, Object> row = new HashMap<>(Math.max(16, (int) (columnCount / 0.75f) + 1));
             for (int i = 1; i <= columnCount; i++) {
-                String columnName = meta.getColumnLabel(i);
-                Object value = rs.getObject(i);
-                row.put(columnName, value);
+                int column = columns[i];
+                switch (types[i]) {
+                    case Types.BIGINT -> {
+                        long value = rs.getLong(i);
+                        if (rs.wasNull()) builder.setNull(column);
+                        else builder.setLong(column, value);
+                    }
+                    case Types.DOUBLE, Types.FLOAT -> {
+                        double value = rs.getDouble(i);
+                        if (rs.wasNull()) builder.setNull(column);
+                        else builder.setDouble(column, value);
+                    }
+                    case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR, Types.NVARCHAR, Types.NCHAR ->
+                        builder.setString(column, rs.getString(i));
+                    default -> builder.set(column, rs.getObject(i));
+                }
             }
-            results.add(row);
+            builder.endRow();
         }
-        
-        return results;
+
+        return builder.build();
     }
 
     /**
@@ -487,18 +527,6 @@ public class SqlAggregationImplementation<T, ID> {
         return targetType.cast(value);
     }
 
-    private String formatValue(Object value) {
-        if (value == null) {
-            return "NULL";
-        } else if (value instanceof String) {
-            return "'" + value.toString().replace("'", "''") + "'";
-        } else if (value instanceof Number || value instanceof Boolean) {
-            return value.toString();
-        } else {
-            return "'" + value + "'";
-        }
-    }
-
     private String getTableName(Class<?> entityClass) {
         // Try to get table name from metadata, fallback to class name
         try {
@@ -95,32 +95,8 @@ public final class SqlConditionBuilder<T, ID> {
             throw new IllegalArgumentException("Field '" + field.name() + "' is not a JSON field");
         }
 
-        return switch (sqlType) {
-            case POSTGRESQL -> buildPostgresJsonConditionFull(field, filter);
-            case MYSQL      -> buildMySqlJsonConditionFull(field, filter);
-            case SQLITE     -> throw new UnsupportedOperationException(
-                "SQLite does not support JSON filtering in Universal");
-        };
-    }
-
-    private BuiltCondition buildPostgresJsonConditionFull(FieldModel<T> field, JsonSelectOption filter) {
-        String sql = field.columnName()
-            + " #>> '{"
-            + filter.jsonPath().replace("$.", "").replace(".", ",")
-            + "}' "
-            + filter.operator()
-            + " ?";
-        return new BuiltCondition(sql, List.of(field.columnName()));
-    }
-
-    private BuiltCondition buildMySqlJsonConditionFull(FieldModel<T> field, JsonSelectOption filter) {
-        String sql = "JSON_UNQUOTE(JSON_EXTRACT("
-            + field.columnName()
-            + ", '"
-            + filter.jsonPath()
-            + "')) "
-            + filter.operator()
-            + " ?";
+        // the indexed expression of a @JsonIndex path, so the planner can use the index
+        String sql = JsonPathSql.filterExpression(sqlType, field, filter.jsonPath()) + " " + filter.operator() + " ?";
         return new BuiltCondition(sql, List.of(field.columnName()));
     }
-}
\ No newline at end of file
+}
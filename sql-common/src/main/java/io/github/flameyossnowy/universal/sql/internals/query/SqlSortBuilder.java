@@ -14,4 +14,15 @@ public final class SqlSortBuilder {
         }
         return joiner.toString();
     }
+
+    /**
+     * Like {@link #buildSortOptions(Iterable)}, with every field qualified by {@code tableAlias}.
+     */
+    public String buildSortOptions(@NotNull Iterable<SortOption> sortOptions, @NotNull String tableAlias) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (SortOption sortOption : sortOptions) {
+            joiner.add(tableAlias + '.' + sortOption.field() + " " + (sortOption.order() == SortOrder.ASCENDING ? "ASC" : "DESC"));
+        }
+        return joiner.toString();
+    }
 }
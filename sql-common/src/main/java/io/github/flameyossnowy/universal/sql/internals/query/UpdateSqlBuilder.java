@@ -1,5 +1,6 @@
 package io.github.flameyossnowy.universal.sql.internals.query;
 
+import io.github.flameyossnowy.universal.api.json.JsonDiff;
 import io.github.flameyossnowy.universal.api.meta.FieldModel;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.options.UpdateQuery;
@@ -54,6 +55,17 @@ public final class UpdateSqlBuilder<T, ID> {
     }
 
     public ParameterizedSql parseUpdateFromEntity() {
+        return parseUpdateFromEntity(Map.of());
+    }
+
+    /**
+     * Like {@link #parseUpdateFromEntity()}, but writes only the changed paths of the JSON columns
+     * in {@code jsonPatches}. The path and value of change {@code i} of a column are bound as
+     * {@link #jsonPathParameter} and {@link #jsonValueParameter}.
+     *
+     * @param jsonPatches the changes of every patched JSON column, by column name
+     */
+    public ParameterizedSql parseUpdateFromEntity(Map<String, List<JsonDiff.Change>> jsonPatches) {
         FieldModel<T> primaryKey = repositoryInformation.getPrimaryKey();
         if (primaryKey == null) {
             throw new IllegalArgumentException("Primary key must not be null");
@@ -79,6 +91,12 @@ public final class UpdateSqlBuilder<T, ID> {
                 continue;
             }
 
+            List<JsonDiff.Change> patch = jsonPatches.get(column);
+            if (patch != null) {
+                setJoiner.add(column + " = " + jsonPatch(column, patch, paramNames));
+                continue;
+            }
+
             setJoiner.add(column + " = ?");
             paramNames.add(column);
         }
@@ -107,6 +125,58 @@ public final class UpdateSqlBuilder<T, ID> {
         return ParameterizedSql.of(sql, paramNames);
     }
 
+    public static String jsonPathParameter(String column, int change) {
+        return column + "#path" + change;
+    }
+
+    public static String jsonValueParameter(String column, int change) {
+        return column + "#value" + change;
+    }
+
+    /**
+     * The expression applying {@code changes} to the document of {@code column}. Sets and removals
+     * never touch the same path, nor one below the other, so their order does not matter.
+     */
+    private String jsonPatch(String column, List<JsonDiff.Change> changes, List<String> paramNames) {
+        if (changes.isEmpty()) return column;
+
+        if (sqlType == QueryParseEngine.SQLType.POSTGRESQL) {
+            String expression = column;
+            for (int i = 0; i < changes.size(); i++) {
+                paramNames.add(jsonPathParameter(column, i));
+                if (changes.get(i).isRemoval()) {
+                    expression = "(" + expression + " #- ?::text[])";
+                } else {
+                    expression = "jsonb_set(" + expression + ", ?::text[], ?::jsonb)";
+                    paramNames.add(jsonValueParameter(column, i));
+                }
+            }
+            return expression;
+        }
+
+        boolean mysql = sqlType == QueryParseEngine.SQLType.MYSQL;
+        StringBuilder set = new StringBuilder(mysql ? "JSON_SET(" : "json_set(").append(column);
+        boolean anySet = false;
+        for (int i = 0; i < changes.size(); i++) {
+            if (changes.get(i).isRemoval()) continue;
+            set.append(mysql ? ", ?, CAST(? AS JSON)" : ", ?, json(?)");
+            paramNames.add(jsonPathParameter(column, i));
+            paramNames.add(jsonValueParameter(column, i));
+            anySet = true;
+        }
+        String expression = anySet ? set.append(')').toString() : column;
+
+        StringBuilder remove = new StringBuilder(mysql ? "JSON_REMOVE(" : "json_remove(").append(expression);
+        boolean anyRemoved = false;
+        for (int i = 0; i < changes.size(); i++) {
+            if (!changes.get(i).isRemoval()) continue;
+            remove.append(", ?");
+            paramNames.add(jsonPathParameter(column, i));
+            anyRemoved = true;
+        }
+        return anyRemoved ? remove.append(')').toString() : expression;
+    }
+
     private Set<String> resolveJsonVersionColumns() {
         Set<String> versionColumns = new HashSet<>(2);
         for (FieldModel<T> field : repositoryInformation.fields()) {
@@ -0,0 +1,179 @@
+package io.github.flameyossnowy.universal.sql.internals.repository;
+
+import io.github.flameyossnowy.universal.api.meta.BatchSizeBounds;
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Picks how many rows one batch insert of a repository carries.
+ * <p>
+ * The size is capped by a ceiling derived from the estimated row width and the dialect's
+ * {@link QueryParseEngine.SQLType#maxBatchBytes()}, starts at the former fixed size of 1000,
+ * and then moves towards the size whose batches take {@link BatchSizeBounds#targetMillis()}
+ * to execute, at most doubling or halving per batch. A batch the driver rejects as too large
+ * lowers the ceiling to half of it, and is retried in two halves.
+ */
+public final class AdaptiveBatchSizer {
+    private static final int INITIAL_SIZE = 1000;
+
+    /** Length prefixes and type tags the drivers send next to every bound value. */
+    private static final int BYTES_PER_VALUE = 4;
+
+    private final String tableName;
+    private final BatchSizeBounds bounds;
+    private final long targetNanos;
+    private final long estimatedRowBytes;
+
+    private volatile int size;
+    private int ceiling;
+
+    private long batches;
+    private long rows;
+    private long splits;
+    private long totalNanos;
+
+    AdaptiveBatchSizer(String tableName, BatchSizeBounds bounds, long estimatedRowBytes, long maxBatchBytes) {
+        this.tableName = tableName;
+        this.bounds = bounds;
+        this.targetNanos = bounds.targetMillis() * 1_000_000L;
+        this.estimatedRowBytes = Math.max(1, estimatedRowBytes);
+
+        long byBytes = maxBatchBytes / this.estimatedRowBytes;
+        this.ceiling = (int) Math.clamp(byBytes, bounds.min(), bounds.max());
+        this.size = Math.clamp(INITIAL_SIZE, bounds.min(), ceiling);
+    }
+
+    /**
+     * A sizer for batches of {@code insert}, estimating the row width from the type of every
+     * bound column.
+     */
+    public static @NotNull AdaptiveBatchSizer forInsert(
+        RepositoryModel<?, ?> repositoryModel,
+        QueryParseEngine.SQLType sqlType,
+        ParameterizedSql insert
+    ) {
+        long rowBytes = 0;
+        for (String column : insert.parameterNames()) {
+            FieldModel<?> field = repositoryModel.columnFieldByName(column);
+            rowBytes += BYTES_PER_VALUE + (field == null ? Long.BYTES : estimateBytes(field));
+        }
+        return new AdaptiveBatchSizer(repositoryModel.tableName(), repositoryModel.getBatchSizeBounds(), rowBytes, sqlType.maxBatchBytes());
+    }
+
+    private static int estimateBytes(FieldModel<?> field) {
+        if (field.isJson()) return 512;
+
+        Class<?> type = field.type();
+        if (type == boolean.class || type == Boolean.class || type == byte.class || type == Byte.class) return 1;
+        if (type == short.class || type == Short.class) return Short.BYTES;
+        if (type == int.class || type == Integer.class || type == float.class || type == Float.class
+            || type == char.class || type == Character.class) return Integer.BYTES;
+        if (type == long.class || type == Long.class || type == double.class || type == Double.class) return Long.BYTES;
+        if (type == UUID.class || type == BigDecimal.class || type == BigInteger.class) return 16;
+        if (Temporal.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type)) return 12;
+        if (type.isEnum()) return 16;
+        if (type == String.class) return 64;
+        if (type == byte[].class) return 256;
+        return 32;
+    }
+
+    /**
+     * The number of rows the next batch should carry.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records a batch of {@code batchRows} rows that executed in {@code nanos}, and retunes the size.
+     * Batches smaller than the minimum, like the tail of a collection, are counted but too
+     * noisy to tune on.
+     */
+    public synchronized void recordBatch(int batchRows, long nanos) {
+        batches++;
+        rows += batchRows;
+        totalNanos += nanos;
+
+        if (batchRows < bounds.min() || nanos <= 0) return;
+
+        long ideal = targetNanos * batchRows / nanos;
+        int current = size;
+        long next = (current + Math.clamp(ideal, current / 2, (long) current * 2)) / 2;
+        size = (int) Math.clamp(next, bounds.min(), ceiling);
+    }
+
+    /**
+     * Records that a batch of {@code batchRows} rows was rejected as too large; later batches
+     * stay below half of it.
+     */
+    public synchronized void recordOversized(int batchRows) {
+        splits++;
+        ceiling = Math.max(bounds.min(), Math.min(ceiling, batchRows / 2));
+        size = Math.min(size, ceiling);
+    }
+
+    /**
+     * Whether {@code e} says the batch was too large for the driver or the server, and none of
+     * its rows were written, so it can be split and retried.
+     */
+    static boolean isOversized(SQLException e) {
+        if (e instanceof BatchUpdateException batch && batch.getUpdateCounts() != null && batch.getUpdateCounts().length > 0) {
+            return false;
+        }
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getClass().getSimpleName().equals("PacketTooBigException")) return true;
+
+            String message = cause.getMessage();
+            if (message == null) continue;
+
+            message = message.toLowerCase(Locale.ROOT);
+            if (message.contains("max_allowed_packet")
+                || message.contains("packet for query is too large")
+                || message.contains("as a 2-byte value")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code e} says a statement has more bind parameters than the server allows, as
+     * SQLite builds with a lower {@code SQLITE_MAX_VARIABLE_NUMBER} report. Only a multi-row
+     * INSERT gets below the limit by carrying fewer rows; any other statement stays too large.
+     */
+    static boolean hasTooManyParameters(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains("too many sql variables")) return true;
+        }
+        return false;
+    }
+
+    public synchronized @NotNull BatchMetrics metrics() {
+        return new BatchMetrics(
+            tableName,
+            size,
+            ceiling,
+            bounds.min(),
+            bounds.max(),
+            estimatedRowBytes,
+            batches,
+            rows,
+            splits,
+            batches == 0 ? 0.0 : totalNanos / 1_000_000.0 / batches
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.flameyossnowy.universal.sql.internals.repository;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable snapshot of an {@link AdaptiveBatchSizer}.
+ *
+ * @param tableName the repository the batches insert into
+ * @param batchSize the number of rows the next batch will carry
+ * @param ceiling the largest size allowed by the row width and by rejected batches
+ * @param min the configured lower bound
+ * @param max the configured upper bound
+ * @param estimatedRowBytes the estimated width of one row's bound values
+ * @param batches the number of batches executed
+ * @param rows the number of rows inserted through batches
+ * @param splits batches rejected as too large and retried in halves
+ * @param averageBatchMillis the average time one batch took to execute
+ */
+public record BatchMetrics(
+    String tableName,
+    int batchSize,
+    int ceiling,
+    int min,
+    int max,
+    long estimatedRowBytes,
+    long batches,
+    long rows,
+    long splits,
+    double averageBatchMillis
+) {
+    @Override
+    public @NotNull String toString() {
+        return String.format(
+            "BatchMetrics{table=%s, batchSize=%d [%d..%d, ceiling %d], rowBytes~%d, batches=%d, rows=%d, splits=%d, avgBatch=%.2fms}",
+            tableName, batchSize, min, max, ceiling, estimatedRowBytes, batches, rows, splits, averageBatchMillis
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.flameyossnowy.universal.sql.internals.repository;
+
+import io.github.flameyossnowy.universal.api.RepositoryAdapter;
+import io.github.flameyossnowy.universal.api.RepositoryRegistry;
+import io.github.flameyossnowy.universal.api.handler.AbstractRelationshipHandler;
+import io.github.flameyossnowy.universal.api.handler.ChunkedRelationshipResolver;
+import io.github.flameyossnowy.universal.api.handler.ChunkedRelationshipResolver.DeferredRow;
+import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
+import io.github.flameyossnowy.universal.sql.internals.AbstractRelationalRepositoryAdapter;
+import io.github.flameyossnowy.universal.sql.internals.query.JoinFetchPlan;
+import io.github.flameyossnowy.universal.sql.result.AliasedDatabaseResult;
+import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assembles the results of a select compiled with a {@link JoinFetchPlan} in one pass over the rows.
+ * <p>
+ * Parents are built with their generated reader and de-duplicated by id. The target of each
+ * joined field is built once per id with the target repository's generated reader, reading its
+ * aliased columns through an {@link AliasedDatabaseResult}; the targets' own relationships are
+ * resolved for all of them at once. The targets are then put in the relationship cache, so
+ * populating the parents costs no query for joined fields. Batched fields and the parents' other
+ * eager relationships are prefetched with one IN-query per field.
+ * <p>
+ * A joined field whose target repository is not a relational adapter is left to the
+ * relationship loader; its columns are read but ignored.
+ */
+public final class JoinFetchReader<T, ID> {
+    private final SqlResultMapper<T, ID> resultMapper;
+    private final RelationshipHandler<T, ID> relationshipHandler;
+
+    public JoinFetchReader(SqlResultMapper<T, ID> resultMapper, RelationshipHandler<T, ID> relationshipHandler) {
+        this.resultMapper = resultMapper;
+        this.relationshipHandler = relationshipHandler;
+    }
+
+    public @NotNull List<T> read(@NotNull SQLDatabaseResult result, @NotNull JoinFetchPlan<T> plan) throws SQLException {
+        ResultSet resultSet = result.getResultSet();
+        ChunkedRelationshipResolver<T, ID> parents = resultMapper.newChunkedResolver(relationshipHandler);
+        List<JoinedTargets> joins = openJoins(result, plan);
+
+        SqlResultMapper<T, ID>.RowCursor cursor = resultMapper.rows(result);
+        Map<ID, DeferredRow<T, ID>> rows = new LinkedHashMap<>(resultMapper.getFetchSizeOrDefault());
+        while (resultSet.next()) {
+            ID id = cursor.readId();
+            if (rows.containsKey(id)) continue;
+
+            rows.put(id, cursor.defer(id, parents));
+            for (JoinedTargets join : joins) join.read(id);
+        }
+
+        // Completing a resolver clears the thread's relationship cache, so every target
+        // resolver has to finish before the first target is cached.
+        for (JoinedTargets join : joins) join.complete();
+
+        Set<String> preloaded = new HashSet<>(joins.size());
+        for (JoinedTargets join : joins) {
+            join.cache();
+            preloaded.add(join.join.field().name());
+        }
+
+        return parents.complete(new ArrayList<>(rows.values()), preloaded, plan.batched());
+    }
+
+    private List<JoinedTargets> openJoins(SQLDatabaseResult result, JoinFetchPlan<T> plan) {
+        if (!(relationshipHandler instanceof AbstractRelationshipHandler<T, ID> handler)) return List.of();
+
+        List<JoinedTargets> joins = new ArrayList<>(plan.joins().size());
+        for (JoinFetchPlan.Join<T> join : plan.joins()) {
+            AbstractRelationalRepositoryAdapter<Object, Object> adapter = relationalAdapter(join);
+            if (adapter != null) joins.add(new JoinedTargets(join, adapter, result, handler));
+        }
+        return joins;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nullable AbstractRelationalRepositoryAdapter<Object, Object> relationalAdapter(JoinFetchPlan.Join<?> join) {
+        RepositoryAdapter<?, ?, ?> adapter = RepositoryRegistry.get((Class<Object>) join.target().getEntityClass());
+        return adapter instanceof AbstractRelationalRepositoryAdapter<?, ?> relational
+            ? (AbstractRelationalRepositoryAdapter<Object, Object>) relational
+            : null;
+    }
+
+    /**
+     * The targets of one joined field, keyed by target id, and which target each parent row had.
+     */
+    private final class JoinedTargets {
+        private final JoinFetchPlan.Join<T> join;
+        private final AbstractRelationshipHandler<T, ID> handler;
+        private final SqlResultMapper<Object, Object> targetMapper;
+        private final SqlResultMapper<Object, Object>.RowCursor cursor;
+        private final ChunkedRelationshipResolver<Object, Object> targetResolver;
+        private final ResultSet resultSet;
+        private final AliasedDatabaseResult view;
+        private final String keyColumn;
+
+        private final Map<Object, DeferredRow<Object, Object>> targets = new LinkedHashMap<>(64);
+        private final Map<ID, Object> targetIdByParent = new HashMap<>(64);
+
+        JoinedTargets(
+            JoinFetchPlan.Join<T> join,
+            AbstractRelationalRepositoryAdapter<Object, Object> adapter,
+            SQLDatabaseResult result,
+            AbstractRelationshipHandler<T, ID> handler
+        ) {
+            this.join = join;
+            this.handler = handler;
+            this.targetMapper = adapter.getResultMapper();
+            this.targetResolver = targetMapper.newChunkedResolver(adapter.getRelationshipHandler());
+            this.resultSet = result.getResultSet();
+            this.view = new AliasedDatabaseResult(result, join.prefix(), join.target());
+            this.cursor = targetMapper.rows(view);
+            this.keyColumn = join.prefix() + join.target().getPrimaryKey().columnName();
+        }
+
+        void read(ID parentId) throws SQLException {
+            if (resultSet.getObject(keyColumn) == null) {
+                targetIdByParent.put(parentId, null);
+                return;
+            }
+
+            Object targetId = cursor.readId();
+            if (!targets.containsKey(targetId)) {
+                targets.put(targetId, cursor.defer(targetId, targetResolver));
+            }
+            targetIdByParent.put(parentId, targetId);
+        }
+
+        void complete() {
+            targetResolver.complete(new ArrayList<>(targets.values()));
+        }
+
+        void cache() {
+            if (join.owning()) {
+                // Looked up by the foreign key, which is the target's id; parents without a
+                // target have a null key and never reach the cache.
+                for (DeferredRow<Object, Object> target : targets.values()) {
+                    handler.cacheLoadedOwning(join.field(), target.id(), target.entity());
+                }
+                return;
+            }
+
+            for (Map.Entry<ID, Object> entry : targetIdByParent.entrySet()) {
+                DeferredRow<Object, Object> target = entry.getValue() == null ? null : targets.get(entry.getValue());
+                handler.cacheLoaded(join.field(), entry.getKey(), target == null ? null : target.entity());
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.flameyossnowy.universal.sql.internals.repository;
+
+import io.github.flameyossnowy.universal.api.json.JsonCodec;
+import io.github.flameyossnowy.universal.api.json.JsonDiff;
+import io.github.flameyossnowy.universal.api.json.JsonSnapshots;
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.api.result.DatabaseResult;
+import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import io.github.flameyossnowy.universal.sql.internals.query.UpdateSqlBuilder;
+import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes only the changed paths of the JSON fields declared with {@code supportsPartialUpdate},
+ * through {@code jsonb_set} on PostgreSQL, {@code JSON_SET} and {@code JSON_REMOVE} on MySQL and
+ * {@code json_set} and {@code json_remove} on SQLite.
+ * <p>
+ * The document each row was last read or written with is kept in {@link JsonSnapshots}; an
+ * update diffs the new value against it. Fields without a snapshot, whose column is not of the
+ * native JSON type, or whose patch would not be clearly smaller than the document are written whole.
+ */
+public final class JsonPartialUpdates<T, ID> {
+    private final QueryParseEngine.SQLType sqlType;
+    private final TypeResolverRegistry resolverRegistry;
+    private final List<FieldModel<T>> fields;
+    private final JsonSnapshots<ID> snapshots;
+
+    private JsonPartialUpdates(QueryParseEngine.SQLType sqlType, TypeResolverRegistry resolverRegistry, List<FieldModel<T>> fields) {
+        this.sqlType = sqlType;
+        this.resolverRegistry = resolverRegistry;
+        this.fields = fields;
+        this.snapshots = new JsonSnapshots<>(fields.size(), JsonSnapshots.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @return the partial updates of {@code repositoryModel}, or {@code null} when none of its
+     *         fields can be updated partially
+     */
+    public static <T, ID> @Nullable JsonPartialUpdates<T, ID> of(
+        @NotNull RepositoryModel<T, ID> repositoryModel,
+        @NotNull TypeResolverRegistry resolverRegistry,
+        @NotNull QueryParseEngine.SQLType sqlType
+    ) {
+        List<FieldModel<T>> fields = new ArrayList<>(2);
+        for (FieldModel<T> field : JsonSnapshots.partialUpdateFields(repositoryModel)) {
+            // a serialized document is bound as text, which must not be serialized again
+            if (field.type().isAssignableFrom(String.class)) continue;
+            // collections and maps are not part of the entity update
+            if (Collection.class.isAssignableFrom(field.type()) || Map.class.isAssignableFrom(field.type())) continue;
+            if (hasNativeJsonColumn(field, sqlType)) fields.add(field);
+        }
+        return fields.isEmpty() ? null : new JsonPartialUpdates<>(sqlType, resolverRegistry, fields);
+    }
+
+    /**
+     * The JSON functions only apply to the JSON column types; SQLite stores JSON as text either way.
+     */
+    private static boolean hasNativeJsonColumn(FieldModel<?> field, QueryParseEngine.SQLType sqlType) {
+        String definition = field.jsonColumnDefinition();
+        if (definition == null || definition.isBlank()) return true;
+        return switch (sqlType) {
+            case POSTGRESQL -> definition.equalsIgnoreCase("jsonb");
+            case MYSQL -> definition.equalsIgnoreCase("json");
+            case SQLITE -> true;
+        };
+    }
+
+    /**
+     * Remembers the stored documents of the rows of {@code result}, one row per {@link Capture#capture} call.
+     */
+    public @NotNull Capture capture(@NotNull DatabaseResult result) {
+        boolean[] present = new boolean[fields.size()];
+        for (int i = 0; i < present.length; i++) present[i] = result.hasColumn(fields.get(i).columnName());
+        return new Capture(result, present);
+    }
+
+    /**
+     * Serializes the partially updatable fields of {@code entity} and diffs them against the snapshots of {@code id}.
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull Plan plan(@NotNull T entity, @NotNull ID id) {
+        int count = fields.size();
+        String[] after = new String[count];
+        String[][] paths = new String[count][];
+        Map<String, List<JsonDiff.Change>> patches = new LinkedHashMap<>(Math.max(count * 2, 4));
+
+        for (int i = 0; i < count; i++) {
+            FieldModel<T> field = fields.get(i);
+            Object value = field.getValue(entity);
+            if (value == null) continue;
+
+            JsonCodec<Object> codec = resolverRegistry.getJsonCodecFromSupplier(
+                field.jsonCodec(), field.jsonCodecSupplier(), resolverRegistry.getJsonAdapter());
+            after[i] = codec.serialize(value, (Class<Object>) field.type());
+
+            List<JsonDiff.Change> changes = snapshots.patch(id, i, after[i]);
+            if (changes == null) continue;
+
+            String[] formatted = new String[changes.size()];
+            for (int c = 0; formatted != null && c < formatted.length; c++) {
+                String path = formatPath(changes.get(c).path());
+                if (path == null) formatted = null;
+                else formatted[c] = path;
+            }
+            if (formatted == null) continue;
+
+            paths[i] = formatted;
+            patches.put(field.columnName(), changes);
+        }
+        return new Plan(after, paths, patches);
+    }
+
+    /**
+     * Records what an update with {@code plan} stored. Writes that may still be rolled back leave
+     * nothing to diff against.
+     *
+     * @param committed whether the row was updated outside of a transaction
+     */
+    public void updated(@NotNull ID id, @NotNull Plan plan, boolean committed) {
+        if (!committed) {
+            snapshots.forget(id);
+            return;
+        }
+        for (int i = 0; i < plan.after.length; i++) snapshots.remember(id, i, plan.after[i]);
+    }
+
+    public void forget(@NotNull ID id) {
+        snapshots.forget(id);
+    }
+
+    public void forget(@NotNull Collection<? extends ID> ids) {
+        snapshots.forget(ids);
+    }
+
+    /**
+     * Forgets every snapshot, after writes whose rows are not known.
+     */
+    public void clear() {
+        snapshots.clear();
+    }
+
+    /**
+     * The path argument of the JSON functions, or {@code null} when a key cannot be written in it.
+     */
+    private @Nullable String formatPath(List<String> path) {
+        StringBuilder builder = new StringBuilder(path.size() * 8 + 2);
+        if (sqlType == QueryParseEngine.SQLType.POSTGRESQL) {
+            // a text[] literal
+            builder.append('{');
+            for (int i = 0; i < path.size(); i++) {
+                if (i > 0) builder.append(',');
+                builder.append('"');
+                String key = path.get(i);
+                for (int c = 0; c < key.length(); c++) {
+                    char ch = key.charAt(c);
+                    if (ch == '"' || ch == '\\') builder.append('\\');
+                    builder.append(ch);
+                }
+                builder.append('"');
+            }
+            return builder.append('}').toString();
+        }
+
+        // MySQL and SQLite paths do not agree on escapes inside quoted keys
+        builder.append('$');
+        for (String key : path) {
+            if (key.indexOf('"') >= 0 || key.indexOf('\\') >= 0) return null;
+            builder.append(".\"").append(key).append('"');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads the documents of the partially updatable columns a result contains.
+     */
+    public final class Capture {
+        private final DatabaseResult result;
+        private final boolean[] present;
+
+        private Capture(DatabaseResult result, boolean[] present) {
+            this.result = result;
+            this.present = present;
+        }
+
+        /**
+         * Remembers the documents of the current row.
+         */
+        public void capture(@Nullable ID id) {
+            if (id == null) return;
+            for (int i = 0; i < present.length; i++) {
+                if (present[i]) snapshots.remember(id, i, result.get(fields.get(i).columnName(), String.class));
+            }
+        }
+    }
+
+    /**
+     * The serialized fields of one entity and the paths of the fields that are patched.
+     */
+    public final class Plan {
+        private final String[] after;
+        private final String[][] paths;
+        private final Map<String, List<JsonDiff.Change>> patches;
+
+        private Plan(String[] after, String[][] paths, Map<String, List<JsonDiff.Change>> patches) {
+            this.after = after;
+            this.paths = paths;
+            this.patches = patches;
+        }
+
+        public boolean isPartial() {
+            return !patches.isEmpty();
+        }
+
+        /**
+         * @return the changes of every patched column, by column name
+         */
+        public @NotNull Map<String, List<JsonDiff.Change>> patches() {
+            return patches;
+        }
+
+        /**
+         * Binds {@code field} from the serialized document, as its patch or as the whole document.
+         *
+         * @return whether {@code field} was bound; {@code null} values and fields this plan does
+         *         not cover are left to the caller
+         */
+        public boolean bind(@NotNull SQLDatabaseParameters statement, @NotNull FieldModel<T> field) {
+            int index = fields.indexOf(field);
+            if (index < 0 || after[index] == null) return false;
+
+            String[] fieldPaths = paths[index];
+            if (fieldPaths == null) {
+                statement.setRaw(field.name(), after[index], String.class);
+                return true;
+            }
+
+            String column = field.columnName();
+            List<JsonDiff.Change> changes = patches.get(column);
+            for (int c = 0; c < fieldPaths.length; c++) {
+                statement.setRaw(UpdateSqlBuilder.jsonPathParameter(column, c), fieldPaths[c], String.class);
+                JsonDiff.Change change = changes.get(c);
+                if (!change.isRemoval()) {
+                    statement.setRaw(UpdateSqlBuilder.jsonValueParameter(column, c), change.value(), String.class);
+                }
+            }
+            return true;
+        }
+    }
+}
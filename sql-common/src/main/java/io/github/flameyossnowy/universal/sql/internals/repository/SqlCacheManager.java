@@ -6,16 +6,17 @@ import io.github.flameyossnowy.universal.api.cache.SecondLevelCache;
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
 import io.github.flameyossnowy.universal.api.factory.ObjectModel;
 import io.github.flameyossnowy.universal.api.utils.Logging;
-import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class SqlCacheManager<T, ID> {
 
-    private final DefaultResultCache<ParameterizedSql, T, ID> cache;
+    private final DefaultResultCache<ResultCacheKey, T, ID> cache;
     private final ObjectModel<T, ID> objectModel;
     private final boolean cacheEnabled;
     private final Function<T, ID> idExtractor;
@@ -26,7 +27,7 @@ public class SqlCacheManager<T, ID> {
     @Nullable
     private final ReadThroughCache<ID, T> readThroughCache;
 
-    public SqlCacheManager(DefaultResultCache<ParameterizedSql, T, ID> cache, ObjectModel<T, ID> objectModel, boolean cacheEnabled, @Nullable SecondLevelCache<ID, T> l2Cache, @Nullable ReadThroughCache<ID, T> readThroughCache) {
+    public SqlCacheManager(DefaultResultCache<ResultCacheKey, T, ID> cache, ObjectModel<T, ID> objectModel, boolean cacheEnabled, @Nullable SecondLevelCache<ID, T> l2Cache, @Nullable ReadThroughCache<ID, T> readThroughCache) {
         this.cache = cache;
         this.objectModel = objectModel;
         this.cacheEnabled = cacheEnabled;
@@ -36,14 +37,44 @@ public class SqlCacheManager<T, ID> {
         this.idExtractor = objectModel != null ? objectModel::getId : null;
     }
 
-    public List<T> insertToCache(ParameterizedSql query, List<T> result) {
-        if (cache != null && idExtractor != null) {
-            cache.insert(query, result, idExtractor);
+    /**
+     * The generation of the result cache, to read before running a query whose results are cached,
+     * or {@code null} without a result cache.
+     */
+    public DefaultResultCache.@Nullable Generation generation() {
+        return cache == null ? null : cache.generation();
+    }
+
+    /**
+     * @param generation the {@link #generation()} read before the query ran
+     */
+    public List<T> insertToCache(
+        ResultCacheKey query,
+        List<T> result,
+        @Nullable Predicate<? super T> insertFilter,
+        DefaultResultCache.@Nullable Generation generation
+    ) {
+        if (cache != null && idExtractor != null && generation != null) {
+            cache.insert(query, result, idExtractor, insertFilter, generation);
         }
         return result;
     }
 
-    public List<T> fetch(ParameterizedSql query) {
+    /**
+     * Insert filter for a primary key lookup: only an entity with the same, or a not yet
+     * generated, ID can change its result.
+     */
+    public @Nullable Predicate<T> sameIdFilter(ID id) {
+        if (id == null || idExtractor == null) {
+            return null;
+        }
+        return entity -> {
+            ID other = idExtractor.apply(entity);
+            return other == null || other.equals(id);
+        };
+    }
+
+    public List<T> fetch(ResultCacheKey query) {
         return cache == null ? null : cache.fetch(query);
     }
 
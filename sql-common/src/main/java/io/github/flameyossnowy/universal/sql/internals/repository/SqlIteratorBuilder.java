@@ -7,6 +7,8 @@ import io.github.flameyossnowy.universal.api.cache.SessionCache;
 import io.github.flameyossnowy.universal.api.exceptions.handler.ExceptionHandler;
 import io.github.flameyossnowy.universal.api.factory.ObjectModel;
 import io.github.flameyossnowy.universal.api.factory.RelationshipLoader;
+import io.github.flameyossnowy.universal.api.handler.AbstractRelationshipHandler;
+import io.github.flameyossnowy.universal.api.handler.ChunkedRelationshipResolver;
 import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
 import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
 import io.github.flameyossnowy.universal.api.listener.AuditLogger;
@@ -19,18 +21,19 @@ import io.github.flameyossnowy.universal.sql.internals.DelegatingResultSet;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.iteration.ChunkedIterator;
 import io.github.flameyossnowy.universal.sql.iteration.ResultSetIterator;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
-import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.List;
-import java.util.function.BiFunction;
+import java.util.Spliterators;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SqlIteratorBuilder<T, ID> {
     private final SQLConnectionProvider dataSource;
@@ -47,6 +50,7 @@ public class SqlIteratorBuilder<T, ID> {
     private final SqlResultMapper<T, ID> resultMapper;
     private final QueryParseEngine<T, ID> engine;
     private final RelationshipLoader<T, ID> relationshipLoader;
+    private final RelationshipHandler<T, ID> relationshipHandler;
 
     public SqlIteratorBuilder(
         SQLConnectionProvider dataSource,
@@ -60,7 +64,8 @@ public class SqlIteratorBuilder<T, ID> {
         QueryParseEngine.SQLType sqlType,
         SqlResultMapper<T, ID> resultMapper,
         QueryParseEngine<T, ID> engine,
-        RelationshipLoader<T, ID> relationshipLoader
+        RelationshipLoader<T, ID> relationshipLoader,
+        RelationshipHandler<T, ID> relationshipHandler
     ) {
         this.dataSource = dataSource;
         this.repositoryModel = repositoryModel;
@@ -74,27 +79,17 @@ public class SqlIteratorBuilder<T, ID> {
         this.resultMapper = resultMapper;
         this.engine = engine;
         this.relationshipLoader = relationshipLoader;
+        this.relationshipHandler = relationshipHandler;
     }
 
     public @NotNull CloseableIterator<T> findIterator(SelectQuery q) {
         try {
-            ParameterizedSql sql = engine.parseSelect(q, false);
-
-            BiFunction<ResultSet, SQLDatabaseResult, T> mapper = (r, result) -> {
-                try {
-                    return resultMapper.constructNewEntity(result);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            };
+            ParameterizedSql sql = engine.parsePlainSelect(q);
 
             return executeForIteration(
-                sql.sql(),
+                sql,
                 q == null ? List.of() : q.filters(),
-                rs -> new ResultSetIterator<>(
-                    rs, mapper, repositoryModel.getFetchPageSize(), resolverRegistry,
-                    collectionHandler, supportsArrays, repositoryModel
-                )
+                this::iterate
             );
         } catch (Exception e) {
             throw new RuntimeException("Failed to create iterator", e);
@@ -103,56 +98,98 @@ public class SqlIteratorBuilder<T, ID> {
 
     public @NotNull Stream<T> findStream(SelectQuery q) {
         try {
-            ParameterizedSql sql = engine.parseSelect(q, false);
+            ParameterizedSql sql = engine.parsePlainSelect(q);
 
             return executeForIteration(
-                sql.sql(),
+                sql,
                 q == null ? List.of() : q.filters(),
-                rs -> ResultSetIterator.stream(
-                    rs,
-                    (r, result) -> {
-                        try {
-                            return resultMapper.constructNewEntity(result);
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    repositoryModel.getFetchPageSize() < 0 ? null : repositoryModel.getFetchPageSize(),
-                    resolverRegistry,
-                    collectionHandler,
-                    supportsArrays,
-                    repositoryModel
-                )
+                rs -> {
+                    CloseableIterator<T> iterator = iterate(rs);
+                    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 0), false)
+                        .onClose(() -> {
+                            try {
+                                iterator.close();
+                            } catch (Exception e) {
+                                throw new RuntimeException("Error closing iterator", e);
+                            }
+                        });
+                }
             );
         } catch (Exception e) {
             throw new RuntimeException("Failed to create stream", e);
         }
     }
 
+    /**
+     * Entities without eager relationships are mapped row by row. Otherwise rows are buffered
+     * into chunks of {@link AbstractRelationshipHandler#getStreamChunkSize()} and each chunk's
+     * relationships are loaded with one IN-query per field, instead of one query per row and field.
+     */
+    private CloseableIterator<T> iterate(ResultSet rs) {
+        int chunkSize = relationshipHandler instanceof AbstractRelationshipHandler<?, ?> handler
+            ? handler.getStreamChunkSize()
+            : AbstractRelationshipHandler.DEFAULT_STREAM_CHUNK_SIZE;
+
+        if (chunkSize <= 1 || !repositoryModel.hasRelationships()) {
+            SqlResultMapper<T, ID>.RowCursor cursor = resultMapper.rows();
+            return new ResultSetIterator<>(
+                rs,
+                (r, result) -> cursor.on(result).construct(),
+                resolverRegistry, collectionHandler, supportsArrays, repositoryModel
+            );
+        }
+
+        ChunkedRelationshipResolver<T, ID> resolver = resultMapper.newChunkedResolver(relationshipHandler);
+        SqlResultMapper<T, ID>.RowCursor cursor = resultMapper.rows();
+        ResultSetIterator<ChunkedRelationshipResolver.DeferredRow<T, ID>> rows = new ResultSetIterator<>(
+            rs,
+            (r, result) -> cursor.on(result).defer(resolver),
+            resolverRegistry, collectionHandler, supportsArrays, repositoryModel
+        );
+        return new ChunkedIterator<>(rows, chunkSize, resolver::complete);
+    }
+
+    /**
+     * Runs a streaming query on a connection of its own, inside a read-only transaction with the
+     * dialect's cursor settings (see {@link SQLConnectionProvider#beginStreamingRead(Connection)}).
+     * The fetch size comes from {@code @FetchPageSize}. Closing the returned ResultSet ends the
+     * transaction and releases the connection.
+     */
     private <R> R executeForIteration(
-        String sql,
+        ParameterizedSql sql,
         List<FilterOption> filters,
         Function<ResultSet, R> resultSetConsumer
     ) throws Exception {
         Connection connection = dataSource.getConnection();
-        PreparedStatement statement = dataSource.prepareStatement(sql, connection);
-
-        int fetchSize = repositoryModel.getFetchPageSize() > 0
-            ? repositoryModel.getFetchPageSize()
-            : 100;
+        PreparedStatement statement = null;
+        boolean streaming = false;
+        try {
+            dataSource.beginStreamingRead(connection);
+            streaming = true;
 
-        statement.setFetchSize(fetchSize);
+            statement = dataSource.prepareStreamingStatement(sql.sql(), connection, resultMapper.getFetchSizeOrDefault());
 
-        SQLDatabaseParameters parameters =
-            new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
+            SQLDatabaseParameters parameters =
+                new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
 
-        this.parameterBinder.addFilterToPreparedStatement(filters, parameters, resolverRegistry, repositoryModel, sqlType);
+            this.parameterBinder.addFilterToPreparedStatement(filters, parameters, resolverRegistry, repositoryModel, sqlType);
 
-        ResultSet resultSet = statement.executeQuery();
+            ResultSet resultSet = statement.executeQuery();
 
-        // IMPORTANT: cleanup must cascade from the ResultSet
-        return resultSetConsumer.apply(
-            new DelegatingResultSet(resultSet, statement, connection)
-        );
+            // IMPORTANT: cleanup must cascade from the ResultSet
+            return resultSetConsumer.apply(
+                new DelegatingResultSet(resultSet, statement, connection, dataSource)
+            );
+        } catch (Exception e) {
+            try {
+                if (statement != null) statement.close();
+                if (streaming) dataSource.endStreamingRead(connection);
+            } catch (Exception suppressed) {
+                e.addSuppressed(suppressed);
+            } finally {
+                connection.close();
+            }
+            throw e;
+        }
     }
 }
@@ -16,12 +16,9 @@ import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
 import io.github.flameyossnowy.universal.api.utils.Logging;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Array;
-import java.lang.reflect.GenericArrayType;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -36,6 +33,13 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
+/**
+ * Binds the values of queries and entities to the statements built for them.
+ * <p>
+ * Filter values are bound by position, in the order {@link io.github.flameyossnowy.universal.sql.internals.query.SqlConditionBuilder}
+ * lists their placeholders, so every value of an {@code IN} list and every filter on the same column
+ * gets a placeholder of its own.
+ */
 public final class SqlParameterBinder<T, ID> {
     public void addFilterToPreparedStatement(
         List<FilterOption> filters,
@@ -44,88 +48,84 @@ public final class SqlParameterBinder<T, ID> {
         RepositoryModel<T, ID> repositoryModel,
         QueryParseEngine.SQLType sqlType
     ) {
+        int position = 1;
         for (FilterOption value : filters) {
-            switch (value) {
-                case null -> {}
-                case SelectOption s -> bindSelectOption(s, parameters, resolverRegistry);
-                case JsonSelectOption j -> bindJsonSelectOption(j, parameters, resolverRegistry, repositoryModel, sqlType);
-                case AggregateFilterOption a -> bindAggregationSelectOption(a, parameters, resolverRegistry);
-            }
+            position = switch (value) {
+                case null -> position;
+                case SelectOption s -> bindSelectOption(s, parameters, position);
+                case JsonSelectOption j -> bindJsonSelectOption(j, parameters, resolverRegistry, repositoryModel, position);
+                case AggregateFilterOption a -> bindAggregationSelectOption(a, parameters, position);
+            };
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static void bindAggregationSelectOption(
-        AggregateFilterOption value,
-        SQLDatabaseParameters parameters,
-        TypeResolverRegistry resolverRegistry
-    ) {
+    /**
+     * @return the position after the values bound
+     */
+    private static int bindAggregationSelectOption(AggregateFilterOption value, SQLDatabaseParameters parameters, int position) {
         // Bind any conditional value inside COUNT_IF / SUM_IF conditions if needed.
         // The SQL parser currently inlines values for aggregation expressions, but the
         // binder can still support parameterized aggregate parsing in the future.
         if (value.condition() instanceof SelectOption(String option, String operator, Object value1) && value1 != null) {
-            if ("IN".equalsIgnoreCase(operator) && value1 instanceof Collection<?> list) {
-                for (Object item : list) {
-                    if (item == null) continue;
-                    TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(item.getClass());
-                    resolver.insert(parameters, option, item);
-                }
-            } else {
-                TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(value1.getClass());
-                resolver.insert(parameters, option, value1);
-            }
+            position = bindValues(operator, value1, parameters, position);
         }
 
         // Bind the right-hand-side of the aggregate comparison, if present.
         if (value.value() == null) {
-            return;
+            return position;
         }
+        return bindValues(value.operator(), value.value(), parameters, position);
+    }
 
-        if ("IN".equalsIgnoreCase(value.operator()) && value.value() instanceof Collection<?> list) {
-            for (Object item : list) {
-                if (item == null) continue;
-                TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(item.getClass());
-                resolver.insert(parameters, value.field(), item);
-            }
-            return;
+    /**
+     * @return the position after the values bound
+     */
+    private static int bindSelectOption(SelectOption value, SQLDatabaseParameters parameters, int position) {
+        // No placeholder, as in SqlConditionBuilder
+        if (value.value() == null
+            && ("IS NULL".equalsIgnoreCase(value.operator()) || "IS NOT NULL".equalsIgnoreCase(value.operator()))) {
+            return position;
         }
-
-        TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(value.value().getClass());
-        resolver.insert(parameters, value.field(), value.value());
+        return bindValues(value.operator(), value.value(), parameters, position);
     }
 
-    @SuppressWarnings("unchecked")
-    private static void bindSelectOption(SelectOption value, SQLDatabaseParameters parameters, TypeResolverRegistry resolverRegistry) {
-        if ("IN".equalsIgnoreCase(value.operator()) && value.value() instanceof Collection<?> list) {
+    /** Binds every element of the collection of an {@code IN}, the value itself otherwise. */
+    private static int bindValues(String operator, @Nullable Object value, SQLDatabaseParameters parameters, int position) {
+        if ("IN".equalsIgnoreCase(operator) && value instanceof Collection<?> list) {
             for (Object item : list) {
-                TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(item.getClass());
-                resolver.insert(parameters, value.option(), item);
+                bind(parameters, position++, item);
             }
-            return;
+            return position;
         }
 
-        TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(value.value().getClass());
-        resolver.insert(parameters, value.option(), value.value());
+        bind(parameters, position, value);
+        return position + 1;
     }
 
+    /** Binds through the type resolver of the value's class, like binding it by name would. */
+    private static void bind(SQLDatabaseParameters parameters, int position, @Nullable Object value) {
+        parameters.set(position, value, value == null ? Object.class : value.getClass());
+    }
+
+    /**
+     * @return the position after the values bound
+     */
     @SuppressWarnings("unchecked")
-    private void bindJsonSelectOption(
+    private int bindJsonSelectOption(
         JsonSelectOption value,
         SQLDatabaseParameters parameters,
         TypeResolverRegistry resolverRegistry,
         RepositoryModel<T, ID> repositoryModel,
-        QueryParseEngine.SQLType sqlType
+        int position
     ) {
-        String indexKey = buildJsonIndexKey(value, repositoryModel, sqlType);
-
         FieldModel<T> jsonField = repositoryModel.fieldByName(value.field());
         if (jsonField == null) {
             throw new IllegalArgumentException("Unknown field in JSON filter: " + value.field());
         }
 
         if (value.value() == null) {
-            parameters.setNull(indexKey, Object.class);
-            return;
+            bind(parameters, position, null);
+            return position + 1;
         }
 
         // If the user is filtering by an entire JSON object (not a JSON-path scalar),
@@ -148,56 +148,32 @@ public final class SqlParameterBinder<T, ID> {
                 if (item != null && jsonField.isJson() && jsonField.type().isInstance(item)) {
                     itemBind = codec.serialize(item, (Class<Object>) jsonField.type());
                 }
-
-                TypeResolver<Object> resolver = resolverRegistry.resolve(toClass(itemBind != null ? itemBind.getClass() : Object.class));
-                resolver.insert(parameters, indexKey, itemBind);
+                bind(parameters, position++, itemBind);
             }
-            return;
+            return position;
         }
 
-        TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(bindValue.getClass());
-        resolver.insert(parameters, indexKey, bindValue);
+        bind(parameters, position, bindValue);
+        return position + 1;
     }
 
-    @Contract("null -> null")
     @SuppressWarnings("unchecked")
-    private static <E> Class<E> toClass(Object o) {
-        if (o instanceof GenericArrayType ty)
-            return (Class<E>) Array.newInstance(toClass(ty.getGenericComponentType()), 0)
-                .getClass();
-        return (Class<E>) o;
+    public void setUpdateParameters(SQLDatabaseParameters statement, @NotNull T entity, RepositoryModel<T, ID> repositoryModel, TypeResolverRegistry resolverRegistry) {
+        setUpdateParameters(statement, entity, repositoryModel, resolverRegistry, null);
     }
 
-    private String buildJsonIndexKey(
-        JsonSelectOption filter,
+    /**
+     * Like {@link #setUpdateParameters(SQLDatabaseParameters, Object, RepositoryModel, TypeResolverRegistry)},
+     * binding the JSON fields {@code jsonPlan} serialized from it, for the SQL of
+     * {@link io.github.flameyossnowy.universal.sql.internals.QueryParseEngine#parseUpdateFromEntity(java.util.Map)}.
+     */
+    public void setUpdateParameters(
+        SQLDatabaseParameters statement,
+        @NotNull T entity,
         RepositoryModel<T, ID> repositoryModel,
-        QueryParseEngine.SQLType sqlType
+        TypeResolverRegistry resolverRegistry,
+        JsonPartialUpdates<T, ID>.@Nullable Plan jsonPlan
     ) {
-        FieldModel<T> field = repositoryModel.fieldByName(filter.field());
-        if (field == null) {
-            throw new IllegalArgumentException("Unknown field in JSON filter: " + filter.field());
-        }
-
-        // Must match QueryParseEngine's generated SQL LHS exactly, because SQLDatabaseParameters
-        // parses the WHERE clause and uses the raw LHS string as the parameter name.
-        return switch (sqlType) {
-            case POSTGRESQL -> field.columnName()
-                + " #>> '{"
-                + filter.jsonPath().replace("$.", "").replace(".", ",")
-                + "}'";
-            case MYSQL -> "JSON_UNQUOTE(JSON_EXTRACT("
-                + field.columnName()
-                + ", '"
-                + filter.jsonPath()
-                + "'))";
-            case SQLITE -> throw new UnsupportedOperationException(
-                "SQLite does not support JSON filtering in Universal"
-            );
-        };
-    }
-
-    @SuppressWarnings("unchecked")
-    public void setUpdateParameters(SQLDatabaseParameters statement, @NotNull T entity, RepositoryModel<T, ID> repositoryModel, TypeResolverRegistry resolverRegistry) {
         java.util.Set<String> versionColumns = resolveJsonVersionColumns(repositoryModel);
 
         for (FieldModel<T> fieldData : repositoryModel.fields()) {
@@ -211,6 +187,10 @@ public final class SqlParameterBinder<T, ID> {
                 continue;
             }
 
+            if (jsonPlan != null && fieldData.isJson() && jsonPlan.bind(statement, fieldData)) {
+                continue;
+            }
+
             T value = (T) fieldData.getValue(entity);
 
             if (fieldData.hasNowAnnotation()) {
@@ -383,7 +363,6 @@ public final class SqlParameterBinder<T, ID> {
         return null;
     }
 
-    @SuppressWarnings("unchecked")
     public void setUpdateParameters(
         @NotNull UpdateQuery query,
         SQLDatabaseParameters parameters,
@@ -391,33 +370,23 @@ public final class SqlParameterBinder<T, ID> {
         RepositoryModel<T, ID> repositoryModel,
         QueryParseEngine.SQLType sqlType
     ) {
-        for (var value : query.updates().entrySet()) {
-            TypeResolver<Object> resolver = (TypeResolver<Object>) resolverRegistry.resolve(value.getValue().getClass());
-            resolver.insert(parameters, value.getKey(), value.getValue());
+        // SET placeholders come first, in the order of the updates
+        int position = 1;
+        for (Object value : query.updates().values()) {
+            bind(parameters, position++, value);
         }
 
-        List<FilterOption> conditions = query.filters();
-        if (conditions.isEmpty()) return;
-        for (FilterOption value : conditions) {
-            bindOptionValue(parameters, resolverRegistry, repositoryModel, sqlType, value);
+        for (FilterOption value : query.filters()) {
+            position = bindOptionValue(parameters, resolverRegistry, repositoryModel, value, position);
         }
     }
 
-    private void bindOptionValue(SQLDatabaseParameters parameters, TypeResolverRegistry resolverRegistry, RepositoryModel<T, ID> repositoryModel, QueryParseEngine.SQLType sqlType, FilterOption value) {
-        switch (value) {
-            case SelectOption s -> {
-                bindSelectOption(s, parameters, resolverRegistry);
-                return;
-            }
-            case JsonSelectOption j -> {
-                bindJsonSelectOption(j, parameters, resolverRegistry, repositoryModel, sqlType);
-                return;
-            }
-            case null, default -> {
-            }
-        }
-
-        throw new IllegalStateException("Unknown filter type: " + value);
+    private int bindOptionValue(SQLDatabaseParameters parameters, TypeResolverRegistry resolverRegistry, RepositoryModel<T, ID> repositoryModel, FilterOption value, int position) {
+        return switch (value) {
+            case SelectOption s -> bindSelectOption(s, parameters, position);
+            case JsonSelectOption j -> bindJsonSelectOption(j, parameters, resolverRegistry, repositoryModel, position);
+            case null, default -> throw new IllegalStateException("Unknown filter type: " + value);
+        };
     }
 
     public void setUpdateParameters(
@@ -427,8 +396,9 @@ public final class SqlParameterBinder<T, ID> {
         RepositoryModel<T, ID> repositoryModel,
         QueryParseEngine.SQLType sqlType
     ) {
+        int position = 1;
         for (FilterOption value : query.filters()) {
-            bindOptionValue(parameters, resolverRegistry, repositoryModel, sqlType, value);
+            position = bindOptionValue(parameters, resolverRegistry, repositoryModel, value, position);
         }
     }
 }
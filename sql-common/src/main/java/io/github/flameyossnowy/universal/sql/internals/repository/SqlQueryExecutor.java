@@ -3,6 +3,7 @@ package io.github.flameyossnowy.universal.sql.internals.repository;
 import io.github.flameyossnowy.universal.api.ReadPolicy;
 import io.github.flameyossnowy.universal.api.RepositoryAdapter;
 import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
+import io.github.flameyossnowy.universal.api.cache.QueryPredicates;
 import io.github.flameyossnowy.universal.api.cache.TransactionResult;
 import io.github.flameyossnowy.universal.api.exceptions.handler.ExceptionHandler;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
@@ -10,7 +11,10 @@ import io.github.flameyossnowy.universal.api.options.FilterOption;
 import io.github.flameyossnowy.universal.api.options.SelectQuery;
 import io.github.flameyossnowy.universal.api.utils.Logging;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
+import io.github.flameyossnowy.universal.sql.internals.query.JoinFetchPlan;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -21,12 +25,12 @@ import java.util.List;
 public class SqlQueryExecutor<T, ID> {
     private final SQLConnectionProvider dataSource;
     private final ExceptionHandler<T, ID, Connection> exceptionHandler;
-    private final DefaultResultCache<ParameterizedSql, T, ID> cache;
+    private final DefaultResultCache<ResultCacheKey, T, ID> cache;
     private final RepositoryModel<T, ID> repositoryModel;
     private final SqlReadExecutor<T, ID> readExecutor;
     private final RepositoryAdapter<T, ID, Connection> adapter;
 
-    public SqlQueryExecutor(SQLConnectionProvider dataSource, ExceptionHandler<T, ID, Connection> exceptionHandler, DefaultResultCache<ParameterizedSql, T, ID> cache, RepositoryModel<T, ID> repositoryModel, SqlReadExecutor<T, ID> readExecutor, RepositoryAdapter<T, ID, Connection> adapter) {
+    public SqlQueryExecutor(SQLConnectionProvider dataSource, ExceptionHandler<T, ID, Connection> exceptionHandler, DefaultResultCache<ResultCacheKey, T, ID> cache, RepositoryModel<T, ID> repositoryModel, SqlReadExecutor<T, ID> readExecutor, RepositoryAdapter<T, ID, Connection> adapter) {
         this.dataSource = dataSource;
         this.exceptionHandler = exceptionHandler;
         this.cache = cache;
@@ -59,14 +63,15 @@ public class SqlQueryExecutor<T, ID> {
 
     public List<T> executeQuery(ParameterizedSql query, ReadPolicy policy) {
         try {
+            ResultCacheKey cacheKey = ResultCacheKey.of(query);
             boolean bypassCache = policy != null && policy.bypassCache();
             if (!bypassCache && cache != null) {
-                List<T> cached = cache.fetch(query);
+                List<T> cached = cache.fetch(cacheKey);
                 if (cached != null) {
                     return cached;
                 }
             }
-            return readExecutor.search(query, false, List.of());
+            return readExecutor.search(query, false, List.of(), cacheKey, null);
         } catch (Exception e) {
             return this.exceptionHandler.handleRead(e, repositoryModel, null, adapter);
         }
@@ -90,16 +95,30 @@ public class SqlQueryExecutor<T, ID> {
         ReadPolicy policy,
         boolean first,
         List<FilterOption> params
+    ) {
+        return executeQueryWithParams(query, selectQuery, policy, first, params, null);
+    }
+
+    public List<T> executeQueryWithParams(
+        ParameterizedSql query,
+        SelectQuery selectQuery,
+        ReadPolicy policy,
+        boolean first,
+        List<FilterOption> params,
+        @Nullable JoinFetchPlan<T> plan
     ) {
         try {
+            ResultCacheKey cacheKey = ResultCacheKey.of(query, params);
             boolean bypassCache = policy != null && policy.bypassCache();
             if (!bypassCache && cache != null) {
-                List<T> cached = cache.fetch(query);
+                List<T> cached = cache.fetch(cacheKey);
                 if (cached != null) {
                     return cached;
                 }
             }
-            return readExecutor.search(query, first, params);
+            // only entities passing the filters can enter the results, so other inserts keep them cached
+            return readExecutor.search(query, first, params, cacheKey,
+                cache == null ? null : QueryPredicates.mayMatch(repositoryModel, selectQuery), plan);
         } catch (Exception e) {
             return this.exceptionHandler.handleRead(e, repositoryModel, selectQuery, adapter);
         }
@@ -1,21 +1,27 @@
 package io.github.flameyossnowy.universal.sql.internals.repository;
 
+import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
 import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
+import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
 import io.github.flameyossnowy.universal.api.meta.FieldModel;
 import io.github.flameyossnowy.universal.api.options.FilterOption;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
+import io.github.flameyossnowy.universal.sql.internals.query.JoinFetchPlan;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
 import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class SqlReadExecutor<T, ID> {
     private final SQLConnectionProvider dataSource;
@@ -25,6 +31,7 @@ public class SqlReadExecutor<T, ID> {
     private final SqlParameterBinder<T, ID> parameterBinder;
     private final SqlResultMapper<T, ID> resultMapper;
     private final SqlCacheManager<T, ID> cacheManager;
+    private final JoinFetchReader<T, ID> joinFetchReader;
 
     public SqlReadExecutor(
         SQLConnectionProvider dataSource,
@@ -33,7 +40,8 @@ public class SqlReadExecutor<T, ID> {
         QueryParseEngine.SQLType sqlType,
         SqlParameterBinder<T, ID> parameterBinder,
         SqlResultMapper<T, ID> resultMapper,
-        SqlCacheManager<T, ID> cacheManager
+        SqlCacheManager<T, ID> cacheManager,
+        RelationshipHandler<T, ID> relationshipHandler
     ) {
         this.dataSource = dataSource;
         this.collectionHandler = collectionHandler;
@@ -42,10 +50,40 @@ public class SqlReadExecutor<T, ID> {
         this.parameterBinder = parameterBinder;
         this.resultMapper = resultMapper;
         this.cacheManager = cacheManager;
+        this.joinFetchReader = new JoinFetchReader<>(resultMapper, relationshipHandler);
     }
 
-    public @NotNull List<T> search(ParameterizedSql query, boolean first, @NotNull List<FilterOption> filters) throws Exception {
+    /**
+     * Runs a select and caches its results under {@code cacheKey}.
+     *
+     * @param insertFilter tells which inserted entities may change the results, see
+     *                     {@link io.github.flameyossnowy.universal.api.cache.QueryPredicates}
+     */
+    public @NotNull List<T> search(
+        ParameterizedSql query,
+        boolean first,
+        @NotNull List<FilterOption> filters,
+        ResultCacheKey cacheKey,
+        @Nullable Predicate<? super T> insertFilter
+    ) throws Exception {
+        return search(query, first, filters, cacheKey, insertFilter, null);
+    }
+
+    /**
+     * Like {@link #search(ParameterizedSql, boolean, List, ResultCacheKey, Predicate)}, for a
+     * select compiled with {@code plan}.
+     */
+    public @NotNull List<T> search(
+        ParameterizedSql query,
+        boolean first,
+        @NotNull List<FilterOption> filters,
+        ResultCacheKey cacheKey,
+        @Nullable Predicate<? super T> insertFilter,
+        @Nullable JoinFetchPlan<T> plan
+    ) throws Exception {
         String sql = query.sql();
+        // before the query runs, so writes made meanwhile leave its results stale
+        DefaultResultCache.Generation generation = cacheManager.generation();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = dataSource.prepareStatement(sql, connection)) {
             statement.setFetchSize(resultMapper.getFetchSizeOrDefault());
@@ -54,15 +92,20 @@ public class SqlReadExecutor<T, ID> {
             this.parameterBinder.addFilterToPreparedStatement(filters, parameters, resultMapper.getResolverRegistry(), resultMapper.getRepositoryModel(), sqlType);
             try (ResultSet resultSet = statement.executeQuery()) {
                 SQLDatabaseResult databaseResult = resultMapper.createDatabaseResult(resultSet, collectionHandler, supportsArrays);
+                if (plan != null) {
+                    // the plan's select already limits a first() to one parent
+                    return resultMapper.cacheResults(cacheKey, insertFilter, generation, joinFetchReader.read(databaseResult, plan));
+                }
                 return first
-                    ? fetchFirst(query, databaseResult)
-                    : fetchAll(query, resultSet);
+                    ? fetchFirst(cacheKey, insertFilter, generation, databaseResult)
+                    : fetchAll(cacheKey, insertFilter, generation, resultSet);
             }
         }
     }
 
     public @NotNull List<T> loadFromDatabase(ParameterizedSql query, ID id) throws Exception {
         String sql = query.sql();
+        DefaultResultCache.Generation generation = cacheManager.generation();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = dataSource.prepareStatement(sql, connection)) {
             statement.setFetchSize(resultMapper.getFetchSizeOrDefault());
@@ -76,18 +119,28 @@ public class SqlReadExecutor<T, ID> {
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 SQLDatabaseResult databaseResult = resultMapper.createDatabaseResult(resultSet, collectionHandler, supportsArrays);
-                return fetchFirst(query, databaseResult);
+                return fetchFirst(ResultCacheKey.of(query, List.of(id)), cacheManager.sameIdFilter(id), generation, databaseResult);
             }
         }
     }
 
-    private @NotNull List<T> fetchAll(ParameterizedSql query, ResultSet resultSet) throws Exception {
+    private @NotNull List<T> fetchAll(
+        ResultCacheKey cacheKey,
+        @Nullable Predicate<? super T> insertFilter,
+        DefaultResultCache.@Nullable Generation generation,
+        ResultSet resultSet
+    ) throws Exception {
         int fetchSize = resultMapper.getFetchSizeOrDefault();
-        return resultMapper.mapResults(query, resultSet, new ArrayList<>(fetchSize), collectionHandler, supportsArrays);
+        return resultMapper.mapResults(cacheKey, insertFilter, generation, resultSet, new ArrayList<>(fetchSize), collectionHandler, supportsArrays);
     }
 
-    private @NotNull List<T> fetchFirst(ParameterizedSql query, @NotNull SQLDatabaseResult result) throws Exception {
-        return cacheManager.insertToCache(query, !result.getResultSet().next() ? List.of() : fetchFirstItem(result));
+    private @NotNull List<T> fetchFirst(
+        ResultCacheKey cacheKey,
+        @Nullable Predicate<? super T> insertFilter,
+        DefaultResultCache.@Nullable Generation generation,
+        @NotNull SQLDatabaseResult result
+    ) throws Exception {
+        return cacheManager.insertToCache(cacheKey, !result.getResultSet().next() ? List.of() : fetchFirstItem(result), insertFilter, generation);
     }
 
     private List<T> fetchFirstItem(@NotNull SQLDatabaseResult databaseResult) {
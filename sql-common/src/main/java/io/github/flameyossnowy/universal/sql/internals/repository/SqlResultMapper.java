@@ -3,22 +3,29 @@ package io.github.flameyossnowy.universal.sql.internals.repository;
 import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
 import io.github.flameyossnowy.universal.api.cache.SessionCache;
 import io.github.flameyossnowy.universal.api.factory.ObjectModel;
+import io.github.flameyossnowy.universal.api.factory.ValueReader;
 import io.github.flameyossnowy.universal.api.factory.RelationshipLoader;
+import io.github.flameyossnowy.universal.api.handler.ChunkedRelationshipResolver;
 import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
-import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.handler.RelationshipHandler;
 import io.github.flameyossnowy.universal.api.meta.GeneratedValueReaders;
 import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.api.result.DatabaseResult;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
 import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public final class SqlResultMapper<T, ID> {
 
@@ -28,7 +35,8 @@ public final class SqlResultMapper<T, ID> {
     private final ObjectModel<T, ID> objectModel;
     private final RelationshipLoader<T, ID> relationshipLoader;
     private final SessionCache<ID, T> globalCache;
-    private final DefaultResultCache<ParameterizedSql, T, ID> cache;
+    private final DefaultResultCache<ResultCacheKey, T, ID> cache;
+    private final @Nullable JsonPartialUpdates<T, ID> jsonUpdates;
 
     public SqlResultMapper(
         RepositoryModel<T, ID> repositoryModel,
@@ -37,7 +45,8 @@ public final class SqlResultMapper<T, ID> {
         ObjectModel<T, ID> objectModel,
         RelationshipLoader<T, ID> relationshipLoader,
         SessionCache<ID, T> globalCache,
-        DefaultResultCache<ParameterizedSql, T, ID> cache
+        DefaultResultCache<ResultCacheKey, T, ID> cache,
+        @Nullable JsonPartialUpdates<T, ID> jsonUpdates
     ) {
         this.repositoryModel = repositoryModel;
         this.idClass = idClass;
@@ -46,6 +55,7 @@ public final class SqlResultMapper<T, ID> {
         this.relationshipLoader = relationshipLoader;
         this.globalCache = globalCache;
         this.cache = cache;
+        this.jsonUpdates = jsonUpdates;
     }
 
     public RepositoryModel<T, ID> getRepositoryModel() {
@@ -83,31 +93,79 @@ public final class SqlResultMapper<T, ID> {
         CollectionHandler collectionHandler,
         boolean supportsArrays
     ) throws SQLException {
-        FieldModel<T> primaryKey = repositoryModel.getPrimaryKey();
-        String idColumn = primaryKey.name();
-        TypeResolver<ID> resolver = resolverRegistry.resolve(idClass);
-
         List<ID> list = new ArrayList<>(rs.getFetchSize());
 
-        SQLDatabaseResult result = new SQLDatabaseResult(rs, resolverRegistry, collectionHandler, supportsArrays, repositoryModel);
+        RowCursor cursor = rows(new SQLDatabaseResult(rs, resolverRegistry, collectionHandler, supportsArrays, repositoryModel));
         while (rs.next()) {
-            ID id = resolver.resolve(result, idColumn);
-            list.add(id);
+            list.add(cursor.readId());
         }
 
         return list;
     }
 
+    /**
+     * Constructs the entity of the current row. Mapping several rows of the same result should go
+     * through one {@link #rows(DatabaseResult)} cursor instead.
+     */
     public T constructNewEntity(SQLDatabaseResult databaseResult) {
-        ID id = resolverRegistry.resolve(idClass).resolve(databaseResult, repositoryModel.getPrimaryKey().columnName());
-        var reader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, resolverRegistry, id);
-        T construct = objectModel.construct(reader);
-        objectModel.populateRelationships(construct, id, relationshipLoader, reader);
-        return construct;
+        return rows(databaseResult).construct();
+    }
+
+    /**
+     * Like {@link #constructNewEntity}, but leaves the relationships to {@code resolver}, which loads
+     * them for a whole chunk of rows at once.
+     */
+    public ChunkedRelationshipResolver.DeferredRow<T, ID> constructDeferred(
+        SQLDatabaseResult databaseResult,
+        ChunkedRelationshipResolver<T, ID> resolver
+    ) {
+        return rows(databaseResult).defer(resolver);
     }
 
+    public @Nullable ID readId(DatabaseResult databaseResult) {
+        return resolverRegistry.resolve(idClass).resolve(databaseResult, repositoryModel.getPrimaryKey().columnName());
+    }
+
+    /**
+     * A cursor that maps the rows of {@code databaseResult} with one value reader, re-pointed at
+     * every row, and the id resolver looked up once.
+     */
+    public RowCursor rows(DatabaseResult databaseResult) {
+        return new RowCursor().on(databaseResult);
+    }
+
+    /**
+     * A cursor bound to no result yet, see {@link RowCursor#on(DatabaseResult)}.
+     */
+    public RowCursor rows() {
+        return new RowCursor();
+    }
+
+    /**
+     * Maps every row of the result set it is given with one {@link RowCursor}, for callers that
+     * only hand out the {@link ResultSet} per row.
+     */
+    public Function<ResultSet, T> rowMapper(CollectionHandler collectionHandler, boolean supportsArrays) {
+        RowCursor cursor = rows();
+        return resultSet -> {
+            if (!(cursor.result instanceof SQLDatabaseResult current) || current.getResultSet() != resultSet) {
+                cursor.on(createDatabaseResult(resultSet, collectionHandler, supportsArrays));
+            }
+            return cursor.construct();
+        };
+    }
+
+    public ChunkedRelationshipResolver<T, ID> newChunkedResolver(RelationshipHandler<T, ID> relationshipHandler) {
+        return new ChunkedRelationshipResolver<>(repositoryModel, objectModel, relationshipHandler, relationshipLoader);
+    }
+
+    /**
+     * @param generation the generation of the result cache read before the query ran
+     */
     public List<T> mapResults(
-        ParameterizedSql query,
+        ResultCacheKey cacheKey,
+        @Nullable Predicate<? super T> insertFilter,
+        DefaultResultCache.@Nullable Generation generation,
         @NotNull ResultSet resultSet,
         List<T> results,
         CollectionHandler collectionHandler,
@@ -115,28 +173,115 @@ public final class SqlResultMapper<T, ID> {
     ) throws Exception {
         boolean existingGlobalCache = globalCache != null;
 
-        SQLDatabaseResult databaseResult = new SQLDatabaseResult(resultSet, resolverRegistry, collectionHandler, supportsArrays, repositoryModel);
+        RowCursor cursor = rows(new SQLDatabaseResult(resultSet, resolverRegistry, collectionHandler, supportsArrays, repositoryModel));
 
         while (resultSet.next()) {
-            ID id = resolverRegistry.resolve(idClass).resolve(databaseResult, repositoryModel.getPrimaryKey().columnName());
-            var reader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, resolverRegistry, id);
+            ID id = cursor.readId();
+            ValueReader<ID> reader = cursor.advance(id);
             T entity = objectModel.construct(reader);
             objectModel.populateRelationships(entity, objectModel.getId(entity), relationshipLoader, reader);
             if (existingGlobalCache) globalCache.put(id, entity);
             results.add(entity);
         }
 
-        if (cache != null) cache.insert(query, results, objectModel::getId);
+        if (cache != null && generation != null) cache.insert(cacheKey, results, objectModel::getId, insertFilter, generation);
+        return results;
+    }
+
+    /**
+     * Publishes results that were assembled outside {@link #mapResults} to the session and result caches.
+     */
+    public List<T> cacheResults(
+        ResultCacheKey cacheKey,
+        @Nullable Predicate<? super T> insertFilter,
+        DefaultResultCache.@Nullable Generation generation,
+        List<T> results
+    ) {
+        if (globalCache != null) {
+            for (T entity : results) globalCache.put(objectModel.getId(entity), entity);
+        }
+        if (cache != null && generation != null) cache.insert(cacheKey, results, objectModel::getId, insertFilter, generation);
         return results;
     }
 
     public List<T> fetchFirstItem(@NotNull SQLDatabaseResult databaseResult) {
-        ID id = resolverRegistry.resolve(idClass).resolve(databaseResult, repositoryModel.getPrimaryKey().columnName());
-        var reader = GeneratedValueReaders.get(repositoryModel.tableName(), databaseResult, resolverRegistry, id);
+        RowCursor cursor = rows(databaseResult);
+        ID id = cursor.readId();
+        ValueReader<ID> reader = cursor.advance(id);
         T construct = objectModel.construct(reader);
         if (repositoryModel.hasRelationships()) {
             objectModel.populateRelationships(construct, id, relationshipLoader, reader);
         }
         return List.of(construct);
     }
+
+    /**
+     * Maps the rows of one result. The value reader is bound to the result once and re-pointed at
+     * each row, so mapping a row allocates the entity and whatever its columns decode to.
+     * <p>
+     * A cursor belongs to the thread that iterates the result. Readers handed to the object model
+     * must not be kept past the row; {@link ChunkedRelationshipResolver#defer} records what it needs.
+     */
+    public final class RowCursor {
+        private final TypeResolver<ID> idResolver = resolverRegistry.resolve(idClass);
+        private final String idColumn = repositoryModel.getPrimaryKey().columnName();
+
+        private DatabaseResult result;
+        private ValueReader<ID> reader;
+        private JsonPartialUpdates<T, ID>.Capture jsonCapture;
+
+        private RowCursor() {
+        }
+
+        /**
+         * Binds the cursor to {@code databaseResult}, unless it is bound to it already.
+         */
+        public RowCursor on(DatabaseResult databaseResult) {
+            if (databaseResult == result) return this;
+            this.result = databaseResult;
+            this.reader = GeneratedValueReaders.bind(repositoryModel.tableName(), databaseResult, resolverRegistry);
+            this.jsonCapture = jsonUpdates != null ? jsonUpdates.capture(databaseResult) : null;
+            return this;
+        }
+
+        public @Nullable ID readId() {
+            return idResolver.resolve(result, idColumn);
+        }
+
+        /**
+         * Points the reader at the current row, whose JSON documents later partial updates diff against.
+         */
+        public ValueReader<ID> advance(ID id) {
+            if (jsonCapture != null) jsonCapture.capture(id);
+            reader.advance(id);
+            return reader;
+        }
+
+        /**
+         * Constructs the entity of the current row and populates its relationships.
+         */
+        public T construct() {
+            ID id = readId();
+            ValueReader<ID> current = advance(id);
+            T construct = objectModel.construct(current);
+            objectModel.populateRelationships(construct, id, relationshipLoader, current);
+            return construct;
+        }
+
+        /**
+         * Constructs the entity of the current row, leaving its relationships to {@code resolver}.
+         */
+        public ChunkedRelationshipResolver.DeferredRow<T, ID> defer(ChunkedRelationshipResolver<T, ID> resolver) {
+            return defer(readId(), resolver);
+        }
+
+        /**
+         * Like {@link #defer(ChunkedRelationshipResolver)}, for a row whose id has already been read.
+         */
+        public ChunkedRelationshipResolver.DeferredRow<T, ID> defer(ID id, ChunkedRelationshipResolver<T, ID> resolver) {
+            ValueReader<ID> current = advance(id);
+            T construct = objectModel.construct(current);
+            return resolver.defer(construct, id, current);
+        }
+    }
 }
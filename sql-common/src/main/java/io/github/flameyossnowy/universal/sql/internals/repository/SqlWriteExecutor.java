@@ -17,11 +17,15 @@ import io.github.flameyossnowy.universal.api.options.DeleteQuery;
 import io.github.flameyossnowy.universal.api.options.UpdateQuery;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolver;
 import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregates;
 import io.github.flameyossnowy.universal.api.utils.Logging;
 import io.github.flameyossnowy.universal.api.validation.ValidationException;
+import io.github.flameyossnowy.universal.sql.SimpleTransactionContext;
 import io.github.flameyossnowy.universal.sql.internals.AbstractRelationalRepositoryAdapter;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import io.github.flameyossnowy.universal.sql.internals.SQLCollectionHandler;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
 import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
 import org.jetbrains.annotations.NotNull;
@@ -31,17 +35,26 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public final class SqlWriteExecutor<T, ID> {
-    private static final int BATCH_SIZE = 1000;
+    /** Ids bound into one {@code IN} list of a batch delete, well below every dialect's parameter limit. */
+    private static final int IDS_PER_DELETE = 1000;
 
     private final io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider dataSource;
     private final RepositoryModel<T, ID> repositoryModel;
     private final TypeResolverRegistry resolverRegistry;
     private final io.github.flameyossnowy.universal.api.handler.CollectionHandler collectionHandler;
     private final boolean supportsArrays;
-    private final DefaultResultCache<ParameterizedSql, T, ID> cache;
+    private final DefaultResultCache<ResultCacheKey, T, ID> cache;
     private final SessionCache<ID, T> globalCache;
     private final RelationshipHandler<T, ID> relationshipHandler;
     private final ExceptionHandler<T, ID, Connection> exceptionHandler;
@@ -57,6 +70,11 @@ public final class SqlWriteExecutor<T, ID> {
     private final String[] primaryKeyColumnNames;
 
     private final AbstractRelationalRepositoryAdapter<T, ID> adapter;
+    private final QueryParseEngine<T, ID> engine;
+    private final AdaptiveBatchSizer batchSizer;
+    private final MaterializedAggregates<T, ID> materialized;
+    private final Runnable rebuildMaterialized;
+    private final @Nullable JsonPartialUpdates<T, ID> jsonUpdates;
 
     public SqlWriteExecutor(
         io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider dataSource,
@@ -64,7 +82,7 @@ public final class SqlWriteExecutor<T, ID> {
         TypeResolverRegistry resolverRegistry,
         io.github.flameyossnowy.universal.api.handler.CollectionHandler collectionHandler,
         boolean supportsArrays,
-        DefaultResultCache<ParameterizedSql, T, ID> cache,
+        DefaultResultCache<ResultCacheKey, T, ID> cache,
         SessionCache<ID, T> globalCache,
         RelationshipHandler<T, ID> relationshipHandler,
         ExceptionHandler<T, ID, Connection> exceptionHandler,
@@ -76,7 +94,11 @@ public final class SqlWriteExecutor<T, ID> {
         SqlParameterBinder<T, ID> parameterBinder,
         QueryParseEngine.SQLType sqlType,
         boolean isAutoIncrement,
-        String[] primaryKeyColumnNames
+        String[] primaryKeyColumnNames,
+        QueryParseEngine<T, ID> engine,
+        AdaptiveBatchSizer batchSizer,
+        MaterializedAggregates<T, ID> materialized,
+        @Nullable JsonPartialUpdates<T, ID> jsonUpdates
     ) {
         this.dataSource = dataSource;
         this.repositoryModel = repositoryModel;
@@ -96,16 +118,26 @@ public final class SqlWriteExecutor<T, ID> {
         this.sqlType = sqlType;
         this.isAutoIncrement = isAutoIncrement;
         this.primaryKeyColumnNames = primaryKeyColumnNames;
+        this.engine = engine;
+        this.batchSizer = batchSizer;
+        this.materialized = materialized;
+        this.rebuildMaterialized = materialized::invalidate;
+        this.jsonUpdates = jsonUpdates;
     }
 
     public TransactionResult<Boolean> executeBatch(TransactionContext<Connection> transactionContext, ParameterizedSql sql, Collection<T> collection) {
         try (Connection connection = transactionContext == null ? dataSource.getConnection() : transactionContext.connection();
-             PreparedStatement statement = prepareStatementWithGeneratedKeys(connection, sql)) {
+             PreparedStatement statement = prepareStatementWithGeneratedKeys(connection, sql);
+             MultiRowInserts inserts = new MultiRowInserts(connection)) {
 
             if (transactionContext == null) connection.setAutoCommit(false);
-            SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
+            SQLCollectionHandler.WriteBatch collectionWrites = collectionHandler instanceof SQLCollectionHandler handler ? handler.insertBatch() : null;
+            SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel,
+                collectionWrites != null ? collectionWrites : collectionHandler, supportsArrays);
             try {
-                int i = 0;
+                int batchSize = batchSizer.size();
+                List<T> batch = new ArrayList<>(Math.min(batchSize, collection.size()));
+                List<T> inserted = new ArrayList<>(collection.size());
                 for (T entity : collection) {
                     ValidationException validationException = adapter.validateEntity(entity);
                     if (validationException != null) {
@@ -113,61 +145,42 @@ public final class SqlWriteExecutor<T, ID> {
                     }
 
                     initializeJsonVersions(entity);
-                    objectModel.insertEntity(parameters, entity);
-                    statement.addBatch();
+                    batch.add(entity);
 
-                    if ((i + 1) % BATCH_SIZE == 0) {
-                        statement.executeBatch();
-                        statement.clearBatch();
+                    if (batch.size() >= batchSize) {
+                        executeBatch(inserts, batch, inserted);
+                        batch.clear();
+                        batchSize = batchSizer.size();
                     }
-
-                    i++;
                 }
 
-                if (collection.size() % BATCH_SIZE != 0) {
-                    statement.executeBatch();
+                if (!batch.isEmpty()) {
+                    executeBatch(inserts, batch, inserted);
                 }
 
-                FieldModel<T> primaryKey = repositoryModel.getPrimaryKey();
-                if (primaryKey != null) {
-                    if (isAutoIncrement) {
-                        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                            SQLDatabaseResult result = new SQLDatabaseResult(generatedKeys, resolverRegistry, collectionHandler, supportsArrays, repositoryModel);
-                            TypeResolver<ID> resolver = resolverRegistry.resolve(idClass);
-
-                            for (T entity : collection) {
-                                if (generatedKeys.next()) {
-                                    ID generatedId = resolver.resolve(result, primaryKey.name());
-                                    primaryKey.setValue(entity, generatedId);
-
-                                    if (globalCache != null) globalCache.put(generatedId, entity);
-                                    objectModel.insertCollectionEntities(entity, generatedId, parameters);
-                                    if (entityLifecycleListener != null) entityLifecycleListener.onPostInsert(entity);
-                                    if (auditLogger != null) auditLogger.onInsert(entity);
-                                }
-                            }
-                        }
-                    } else {
-                        // Non-auto-increment: IDs are already set on entities before insert
-                        for (T entity : collection) {
-                            ID entityId = objectModel.getId(entity);
-                            if (globalCache != null) globalCache.put(entityId, entity);
-                            objectModel.insertCollectionEntities(entity, entityId, parameters);
-                            if (entityLifecycleListener != null) entityLifecycleListener.onPostInsert(entity);
-                            if (auditLogger != null) auditLogger.onInsert(entity);
-                        }
+                if (repositoryModel.getPrimaryKey() != null) {
+                    for (T entity : inserted) {
+                        objectModel.insertCollectionEntities(entity, objectModel.getId(entity), parameters);
                     }
                 }
 
+                // in the transaction of the parent rows, so a failure rolls both back
+                if (collectionWrites != null) collectionWrites.flush(connection);
+
                 connection.commit();
 
-                // Selective invalidation: only invalidate affected entity IDs instead of clearing entire cache
-                if (cache != null) {
-                    for (T entity : collection) {
-                        ID id = objectModel.getId(entity);
-                        if (id != null) cache.invalidate(id);
+                afterCommit(transactionContext, () -> {
+                    if (repositoryModel.getPrimaryKey() != null) {
+                        for (T entity : inserted) {
+                            if (globalCache != null) globalCache.put(objectModel.getId(entity), entity);
+                            if (entityLifecycleListener != null) entityLifecycleListener.onPostInsert(entity);
+                            if (auditLogger != null) auditLogger.onInsert(entity);
+                        }
                     }
-                }
+                    // New rows cannot be in any cached result yet, only queries they could match are affected
+                    if (cache != null) cache.invalidateForInserts(collection);
+                    materializeWrites(transactionContext, inserted);
+                });
 
                 return TransactionResult.success(true);
             } catch (Exception e) {
@@ -179,6 +192,144 @@ public final class SqlWriteExecutor<T, ID> {
         }
     }
 
+    /**
+     * Inserts one batch through as few multi-row INSERTs as the buckets allow, and adds the
+     * entities it inserted to {@code inserted}, with their generated keys set when the id is
+     * auto-incremented. A statement rejected as too large is retried, with the rest of the
+     * batch, in halves.
+     * <p>
+     * On dialects where a failed statement aborts the transaction, every statement runs in a
+     * savepoint that the failure rolls back to, so the halves still run in a usable transaction.
+     */
+    private void executeBatch(MultiRowInserts inserts, List<T> batch, List<T> inserted) throws Exception {
+        long start = System.nanoTime();
+        int offset = 0;
+        while (offset < batch.size()) {
+            int rows = engine.insertBucket(batch.size() - offset);
+            Savepoint savepoint = sqlType.abortsTransactionOnError() ? inserts.connection.setSavepoint() : null;
+            try {
+                insertRows(inserts, batch.subList(offset, offset + rows), inserted);
+                if (savepoint != null) inserts.connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                if (savepoint != null) inserts.connection.rollback(savepoint);
+                if (rows < 2 || !(AdaptiveBatchSizer.isOversized(e) || AdaptiveBatchSizer.hasTooManyParameters(e))) throw e;
+
+                batchSizer.recordOversized(rows);
+                Logging.info(() -> "Insert of " + rows + " rows into " + repositoryModel.tableName() + " was too large, retrying in halves");
+
+                List<T> rest = batch.subList(offset, batch.size());
+                int half = rest.size() >>> 1;
+                executeBatch(inserts, rest.subList(0, half), inserted);
+                executeBatch(inserts, rest.subList(half, rest.size()), inserted);
+                return;
+            }
+            offset += rows;
+        }
+        batchSizer.recordBatch(batch.size(), System.nanoTime() - start);
+    }
+
+    private void insertRows(MultiRowInserts inserts, List<T> rows, List<T> inserted) throws Exception {
+        MultiRowInsert insert = inserts.get(rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            insert.parameters.setRowOffset(row * insert.columns);
+            objectModel.insertEntity(insert.parameters, rows.get(row));
+        }
+        insert.parameters.setRowOffset(0);
+
+        FieldModel<T> primaryKey = repositoryModel.getPrimaryKey();
+        if (primaryKey == null || !isAutoIncrement) {
+            // Non-auto-increment: IDs are already set on entities before insert
+            insert.statement.executeUpdate();
+            inserted.addAll(rows);
+            return;
+        }
+
+        String keyColumn;
+        ResultSet generatedKeys;
+        if (sqlType.supportsReturning()) {
+            generatedKeys = insert.statement.executeQuery();
+            keyColumn = primaryKey.columnName();
+        } else {
+            insert.statement.executeUpdate();
+            generatedKeys = insert.statement.getGeneratedKeys();
+            keyColumn = primaryKey.name();
+        }
+
+        List<ID> generatedIds = new ArrayList<>(rows.size());
+        try (generatedKeys) {
+            SQLDatabaseResult result = new SQLDatabaseResult(generatedKeys, resolverRegistry, collectionHandler, supportsArrays, repositoryModel);
+            TypeResolver<ID> resolver = resolverRegistry.resolve(idClass);
+            while (generatedKeys.next()) {
+                generatedIds.add(resolver.resolve(result, keyColumn));
+            }
+        }
+
+        if (generatedIds.size() != rows.size()) {
+            throw new SQLException("Expected " + rows.size() + " generated keys for " + repositoryModel.tableName() + ", got " + generatedIds.size());
+        }
+        // RETURNING hands the rows back in no particular order, but the rows of one statement
+        // are numbered in VALUES order, so the n-th smallest key belongs to the n-th row
+        if (sqlType.supportsReturning()) sortKeys(generatedIds);
+
+        for (int i = 0; i < rows.size(); i++) {
+            T entity = rows.get(i);
+            primaryKey.setValue(entity, generatedIds.get(i));
+            inserted.add(entity);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <ID> void sortKeys(List<ID> ids) {
+        if (!(ids.getFirst() instanceof Comparable)) {
+            throw new IllegalStateException("Auto-incremented keys must be comparable, got " + ids.getFirst().getClass().getName());
+        }
+        ((List) ids).sort(null);
+    }
+
+    /**
+     * One prepared multi-row INSERT. {@code columns} is the number of parameters of one row.
+     */
+    private record MultiRowInsert(PreparedStatement statement, SQLDatabaseParameters parameters, int columns) {
+    }
+
+    /**
+     * The multi-row INSERTs one {@code insertAll} prepared, by row count, closed with it.
+     */
+    private final class MultiRowInserts implements AutoCloseable {
+        private final Connection connection;
+        private final Map<Integer, MultiRowInsert> byRows = new HashMap<>(4);
+
+        MultiRowInserts(Connection connection) {
+            this.connection = connection;
+        }
+
+        MultiRowInsert get(int rows) throws SQLException {
+            MultiRowInsert insert = byRows.get(rows);
+            if (insert != null) return insert;
+
+            ParameterizedSql sql = engine.parseInsert(rows);
+            PreparedStatement statement = sqlType.supportsReturning()
+                ? connection.prepareStatement(sql.sql())
+                : prepareStatementWithGeneratedKeys(connection, sql);
+            SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
+
+            insert = new MultiRowInsert(statement, parameters, sql.parameterNames().size() / rows);
+            byRows.put(rows, insert);
+            return insert;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (MultiRowInsert insert : byRows.values()) {
+                insert.statement.close();
+            }
+        }
+    }
+
+    public BatchMetrics getBatchMetrics() {
+        return batchSizer.metrics();
+    }
+
     public TransactionResult<Boolean> executeUpdate(TransactionContext<Connection> transactionContext, ParameterizedSql sql, StatementSetter setter) {
         try (var statement = dataSource.prepareStatement(sql.sql(), transactionContext == null ? dataSource.getConnection() : transactionContext.connection())) {
             if (setter != null) setter.set(statement);
@@ -190,40 +341,328 @@ public final class SqlWriteExecutor<T, ID> {
     }
 
     public TransactionResult<Boolean> executeUpdateQuery(TransactionContext<Connection> transactionContext, ParameterizedSql sql, UpdateQuery query) {
-        return executeUpdate(transactionContext, sql, statement -> {
+        TransactionResult<Boolean> result = executeUpdate(transactionContext, sql, statement -> {
             SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
             parameterBinder.setUpdateParameters(query, parameters, resolverRegistry, repositoryModel, sqlType);
         });
+        // later writes of the same batch must not diff against the documents
+        if (jsonUpdates != null) jsonUpdates.clear();
+        afterCommit(transactionContext, () -> {
+            // The updated rows are not known, so every cached result may be stale
+            if (cache != null) cache.invalidateTable();
+            if (jsonUpdates != null) jsonUpdates.clear();
+            invalidateMaterialized(transactionContext);
+        });
+        return result;
+    }
+
+    /**
+     * Updates the row of {@code entity}, writing only the changed paths of the JSON fields that
+     * support partial updates and have a known previous document.
+     */
+    public TransactionResult<Boolean> executeEntityUpdate(TransactionContext<Connection> transactionContext, T entity, ID id, Function<ID, T> findById) {
+        JsonPartialUpdates<T, ID>.Plan plan = jsonUpdates != null ? jsonUpdates.plan(entity, id) : null;
+        ParameterizedSql sql = plan != null ? engine.parseUpdateFromEntity(plan.patches()) : engine.parseUpdateFromEntity();
+
+        TransactionResult<Boolean> result = executeUpdate(
+            transactionContext, sql,
+            statement -> {
+                SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
+                parameterBinder.setUpdateParameters(parameters, entity, repositoryModel, resolverRegistry, plan);
+            },
+            entity, id, findById
+        );
+
+        if (plan != null) {
+            // the document is only known once it is committed; until then nothing is diffed against it
+            jsonUpdates.forget(id);
+            if (transactionContext == null && result.getResult().orElse(false)) {
+                dataSource.afterCommit(() -> jsonUpdates.updated(id, plan, true), this::invalidateAll);
+            }
+        }
+        return result;
     }
 
     public TransactionResult<Boolean> executeUpdate(TransactionContext<Connection> transactionContext, ParameterizedSql sql, StatementSetter setter, T entity, ID id, java.util.function.Function<ID, T> findById) {
         if (entityLifecycleListener != null) entityLifecycleListener.onPreUpdate(entity);
-        try (var statement = dataSource.prepareStatement(sql.sql(), transactionContext == null ? dataSource.getConnection() : transactionContext.connection())) {
-            if (setter != null) setter.set(statement);
-            if (cache != null) cache.invalidate(id);
-            if (globalCache != null) globalCache.put(id, entity);
+        T oldEntity = auditLogger != null ? findById.apply(id) : null;
 
-            T oldEntity = null;
-            if (auditLogger != null) oldEntity = findById.apply(id);
+        Connection connection = null;
+        try {
+            connection = transactionContext == null ? dataSource.getConnection() : transactionContext.connection();
+            int updated;
+            try (var statement = dataSource.prepareStatement(sql.sql(), connection)) {
+                if (setter != null) setter.set(statement);
+
+                // the row and its side tables commit together
+                if (transactionContext == null) connection.setAutoCommit(false);
+                updated = statement.executeUpdate();
+                if (updated == 0 && usesJsonVersioning()) {
+                    rollbackQuietly(transactionContext, connection);
+                    return TransactionResult.failure(new IllegalStateException(
+                        "Optimistic lock failed for " + repositoryModel.tableName() + " (no rows updated)"
+                    ));
+                }
 
-            int updated = statement.executeUpdate();
-            if (updated == 0 && usesJsonVersioning()) {
-                return TransactionResult.failure(new IllegalStateException(
-                    "Optimistic lock failed for " + repositoryModel.tableName() + " (no rows updated)"
-                ));
+                if (updated > 0) syncCollections(List.of(entity), statement, sql, connection);
+                if (transactionContext == null) connection.commit();
             }
 
             TransactionResult<Boolean> success = TransactionResult.success(updated > 0);
+            if (updated > 0) bumpJsonVersions(entity);
 
-            if (updated > 0) {
-                bumpJsonVersions(entity);
-            }
-            if (auditLogger != null) auditLogger.onUpdate(oldEntity, entity);
-            if (entityLifecycleListener != null) entityLifecycleListener.onPostUpdate(entity);
-            invalidateRelationships(id);
+            afterCommit(transactionContext, () -> {
+                if (cache != null) {
+                    // the new state may also match queries the old one did not
+                    cache.invalidate(id);
+                    cache.invalidateForInserts(List.of(entity));
+                }
+                if (globalCache != null) globalCache.put(id, entity);
+                if (updated > 0) materializeWrites(transactionContext, List.of(entity));
+                if (auditLogger != null) auditLogger.onUpdate(oldEntity, entity);
+                if (entityLifecycleListener != null) entityLifecycleListener.onPostUpdate(entity);
+                invalidateRelationships(id);
+            });
             return success;
         } catch (Exception e) {
+            rollbackQuietly(transactionContext, connection);
+            return this.exceptionHandler.handleUpdate(e, repositoryModel, adapter);
+        } finally {
+            closeOwned(transactionContext, connection);
+        }
+    }
+
+    /**
+     * Updates every entity through one JDBC batch, executed in chunks of the insert batch size,
+     * in one transaction. The previous state the audit log needs is loaded with one lookup, and
+     * the caches, relationships and collection side tables are handled once for the whole batch.
+     */
+    public TransactionResult<Boolean> executeUpdateAll(
+        TransactionContext<Connection> transactionContext,
+        ParameterizedSql sql,
+        Collection<T> entities,
+        Function<Collection<ID>, Map<ID, T>> findAllById
+    ) {
+        List<ID> ids = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            ids.add(objectModel.getId(entity));
+        }
+
+        Map<ID, T> oldEntities = auditLogger != null ? findAllById.apply(ids) : Map.of();
+        if (entityLifecycleListener != null) {
+            for (T entity : entities) entityLifecycleListener.onPreUpdate(entity);
+        }
+
+        Connection connection = null;
+        try {
+            connection = transactionContext == null ? dataSource.getConnection() : transactionContext.connection();
+            if (transactionContext == null) connection.setAutoCommit(false);
+
+            List<T> updated = new ArrayList<>(entities.size());
+            try (PreparedStatement statement = dataSource.prepareStatement(sql.sql(), connection)) {
+                SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
+                int chunkSize = batchSizer.size();
+                List<T> chunk = new ArrayList<>(Math.min(chunkSize, entities.size()));
+
+                for (T entity : entities) {
+                    parameterBinder.setUpdateParameters(parameters, entity, repositoryModel, resolverRegistry);
+                    statement.addBatch();
+                    chunk.add(entity);
+
+                    if (chunk.size() >= chunkSize) {
+                        collectUpdated(statement.executeBatch(), chunk, updated);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) collectUpdated(statement.executeBatch(), chunk, updated);
+
+                if (updated.size() < entities.size() && usesJsonVersioning()) {
+                    if (transactionContext == null) connection.rollback();
+                    return TransactionResult.failure(new IllegalStateException(
+                        "Optimistic lock failed for " + repositoryModel.tableName() + " ("
+                            + (entities.size() - updated.size()) + " of " + entities.size() + " rows not updated)"
+                    ));
+                }
+
+                syncCollections(updated, statement, sql, connection);
+                if (transactionContext == null) connection.commit();
+
+                for (T entity : updated) {
+                    bumpJsonVersions(entity);
+                }
+                // the batch binds every document whole and keeps none of them
+                if (jsonUpdates != null) jsonUpdates.forget(ids);
+            }
+
+            afterCommit(transactionContext, () -> {
+                if (cache != null) {
+                    for (ID id : ids) cache.invalidate(id);
+                    // the new states may also match queries the old ones did not
+                    cache.invalidateForInserts(entities);
+                }
+                // after the hooks of earlier writes of the same batch remembered theirs
+                if (jsonUpdates != null) jsonUpdates.forget(ids);
+                materializeWrites(transactionContext, updated);
+                for (T entity : entities) {
+                    ID id = objectModel.getId(entity);
+                    if (globalCache != null) globalCache.put(id, entity);
+                    if (auditLogger != null) auditLogger.onUpdate(oldEntities.get(id), entity);
+                    if (entityLifecycleListener != null) entityLifecycleListener.onPostUpdate(entity);
+                }
+                invalidateRelationships(ids);
+            });
+            return TransactionResult.success(!updated.isEmpty());
+        } catch (Exception e) {
+            rollbackQuietly(transactionContext, connection);
             return this.exceptionHandler.handleUpdate(e, repositoryModel, adapter);
+        } finally {
+            closeOwned(transactionContext, connection);
+        }
+    }
+
+    /**
+     * Adds the entities of {@code chunk} whose rows were updated to {@code updated}. Drivers that
+     * do not report per-row counts are trusted to have updated every row.
+     */
+    private void collectUpdated(int[] counts, List<T> chunk, List<T> updated) {
+        for (int i = 0; i < chunk.size(); i++) {
+            int count = i < counts.length ? counts[i] : Statement.SUCCESS_NO_INFO;
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) updated.add(chunk.get(i));
+        }
+    }
+
+    /**
+     * Deletes the rows of every id through {@code IN} lists of at most {@value #IDS_PER_DELETE}
+     * ids, in one transaction, and invalidates the caches and relationships once for the whole
+     * batch.
+     *
+     * @param entities the deleted entities by id for the listeners and the audit log, or
+     *                 {@code null} to load them with one lookup when either needs them
+     */
+    public TransactionResult<Boolean> executeDeleteAll(
+        TransactionContext<Connection> transactionContext,
+        Collection<ID> ids,
+        @Nullable Map<ID, T> entities,
+        Function<Collection<ID>, Map<ID, T>> findAllById
+    ) {
+        List<ID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (entities == null) {
+            entities = auditLogger != null || entityLifecycleListener != null ? findAllById.apply(distinct) : Map.of();
+        }
+        if (entityLifecycleListener != null) {
+            for (T entity : entities.values()) entityLifecycleListener.onPreDelete(entity);
+        }
+
+        Connection connection = null;
+        try {
+            connection = transactionContext == null ? dataSource.getConnection() : transactionContext.connection();
+            if (transactionContext == null) connection.setAutoCommit(false);
+
+            TypeResolver<ID> resolver = resolverRegistry.resolve(idClass);
+            String primaryKeyName = repositoryModel.getPrimaryKey().name();
+            int deleted = 0;
+
+            for (int from = 0; from < distinct.size(); from += IDS_PER_DELETE) {
+                List<ID> chunk = distinct.subList(from, Math.min(distinct.size(), from + IDS_PER_DELETE));
+                ParameterizedSql sql = engine.parseDeleteByIds(chunk.size());
+
+                try (PreparedStatement statement = dataSource.prepareStatement(sql.sql(), connection)) {
+                    SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionHandler, supportsArrays);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        parameters.setRowOffset(i);
+                        resolver.insert(parameters, primaryKeyName, chunk.get(i));
+                    }
+                    deleted += statement.executeUpdate();
+                }
+            }
+
+            if (transactionContext == null) connection.commit();
+
+            if (jsonUpdates != null) jsonUpdates.forget(distinct);
+            Collection<T> deletedEntities = entities.values();
+            afterCommit(transactionContext, () -> {
+                for (ID id : distinct) {
+                    if (cache != null) cache.invalidate(id);
+                    if (globalCache != null) globalCache.remove(id);
+                }
+                if (jsonUpdates != null) jsonUpdates.forget(distinct);
+                materializeDeletes(transactionContext, distinct);
+                for (T entity : deletedEntities) {
+                    if (auditLogger != null) auditLogger.onDelete(entity);
+                    if (entityLifecycleListener != null) entityLifecycleListener.onPostDelete(entity);
+                }
+                invalidateRelationships(distinct);
+            });
+            return TransactionResult.success(deleted > 0);
+        } catch (Exception e) {
+            rollbackQuietly(transactionContext, connection);
+            return this.exceptionHandler.handleDelete(e, repositoryModel, adapter);
+        } finally {
+            closeOwned(transactionContext, connection);
+        }
+    }
+
+    /**
+     * Runs the effects of a write readers can observe: cache updates, materialized aggregates,
+     * JSON snapshots, listeners and the audit log. In a caller's transaction they run right away,
+     * as the transaction handles its own rollback; otherwise they run once the connection
+     * provider has committed the write, see {@link io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider#afterCommit}.
+     */
+    private void afterCommit(TransactionContext<Connection> transactionContext, Runnable effects) {
+        if (transactionContext != null) effects.run();
+        else dataSource.afterCommit(effects, this::invalidateAll);
+    }
+
+    /**
+     * Drops everything that may hold the state of a write that was rolled back; the aggregates
+     * are rebuilt from the store on their next read.
+     */
+    private void invalidateAll() {
+        if (cache != null) cache.invalidateTable();
+        if (globalCache != null) globalCache.clear();
+        if (jsonUpdates != null) jsonUpdates.clear();
+        materialized.invalidate();
+        relationshipHandler.clear();
+    }
+
+    /**
+     * Applies written entities to the materialized aggregates. Inside a transaction they may still
+     * be rolled back, so the aggregates are rebuilt once it completes instead.
+     */
+    private void materializeWrites(TransactionContext<Connection> transactionContext, Collection<T> written) {
+        if (materialized.isEmpty()) return;
+        if (transactionContext == null) materialized.onWrite(written);
+        else invalidateMaterialized(transactionContext);
+    }
+
+    private void materializeDeletes(TransactionContext<Connection> transactionContext, Collection<ID> deleted) {
+        if (materialized.isEmpty()) return;
+        if (transactionContext == null) materialized.onDelete(deleted);
+        else invalidateMaterialized(transactionContext);
+    }
+
+    private void invalidateMaterialized(TransactionContext<Connection> transactionContext) {
+        if (materialized.isEmpty()) return;
+        materialized.invalidate();
+        // a read before the transaction ends would rebuild without its writes
+        if (transactionContext instanceof SimpleTransactionContext context) context.onCompletion(rebuildMaterialized);
+    }
+
+    private static void rollbackQuietly(TransactionContext<Connection> transactionContext, Connection connection) {
+        if (transactionContext != null || connection == null) return;
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            Logging.error("Failed to roll back batch: " + e.getMessage());
+        }
+    }
+
+    private static void closeOwned(TransactionContext<Connection> transactionContext, Connection connection) {
+        if (transactionContext != null || connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            Logging.error("Failed to close connection: " + e.getMessage());
         }
     }
 
@@ -239,18 +678,24 @@ public final class SqlWriteExecutor<T, ID> {
     public TransactionResult<Boolean> executeDeleteQuery(TransactionContext<Connection> transactionContext, ParameterizedSql sql, DeleteQuery query) {
         return executeDelete(transactionContext, sql, (parameters, statement) -> {
             parameterBinder.setUpdateParameters(query, parameters, resolverRegistry, repositoryModel, sqlType);
-            // For query-based deletes, we don't know which specific entities are affected
-            // so we must clear the entire cache to maintain consistency
-            if (cache != null) cache.clear();
-            relationshipHandler.clear();
-            return TransactionResult.success(statement.execute());
+            boolean executed = statement.execute();
+            if (jsonUpdates != null) jsonUpdates.clear();
+            afterCommit(transactionContext, () -> {
+                // For query-based deletes, we don't know which specific entities are affected
+                // so every cached result becomes stale
+                if (cache != null) cache.invalidateTable();
+                if (jsonUpdates != null) jsonUpdates.clear();
+                invalidateMaterialized(transactionContext);
+                relationshipHandler.clear();
+            });
+            return TransactionResult.success(executed);
         });
     }
 
     public TransactionResult<Boolean> executeDeleteEntity(TransactionContext<Connection> transactionContext, ParameterizedSql sql, @NotNull T entity) {
         if (entityLifecycleListener != null) entityLifecycleListener.onPreDelete(entity);
         return executeDelete(transactionContext, sql, (parameters, statement) ->
-            processDelete(objectModel.getId(entity), parameters, statement, entity)
+            processDelete(transactionContext, objectModel.getId(entity), parameters, statement, entity)
         );
     }
 
@@ -260,23 +705,27 @@ public final class SqlWriteExecutor<T, ID> {
         if (entityLifecycleListener != null) entityLifecycleListener.onPreDelete(byId);
         T entity = byId;
         return executeDelete(transactionContext, sql, (parameters, statement) ->
-            processDelete(id, parameters, statement, entity)
+            processDelete(transactionContext, id, parameters, statement, entity)
         );
     }
 
-    private @NotNull TransactionResult<Boolean> processDelete(ID id, SQLDatabaseParameters parameters, PreparedStatement statement, T entity) throws SQLException {
+    private @NotNull TransactionResult<Boolean> processDelete(TransactionContext<Connection> transactionContext, ID id, SQLDatabaseParameters parameters, PreparedStatement statement, T entity) throws SQLException {
         var resolver = resolverRegistry.resolve(idClass);
         resolver.insert(parameters, repositoryModel.getPrimaryKey().name(), id);
 
-        if (cache != null) cache.invalidate(id);
-        if (globalCache != null) globalCache.remove(id);
+        if (jsonUpdates != null) jsonUpdates.forget(id);
 
         int updated = statement.executeUpdate();
-        TransactionResult<Boolean> success = TransactionResult.success(updated > 0);
-        if (auditLogger != null) auditLogger.onDelete(entity);
-        if (entityLifecycleListener != null) entityLifecycleListener.onPostDelete(entity);
-        invalidateRelationships(id);
-        return success;
+        afterCommit(transactionContext, () -> {
+            if (cache != null) cache.invalidate(id);
+            if (globalCache != null) globalCache.remove(id);
+            if (jsonUpdates != null) jsonUpdates.forget(id);
+            if (updated > 0) materializeDeletes(transactionContext, List.of(id));
+            if (auditLogger != null) auditLogger.onDelete(entity);
+            if (entityLifecycleListener != null) entityLifecycleListener.onPostDelete(entity);
+            invalidateRelationships(id);
+        });
+        return TransactionResult.success(updated > 0);
     }
 
     public TransactionResult<Boolean> executeInsertAndSetId(TransactionContext<Connection> transactionContext, ParameterizedSql sql, T value) {
@@ -292,46 +741,51 @@ public final class SqlWriteExecutor<T, ID> {
 
             if (statement.executeUpdate() > 0) {
                 if (repositoryModel.getPrimaryKey() == null) {
+                    afterCommit(transactionContext, () -> {
+                        if (cache != null) cache.invalidateForInserts(List.of(value));
+                    });
                     return TransactionResult.success(true);
                 }
 
-                if (repositoryModel.hasRelationships()) {
-                    ID entityId = repositoryModel.getPrimaryKeyValue(value);
-                    relationshipHandler.invalidateRelationshipsForId(entityId);
-
-                    for (FieldModel<T> parentField : repositoryModel.getManyToOneCache().values()) {
-                        invalidateExistingCaches(value, parentField);
-                    }
+                if (repositoryModel.getPrimaryKey().autoIncrement()) {
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        SQLDatabaseResult result = new SQLDatabaseResult(generatedKeys, resolverRegistry, collectionHandler, supportsArrays, repositoryModel);
+                        if (generatedKeys.next()) {
+                            TypeResolver<ID> resolver = resolverRegistry.resolve(idClass);
+                            ID generatedId = resolver.resolve(result, repositoryModel.getPrimaryKey().name());
 
-                    for (FieldModel<T> parentField : repositoryModel.getOneToOneCache().values()) {
-                        invalidateExistingCaches(value, parentField);
+                            repositoryModel.getPrimaryKey().setValue(value, generatedId);
+                            this.objectModel.insertCollectionEntities(value, generatedId, parameters);
+                        }
                     }
-                }
-
-                if (!repositoryModel.getPrimaryKey().autoIncrement()) {
+                } else {
                     this.objectModel.insertCollectionEntities(value, repositoryModel.getPrimaryKeyValue(value), parameters);
-                    if (globalCache != null) globalCache.put(repositoryModel.getPrimaryKeyValue(value), value);
-                    return TransactionResult.success(true);
                 }
 
-                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                    SQLDatabaseResult result = new SQLDatabaseResult(generatedKeys, resolverRegistry, collectionHandler, supportsArrays, repositoryModel);
-                    if (generatedKeys.next()) {
-                        TypeResolver<ID> resolver = resolverRegistry.resolve(idClass);
-                        ID generatedId = resolver.resolve(result, repositoryModel.getPrimaryKey().name());
-
-                        repositoryModel.getPrimaryKey().setValue(value, generatedId);
+                boolean autoIncrement = repositoryModel.getPrimaryKey().autoIncrement();
+                afterCommit(transactionContext, () -> {
+                    if (cache != null) cache.invalidateForInserts(List.of(value));
+                    ID entityId = repositoryModel.getPrimaryKeyValue(value);
+                    if (repositoryModel.hasRelationships()) {
+                        relationshipHandler.invalidateRelationshipsForId(entityId);
 
-                        if (globalCache != null) globalCache.put(generatedId, value);
+                        for (FieldModel<T> parentField : repositoryModel.getManyToOneCache().values()) {
+                            invalidateExistingCaches(value, parentField);
+                        }
 
-                        this.objectModel.insertCollectionEntities(value, generatedId, parameters);
+                        for (FieldModel<T> parentField : repositoryModel.getOneToOneCache().values()) {
+                            invalidateExistingCaches(value, parentField);
+                        }
                     }
 
-                    if (auditLogger != null) auditLogger.onInsert(value);
-                    if (entityLifecycleListener != null) entityLifecycleListener.onPostInsert(value);
-
-                    return TransactionResult.success(true);
-                }
+                    if (globalCache != null && entityId != null) globalCache.put(entityId, value);
+                    if (autoIncrement) {
+                        if (auditLogger != null) auditLogger.onInsert(value);
+                        if (entityLifecycleListener != null) entityLifecycleListener.onPostInsert(value);
+                    }
+                    materializeWrites(transactionContext, List.of(value));
+                });
+                return TransactionResult.success(true);
             }
             return TransactionResult.success(false);
         } catch (Exception exception) {
@@ -339,6 +793,22 @@ public final class SqlWriteExecutor<T, ID> {
         }
     }
 
+    /**
+     * Makes the collection, array and map side tables of the updated {@code entities} match
+     * them, writing only the rows that changed, through one batch per side table on the
+     * connection, and so in the transaction, that updated the entities.
+     */
+    private void syncCollections(Collection<T> entities, PreparedStatement statement, ParameterizedSql sql, Connection connection) throws Exception {
+        if (!(collectionHandler instanceof SQLCollectionHandler handler) || repositoryModel.getPrimaryKey() == null) return;
+
+        SQLCollectionHandler.WriteBatch collectionWrites = handler.syncBatch();
+        SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, resolverRegistry, sql, repositoryModel, collectionWrites, supportsArrays);
+        for (T entity : entities) {
+            objectModel.insertCollectionEntities(entity, objectModel.getId(entity), parameters);
+        }
+        collectionWrites.flush(connection);
+    }
+
     private PreparedStatement prepareStatementWithGeneratedKeys(Connection connection, ParameterizedSql sql) throws SQLException {
         if (isAutoIncrement) {
             return connection.prepareStatement(sql.sql(), primaryKeyColumnNames);
@@ -417,6 +887,19 @@ public final class SqlWriteExecutor<T, ID> {
         }
     }
 
+    private void invalidateRelationships(Collection<ID> ids) {
+        if (!repositoryModel.hasRelationships() || ids.isEmpty()) return;
+
+        try {
+            for (ID id : ids) {
+                relationshipHandler.invalidateRelationshipsForId(id);
+            }
+            Logging.deepInfo(() -> "Invalidated relationship cache for " + ids.size() + " IDs");
+        } catch (Exception e) {
+            Logging.error("Failed to invalidate relationship cache for " + ids.size() + " IDs: " + e.getMessage());
+        }
+    }
+
     private void invalidateRelationships(ID id) {
         if (!repositoryModel.hasRelationships()) return;
         if (id == null) return;
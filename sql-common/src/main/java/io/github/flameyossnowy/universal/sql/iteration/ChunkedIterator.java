@@ -0,0 +1,77 @@
+package io.github.flameyossnowy.universal.sql.iteration;
+
+import io.github.flameyossnowy.universal.api.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Pulls rows from a {@link ResultSetIterator} in chunks and hands each chunk to a completion step
+ * before emitting it, so work that would otherwise run per row (such as loading relationships) can
+ * run once per chunk. At most one chunk is held in memory.
+ *
+ * @param <R> the row type produced by the underlying iterator
+ * @param <T> the type of elements returned by this iterator
+ */
+public final class ChunkedIterator<R, T> implements CloseableIterator<T> {
+    private final ResultSetIterator<R> rows;
+    private final int chunkSize;
+    private final Function<List<R>, List<T>> completeChunk;
+    private final List<R> chunk;
+    private Iterator<T> current = Collections.emptyIterator();
+
+    /**
+     * @param rows          the row iterator; closing this iterator closes it
+     * @param chunkSize     the number of rows per chunk
+     * @param completeChunk turns a chunk of rows into elements; the list it receives is reused
+     */
+    public ChunkedIterator(ResultSetIterator<R> rows, int chunkSize, Function<List<R>, List<T>> completeChunk) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+        this.rows = rows;
+        this.chunkSize = chunkSize;
+        this.completeChunk = completeChunk;
+        this.chunk = new ArrayList<>(chunkSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (!rows.hasNext()) {
+                current = Collections.emptyIterator();
+                return false;
+            }
+
+            chunk.clear();
+            try {
+                while (chunk.size() < chunkSize && rows.hasNext()) {
+                    chunk.add(rows.next());
+                }
+                current = completeChunk.apply(chunk).iterator();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            } finally {
+                chunk.clear();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more elements in ResultSet");
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        current = Collections.emptyIterator();
+        rows.close();
+    }
+}
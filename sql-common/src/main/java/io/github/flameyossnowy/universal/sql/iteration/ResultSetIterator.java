@@ -8,6 +8,7 @@ import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
 import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.ref.Cleaner;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.NoSuchElementException;
@@ -19,11 +20,18 @@ import java.util.stream.StreamSupport;
 
 /**
  * Iterator that buffers and iterates over a ResultSet with configurable fetch size.
+ * <p>
+ * If the iterator (or the stream built on it) is dropped without being closed or exhausted, the
+ * ResultSet is closed once the iterator has been garbage collected, so an abandoned server-side
+ * cursor does not keep its connection checked out forever.
  * 
  * @param <T> the type of elements returned by this iterator
  */
 public class ResultSetIterator<T> implements CloseableIterator<T> {
+    private static final Cleaner CLEANER = Cleaner.create();
+
     private final ResultSet resultSet;
+    private final Cleaner.Cleanable cleanable;
     private final BiFunction<ResultSet, SQLDatabaseResult, T> mapper;
     private final SQLDatabaseResult sqlDatabaseParameters;
     private final TypeResolverRegistry resolverRegistry;
@@ -37,7 +45,7 @@ public class ResultSetIterator<T> implements CloseableIterator<T> {
      */
     public ResultSetIterator(
         ResultSet resultSet, BiFunction<ResultSet, SQLDatabaseResult, T> mapper, TypeResolverRegistry resolverRegistry,
-        CollectionHandler collectionHandler, boolean supportArrays, RepositoryModel<T, ?> information
+        CollectionHandler collectionHandler, boolean supportArrays, RepositoryModel<?, ?> information
     ) {
         this(resultSet, mapper, null, resolverRegistry, collectionHandler, supportArrays, information);
     }
@@ -49,7 +57,7 @@ public class ResultSetIterator<T> implements CloseableIterator<T> {
      */
     public ResultSetIterator(
         ResultSet resultSet, BiFunction<ResultSet, SQLDatabaseResult, T> mapper, Integer fetchSize, TypeResolverRegistry resolverRegistry,
-        CollectionHandler collectionHandler, boolean supportsArrays, RepositoryModel<T, ?> information
+        CollectionHandler collectionHandler, boolean supportsArrays, RepositoryModel<?, ?> information
     ) {
         this.resultSet = resultSet;
         this.mapper = mapper;
@@ -57,6 +65,7 @@ public class ResultSetIterator<T> implements CloseableIterator<T> {
         this.collectionHandler = collectionHandler;
         this.supportArrays = supportsArrays;
         this.sqlDatabaseParameters = new SQLDatabaseResult(resultSet, resolverRegistry, collectionHandler, supportsArrays, information);
+        this.cleanable = CLEANER.register(this, new CloseResultSet(resultSet));
 
         if (fetchSize != null) {
             try {
@@ -107,6 +116,16 @@ public class ResultSetIterator<T> implements CloseableIterator<T> {
     public void close() {
         if (!closed) {
             closed = true;
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Must not reference the iterator, otherwise the iterator never becomes unreachable.
+     */
+    private record CloseResultSet(ResultSet resultSet) implements Runnable {
+        @Override
+        public void run() {
             try {
                 resultSet.close();
             } catch (SQLException e) {
@@ -121,7 +140,7 @@ public class ResultSetIterator<T> implements CloseableIterator<T> {
      */
     public static <T> @NotNull Stream<T> stream(
         ResultSet resultSet, BiFunction<ResultSet, SQLDatabaseResult, T> mapper, TypeResolverRegistry resolverRegistry,
-        CollectionHandler collectionHandler, boolean supportArrays, RepositoryModel<T, ?> information
+        CollectionHandler collectionHandler, boolean supportArrays, RepositoryModel<?, ?> information
     ) {
         return stream(resultSet, mapper, null, resolverRegistry, collectionHandler, supportArrays, information);
     }
@@ -134,7 +153,7 @@ public class ResultSetIterator<T> implements CloseableIterator<T> {
      */
     public static <T> @NotNull Stream<T> stream(
         ResultSet resultSet, BiFunction<ResultSet, SQLDatabaseResult, T> mapper, Integer fetchSize,
-        TypeResolverRegistry resolverRegistry, CollectionHandler collectionHandler, boolean supportArrays, RepositoryModel<T, ?> information
+        TypeResolverRegistry resolverRegistry, CollectionHandler collectionHandler, boolean supportArrays, RepositoryModel<?, ?> information
     ) {
         ResultSetIterator<T> iterator = new ResultSetIterator<>(resultSet, mapper, fetchSize, resolverRegistry, collectionHandler, supportArrays, information);
         
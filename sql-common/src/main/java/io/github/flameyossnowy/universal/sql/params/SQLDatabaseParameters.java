@@ -11,6 +11,7 @@ import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
 import io.github.flameyossnowy.universal.api.utils.Primitives;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.internals.query.AggregationQueryParser;
+import io.github.flameyossnowy.universal.sql.internals.query.ParameterLayout;
 import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -21,13 +22,21 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Maps named parameters to JDBC positional indices using the ordered
- * {@link ParameterizedSql#parameterNames()} list produced by the SQL builders.
+ * Maps named parameters to JDBC positional indices using the {@link ParameterLayout}
+ * of the SQL produced by the builders.
+ * <p>
+ * Binding by name stays the compatible way in; {@link #set(int, Object, Class)} and
+ * {@link #setRaw(int, Object, Class)} bind by position and skip the name lookup, and the
+ * generated entity binders bind at the {@link #positionsOf(String[]) positions} the layout
+ * resolved once. Either way the layout remembers the resolver and field of every position,
+ * so repeated executions of cached SQL bind without allocating.
+ * <p>
+ * A type resolver binds a value by calling back with the name it was given; while it does,
+ * that name stays bound to the position being set, so the call back looks nothing up.
  */
 @SuppressWarnings("unchecked")
 public class SQLDatabaseParameters implements DatabaseParameters {
@@ -39,18 +48,34 @@ public class SQLDatabaseParameters implements DatabaseParameters {
     private final boolean supportsArrays;
 
     /**
-     * name -> 1-based JDBC parameter index.
-     * Built once from the {@link ParameterizedSql} handed in by the caller.
+     * name -> 1-based JDBC parameter index, shared by every execution of the same SQL.
      */
-    private final Map<String, Integer> nameToIndexMap;
+    private final ParameterLayout layout;
 
     /**
-     * Tracks the next free index for parameters that are registered lazily via
-     * {@link #setNull(String, Class)} (e.g. collection / relationship binders
-     * that append parameters after the main SQL was constructed).
+     * Parameters registered lazily via {@link #setNull(String, Class)} (e.g. collection /
+     * relationship binders that append parameters after the main SQL was constructed),
+     * {@code null} until the first one.
+     */
+    private @Nullable Map<String, Integer> dynamicIndexes;
+
+    /**
+     * Tracks the next free index for parameters that are registered lazily.
      */
     private int nextDynamicIndex;
 
+    /**
+     * Added to every index resolved by name, so each row of a multi-row insert is bound with
+     * the names of its first row.
+     */
+    private int rowOffset;
+
+    /**
+     * The position a type resolver called from {@link #bind} is binding, and the name it was given.
+     */
+    private int resolvingIndex;
+    private @Nullable String resolvingName;
+
     public SQLDatabaseParameters(
         PreparedStatement statement,
         TypeResolverRegistry typeRegistry,
@@ -68,14 +93,8 @@ public class SQLDatabaseParameters implements DatabaseParameters {
         this.supportsArrays = supportsArrays;
         this.repositoryInformation = information;
 
-        List<String> names = parameterizedSql.parameterNames();
-        this.nameToIndexMap = new LinkedHashMap<>(Math.max(names.size() * 2, 8));
-
-        for (int i = 0; i < names.size(); i++) {
-            nameToIndexMap.putIfAbsent(names.get(i), i + 1);
-        }
-
-        this.nextDynamicIndex = names.size() + 1;
+        this.layout = parameterizedSql.layout();
+        this.nextDynamicIndex = layout.size() + 1;
     }
 
     public SQLDatabaseParameters(
@@ -95,14 +114,8 @@ public class SQLDatabaseParameters implements DatabaseParameters {
         this.supportsArrays = supportsArrays;
         this.repositoryInformation = information;
 
-        List<String> names = parameterizedSql.paramNames();
-        this.nameToIndexMap = new LinkedHashMap<>(Math.max(names.size() * 2, 8));
-
-        for (int i = 0; i < names.size(); i++) {
-            nameToIndexMap.putIfAbsent(names.get(i), i + 1);
-        }
-
-        this.nextDynamicIndex = names.size() + 1;
+        this.layout = ParameterLayout.of(parameterizedSql.paramNames());
+        this.nextDynamicIndex = layout.size() + 1;
     }
 
     public SQLDatabaseParameters(
@@ -116,17 +129,29 @@ public class SQLDatabaseParameters implements DatabaseParameters {
         this(statement, typeRegistry, ParameterizedSql.of(sql), information, collectionHandler, supportsArrays);
     }
 
+    private int indexOf(String key) {
+        // The same string a resolver was handed, not merely an equal one
+        if (key == resolvingName) return resolvingIndex;
+
+        int index = layout.indexOf(key);
+        if (index > 0) return index;
+        if (dynamicIndexes == null) return -1;
+
+        Integer mapped = dynamicIndexes.get(key);
+        return mapped == null ? -1 : mapped;
+    }
+
     private int getIndexForName(String key) {
-        Integer mapped = nameToIndexMap.get(key);
-        if (mapped != null) return mapped;
+        int mapped = indexOf(key);
+        if (mapped > 0) return mapped;
 
         if (repositoryInformation != null) {
             // Fast O(1) lookup using pre-built parameter name mappings (compile-time generated)
             Map<String, String> paramMappings = repositoryInformation.getParameterNameMappings();
             String columnName = paramMappings.get(key);
             if (columnName != null) {
-                mapped = nameToIndexMap.get(columnName);
-                if (mapped != null) return mapped;
+                mapped = indexOf(columnName);
+                if (mapped > 0) return mapped;
             }
 
             // Handle JSON path expressions (e.g., "payload #>> '{n}'" or "JSON_UNQUOTE(JSON_EXTRACT(payload, '$.n'))")
@@ -136,12 +161,12 @@ public class SQLDatabaseParameters implements DatabaseParameters {
                 // Use the pre-built map to get the actual column name (O(1) instead of O(n) scan)
                 String actualColumn = paramMappings.get(jsonColumnName);
                 if (actualColumn != null) {
-                    mapped = nameToIndexMap.get(actualColumn);
-                    if (mapped != null) return mapped;
+                    mapped = indexOf(actualColumn);
+                    if (mapped > 0) return mapped;
                 }
                 // Fallback: try the extracted name directly
-                mapped = nameToIndexMap.get(jsonColumnName);
-                if (mapped != null) return mapped;
+                mapped = indexOf(jsonColumnName);
+                if (mapped > 0) return mapped;
             }
         }
 
@@ -150,11 +175,12 @@ public class SQLDatabaseParameters implements DatabaseParameters {
 
     /**
      * Extracts the column name from a JSON path expression.
-     * Handles PostgreSQL #>> and MySQL JSON_EXTRACT patterns.
+     * Handles PostgreSQL #>>, MySQL JSON_EXTRACT and SQLite json_extract patterns.
      *
      * Examples:
      * - "payload #>> '{n}'" -> "payload"
      * - "JSON_UNQUOTE(JSON_EXTRACT(payload, '$.n'))" -> "payload"
+     * - "json_extract(payload, '$.n')" -> "payload"
      *
      * @param key the full JSON expression used as parameter key
      * @return the extracted column name, or null if not a JSON expression
@@ -177,6 +203,15 @@ public class SQLDatabaseParameters implements DatabaseParameters {
             }
         }
 
+        // SQLite: "json_extract(column, '$.path')"
+        if (key.startsWith("json_extract(")) {
+            int start = "json_extract(".length();
+            int comma = key.indexOf(',', start);
+            if (comma > start) {
+                return key.substring(start, comma).trim();
+            }
+        }
+
         return null;
     }
 
@@ -191,25 +226,76 @@ public class SQLDatabaseParameters implements DatabaseParameters {
 
     @Override
     public <T> void set(@NotNull String name, @Nullable T value, @NotNull Class<?> type) {
-        int idx = getIndexForName(name);
+        bind(getIndexForName(name), name, value, type);
+    }
 
+    /**
+     * Binds {@code value} at a position of the {@link ParameterLayout}, through the type
+     * resolver registered for {@code type} like {@link #set(String, Object, Class)}.
+     *
+     * @param index the 1-based placeholder index within the row
+     */
+    public <T> void set(int index, @Nullable T value, @NotNull Class<?> type) {
+        bind(index, layout.nameAt(index), value, type);
+    }
+
+    @Override
+    public int @NotNull [] positionsOf(@NotNull String @NotNull [] names) {
+        return layout.positionsOf(names);
+    }
+
+    @Override
+    public <T> void set(int position, @NotNull String name, @Nullable T value, @NotNull Class<?> type) {
+        if (position > 0) bind(position, name, value, type);
+        else set(name, value, type);
+    }
+
+    private <T> void bind(int index, @NotNull String name, @Nullable T value, @NotNull Class<?> type) {
         if (value == null) {
-            setNull(idx, type);
+            setNull(index + rowOffset, type);
             return;
         }
 
-        TypeResolver<Object> resolver = (TypeResolver<Object>) typeRegistry.resolve(Primitives.asWrapper(type));
+        Class<?> wrapper = Primitives.asWrapper(type);
+        // A resolver calling back with the value it converted keeps the slot for the type it was called for
+        boolean callback = index == resolvingIndex && name == resolvingName;
+        TypeResolver<Object> resolver = index <= layout.size() && !callback
+            ? layout.resolver(index, typeRegistry, wrapper)
+            : (TypeResolver<Object>) typeRegistry.resolve(wrapper);
         if (resolver != null) {
-            resolver.insert(this, name, value);
+            int outerIndex = resolvingIndex;
+            String outerName = resolvingName;
+            resolvingIndex = index;
+            resolvingName = name;
+            try {
+                resolver.insert(this, name, value);
+            } finally {
+                resolvingIndex = outerIndex;
+                resolvingName = outerName;
+            }
             return;
         }
 
-        setRaw(name, value, type);
+        bindRaw(index, name, value, type);
     }
 
     @Override
     public <T> void setRaw(@NotNull String name, @Nullable T value, @NotNull Class<?> type) {
-        int idx = getIndexForName(name);
+        bindRaw(getIndexForName(name), name, value, type);
+    }
+
+    /**
+     * Binds {@code value} at a position of the {@link ParameterLayout} as is, like
+     * {@link #setRaw(String, Object, Class)}.
+     *
+     * @param index the 1-based placeholder index within the row
+     */
+    public <T> void setRaw(int index, @Nullable T value, @NotNull Class<?> type) {
+        bindRaw(index, layout.nameAt(index), value, type);
+    }
+
+    private <T> void bindRaw(int index, @NotNull String name, @Nullable T value, @NotNull Class<?> type) {
+        int idx = index + rowOffset;
 
         if (value == null) {
             setNull(idx, type);
@@ -217,8 +303,7 @@ public class SQLDatabaseParameters implements DatabaseParameters {
         }
 
         try {
-            FieldModel<?> field = findFieldByNameOrColumnName(name);
-
+            FieldModel<?> field = fieldAt(index, name);
             if (field != null && field.isJson()) {
                 Object toBind = value;
                 if (field.type().isInstance(value)) {
@@ -257,10 +342,22 @@ public class SQLDatabaseParameters implements DatabaseParameters {
 
     @Override
     public void setNull(@NotNull String name, @NotNull Class<?> type) {
-        // Register the name dynamically if it isn't in the map yet (e.g. a
+        // Register the name dynamically if it isn't in the layout (e.g. a
         // collection/relationship binder adding extra params after construction).
-        int index = nameToIndexMap.computeIfAbsent(name, n -> nextDynamicIndex++);
-        setNull(index, type);
+        int index = indexOf(name);
+        if (index < 0) {
+            if (dynamicIndexes == null) dynamicIndexes = new HashMap<>(4);
+            index = nextDynamicIndex++;
+            dynamicIndexes.put(name, index);
+        }
+        setNull(index + rowOffset, type);
+    }
+
+    /**
+     * Binds the following values to the row that starts {@code offset} parameters in.
+     */
+    public void setRowOffset(int offset) {
+        this.rowOffset = offset;
     }
 
     private void setNull(int index, @NotNull Class<?> type) {
@@ -272,6 +369,17 @@ public class SQLDatabaseParameters implements DatabaseParameters {
         catch (SQLException e) { throw new RuntimeException(e); }
     }
 
+    /**
+     * The field bound at {@code index}, remembered by the layout when bound by the layout's own name.
+     */
+    private @Nullable FieldModel<?> fieldAt(int index, @NotNull String name) {
+        if (repositoryInformation == null) return null;
+        if (index <= layout.size() && name.equals(layout.nameAt(index))) {
+            return layout.field(index, repositoryInformation);
+        }
+        return findFieldByNameOrColumnName(name);
+    }
+
     private @Nullable FieldModel<?> findFieldByNameOrColumnName(@NotNull String name) {
         if (repositoryInformation == null) return null;
         FieldModel<?> byName = repositoryInformation.fieldByName(name);
@@ -284,13 +392,13 @@ public class SQLDatabaseParameters implements DatabaseParameters {
 
     @Override
     public boolean contains(@NotNull String name) {
-        if (nameToIndexMap.containsKey(name)) return true;
+        if (indexOf(name) > 0) return true;
 
         if (repositoryInformation != null) {
             // Fast O(1) lookup using pre-built parameter name mappings
             Map<String, String> paramMappings = repositoryInformation.getParameterNameMappings();
             String columnName = paramMappings.get(name);
-            if (columnName != null && nameToIndexMap.containsKey(columnName)) {
+            if (columnName != null && indexOf(columnName) > 0) {
                 return true;
             }
 
@@ -298,14 +406,16 @@ public class SQLDatabaseParameters implements DatabaseParameters {
             String jsonColumnName = extractJsonColumnName(name);
             if (jsonColumnName != null) {
                 String actualColumn = paramMappings.get(jsonColumnName);
-                if (actualColumn != null && nameToIndexMap.containsKey(actualColumn)) {
+                if (actualColumn != null && indexOf(actualColumn) > 0) {
                     return true;
                 }
-                return nameToIndexMap.containsKey(jsonColumnName);
+                return indexOf(jsonColumnName) > 0;
             }
         }
         return false;
     }
 
     public PreparedStatement getStatement() { return statement; }
+
+    public ParameterLayout getLayout() { return layout; }
 }
\ No newline at end of file
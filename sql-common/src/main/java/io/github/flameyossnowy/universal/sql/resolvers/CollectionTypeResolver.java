@@ -30,6 +30,7 @@ public class CollectionTypeResolver<T, ID> {
     private final CollectionHandler collectionHandler;
     private final boolean supportsArrays;
 
+    private final String table;
     private final ParameterizedSql selectSql;
     private final ParameterizedSql insertSql;
     private final ParameterizedSql deleteOneSql;
@@ -53,7 +54,7 @@ public class CollectionTypeResolver<T, ID> {
         this.idResolver = resolverRegistry.resolve(idType);
         if (idResolver == null) throw new IllegalStateException("No resolver for primary key " + idType.getSimpleName());
 
-        String table = information.tableName() + '_' + elementType.getSimpleName().toLowerCase() + 's';
+        this.table = information.tableName() + '_' + elementType.getSimpleName().toLowerCase() + 's';
 
         // Ensure join table exists
         try (Connection conn = connectionProvider.getConnection();
@@ -151,4 +152,83 @@ public class CollectionTypeResolver<T, ID> {
             stmt.executeUpdate();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Inserts the elements of many parents through one batch on {@code connection}, in the
+     * transaction that wrote the parent rows.
+     */
+    public void insertAll(Connection connection, @NotNull Map<ID, ? extends Collection<T>> collections) throws Exception {
+        try (PreparedStatement stmt = connectionProvider.prepareStatement(insertSql.sql(), connection)) {
+            SQLDatabaseParameters params = new SQLDatabaseParameters(stmt, resolverRegistry, insertSql, information, collectionHandler, supportsArrays);
+            for (Map.Entry<ID, ? extends Collection<T>> entry : collections.entrySet()) {
+                for (T element : entry.getValue()) {
+                    idResolver.insert(params, "id", entry.getKey());
+                    elementResolver.insert(params, "value", element);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Makes the stored elements of every parent in {@code collections} equal to its collection,
+     * deleting and inserting only the elements that differ, each through one batch on
+     * {@code connection}, in the transaction that wrote the parent rows.
+     */
+    public void sync(Connection connection, @NotNull Map<ID, ? extends Collection<T>> collections) throws Exception {
+        Map<ID, List<T>> existing = resolveAll(connection, collections.keySet());
+
+        try (var delete = connectionProvider.prepareStatement(deleteOneSql.sql(), connection);
+             var insert = connectionProvider.prepareStatement(insertSql.sql(), connection)) {
+
+            SQLDatabaseParameters deleteParams = new SQLDatabaseParameters(delete, resolverRegistry, deleteOneSql, information, collectionHandler, supportsArrays);
+            SQLDatabaseParameters insertParams = new SQLDatabaseParameters(insert, resolverRegistry, insertSql, information, collectionHandler, supportsArrays);
+            boolean deletes = false, inserts = false;
+
+            for (Map.Entry<ID, ? extends Collection<T>> entry : collections.entrySet()) {
+                ID id = entry.getKey();
+                SideTableBatches.Difference<T> difference = SideTableBatches.diff(existing.getOrDefault(id, List.of()), entry.getValue());
+
+                for (T element : difference.deleted()) {
+                    idResolver.insert(deleteParams, "id", id);
+                    elementResolver.insert(deleteParams, "value", element);
+                    delete.addBatch();
+                    deletes = true;
+                }
+                for (T element : difference.inserted()) {
+                    idResolver.insert(insertParams, "id", id);
+                    elementResolver.insert(insertParams, "value", element);
+                    insert.addBatch();
+                    inserts = true;
+                }
+            }
+
+            if (deletes) delete.executeBatch();
+            if (inserts) insert.executeBatch();
+        }
+    }
+
+    private @NotNull Map<ID, List<T>> resolveAll(Connection connection, Collection<ID> ids) throws Exception {
+        Map<ID, List<T>> rows = new HashMap<>(Math.max(ids.size() * 2, 8));
+        for (List<ID> chunk : SideTableBatches.chunks(ids)) {
+            ParameterizedSql sql = SideTableBatches.selectByIds(table, chunk.size());
+            try (PreparedStatement stmt = connectionProvider.prepareStatement(sql.sql(), connection)) {
+                SQLDatabaseParameters params = new SQLDatabaseParameters(stmt, resolverRegistry, sql, information, collectionHandler, supportsArrays);
+                for (int i = 0; i < chunk.size(); i++) {
+                    params.setRowOffset(i);
+                    idResolver.insert(params, "id", chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    SQLDatabaseResult result = new SQLDatabaseResult(rs, resolverRegistry, collectionHandler, supportsArrays, information);
+                    while (rs.next()) {
+                        rows.computeIfAbsent(idResolver.resolve(result, "id"), k -> new ArrayList<>())
+                            .add(elementResolver.resolve(result, "value"));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+}
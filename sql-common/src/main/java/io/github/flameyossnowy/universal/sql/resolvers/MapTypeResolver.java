@@ -15,9 +15,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @SuppressWarnings("unused")
 public class MapTypeResolver<K, V, ID> {
@@ -32,6 +34,7 @@ public class MapTypeResolver<K, V, ID> {
     @NotNull
     private final TypeResolverRegistry resolverRegistry;
 
+    private final String table;
     private final ParameterizedSql selectSql;
     private final ParameterizedSql insertSql;
     private final ParameterizedSql deleteKeySql;
@@ -57,7 +60,7 @@ public class MapTypeResolver<K, V, ID> {
                 + keyType.getSimpleName() + ", " + valueType.getSimpleName() + ", or " + idType.getSimpleName());
         }
 
-        String table = information.tableName() + "_" + valueType.getSimpleName().toLowerCase() + "s";
+        this.table = information.tableName() + "_" + valueType.getSimpleName().toLowerCase() + "s";
 
         createTableIfNotExists(table, keyType, valueType, idType);
 
@@ -167,6 +170,91 @@ public class MapTypeResolver<K, V, ID> {
         }
     }
 
+    /**
+     * Inserts the entries of many parents through one batch on {@code connection}, in the
+     * transaction that wrote the parent rows.
+     */
+    public void insertAll(Connection connection, @NotNull Map<ID, ? extends Map<K, V>> maps) throws Exception {
+        try (PreparedStatement stmt = connectionProvider.prepareStatement(insertSql.sql(), connection)) {
+            SQLDatabaseParameters params = new SQLDatabaseParameters(stmt, resolverRegistry, insertSql, information, collectionHandler, supportsArrays);
+            for (Map.Entry<ID, ? extends Map<K, V>> parent : maps.entrySet()) {
+                for (Map.Entry<K, V> entry : parent.getValue().entrySet()) {
+                    addEntry(parent.getKey(), entry.getKey(), entry.getValue(), params);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Makes the stored entries of every parent in {@code maps} equal to its map. Keys that are
+     * gone or whose value changed are deleted, and keys that are new or changed are inserted,
+     * each through one batch on {@code connection}, in the transaction
+     * that wrote the parent rows.
+     */
+    public void sync(Connection connection, @NotNull Map<ID, ? extends Map<K, V>> maps) throws Exception {
+        Map<ID, Map<K, V>> existing = resolveAll(connection, maps.keySet());
+
+        try (PreparedStatement delete = connectionProvider.prepareStatement(deleteKeySql.sql(), connection);
+             PreparedStatement insert = connectionProvider.prepareStatement(insertSql.sql(), connection)) {
+
+            SQLDatabaseParameters deleteParams = new SQLDatabaseParameters(delete, resolverRegistry, deleteKeySql, information, collectionHandler, supportsArrays);
+            SQLDatabaseParameters insertParams = new SQLDatabaseParameters(insert, resolverRegistry, insertSql, information, collectionHandler, supportsArrays);
+            boolean deletes = false, inserts = false;
+
+            for (Map.Entry<ID, ? extends Map<K, V>> parent : maps.entrySet()) {
+                ID id = parent.getKey();
+                Map<K, V> desired = parent.getValue();
+                Map<K, V> stored = existing.getOrDefault(id, Map.of());
+
+                for (Map.Entry<K, V> entry : stored.entrySet()) {
+                    K key = entry.getKey();
+                    if (desired.containsKey(key) && Objects.equals(desired.get(key), entry.getValue())) continue;
+
+                    idResolver.insert(deleteParams, "id", id);
+                    keyResolver.insert(deleteParams, "map_key", key);
+                    delete.addBatch();
+                    deletes = true;
+                }
+                for (Map.Entry<K, V> entry : desired.entrySet()) {
+                    K key = entry.getKey();
+                    if (stored.containsKey(key) && Objects.equals(stored.get(key), entry.getValue())) continue;
+
+                    addEntry(id, key, entry.getValue(), insertParams);
+                    insert.addBatch();
+                    inserts = true;
+                }
+            }
+
+            if (deletes) delete.executeBatch();
+            if (inserts) insert.executeBatch();
+        }
+    }
+
+    private @NotNull Map<ID, Map<K, V>> resolveAll(Connection connection, Collection<ID> ids) throws Exception {
+        Map<ID, Map<K, V>> rows = new HashMap<>(Math.max(ids.size() * 2, 8));
+        for (List<ID> chunk : SideTableBatches.chunks(ids)) {
+            ParameterizedSql sql = SideTableBatches.selectByIds(table, chunk.size());
+            try (PreparedStatement stmt = connectionProvider.prepareStatement(sql.sql(), connection)) {
+                SQLDatabaseParameters params = new SQLDatabaseParameters(stmt, resolverRegistry, sql, information, collectionHandler, supportsArrays);
+                for (int i = 0; i < chunk.size(); i++) {
+                    params.setRowOffset(i);
+                    idResolver.insert(params, "id", chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    SQLDatabaseResult result = new SQLDatabaseResult(rs, resolverRegistry, collectionHandler, supportsArrays, information);
+                    while (rs.next()) {
+                        rows.computeIfAbsent(idResolver.resolve(result, "id"), k -> new HashMap<>())
+                            .put(keyResolver.resolve(result, "map_key"), valueResolver.resolve(result, "map_value"));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
     private void addEntry(final ID id, final K key, final V value, SQLDatabaseParameters params) {
         idResolver.insert(params, "id", id);
         keyResolver.insert(params, "map_key", key);
@@ -25,8 +25,10 @@ public class MultiMapTypeResolver<K, V, ID> {
     private final CollectionHandler collectionHandler;
     private final boolean supportsArrays;
 
+    private final String table;
     private final ParameterizedSql selectSql;
     private final ParameterizedSql insertSql;
+    private final ParameterizedSql deletePairSql;
 
     public MultiMapTypeResolver(Class<ID> idType, Class<K> keyType, @NotNull Class<V> valueType,
                                 String fieldName,
@@ -49,13 +51,14 @@ public class MultiMapTypeResolver<K, V, ID> {
         }
 
         // Table name includes field name to ensure uniqueness per field
-        String table = information.tableName() + "_" + fieldName.toLowerCase() + "_multimap";
+        this.table = information.tableName() + "_" + fieldName.toLowerCase() + "_multimap";
 
         // Create table if not exists (similar to CollectionTypeResolver)
         createTableIfNotExists(table, keyType, valueType, idType);
 
         this.selectSql = ParameterizedSql.of("SELECT * FROM " + table + " WHERE id = ?;",                          List.of("id"));
         this.insertSql = ParameterizedSql.of("INSERT INTO " + table + " (id, map_key, map_value) VALUES (?, ?, ?)", List.of("id", "map_key", "map_value"));
+        this.deletePairSql = ParameterizedSql.of("DELETE FROM " + table + " WHERE id = ? AND map_key = ? AND map_value = ?;", List.of("id", "map_key", "map_value"));
     }
 
     private void createTableIfNotExists(String table, Class<K> keyType, Class<V> valueType, Class<ID> idType) {
@@ -136,4 +139,102 @@ public class MultiMapTypeResolver<K, V, ID> {
             stmt.executeBatch();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Inserts the entries of many parents through one batch on {@code connection}, in the
+     * transaction that wrote the parent rows.
+     */
+    public void insertAll(Connection connection, @NotNull Map<ID, ? extends Map<K, ? extends Collection<V>>> maps) throws Exception {
+        try (PreparedStatement stmt = connectionProvider.prepareStatement(insertSql.sql(), connection)) {
+            SQLDatabaseParameters params = new SQLDatabaseParameters(stmt, resolverRegistry, insertSql, information, collectionHandler, supportsArrays);
+            for (var parent : maps.entrySet()) {
+                for (var entry : parent.getValue().entrySet()) {
+                    for (V value : entry.getValue()) {
+                        addPair(parent.getKey(), entry.getKey(), value, params);
+                        stmt.addBatch();
+                    }
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Makes the stored entries of every parent in {@code maps} equal to its map, comparing the
+     * {@code (key, value)} pairs as multisets and deleting and inserting only the pairs that
+     * differ, each through one batch on {@code connection}, in the transaction
+     * that wrote the parent rows.
+     */
+    public void sync(Connection connection, @NotNull Map<ID, ? extends Map<K, ? extends Collection<V>>> maps) throws Exception {
+        Map<ID, List<Map.Entry<K, V>>> existing = resolveAll(connection, maps.keySet());
+
+        try (var delete = connectionProvider.prepareStatement(deletePairSql.sql(), connection);
+             var insert = connectionProvider.prepareStatement(insertSql.sql(), connection)) {
+
+            SQLDatabaseParameters deleteParams = new SQLDatabaseParameters(delete, resolverRegistry, deletePairSql, information, collectionHandler, supportsArrays);
+            SQLDatabaseParameters insertParams = new SQLDatabaseParameters(insert, resolverRegistry, insertSql, information, collectionHandler, supportsArrays);
+            boolean deletes = false, inserts = false;
+
+            for (var parent : maps.entrySet()) {
+                ID id = parent.getKey();
+                SideTableBatches.Difference<Map.Entry<K, V>> difference =
+                    SideTableBatches.diff(existing.getOrDefault(id, List.of()), pairs(parent.getValue()));
+
+                for (Map.Entry<K, V> pair : difference.deleted()) {
+                    addPair(id, pair.getKey(), pair.getValue(), deleteParams);
+                    delete.addBatch();
+                    deletes = true;
+                }
+                for (Map.Entry<K, V> pair : difference.inserted()) {
+                    addPair(id, pair.getKey(), pair.getValue(), insertParams);
+                    insert.addBatch();
+                    inserts = true;
+                }
+            }
+
+            if (deletes) delete.executeBatch();
+            if (inserts) insert.executeBatch();
+        }
+    }
+
+    private @NotNull Map<ID, List<Map.Entry<K, V>>> resolveAll(Connection connection, Collection<ID> ids) throws Exception {
+        Map<ID, List<Map.Entry<K, V>>> rows = new HashMap<>(Math.max(ids.size() * 2, 8));
+        for (List<ID> chunk : SideTableBatches.chunks(ids)) {
+            ParameterizedSql sql = SideTableBatches.selectByIds(table, chunk.size());
+            try (PreparedStatement stmt = connectionProvider.prepareStatement(sql.sql(), connection)) {
+                SQLDatabaseParameters params = new SQLDatabaseParameters(stmt, resolverRegistry, sql, information, collectionHandler, supportsArrays);
+                for (int i = 0; i < chunk.size(); i++) {
+                    params.setRowOffset(i);
+                    idResolver.insert(params, "id", chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    SQLDatabaseResult result = new SQLDatabaseResult(rs, resolverRegistry, collectionHandler, supportsArrays, information);
+                    while (rs.next()) {
+                        K key   = keyResolver.resolve(result, "map_key");
+                        V value = valueResolver.resolve(result, "map_value");
+                        rows.computeIfAbsent(idResolver.resolve(result, "id"), k -> new ArrayList<>())
+                            .add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static <K, V> @NotNull List<Map.Entry<K, V>> pairs(@NotNull Map<K, ? extends Collection<V>> map) {
+        List<Map.Entry<K, V>> pairs = new ArrayList<>(map.size() * 2);
+        for (var entry : map.entrySet()) {
+            for (V value : entry.getValue()) {
+                pairs.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), value));
+            }
+        }
+        return pairs;
+    }
+
+    private void addPair(ID id, K key, V value, SQLDatabaseParameters params) {
+        idResolver.insert(params, "id", id);
+        keyResolver.insert(params, "map_key", key);
+        valueResolver.insert(params, "map_value", value);
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.flameyossnowy.universal.sql.resolvers;
+
+import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Helpers the side-table resolvers share to read and write the rows of many parents at once.
+ */
+final class SideTableBatches {
+    /** Parent ids bound into one {@code IN} list, well below every dialect's parameter limit. */
+    static final int IDS_PER_SELECT = 500;
+
+    private SideTableBatches() {}
+
+    /**
+     * {@code SELECT * FROM table WHERE id IN (?, ...)} for {@code count} ids, every one of them
+     * bound as {@code id} with a row offset.
+     */
+    static @NotNull ParameterizedSql selectByIds(String table, int count) {
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < count; i++) {
+            placeholders.add("?");
+        }
+        return ParameterizedSql.of("SELECT * FROM " + table + " WHERE id IN " + placeholders + ';', Collections.nCopies(count, "id"));
+    }
+
+    /**
+     * The ids split into lists of at most {@link #IDS_PER_SELECT}.
+     */
+    static <ID> @NotNull List<List<ID>> chunks(Collection<ID> ids) {
+        List<ID> all = new ArrayList<>(ids);
+        List<List<ID>> chunks = new ArrayList<>(all.size() / IDS_PER_SELECT + 1);
+        for (int from = 0; from < all.size(); from += IDS_PER_SELECT) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + IDS_PER_SELECT)));
+        }
+        return chunks;
+    }
+
+    /**
+     * The rows to delete and insert so that the rows stored for one parent become
+     * {@code desired}, compared as multisets.
+     * <p>
+     * The delete statements remove every copy of a value, so a value stored more often than
+     * it is wanted is deleted outright and inserted again as often as it is wanted.
+     */
+    static <E> @NotNull Difference<E> diff(Collection<E> existing, Collection<E> desired) {
+        Map<E, Integer> stored = count(existing);
+        Map<E, Integer> wanted = count(desired);
+
+        List<E> deleted = new ArrayList<>();
+        List<E> inserted = new ArrayList<>();
+        for (Map.Entry<E, Integer> entry : stored.entrySet()) {
+            int want = wanted.getOrDefault(entry.getKey(), 0);
+            if (want >= entry.getValue()) continue;
+
+            deleted.add(entry.getKey());
+            for (int i = 0; i < want; i++) {
+                inserted.add(entry.getKey());
+            }
+        }
+        for (Map.Entry<E, Integer> entry : wanted.entrySet()) {
+            int have = stored.getOrDefault(entry.getKey(), 0);
+            for (int i = have; i < entry.getValue(); i++) {
+                inserted.add(entry.getKey());
+            }
+        }
+        return new Difference<>(deleted, inserted);
+    }
+
+    private static <E> @NotNull Map<E, Integer> count(Collection<E> values) {
+        Map<E, Integer> counts = new LinkedHashMap<>(Math.max(values.size() * 2, 8));
+        for (E value : values) {
+            counts.merge(value, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * @param deleted values whose every copy is deleted
+     * @param inserted values inserted once per occurrence
+     */
+    record Difference<E>(List<E> deleted, List<E> inserted) {
+        boolean isEmpty() {
+            return deleted.isEmpty() && inserted.isEmpty();
+        }
+    }
+}
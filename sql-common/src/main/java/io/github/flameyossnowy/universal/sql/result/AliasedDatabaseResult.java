@@ -0,0 +1,45 @@
+package io.github.flameyossnowy.universal.sql.result;
+
+import io.github.flameyossnowy.universal.api.handler.CollectionHandler;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.result.DatabaseResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A view of one joined entity's columns inside a wider result. Every column name is looked up
+ * with {@code prefix} in front, so the joined entity's generated reader can read its columns
+ * under their own names.
+ */
+public record AliasedDatabaseResult(DatabaseResult delegate, String prefix, RepositoryModel<?, ?> repositoryModel) implements DatabaseResult {
+    @Override
+    public CollectionHandler getCollectionHandler() {
+        return delegate.getCollectionHandler();
+    }
+
+    @Override
+    public boolean supportsArraysNatively() {
+        return delegate.supportsArraysNatively();
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(@NotNull String columnName, @NotNull Class<T> type) {
+        return delegate.get(prefix + columnName, type);
+    }
+
+    @Override
+    public boolean hasColumn(String columnName) {
+        return delegate.hasColumn(prefix + columnName);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return delegate.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return delegate.getColumnName(columnIndex);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.flameyossnowy.universal.sql.internals.query;
+
+import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ParameterLayoutTest {
+    private static final TypeResolverRegistry REGISTRY = new TypeResolverRegistry();
+
+    private static SQLDatabaseParameters parameters(PreparedStatement statement, String... names) {
+        return new SQLDatabaseParameters(statement, REGISTRY, ParameterizedSql.of("SQL", List.of(names)), null, null, false);
+    }
+
+    @Test
+    void names_resolve_to_their_first_placeholder() {
+        ParameterLayout layout = ParameterLayout.of(List.of("a", "b", "a"));
+
+        assertEquals(3, layout.size());
+        assertEquals(1, layout.indexOf("a"));
+        assertEquals(2, layout.indexOf("b"));
+        assertEquals(-1, layout.indexOf("c"));
+        assertEquals("a", layout.nameAt(3));
+    }
+
+    @Test
+    void positions_are_resolved_once_per_names_array() {
+        ParameterLayout layout = ParameterLayout.of(List.of("a", "b"));
+        String[] names = {"b", "c", "a"};
+
+        int[] positions = layout.positionsOf(names);
+        assertArrayEquals(new int[] {2, -1, 1}, positions);
+        assertSame(positions, layout.positionsOf(names));
+
+        // an equal array of another binder is resolved again
+        int[] other = layout.positionsOf(new String[] {"b", "c", "a"});
+        assertNotSame(positions, other);
+        assertArrayEquals(positions, other);
+    }
+
+    @Test
+    void names_missing_from_the_layout_are_appended_after_it() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        SQLDatabaseParameters parameters = parameters(statement, "a", "b");
+
+        parameters.setNull("extra", String.class);
+        parameters.setNull("more", String.class);
+        parameters.setNull("extra", String.class);
+        assertEquals(4, parameters.size());
+        verify(statement, times(2)).setNull(eq(3), anyInt());
+        verify(statement).setNull(eq(4), anyInt());
+
+        // once registered, the name binds values too
+        parameters.set("more", "x", String.class);
+        verify(statement).setString(4, "x");
+        assertThrows(IllegalArgumentException.class, () -> parameters.set("unknown", "x", String.class));
+    }
+
+    @Test
+    void repeated_names_bind_at_the_position_given() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        SQLDatabaseParameters parameters = parameters(statement, "a", "a", "a");
+
+        parameters.set(1, "x", String.class);
+        parameters.set(2, "y", String.class);
+        parameters.set(3, null, String.class);
+
+        verify(statement).setString(1, "x");
+        verify(statement).setString(2, "y");
+        verify(statement).setNull(eq(3), anyInt());
+
+        // by name, only the first of them
+        parameters.set("a", "z", String.class);
+        verify(statement).setString(1, "z");
+    }
+
+    @Test
+    void generated_binders_bind_at_the_positions_of_their_names() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        SQLDatabaseParameters parameters = parameters(statement, "id", "name");
+        String[] names = {"name", "id", "extra"};
+
+        int[] at = parameters.positionsOf(names);
+        parameters.set(at[0], "name", "n", String.class);
+        parameters.set(at[1], "id", "i", String.class);
+        // not in the layout, so bound by name
+        parameters.setNull("extra", String.class);
+        parameters.set(at[2], "extra", "e", String.class);
+
+        verify(statement).setString(1, "i");
+        verify(statement).setString(2, "n");
+        verify(statement).setString(3, "e");
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.flameyossnowy.universal.sql.internals.repository;
+
+import io.github.flameyossnowy.universal.api.meta.BatchSizeBounds;
+import org.junit.jupiter.api.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBatchSizerTest {
+    private static final long MILLIS = 1_000_000L;
+    private static final BatchSizeBounds BOUNDS = new BatchSizeBounds(16, 4096, 50);
+
+    private static AdaptiveBatchSizer sizer(long rowBytes, long maxBatchBytes) {
+        return new AdaptiveBatchSizer("rows", BOUNDS, rowBytes, maxBatchBytes);
+    }
+
+    @Test
+    void fast_batches_grow_the_size_at_most_twofold() {
+        AdaptiveBatchSizer sizer = sizer(100, 64L * 1024 * 1024);
+        assertEquals(1000, sizer.size());
+
+        // 5000 rows would take the target time, one batch moves halfway towards double the size
+        sizer.recordBatch(1000, 10 * MILLIS);
+        assertEquals(1500, sizer.size());
+
+        for (int i = 0; i < 20; i++) sizer.recordBatch(sizer.size(), MILLIS);
+        assertEquals(4096, sizer.size());
+    }
+
+    @Test
+    void slow_batches_shrink_the_size_at_most_by_half() {
+        AdaptiveBatchSizer sizer = sizer(100, 64L * 1024 * 1024);
+
+        sizer.recordBatch(1000, 200 * MILLIS);
+        assertEquals(750, sizer.size());
+
+        for (int i = 0; i < 40; i++) sizer.recordBatch(sizer.size(), 10_000 * MILLIS);
+        assertEquals(16, sizer.size());
+    }
+
+    @Test
+    void batches_on_target_keep_the_size() {
+        AdaptiveBatchSizer sizer = sizer(100, 64L * 1024 * 1024);
+        sizer.recordBatch(1000, 50 * MILLIS);
+        assertEquals(1000, sizer.size());
+    }
+
+    @Test
+    void the_row_width_clamps_the_ceiling() {
+        AdaptiveBatchSizer sizer = sizer(1000, 100_000);
+        assertEquals(100, sizer.size());
+
+        sizer.recordBatch(100, MILLIS);
+        assertEquals(100, sizer.size());
+        assertEquals(100, sizer.metrics().ceiling());
+
+        // never below the minimum, however wide the rows
+        assertEquals(16, sizer(1_000_000, 100_000).size());
+    }
+
+    @Test
+    void batches_below_the_minimum_are_counted_but_not_tuned_on() {
+        AdaptiveBatchSizer sizer = sizer(100, 64L * 1024 * 1024);
+        sizer.recordBatch(8, 1);
+
+        assertEquals(1000, sizer.size());
+        assertEquals(1, sizer.metrics().batches());
+        assertEquals(8, sizer.metrics().rows());
+    }
+
+    @Test
+    void oversized_batches_halve_the_ceiling_down_to_the_minimum() {
+        AdaptiveBatchSizer sizer = sizer(100, 64L * 1024 * 1024);
+
+        sizer.recordOversized(1000);
+        assertEquals(500, sizer.size());
+        assertEquals(500, sizer.metrics().ceiling());
+
+        // growth stays below the new ceiling
+        for (int i = 0; i < 20; i++) sizer.recordBatch(sizer.size(), MILLIS);
+        assertEquals(500, sizer.size());
+
+        sizer.recordOversized(20);
+        assertEquals(16, sizer.size());
+        assertEquals(2, sizer.metrics().splits());
+    }
+
+    @Test
+    void only_rejected_packets_count_as_oversized() {
+        assertTrue(AdaptiveBatchSizer.isOversized(new SQLException("Packet for query is too large (5000000 > 4194304)")));
+        assertTrue(AdaptiveBatchSizer.isOversized(new SQLException("wrapped", new SQLException("Got a packet bigger than 'max_allowed_packet' bytes"))));
+        assertFalse(AdaptiveBatchSizer.isOversized(new SQLException("duplicate key value violates unique constraint")));
+
+        // rows of a partly executed batch were written and must not be inserted again
+        assertFalse(AdaptiveBatchSizer.isOversized(new BatchUpdateException("max_allowed_packet", new int[] {1})));
+
+        SQLException variables = new SQLException("[SQLITE_ERROR] SQL error or missing database (too many SQL variables)");
+        assertFalse(AdaptiveBatchSizer.isOversized(variables));
+        assertTrue(AdaptiveBatchSizer.hasTooManyParameters(variables));
+    }
+}
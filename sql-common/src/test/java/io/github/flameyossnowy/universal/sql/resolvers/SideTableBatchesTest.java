@@ -0,0 +1,68 @@
+package io.github.flameyossnowy.universal.sql.resolvers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SideTableBatchesTest {
+    @Test
+    void added_values_are_only_inserted() {
+        SideTableBatches.Difference<String> difference = SideTableBatches.diff(List.of("a"), List.of("a", "b", "c"));
+        assertEquals(List.of(), difference.deleted());
+        assertEquals(List.of("b", "c"), difference.inserted());
+    }
+
+    @Test
+    void removed_values_are_only_deleted() {
+        SideTableBatches.Difference<String> difference = SideTableBatches.diff(List.of("a", "b", "c"), List.of("b"));
+        assertEquals(List.of("a", "c"), difference.deleted());
+        assertEquals(List.of(), difference.inserted());
+    }
+
+    @Test
+    void reordered_values_are_not_written() {
+        assertTrue(SideTableBatches.diff(List.of("a", "b", "b", "c"), List.of("b", "c", "b", "a")).isEmpty());
+    }
+
+    @Test
+    void extra_copies_are_inserted_once_per_occurrence() {
+        SideTableBatches.Difference<String> difference = SideTableBatches.diff(List.of("a", "b"), List.of("a", "a", "a", "b"));
+        assertEquals(List.of(), difference.deleted());
+        assertEquals(List.of("a", "a"), difference.inserted());
+    }
+
+    @Test
+    void fewer_copies_delete_every_copy_and_insert_the_wanted_ones() {
+        // the delete statements remove every copy of a value
+        SideTableBatches.Difference<String> difference = SideTableBatches.diff(List.of("a", "a", "a", "b"), List.of("a", "b"));
+        assertEquals(List.of("a"), difference.deleted());
+        assertEquals(List.of("a"), difference.inserted());
+    }
+
+    @Test
+    void empty_sides() {
+        assertTrue(SideTableBatches.diff(List.of(), List.of()).isEmpty());
+
+        SideTableBatches.Difference<String> cleared = SideTableBatches.diff(List.of("a", "a", "b"), List.of());
+        assertEquals(List.of("a", "b"), cleared.deleted());
+        assertEquals(List.of(), cleared.inserted());
+
+        SideTableBatches.Difference<String> filled = SideTableBatches.diff(List.of(), List.of("a", "a"));
+        assertEquals(List.of(), filled.deleted());
+        assertEquals(List.of("a", "a"), filled.inserted());
+    }
+
+    @Test
+    void ids_are_split_into_bounded_chunks() {
+        List<Integer> ids = IntStream.range(0, SideTableBatches.IDS_PER_SELECT * 2 + 1).boxed().toList();
+        List<List<Integer>> chunks = SideTableBatches.chunks(ids);
+
+        assertEquals(3, chunks.size());
+        assertEquals(SideTableBatches.IDS_PER_SELECT, chunks.get(0).size());
+        assertEquals(1, chunks.get(2).size());
+        assertEquals(List.of(), SideTableBatches.chunks(List.of()));
+    }
+}
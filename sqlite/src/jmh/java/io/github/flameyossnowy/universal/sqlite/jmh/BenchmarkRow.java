@@ -0,0 +1,40 @@
+package io.github.flameyossnowy.universal.sqlite.jmh;
+
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+
+import java.util.UUID;
+
+@SuppressWarnings("unused")
+@Repository(name = "benchmark_rows")
+public class BenchmarkRow {
+    @Id
+    private Long id;
+
+    private String name;
+    private int score;
+    private double ratio;
+    private boolean active;
+    private UUID owner;
+
+    public BenchmarkRow() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public double getRatio() { return ratio; }
+    public void setRatio(double ratio) { this.ratio = ratio; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public UUID getOwner() { return owner; }
+    public void setOwner(UUID owner) { this.owner = owner; }
+}
@@ -0,0 +1,134 @@
+package io.github.flameyossnowy.universal.sqlite.jmh;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.factory.ObjectModel;
+import io.github.flameyossnowy.universal.api.meta.FieldModel;
+import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
+import io.github.flameyossnowy.universal.api.meta.GeneratedObjectFactories;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import io.github.flameyossnowy.universal.sql.internals.query.ParameterLayout;
+import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.params.SQLDatabaseParameters;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category: INSERT
+ *
+ * Measures what binding one row costs, so the allocation numbers of the gc profiler
+ * ({@code gc.alloc.rate.norm}, bytes per operation) read as allocations per insert.
+ *
+ * Benchmarks:
+ *   bindGenerated    – the generated insertEntity, binding at the positions the layout resolved once
+ *   bindByPosition   – the same values bound through the positional path of the layout, by hand
+ *   insert           – a full repository insert into a SQLite file
+ *
+ * Run with: ./gradlew :sqlite:jmh  (the gc profiler is enabled in the build)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InsertBindingBenchmark {
+    private Path directory;
+    private SQLiteSimpleConnectionProvider provider;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    private RepositoryModel<BenchmarkRow, Long> model;
+    private ObjectModel<BenchmarkRow, Long> objectModel;
+    private TypeResolverRegistry registry;
+    private ParameterizedSql insertSql;
+    private FieldModel<BenchmarkRow>[] fieldsByPosition;
+
+    private SQLiteRepositoryAdapter<BenchmarkRow, Long> adapter;
+    private BenchmarkRow row;
+    private long nextId = 1;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("universal-jmh");
+        SQLiteCredentials credentials = new SQLiteCredentials(directory.resolve("bench.db").toString());
+
+        adapter = SQLiteRepositoryAdapter.builder(BenchmarkRow.class, Long.class)
+            .withCredentials(credentials)
+            .build();
+        adapter.createRepository(true);
+
+        model = GeneratedMetadata.getByEntityClass(BenchmarkRow.class);
+        objectModel = GeneratedObjectFactories.getObjectModel(model);
+        registry = new TypeResolverRegistry();
+        provider = new SQLiteSimpleConnectionProvider(credentials, EnumSet.noneOf(Optimizations.class));
+        insertSql = new QueryParseEngine<>(QueryParseEngine.SQLType.SQLITE, model, registry, provider).parseInsert();
+
+        ParameterLayout layout = insertSql.layout();
+        fieldsByPosition = new FieldModel[layout.size() + 1];
+        for (int index = 1; index <= layout.size(); index++) {
+            FieldModel<BenchmarkRow> field = model.columnFieldByName(layout.nameAt(index));
+            fieldsByPosition[index] = field != null ? field : model.fieldByName(layout.nameAt(index));
+        }
+
+        connection = provider.getConnection();
+        statement = connection.prepareStatement(insertSql.sql());
+
+        row = new BenchmarkRow();
+        row.setId(1L);
+        row.setName("benchmark");
+        row.setScore(42);
+        row.setRatio(0.5);
+        row.setActive(true);
+        row.setOwner(UUID.randomUUID());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        statement.close();
+        connection.close();
+        provider.close();
+        adapter.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public PreparedStatement bindGenerated() throws Exception {
+        SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, registry, insertSql, model, null, false);
+        objectModel.insertEntity(parameters, row);
+        statement.clearParameters();
+        return statement;
+    }
+
+    @Benchmark
+    public PreparedStatement bindByPosition() throws Exception {
+        SQLDatabaseParameters parameters = new SQLDatabaseParameters(statement, registry, insertSql, model, null, false);
+        for (int index = 1; index < fieldsByPosition.length; index++) {
+            FieldModel<BenchmarkRow> field = fieldsByPosition[index];
+            parameters.set(index, field.getValue(row), field.type());
+        }
+        statement.clearParameters();
+        return statement;
+    }
+
+    @Benchmark
+    public boolean insert() {
+        row.setId(nextId++);
+        return adapter.insert(row).isSuccess();
+    }
+}
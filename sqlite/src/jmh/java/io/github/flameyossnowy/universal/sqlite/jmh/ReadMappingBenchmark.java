@@ -0,0 +1,131 @@
+package io.github.flameyossnowy.universal.sqlite.jmh;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.factory.ObjectModel;
+import io.github.flameyossnowy.universal.api.factory.ValueReader;
+import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
+import io.github.flameyossnowy.universal.api.meta.GeneratedObjectFactories;
+import io.github.flameyossnowy.universal.api.meta.GeneratedValueReaders;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.resolver.TypeResolverRegistry;
+import io.github.flameyossnowy.universal.sql.internals.repository.SqlResultMapper;
+import io.github.flameyossnowy.universal.sql.result.SQLDatabaseResult;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category: READ
+ *
+ * Maps every row of a 1000-row table, so {@code gc.alloc.rate.norm} divided by 1000 reads as
+ * the allocation per mapped row.
+ *
+ * Benchmarks:
+ *   readerPerRow   – a new ValueReader and an id resolver lookup for every row
+ *   cursor         – one ValueReader per result, re-pointed at each row
+ *
+ * Run with: ./gradlew :sqlite:jmh  (the gc profiler is enabled in the build). For a JFR
+ * recording of the allocation sites, add {@code -prof jfr} to the JMH arguments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadMappingBenchmark {
+    private static final int ROWS = 1000;
+
+    private Path directory;
+    private SQLiteRepositoryAdapter<BenchmarkRow, Long> adapter;
+    private SQLiteSimpleConnectionProvider provider;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    private RepositoryModel<BenchmarkRow, Long> model;
+    private ObjectModel<BenchmarkRow, Long> objectModel;
+    private SqlResultMapper<BenchmarkRow, Long> mapper;
+    private TypeResolverRegistry registry;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("universal-jmh");
+        SQLiteCredentials credentials = new SQLiteCredentials(directory.resolve("bench.db").toString());
+
+        adapter = SQLiteRepositoryAdapter.builder(BenchmarkRow.class, Long.class)
+            .withCredentials(credentials)
+            .build();
+        adapter.createRepository(true);
+
+        List<BenchmarkRow> rows = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            BenchmarkRow row = new BenchmarkRow();
+            row.setId(id);
+            row.setName("row-" + id);
+            row.setScore((int) id);
+            row.setRatio(id / 10.0);
+            row.setActive(id % 2 == 0);
+            row.setOwner(UUID.randomUUID());
+            rows.add(row);
+        }
+        adapter.insertAll(rows);
+
+        model = GeneratedMetadata.getByEntityClass(BenchmarkRow.class);
+        objectModel = GeneratedObjectFactories.getObjectModel(model);
+        mapper = adapter.getResultMapper();
+        registry = mapper.getResolverRegistry();
+
+        provider = new SQLiteSimpleConnectionProvider(credentials, EnumSet.noneOf(Optimizations.class));
+        connection = provider.getConnection();
+        statement = connection.prepareStatement("SELECT * FROM " + model.tableName());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        statement.close();
+        connection.close();
+        provider.close();
+        adapter.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void readerPerRow(Blackhole blackhole) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            SQLDatabaseResult result = new SQLDatabaseResult(resultSet, registry, null, false, model);
+            String idColumn = model.getPrimaryKey().columnName();
+            while (resultSet.next()) {
+                Long id = registry.resolve(Long.class).resolve(result, idColumn);
+                ValueReader<Long> reader = GeneratedValueReaders.get(model.tableName(), result, registry, id);
+                blackhole.consume(objectModel.construct(reader));
+            }
+        }
+    }
+
+    @Benchmark
+    public void cursor(Blackhole blackhole) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            var cursor = mapper.rows(new SQLDatabaseResult(resultSet, registry, null, false, model));
+            while (resultSet.next()) {
+                blackhole.consume(objectModel.construct(cursor.advance(cursor.readId())));
+            }
+        }
+    }
+}
@@ -3,21 +3,34 @@ package io.github.flameyossnowy.universal.sqlite;
 import io.github.flameyossnowy.universal.api.cache.CacheWarmer;
 import io.github.flameyossnowy.universal.api.cache.DefaultResultCache;
 import io.github.flameyossnowy.universal.api.cache.SessionCache;
+import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.api.options.DeleteQuery;
+import io.github.flameyossnowy.universal.api.options.UpdateQuery;
 import io.github.flameyossnowy.universal.api.resolver.TypeRegistration;
 import io.github.flameyossnowy.universal.sql.internals.AbstractRelationalRepositoryAdapter;
 import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
-import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriteQueueConnectionProvider;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
 public class SQLiteRepositoryAdapter<T, ID> extends AbstractRelationalRepositoryAdapter<T, ID> {
+    /**
+     * The single writer every write without a transaction goes through, or {@code null} when
+     * writes run on the calling thread.
+     */
+    private final @Nullable SQLiteWriteQueueConnectionProvider writer;
+
     protected SQLiteRepositoryAdapter(
             SQLConnectionProvider dataSource,
-            DefaultResultCache<ParameterizedSql, T, ID> cache,
+            DefaultResultCache<ResultCacheKey, T, ID> cache,
             Class<T> repository,
             Class<ID> idClass,
             SessionCache<ID, T> globalCache,
@@ -29,6 +42,85 @@ public class SQLiteRepositoryAdapter<T, ID> extends AbstractRelationalRepository
             @Nullable TypeRegistration typeRegistration
     ) {
         super(dataSource, cache, repository, idClass, QueryParseEngine.SQLType.SQLITE, globalCache, sessionCacheLongFunction, cacheWarmer, cacheEnabled, maxSize, autoCreate, typeRegistration);
+        this.writer = dataSource instanceof SQLiteWriteQueueConnectionProvider queue ? queue : null;
+    }
+
+    private TransactionResult<Boolean> write(Supplier<TransactionResult<Boolean>> operation) {
+        return writer == null ? operation.get() : writer.submit(operation).join();
+    }
+
+    private CompletableFuture<TransactionResult<Boolean>> writeAsync(Supplier<TransactionResult<Boolean>> operation) {
+        return writer == null ? CompletableFuture.supplyAsync(operation, getAsyncExecutor()) : writer.submit(operation);
+    }
+
+    @Override
+    public TransactionResult<Boolean> insert(T value) {
+        return write(() -> super.insert(value));
+    }
+
+    @Override
+    public TransactionResult<Boolean> insertAll(@NotNull Collection<T> collection) {
+        return write(() -> super.insertAll(collection));
+    }
+
+    @Override
+    public TransactionResult<Boolean> updateAll(T entity) {
+        return write(() -> super.updateAll(entity));
+    }
+
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull Collection<T> entities) {
+        return write(() -> super.updateAll(entities));
+    }
+
+    @Override
+    public TransactionResult<Boolean> updateAll(@NotNull UpdateQuery query) {
+        return write(() -> super.updateAll(query));
+    }
+
+    @Override
+    public TransactionResult<Boolean> delete(T value) {
+        return write(() -> super.delete(value));
+    }
+
+    @Override
+    public TransactionResult<Boolean> delete(@NotNull DeleteQuery query) {
+        return write(() -> super.delete(query));
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteById(ID value) {
+        return write(() -> super.deleteById(value));
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAll(@NotNull Collection<T> entities) {
+        return write(() -> super.deleteAll(entities));
+    }
+
+    @Override
+    public TransactionResult<Boolean> deleteAllById(@NotNull Collection<ID> ids) {
+        return write(() -> super.deleteAllById(ids));
+    }
+
+    @Override
+    public TransactionResult<Boolean> clear() {
+        return write(super::clear);
+    }
+
+    @Override
+    public CompletableFuture<TransactionResult<Boolean>> insertAsync(T value) {
+        return writeAsync(() -> super.insert(value));
+    }
+
+    @Override
+    public CompletableFuture<TransactionResult<Boolean>> updateAllAsync(T entity) {
+        return writeAsync(() -> super.updateAll(entity));
+    }
+
+    @Override
+    public CompletableFuture<TransactionResult<Boolean>> deleteAsync(T entity) {
+        return writeAsync(() -> super.delete(entity));
     }
 
     /**
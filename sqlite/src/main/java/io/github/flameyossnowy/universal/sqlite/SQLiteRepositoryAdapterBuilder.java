@@ -13,8 +13,10 @@ import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
 import io.github.flameyossnowy.universal.api.resolver.TypeRegistration;
 import io.github.flameyossnowy.universal.api.resolver.internal.DefaultTypeRegistry;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
-import io.github.flameyossnowy.universal.sql.internals.query.ParameterizedSql;
+import io.github.flameyossnowy.universal.sql.internals.query.ResultCacheKey;
 import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriteQueueConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriterOptions;
 import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
 
 import java.util.ArrayList;
@@ -41,6 +43,8 @@ public class SQLiteRepositoryAdapterBuilder<T, ID> {
     private CacheWarmer<T, ID> cacheWarmer;
     private final List<TypeRegistration> typeRegistrations = new ArrayList<>();
 
+    private SQLiteWriterOptions writerOptions;
+
     private boolean autoCreate = true;
 
     private LongFunction<SessionCache<ID, T>> sessionCacheSupplier = (id) -> new DefaultSessionCache<>();
@@ -148,6 +152,39 @@ public class SQLiteRepositoryAdapterBuilder<T, ID> {
         return this;
     }
 
+    /**
+     * Funnels every write of the repository through a single writer thread that commits
+     * the queued writes of all callers together, with default settings.
+     *
+     * @return the current instance of SQLiteRepositoryAdapterBuilder for chaining
+     * @see #withSingleWriter(SQLiteWriterOptions)
+     */
+    public SQLiteRepositoryAdapterBuilder<T, ID> withSingleWriter() {
+        return withSingleWriter(new SQLiteWriterOptions());
+    }
+
+    /**
+     * Funnels every write of the repository through a single writer thread that commits
+     * the queued writes of all callers together, in one transaction per batch.
+     *
+     * <p>Writes no longer compete for the database lock, so they stop failing or retrying
+     * with {@code SQLITE_BUSY} under concurrency. The database is switched to WAL mode so
+     * reads keep running on connections of their own while the writer commits. Writes that
+     * take a {@link io.github.flameyossnowy.universal.api.connection.TransactionContext}
+     * still run on the caller's own transaction. The writer replaces any connection provider
+     * set through {@code withConnectionProvider}.
+     *
+     * <p>All repositories on the same database file share one writer, started with the options
+     * of the first of them, and it stops once every one of them was closed.
+     *
+     * @param options the batch size, delay and checkpoint settings of the writer
+     * @return the current instance of SQLiteRepositoryAdapterBuilder for chaining
+     */
+    public SQLiteRepositoryAdapterBuilder<T, ID> withSingleWriter(SQLiteWriterOptions options) {
+        this.writerOptions = Objects.requireNonNull(options, "Writer options cannot be null");
+        return this;
+    }
+
     public SQLiteRepositoryAdapterBuilder<T, ID> setAutoCreate(boolean autoCreate) {
         this.autoCreate = autoCreate;
         return this;
@@ -182,6 +219,13 @@ public class SQLiteRepositoryAdapterBuilder<T, ID> {
         return DefaultTypeRegistry.combineRegistrations(typeRegistrations);
     }
 
+    private SQLConnectionProvider createConnectionProvider() {
+        if (writerOptions != null) return SQLiteWriteQueueConnectionProvider.shared(this.credentials, optimizations, writerOptions);
+        return connectionProvider != null
+            ? this.connectionProvider.apply(credentials, optimizations)
+            : new SQLiteSimpleConnectionProvider(this.credentials, optimizations);
+    }
+
     /**
      * Builds the {@link SQLiteRepositoryAdapter} instance.
      *
@@ -199,7 +243,7 @@ public class SQLiteRepositoryAdapterBuilder<T, ID> {
 
         int maxSize = 0;
 
-        DefaultResultCache<ParameterizedSql, T, ID> resultCache = null;
+        DefaultResultCache<ResultCacheKey, T, ID> resultCache = null;
 
         if (cacheable) {
             maxSize = information.getCacheConfig().maxSize();
@@ -211,9 +255,7 @@ public class SQLiteRepositoryAdapterBuilder<T, ID> {
         boolean globalCacheable = information.isGlobalCacheable();
         if (!globalCacheable)
             return new SQLiteRepositoryAdapter<>(
-                    connectionProvider != null
-                        ? this.connectionProvider.apply(credentials, optimizations)
-                        : new SQLiteSimpleConnectionProvider(this.credentials, optimizations),
+                    createConnectionProvider(),
                     resultCache,
                     this.repository,
                     this.idClass,
@@ -227,7 +269,7 @@ public class SQLiteRepositoryAdapterBuilder<T, ID> {
             );
 
         return new SQLiteRepositoryAdapter<>(
-                connectionProvider != null ? this.connectionProvider.apply(credentials, optimizations) : new SQLiteSimpleConnectionProvider(this.credentials, optimizations),
+                createConnectionProvider(),
                 resultCache, this.repository, this.idClass, information.createGlobalSessionCache(), sessionCacheSupplier, cacheWarmer,
                 cacheable, maxSize,
                 autoCreate,
@@ -36,8 +36,12 @@ public class SQLiteHikariConnectionProvider extends SQLiteSimpleConnectionProvid
         this.hikariDataSource = new HikariDataSource(config);
     }
 
+    /**
+     * Borrows a pooled connection. The cached statements of the physical connection behind it
+     * survive the handle being returned, and are closed once the pool evicts that connection.
+     */
     @Override
-    public Connection getConnection() {
+    protected Connection openConnection() {
         try {
             return hikariDataSource.getConnection();
         } catch (SQLException e) {
@@ -45,8 +49,14 @@ public class SQLiteHikariConnectionProvider extends SQLiteSimpleConnectionProvid
         }
     }
 
+    @Override
+    public int maxConnections() {
+        return hikariDataSource.getMaximumPoolSize();
+    }
+
     @Override
     public void close() {
+        super.close();
         hikariDataSource.close();
     }
 }
@@ -1,8 +1,11 @@
 package io.github.flameyossnowy.universal.sqlite.connections;
 
 import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.sql.internals.PreparedStatementCache;
 import io.github.flameyossnowy.universal.sql.internals.SQLConnectionProvider;
+import io.github.flameyossnowy.universal.sql.internals.StatementCacheMetrics;
 import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.jetbrains.annotations.Nullable;
 import org.sqlite.SQLiteDataSource;
 
 import java.sql.Connection;
@@ -10,25 +13,23 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.EnumSet;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class SQLiteSimpleConnectionProvider implements SQLConnectionProvider {
     protected final SQLiteDataSource dataSource;
 
-    private final Map<String, PreparedStatement> preparedStatements;
-
-    private final boolean cachePreparedStatements;
+    /**
+     * The SQLite driver does not cache statements, so they are cached per physical connection here.
+     */
+    private final @Nullable PreparedStatementCache statementCache;
 
     public SQLiteSimpleConnectionProvider(final SQLiteCredentials credentials, EnumSet<Optimizations> optimizations) {
         StringBuilder url = new StringBuilder(credentials.getJdbcUrl());
         boolean isFirst = true;
 
-        if (optimizations.contains(Optimizations.CACHE_PREPARED_STATEMENTS)) {
-            this.cachePreparedStatements = true;
-            this.preparedStatements = new ConcurrentHashMap<>();
+        if (optimizations.contains(Optimizations.CACHE_PREPARED_STATEMENTS) || optimizations.contains(Optimizations.RECOMMENDED_SETTINGS)) {
+            this.statementCache = new PreparedStatementCache(credentials.getStatementCacheSize());
         } else {
-            this.cachePreparedStatements = false;
-            this.preparedStatements = null;
+            this.statementCache = null;
         }
 
         for (Map.Entry<String, String> entry : credentials.getDataSourceProperties().entrySet()) {
@@ -47,6 +48,24 @@ public class SQLiteSimpleConnectionProvider implements SQLConnectionProvider {
 
     @Override
     public Connection getConnection() {
+        Connection connection = openConnection();
+        if (statementCache == null) return connection;
+        try {
+            return statementCache.track(connection);
+        } catch (SQLException e) {
+            try {
+                connection.close();
+            } catch (SQLException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Opens or borrows the connection {@link #getConnection()} hands out.
+     */
+    protected Connection openConnection() {
         try {
             return dataSource.getConnection();
         } catch (SQLException e) {
@@ -56,21 +75,42 @@ public class SQLiteSimpleConnectionProvider implements SQLConnectionProvider {
 
     @Override
     public void close() {
+        if (statementCache != null) statementCache.close();
     }
 
     @SuppressWarnings("SqlSourceToSinkFlow") // Don't worry, we ONLY ever use prepared statements and in the correct way :)
     @Override
     public PreparedStatement prepareStatement(String sql, Connection connection) throws Exception {
-        if (!cachePreparedStatements) {
+        if (statementCache == null) {
             return connection.prepareStatement(sql);
         }
+        return statementCache.prepare(connection, sql);
+    }
 
-        PreparedStatement statement = this.preparedStatements.get(sql);
-        if (statement == null) {
-            statement = connection.prepareStatement(sql);
-            this.preparedStatements.put(sql, statement);
-        }
+    @Override
+    public @Nullable StatementCacheMetrics getStatementCacheMetrics() {
+        return statementCache == null ? null : statementCache.getMetrics();
+    }
+
+    /**
+     * SQLite reads row by row and a single SELECT already sees a consistent snapshot, so no
+     * transaction is opened. The driver also refuses to change the read-only flag of an open connection.
+     */
+    @Override
+    public void beginStreamingRead(Connection connection) {
+    }
 
+    /**
+     * Never taken from the statement cache: the statement is closed together with the cursor.
+     */
+    @Override
+    public PreparedStatement prepareStreamingStatement(String sql, Connection connection, int fetchSize) throws Exception {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setFetchSize(fetchSize);
         return statement;
     }
+
+    @Override
+    public void endStreamingRead(Connection connection) {
+    }
 }
@@ -0,0 +1,377 @@
+package io.github.flameyossnowy.universal.sqlite.connections;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.api.utils.Logging;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs every write of a SQLite database on one dedicated writer thread, so callers queue up
+ * instead of fighting over the database lock.
+ * <p>
+ * The writer takes the queued writes in batches and commits each batch as one transaction
+ * (group commit). Every write runs inside a savepoint of its own, so a failing write is rolled
+ * back alone and only its caller sees the failure. On the writer thread {@link #getConnection()}
+ * hands out the single writer connection, whose {@code commit}, {@code setAutoCommit} and
+ * {@code close} are left to the batch; on every other thread it opens a reader connection as usual.
+ * <p>
+ * The effects of a write that readers can observe, such as cache updates, listeners and
+ * materialized aggregates, are registered through {@link #afterCommit} and only run once the
+ * batch is committed. When the write or its batch is rolled back, its rollback hooks run instead.
+ * <p>
+ * The database runs in WAL mode, so readers never wait for the writer. The writer checkpoints
+ * the WAL whenever its queue runs empty, and truncates it on close.
+ * <p>
+ * A second writer on the same file would fight the first one for the database lock, so repositories
+ * take theirs through {@link #shared}, which hands every repository of one database file the same
+ * writer and stops it once the last of them closed it.
+ */
+public class SQLiteWriteQueueConnectionProvider extends SQLiteSimpleConnectionProvider {
+    private static final Write STOP = new Write(null, null);
+
+    /** The writers handed out by {@link #shared}, by canonical database path. */
+    private static final Map<Path, SQLiteWriteQueueConnectionProvider> SHARED = new HashMap<>();
+
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private final Connection connection;
+    private final Connection writerView;
+    private final Thread writer;
+
+    private final Object lock = new Object();
+    private boolean closed;
+
+    /** Where this writer is registered in {@link #SHARED}, and how many holders did not close it yet; guarded by {@code SHARED}. */
+    private @Nullable Path sharedPath;
+    private int references;
+
+    private @Nullable Savepoint savepoint;
+    /** The write running on the writer thread, whose hooks {@link #afterCommit} collects. */
+    private @Nullable Write current;
+
+    public SQLiteWriteQueueConnectionProvider(@NotNull SQLiteCredentials credentials, @NotNull EnumSet<Optimizations> optimizations, @NotNull SQLiteWriterOptions options) {
+        super(credentials, optimizations);
+        this.maxBatchSize = options.getMaxBatchSize();
+        this.maxDelayNanos = options.getMaxDelay().toNanos();
+
+        this.dataSource.setJournalMode("WAL");
+        this.dataSource.setSynchronous("NORMAL");
+        this.dataSource.setBusyTimeout(options.getBusyTimeout());
+
+        try {
+            this.connection = super.getConnection();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA wal_autocheckpoint = " + options.getWalAutoCheckpoint());
+            }
+            this.connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.writerView = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{ Connection.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                // The batch owns the transaction
+                case "close", "commit", "setAutoCommit" -> null;
+                case "isClosed" -> false;
+                case "rollback" -> {
+                    if (args == null || args.length == 0) {
+                        if (savepoint != null) connection.rollback(savepoint);
+                        yield null;
+                    }
+                    yield invoke(method, args);
+                }
+                default -> invoke(method, args);
+            });
+
+        this.writer = Thread.ofPlatform()
+            .name("sqlite-writer-" + credentials.getDirectory())
+            .daemon()
+            .start(this::run);
+    }
+
+    /**
+     * Returns the writer of the database file of {@code credentials}, starting it on first use.
+     * <p>
+     * Every repository on that file shares the writer, so their writes are committed together and a
+     * write of one repository can call into another without waiting for a writer of its own. The
+     * writer is started with the credentials, optimizations and options of the first caller; later
+     * callers get it as it is. Each caller closes it once, and the last {@link #close()} stops it.
+     *
+     * @return the writer, to be closed by the caller when done
+     */
+    public static @NotNull SQLiteWriteQueueConnectionProvider shared(@NotNull SQLiteCredentials credentials, @NotNull EnumSet<Optimizations> optimizations, @NotNull SQLiteWriterOptions options) {
+        Path path = canonicalPath(credentials);
+        synchronized (SHARED) {
+            SQLiteWriteQueueConnectionProvider writer = SHARED.get(path);
+            if (writer == null) {
+                writer = new SQLiteWriteQueueConnectionProvider(credentials, optimizations, options);
+                writer.sharedPath = path;
+                SHARED.put(path, writer);
+            }
+            writer.references++;
+            return writer;
+        }
+    }
+
+    private static Path canonicalPath(SQLiteCredentials credentials) {
+        Path path = Path.of(credentials.getDirectory()).toAbsolutePath().normalize();
+        try {
+            // resolves links, and the case of the name on case-insensitive file systems
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path;
+        }
+    }
+
+    private Object invoke(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Connection getConnection() {
+        return Thread.currentThread() == writer ? writerView : super.getConnection();
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, Connection connection) throws Exception {
+        // The statement cache knows the writer connection, not the view of it
+        return super.prepareStatement(sql, connection == writerView ? this.connection : connection);
+    }
+
+    /**
+     * Queues a write for the writer thread.
+     * <p>
+     * A write submitted from the writer thread itself, for example by a listener of another
+     * write, runs right away: inside the current write, or as a batch of its own when it comes
+     * from an after-commit hook.
+     *
+     * @param operation the write, run on the writer thread
+     * @return a future that completes with the result of the write once its batch is committed,
+     *         or with a failure when the batch or the write failed
+     */
+    public CompletableFuture<TransactionResult<Boolean>> submit(@NotNull Supplier<TransactionResult<Boolean>> operation) {
+        CompletableFuture<TransactionResult<Boolean>> future = new CompletableFuture<>();
+        if (Thread.currentThread() == writer) {
+            if (current != null) return CompletableFuture.completedFuture(operation.get());
+            commit(List.of(new Write(operation, future)));
+            return future;
+        }
+
+        synchronized (lock) {
+            if (closed) return CompletableFuture.completedFuture(TransactionResult.failure(new IllegalStateException("The SQLite writer is closed")));
+            queue.add(new Write(operation, future));
+        }
+        return future;
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(maxBatchSize);
+        try {
+            boolean stop = false;
+            while (!stop) {
+                Write first = queue.take();
+                if (first == STOP) break;
+
+                batch.add(first);
+                stop = collect(batch);
+                commit(batch);
+                batch.clear();
+
+                if (queue.isEmpty()) checkpoint("PASSIVE");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Write write = queue.poll(); write != null; write = queue.poll()) {
+                if (write != STOP) write.future().complete(TransactionResult.failure(new IllegalStateException("The SQLite writer is closed")));
+            }
+            checkpoint("TRUNCATE");
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                Logging.error("Failed to close the SQLite writer connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds queued writes to the batch until it is full or {@code maxDelay} has passed.
+     *
+     * @return whether the provider was closed meanwhile
+     */
+    private boolean collect(List<Write> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            Write next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) break;
+            }
+            if (next == STOP) return true;
+            batch.add(next);
+        }
+        return false;
+    }
+
+    private void commit(List<Write> batch) {
+        List<TransactionResult<Boolean>> results = new ArrayList<>(batch.size());
+        try {
+            for (Write write : batch) {
+                results.add(apply(write));
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            // the writes that ran are gone, and so is anything readers picked up from them
+            for (Write write : batch) {
+                run(write.onRollback());
+                write.future().complete(TransactionResult.failure(e));
+            }
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Write write = batch.get(i);
+            run(write.onCommit());
+            write.future().complete(results.get(i));
+        }
+    }
+
+    private TransactionResult<Boolean> apply(Write write) throws SQLException {
+        savepoint = connection.setSavepoint();
+        current = write;
+        try {
+            TransactionResult<Boolean> result;
+            try {
+                result = write.operation().get();
+            } catch (RuntimeException e) {
+                result = TransactionResult.failure(e);
+            }
+
+            if (result.isError()) {
+                connection.rollback(savepoint);
+                run(write.onRollback());
+                write.onCommit().clear();
+                write.onRollback().clear();
+            }
+            connection.releaseSavepoint(savepoint);
+            return result;
+        } finally {
+            savepoint = null;
+            current = null;
+        }
+    }
+
+    /**
+     * Registers the hooks of a write with the write running on the writer thread. Outside of a
+     * write, for example on a reader thread, there is nothing left to commit and
+     * {@code onCommit} runs right away.
+     */
+    @Override
+    public void afterCommit(Runnable onCommit, Runnable onRollback) {
+        Write write = Thread.currentThread() == writer ? current : null;
+        if (write == null) {
+            onCommit.run();
+            return;
+        }
+        write.onCommit().add(onCommit);
+        write.onRollback().add(onRollback);
+    }
+
+    private static void run(List<Runnable> hooks) {
+        for (Runnable hook : hooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                Logging.error("Failed to run a hook of a SQLite write: " + e.getMessage());
+            }
+        }
+    }
+
+    private void checkpoint(String mode) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(" + mode + ')');
+        } catch (SQLException e) {
+            Logging.error("Failed to checkpoint the SQLite WAL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Commits the writes queued so far, then stops the writer thread and closes its connection.
+     * A {@link #shared} writer is only stopped once every holder closed it.
+     */
+    @Override
+    public void close() {
+        if (sharedPath != null) {
+            synchronized (SHARED) {
+                if (references == 0 || --references > 0) return;
+                SHARED.remove(sharedPath, this);
+            }
+        }
+
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            queue.add(STOP);
+        }
+
+        if (Thread.currentThread() == writer) return;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        super.close();
+    }
+
+    /**
+     * A queued write, and the hooks it registered to run once its batch commits or rolls back.
+     */
+    private record Write(
+        Supplier<TransactionResult<Boolean>> operation,
+        CompletableFuture<TransactionResult<Boolean>> future,
+        List<Runnable> onCommit,
+        List<Runnable> onRollback
+    ) {
+        Write(Supplier<TransactionResult<Boolean>> operation, CompletableFuture<TransactionResult<Boolean>> future) {
+            this(operation, future, new ArrayList<>(2), new ArrayList<>(2));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.flameyossnowy.universal.sqlite.connections;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of the single writer mode, see {@link SQLiteWriteQueueConnectionProvider}.
+ */
+@SuppressWarnings("unused")
+public class SQLiteWriterOptions {
+    private int maxBatchSize = 256;
+    private Duration maxDelay = Duration.ZERO;
+    private int walAutoCheckpoint = 10_000;
+    private int busyTimeout = 5000;
+
+    /**
+     * The most queued writes committed together in one transaction.
+     */
+    public SQLiteWriterOptions setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * How long the writer waits for more writes to join a batch before committing it.
+     * <p>
+     * The default of zero commits whatever is queued right away; writes that arrive while a
+     * batch is running still share the next commit.
+     */
+    public SQLiteWriterOptions setMaxDelay(Duration maxDelay) {
+        Objects.requireNonNull(maxDelay, "Max delay cannot be null");
+        if (maxDelay.isNegative()) throw new IllegalArgumentException("Max delay cannot be negative: " + maxDelay);
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * The WAL size in pages at which a commit checkpoints it ({@code PRAGMA wal_autocheckpoint}).
+     * <p>
+     * The writer already checkpoints whenever its queue runs empty, so the default is higher
+     * than SQLite's 1000 pages to keep checkpoints out of write bursts; {@code 0} leaves
+     * checkpointing to the idle writer alone.
+     */
+    public SQLiteWriterOptions setWalAutoCheckpoint(int pages) {
+        if (pages < 0) throw new IllegalArgumentException("Checkpoint size cannot be negative: " + pages);
+        this.walAutoCheckpoint = pages;
+        return this;
+    }
+
+    /**
+     * How long, in milliseconds, a connection waits for the database lock before failing with {@code SQLITE_BUSY}.
+     */
+    public SQLiteWriterOptions setBusyTimeout(int busyTimeout) {
+        if (busyTimeout < 0) throw new IllegalArgumentException("Busy timeout cannot be negative: " + busyTimeout);
+        this.busyTimeout = busyTimeout;
+        return this;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public int getWalAutoCheckpoint() {
+        return walAutoCheckpoint;
+    }
+
+    public int getBusyTimeout() {
+        return busyTimeout;
+    }
+}
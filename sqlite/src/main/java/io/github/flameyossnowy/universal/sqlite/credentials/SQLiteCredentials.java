@@ -1,5 +1,7 @@
 package io.github.flameyossnowy.universal.sqlite.credentials;
 
+import io.github.flameyossnowy.universal.sql.internals.PreparedStatementCache;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -14,6 +16,7 @@ public class SQLiteCredentials {
     private int minimumIdle = 2;
     private long idleTimeout = 30000;
     private long connectionTimeout = 30000;
+    private int statementCacheSize = PreparedStatementCache.DEFAULT_STATEMENTS_PER_CONNECTION;
     private final String jdbcUrl;
 
     public SQLiteCredentials(String directory) {
@@ -61,6 +64,15 @@ public class SQLiteCredentials {
         return this;
     }
 
+    /**
+     * The most prepared statements cached for one connection when statement caching is enabled.
+     */
+    public SQLiteCredentials setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 1) throw new IllegalArgumentException("Statement cache size must be positive: " + statementCacheSize);
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
     public SQLiteCredentials addDataSourceProperty(String key, String value) {
         this.dataSourceProperties.put(key, value);
         return this;
@@ -100,4 +112,8 @@ public class SQLiteCredentials {
     public long getConnectionTimeout() {
         return connectionTimeout;
     }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
 }
@@ -0,0 +1,86 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteBulkWriteTest {
+    // more than one IN list of ids per batch delete
+    private static final int ROWS = 1500;
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<StreamRow, Long> adapter;
+    private List<StreamRow> rows;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("bulk.db").toString()))
+            .build();
+
+        adapter.createRepository(true);
+
+        rows = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            StreamRow row = new StreamRow();
+            row.setId((long) i);
+            row.setName("row-" + i);
+            row.setScore(i);
+            rows.add(row);
+        }
+        assertTrue(adapter.insertAll(rows).isSuccess());
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    void update_all_writes_every_entity() {
+        for (StreamRow row : rows) {
+            row.setName("updated-" + row.getId());
+        }
+
+        assertTrue(adapter.updateAll(rows).expect());
+
+        List<StreamRow> loaded = adapter.find(Query.select().orderBy("id", SortOrder.ASCENDING).build());
+        assertEquals(ROWS, loaded.size());
+        for (StreamRow row : loaded) {
+            assertEquals("updated-" + row.getId(), row.getName());
+        }
+    }
+
+    @Test
+    void delete_all_by_id_and_delete_all_remove_only_the_given_rows() {
+        List<Long> ids = new ArrayList<>(1200);
+        for (long id = 1; id <= 1200; id++) {
+            ids.add(id);
+        }
+
+        assertTrue(adapter.deleteAllById(ids).expect());
+
+        List<StreamRow> remaining = adapter.find(Query.select().orderBy("id", SortOrder.ASCENDING).build());
+        assertEquals(ROWS - 1200, remaining.size());
+        assertEquals(1201L, remaining.get(0).getId());
+
+        assertTrue(adapter.deleteAll(remaining.subList(0, 100)).expect());
+        assertEquals(ROWS - 1300, adapter.find().size());
+
+        assertFalse(adapter.deleteAllById(ids).expect());
+    }
+}
@@ -0,0 +1,175 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.options.AggregationQuery;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregate;
+import io.github.flameyossnowy.universal.sql.internals.query.CompiledAggregation;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteColumnarAggregationTest {
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<StreamRow, Long> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("columnar.db").toString()))
+            .build();
+
+        adapter.createRepository(true);
+        adapter.getQueryExecutor().executeRawQuery(
+            "WITH RECURSIVE seq(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM seq WHERE x < 30) " +
+            "INSERT INTO stream_rows (id, name, score) SELECT x, 'group-' || (x % 3), x FROM seq;"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    private static AggregationQuery byName() {
+        return Query.aggregate()
+            .select(
+                Query.field("name"),
+                Query.field("id").count().as("cnt"),
+                Query.field("score").sum().as("total")
+            )
+            .groupBy("name")
+            .orderBy("name", SortOrder.ASCENDING)
+            .build();
+    }
+
+    @Test
+    void groups_are_stored_column_by_column() {
+        ColumnarResult result = adapter.aggregateColumnar(byName());
+
+        assertEquals(3, result.rowCount());
+        int name = result.columnIndex("name");
+        int count = result.columnIndex("cnt");
+        assertEquals(ColumnarResult.ColumnType.STRING, result.columnType(name));
+        assertEquals(List.of("group-0", "group-1", "group-2"), result.dictionary(name));
+
+        long rows = 0;
+        for (ColumnarResult.Row row : result) {
+            rows += ((Number) row.get(count)).longValue();
+        }
+        assertEquals(30, rows);
+    }
+
+    @Test
+    void map_rows_read_through_the_columns() {
+        List<Map<String, Object>> rows = adapter.aggregate(byName());
+
+        assertEquals(3, rows.size());
+        assertEquals("group-0", rows.getFirst().get("name"));
+        assertEquals(10L, ((Number) rows.getFirst().get("cnt")).longValue());
+        // 3 + 6 + ... + 30
+        assertEquals(165L, ((Number) rows.getFirst().get("total")).longValue());
+        assertThrows(UnsupportedOperationException.class, () -> rows.getFirst().put("name", "other"));
+    }
+
+    @Test
+    void compiled_plans_run_again_with_other_values() {
+        AggregationQuery query = Query.aggregate()
+            .select(
+                Query.field("name"),
+                Query.field("id").count().as("cnt")
+            )
+            .where("score").gt(15)
+            .groupBy("name")
+            .build();
+
+        CompiledAggregation plan = adapter.compileAggregation(query);
+        assertSame(plan, adapter.compileAggregation(query));
+        assertEquals(List.of(15), plan.parameters());
+
+        assertEquals(15, totalCount(adapter.executeCompiled(plan)));
+        assertEquals(30, totalCount(adapter.executeCompiled(plan, List.of(0))));
+        assertThrows(IllegalArgumentException.class, () -> adapter.executeCompiled(plan, List.of()));
+    }
+
+    @Test
+    void compiled_plans_read_the_column_types_of_every_run() {
+        AggregationQuery query = Query.aggregate()
+            .select(Query.field("score").sum().as("total"))
+            .where("score").gt(15)
+            .build();
+
+        CompiledAggregation plan = adapter.compileAggregation(query);
+        // 16 + 17 + ... + 30
+        assertEquals(345L, ((Number) adapter.executeCompiled(plan).iterator().next().get("total")).longValue());
+
+        // SQLite keeps a REAL that does not fit the INTEGER column, so its sum is REAL as well
+        assertTrue(adapter.getQueryExecutor().executeRawQuery(
+            "INSERT INTO stream_rows (id, name, score) VALUES (31, 'group-1', 45.5)").isSuccess());
+        assertEquals(45.5d, ((Number) adapter.executeCompiled(plan, List.of(40)).iterator().next().get("total")).doubleValue());
+    }
+
+    @Test
+    void materialized_aggregates_follow_writes() {
+        AggregationQuery query = Query.aggregate()
+            .select(
+                Query.field("name"),
+                Query.field("id").count().as("cnt"),
+                Query.field("score").sum().as("total"),
+                Query.field("score").max().as("best")
+            )
+            .groupBy("name")
+            .orderBy("name", SortOrder.ASCENDING)
+            .build();
+
+        try (MaterializedAggregate<StreamRow, Long> leaderboard = adapter.materialize(query)) {
+            assertEquals(snapshot(adapter.aggregateColumnar(query)), snapshot(leaderboard.result()));
+
+            StreamRow added = new StreamRow();
+            added.setId(31L);
+            added.setName("group-1");
+            added.setScore(100);
+            adapter.insert(added);
+
+            // 30 is the highest score of group-0, so its maximum has to be recomputed
+            adapter.deleteById(30L);
+
+            StreamRow moved = adapter.findById(1L);
+            moved.setName("group-2");
+            adapter.updateAll(moved);
+
+            assertEquals(3, leaderboard.groupCount());
+            assertEquals(snapshot(adapter.aggregateColumnar(query)), snapshot(leaderboard.result()));
+        }
+    }
+
+    private static List<String> snapshot(ColumnarResult result) {
+        List<String> rows = new ArrayList<>(result.rowCount());
+        for (ColumnarResult.Row row : result) {
+            rows.add(row.getString("name") + " " + row.getLong("cnt") + " " + row.getLong("total") + " " + row.getLong("best"));
+        }
+        return rows;
+    }
+
+    private static long totalCount(ColumnarResult result) {
+        long total = 0;
+        for (ColumnarResult.Row row : result) {
+            total += ((Number) row.get("cnt")).longValue();
+        }
+        return total;
+    }
+}
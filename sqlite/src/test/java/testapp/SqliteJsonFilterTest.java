@@ -18,7 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class SqliteJsonFilterTest {
 
     @Test
-    void json_select_option_is_not_supported_for_sqlite() {
+    void json_select_option_builds_sqlite_json_extract_condition() {
         ModelsBootstrap.init();
         RepositoryModel<SqliteJsonEntity, String> model = io.github.flameyossnowy.universal.api.meta.GeneratedMetadata.getByEntityClass(SqliteJsonEntity.class);
 
@@ -29,9 +29,9 @@ class SqliteJsonFilterTest {
             new JsonSelectOption("payload", "$.profile.name", "=", "Flow")
         );
 
-        System.out.println(options);
+        String where = builder.buildConditions(options);
 
-        assertThrows(UnsupportedOperationException.class, () -> builder.buildConditions(options));
+        assertEquals("json_extract(payload, '$.profile.name') = ?", where);
     }
 
     @Repository(name = "sqlite-json-entity")
@@ -0,0 +1,150 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.JsonField;
+import io.github.flameyossnowy.universal.api.annotations.JsonIndex;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+import io.github.flameyossnowy.universal.api.json.JsonCodec;
+import io.github.flameyossnowy.universal.api.meta.GeneratedMetadata;
+import io.github.flameyossnowy.universal.api.meta.RepositoryModel;
+import io.github.flameyossnowy.universal.api.options.FilterOption;
+import io.github.flameyossnowy.universal.api.options.JsonSelectOption;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.sql.internals.QueryParseEngine;
+import io.github.flameyossnowy.universal.sql.internals.query.IndexSqlBuilder;
+import io.github.flameyossnowy.universal.sql.internals.query.JsonPathSql;
+import io.github.flameyossnowy.universal.sql.internals.query.SqlConditionBuilder;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteJsonIndexTest {
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<IndexedRow, String> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(IndexedRow.class, String.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("json-index.db").toString()))
+            .build();
+
+        adapter.createRepository(true);
+        for (int i = 0; i < 100; i++) {
+            IndexedRow row = new IndexedRow();
+            row.setId("row-" + i);
+            row.setProfile(new Profile("name-" + i));
+            assertTrue(adapter.insert(row).isSuccess());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    void json_path_filters_search_the_expression_index() throws Exception {
+        List<IndexedRow> found = adapter.find(Query.select().whereJson("profile", "$.profile.name").eq("name-42").build());
+        assertEquals(1, found.size());
+        assertEquals("row-42", found.getFirst().getId());
+
+        RepositoryModel<IndexedRow, String> model = GeneratedMetadata.getByEntityClass(IndexedRow.class);
+        List<FilterOption> options = List.of(new JsonSelectOption("profile", "$.profile.name", "=", "name-42"));
+        String where = new SqlConditionBuilder<>(QueryParseEngine.SQLType.SQLITE, model).buildConditions(options);
+
+        SQLiteSimpleConnectionProvider provider = new SQLiteSimpleConnectionProvider(
+            new SQLiteCredentials(tempDir.resolve("json-index.db").toString()), EnumSet.noneOf(Optimizations.class));
+        try (provider;
+             Connection connection = provider.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN SELECT * FROM json_indexed_rows WHERE " + where)) {
+            statement.setString(1, "name-42");
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) plan.append(resultSet.getString("detail")).append('\n');
+            }
+            assertTrue(plan.toString().contains("USING INDEX idx_json_indexed_rows_profile__profile_name"), plan.toString());
+        }
+    }
+
+    @Test
+    void mysql_adds_the_generated_columns_an_existing_table_lacks() {
+        RepositoryModel<IndexedRow, String> model = GeneratedMetadata.getByEntityClass(IndexedRow.class);
+        IndexSqlBuilder<IndexedRow, String> builder = new IndexSqlBuilder<>(QueryParseEngine.SQLType.MYSQL, model);
+
+        assertEquals(List.of(), builder.parseJsonIndexes(column -> true));
+        assertEquals(List.of(
+            "ALTER TABLE `json_indexed_rows` ADD COLUMN profile__profile_name VARCHAR(64) GENERATED ALWAYS AS "
+                + "(JSON_UNQUOTE(JSON_EXTRACT(profile, '$.profile.name'))) STORED, "
+                + "ADD INDEX `idx_json_indexed_rows_profile__profile_name` (`profile__profile_name`);"
+        ), builder.parseJsonIndexes(column -> false));
+    }
+
+    @Test
+    void json_paths_cannot_close_the_string_literal() {
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonPathSql.extract(QueryParseEngine.SQLType.SQLITE, "profile", "$.name') OR 1 = 1 --"));
+        assertEquals("json_extract(profile, '$.tags[0]')", JsonPathSql.extract(QueryParseEngine.SQLType.SQLITE, "profile", "$.tags[0]"));
+    }
+
+    public record Profile(String name) {}
+
+    public static class ProfileCodec implements JsonCodec<Profile> {
+        @Override
+        public String serialize(Profile value, Class<Profile> type) {
+            if (value == null) return "null";
+            return "{\"profile\":{\"name\":\"" + value.name() + "\"}}";
+        }
+
+        @Override
+        public Profile deserialize(String json, Class<Profile> type) {
+            if (json == null || "null".equals(json)) return null;
+            int start = json.indexOf('"', json.indexOf(':', json.indexOf("\"name\"")) + 1) + 1;
+            return new Profile(json.substring(start, json.indexOf('"', start)));
+        }
+    }
+
+    @Repository(name = "json_indexed_rows")
+    public static class IndexedRow {
+        @Id
+        private String id;
+
+        @JsonField(codec = ProfileCodec.class, queryable = true)
+        @JsonIndex(path = "$.profile.name", length = 64)
+        private Profile profile;
+
+        public IndexedRow() {}
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public Profile getProfile() {
+            return profile;
+        }
+
+        public void setProfile(Profile profile) {
+            this.profile = profile;
+        }
+    }
+}
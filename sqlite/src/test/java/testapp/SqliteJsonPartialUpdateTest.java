@@ -0,0 +1,125 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.JsonField;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+import io.github.flameyossnowy.universal.api.json.JsonCodec;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteJsonPartialUpdateTest {
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<ProfileRow, String> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(ProfileRow.class, String.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("partial.db").toString()))
+            .build();
+
+        adapter.createRepository(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    void only_changed_paths_are_written() {
+        ProfileRow row = new ProfileRow();
+        row.setId("a");
+        row.setProfile(new Profile("dark", "x".repeat(200)));
+        assertTrue(adapter.insert(row).isSuccess());
+
+        // the read is the base later updates diff against
+        ProfileRow loaded = adapter.findById("a");
+
+        // a path this update does not change is left as stored
+        assertTrue(adapter.getQueryExecutor().executeRawQuery(
+            "UPDATE json_profiles SET profile = json_set(profile, '$.bio', 'edited') WHERE id = 'a';"
+        ).isSuccess());
+
+        loaded.setProfile(new Profile("light", "x".repeat(200)));
+        assertTrue(adapter.updateAll(loaded).isSuccess());
+
+        Profile stored = adapter.findById("a").getProfile();
+        assertEquals("light", stored.theme());
+        assertEquals("edited", stored.bio());
+    }
+
+    @Test
+    void documents_without_a_previous_state_are_written_whole() {
+        ProfileRow row = new ProfileRow();
+        row.setId("b");
+        row.setProfile(new Profile("dark", "first"));
+        assertTrue(adapter.insert(row).isSuccess());
+
+        row.setProfile(new Profile("light", "second"));
+        assertTrue(adapter.updateAll(row).isSuccess());
+
+        Profile stored = adapter.findById("b").getProfile();
+        assertEquals("light", stored.theme());
+        assertEquals("second", stored.bio());
+    }
+
+    public record Profile(String theme, String bio) {}
+
+    public static class ProfileCodec implements JsonCodec<Profile> {
+        @Override
+        public String serialize(Profile value, Class<Profile> type) {
+            if (value == null) return "null";
+            return "{\"prefs\":{\"theme\":\"" + value.theme() + "\"},\"bio\":\"" + value.bio() + "\"}";
+        }
+
+        @Override
+        public Profile deserialize(String json, Class<Profile> type) {
+            if (json == null || "null".equals(json)) return null;
+            return new Profile(string(json, "theme"), string(json, "bio"));
+        }
+
+        private static String string(String json, String key) {
+            int keyPos = json.indexOf('"' + key + '"');
+            int start = json.indexOf('"', json.indexOf(':', keyPos) + 1) + 1;
+            return json.substring(start, json.indexOf('"', start));
+        }
+    }
+
+    @Repository(name = "json_profiles")
+    public static class ProfileRow {
+        @Id
+        private String id;
+
+        @JsonField(codec = ProfileCodec.class, supportsPartialUpdate = true)
+        private Profile profile;
+
+        public ProfileRow() {}
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public Profile getProfile() {
+            return profile;
+        }
+
+        public void setProfile(Profile profile) {
+            this.profile = profile;
+        }
+    }
+}
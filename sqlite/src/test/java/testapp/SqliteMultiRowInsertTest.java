@@ -0,0 +1,128 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.annotations.AutoIncrement;
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.api.options.SortOrder;
+import io.github.flameyossnowy.universal.sql.internals.repository.BatchMetrics;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteMultiRowInsertTest {
+    // 3 * 256 + 3 * 64 + 5 * 8 + 3 * 1, so every bucket is used
+    private static final int ROWS = 1003;
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<StreamRow, Long> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("insert.db").toString()))
+            .build();
+
+        adapter.createRepository(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    void insert_all_writes_every_row_through_multi_row_inserts() {
+        List<StreamRow> rows = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            StreamRow row = new StreamRow();
+            row.setId((long) i);
+            row.setName("row-" + i);
+            row.setScore(i % 1000);
+            rows.add(row);
+        }
+
+        assertTrue(adapter.insertAll(rows).isSuccess());
+
+        List<StreamRow> loaded = adapter.find(Query.select().orderBy("id", SortOrder.ASCENDING).build());
+        assertEquals(ROWS, loaded.size());
+        for (int i = 0; i < ROWS; i++) {
+            StreamRow row = loaded.get(i);
+            assertEquals(i + 1L, row.getId());
+            assertEquals("row-" + (i + 1), row.getName());
+            assertEquals((i + 1) % 1000, row.getScore());
+        }
+
+        BatchMetrics metrics = adapter.getBatchMetrics();
+        assertEquals(ROWS, metrics.rows());
+        assertEquals(0, metrics.splits());
+    }
+
+    @Test
+    void every_auto_incremented_row_gets_its_own_id() {
+        SQLiteRepositoryAdapter<CountedRow, Long> counted = SQLiteRepositoryAdapter
+            .builder(CountedRow.class, Long.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("counted.db").toString()))
+            .build();
+
+        try (counted) {
+            counted.createRepository(true);
+
+            List<CountedRow> rows = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                CountedRow row = new CountedRow();
+                row.setName("row-" + i);
+                rows.add(row);
+            }
+            assertTrue(counted.insertAll(rows).isSuccess());
+
+            Set<Long> ids = new HashSet<>(ROWS);
+            for (CountedRow row : rows) {
+                assertNotNull(row.getId(), row.getName());
+                assertTrue(ids.add(row.getId()), "duplicate id " + row.getId());
+                assertEquals(row.getName(), counted.findById(row.getId()).getName());
+            }
+        }
+    }
+
+    @Repository(name = "counted_rows")
+    public static class CountedRow {
+        @Id
+        @AutoIncrement
+        private Long id;
+
+        private String name;
+
+        public CountedRow() {}
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
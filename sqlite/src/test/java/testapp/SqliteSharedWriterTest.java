@@ -0,0 +1,149 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriteQueueConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriterOptions;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteSharedWriterTest {
+    private static final int WRITES = 200;
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<StreamRow, Long> rows;
+    private SQLiteRepositoryAdapter<AuditEntry, Long> audit;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteWriterOptions options = new SQLiteWriterOptions().setMaxBatchSize(64).setMaxDelay(Duration.ofMillis(2));
+        rows = SQLiteRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(credentials())
+            .withSingleWriter(options)
+            .build();
+        audit = SQLiteRepositoryAdapter
+            .builder(AuditEntry.class, Long.class)
+            .withCredentials(credentials())
+            .withSingleWriter(options)
+            .build();
+
+        rows.createRepository(true);
+        audit.createRepository(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (rows != null) rows.close();
+        audit.close();
+    }
+
+    private SQLiteCredentials credentials() {
+        return new SQLiteCredentials(tempDir.resolve("shared.db").toString());
+    }
+
+    private static StreamRow row(long id) {
+        StreamRow row = new StreamRow();
+        row.setId(id);
+        row.setName("row-" + id);
+        row.setScore((int) id);
+        return row;
+    }
+
+    private static AuditEntry entry(long id) {
+        AuditEntry entry = new AuditEntry();
+        entry.setId(id);
+        entry.setMessage("inserted " + id);
+        return entry;
+    }
+
+    @Test
+    void repositories_on_one_file_share_the_writer() {
+        List<CompletableFuture<TransactionResult<Boolean>>> futures = new ArrayList<>(WRITES * 2);
+        for (long id = 1; id <= WRITES; id++) {
+            futures.add(rows.insertAsync(row(id)));
+            futures.add(audit.insertAsync(entry(id)));
+        }
+
+        // no SQLITE_BUSY between them: both go through the one writer connection
+        for (CompletableFuture<TransactionResult<Boolean>> future : futures) {
+            assertTrue(future.join().expect());
+        }
+        assertEquals(WRITES, rows.find().size());
+        assertEquals(WRITES, audit.find().size());
+    }
+
+    @Test
+    void a_write_can_call_into_another_repository() throws Exception {
+        SQLiteWriteQueueConnectionProvider writer = SQLiteWriteQueueConnectionProvider.shared(
+            new SQLiteCredentials(tempDir.resolve("./shared.db").toString()),
+            EnumSet.noneOf(Optimizations.class),
+            new SQLiteWriterOptions()
+        );
+        try (writer) {
+            // on the writer thread, so it must not queue behind itself
+            TransactionResult<Boolean> result = writer.submit(() -> {
+                TransactionResult<Boolean> inserted = rows.insert(row(1));
+                return inserted.isError() ? inserted : audit.insert(entry(1));
+            }).get(10, TimeUnit.SECONDS);
+            assertTrue(result.expect());
+        }
+
+        assertEquals(1, rows.find().size());
+        assertEquals(1, audit.find().size());
+    }
+
+    @Test
+    void the_writer_outlives_the_first_repository_closed() {
+        rows.close();
+        rows = null;
+
+        assertTrue(audit.insert(entry(1)).expect());
+        assertTrue(audit.insertAsync(entry(2)).join().expect());
+        assertEquals(2, audit.find().size());
+    }
+
+    @Repository(name = "audit_entries")
+    public static class AuditEntry {
+        @Id
+        private Long id;
+
+        private String message;
+
+        public AuditEntry() {}
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
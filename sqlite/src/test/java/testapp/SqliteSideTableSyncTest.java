@@ -0,0 +1,243 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteSideTableSyncTest {
+    private static final String TAGS = "synced_rows_strings";
+    private static final String SCORES = "synced_rows_integers";
+    private static final String GROUPS = "synced_rows_groups_multimap";
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<SyncedRow, String> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(SyncedRow.class, String.class)
+            .withCredentials(credentials())
+            .build();
+
+        adapter.createRepository(true);
+        assertTrue(adapter.insert(row(
+            List.of("x", "y", "y"),
+            Map.of("a", 1, "b", 2),
+            Map.of("g", List.of(1, 2))
+        )).isSuccess());
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    private SQLiteCredentials credentials() {
+        return new SQLiteCredentials(tempDir.resolve("side-tables.db").toString());
+    }
+
+    private static SyncedRow row(List<String> tags, Map<String, Integer> scores, Map<String, List<Integer>> groups) {
+        SyncedRow row = new SyncedRow();
+        row.setId("a");
+        row.setName("first");
+        row.setTags(tags);
+        row.setScores(scores);
+        row.setGroups(groups);
+        return row;
+    }
+
+    @Test
+    void reordered_values_leave_the_rows_alone() throws Exception {
+        List<String> tags = rows(TAGS), scores = rows(SCORES), groups = rows(GROUPS);
+
+        Map<String, Integer> sameScores = new HashMap<>();
+        sameScores.put("b", 2);
+        sameScores.put("a", 1);
+        assertTrue(adapter.updateAll(row(List.of("y", "x", "y"), sameScores, Map.of("g", List.of(2, 1)))).isSuccess());
+
+        // the same rowids, so nothing was deleted and inserted again
+        assertEquals(tags, rows(TAGS));
+        assertEquals(scores, rows(SCORES));
+        assertEquals(groups, rows(GROUPS));
+    }
+
+    @Test
+    void only_added_and_removed_values_are_written() throws Exception {
+        List<String> before = rows(TAGS);
+
+        assertTrue(adapter.updateAll(row(List.of("x", "z"), Map.of("a", 1, "b", 3, "c", 4), Map.of("g", List.of(1, 3), "h", List.of(5)))).isSuccess());
+
+        List<String> after = rows(TAGS);
+        assertEquals(before.getFirst(), after.getFirst(), "x is kept as stored");
+        assertEquals(List.of("x", "z"), values(after));
+        assertEquals(List.of("a=1", "b=3", "c=4"), entries(adapter.findById("a").getScores()));
+        assertEquals(List.of("g=[1, 3]", "h=[5]"), entries(adapter.findById("a").getGroups()));
+    }
+
+    @Test
+    void duplicates_are_kept_as_often_as_wanted() throws Exception {
+        assertTrue(adapter.updateAll(row(List.of("x", "x", "x", "y"), Map.of("a", 1, "b", 2), Map.of("g", List.of(1, 1, 2)))).isSuccess());
+        assertEquals(List.of("x", "x", "x", "y"), values(rows(TAGS)));
+        assertEquals(List.of("g=[1, 1, 2]"), entries(adapter.findById("a").getGroups()));
+
+        assertTrue(adapter.updateAll(row(List.of("x", "y"), Map.of("a", 1, "b", 2), Map.of("g", List.of(1, 2)))).isSuccess());
+        assertEquals(List.of("x", "y"), values(rows(TAGS)));
+        assertEquals(List.of("g=[1, 2]"), entries(adapter.findById("a").getGroups()));
+    }
+
+    @Test
+    void empty_values_clear_the_rows() throws Exception {
+        assertTrue(adapter.updateAll(row(List.of(), Map.of(), Map.of())).isSuccess());
+
+        assertEquals(List.of(), rows(TAGS));
+        assertEquals(List.of(), rows(SCORES));
+        assertEquals(List.of(), rows(GROUPS));
+    }
+
+    @Test
+    void a_failed_side_table_write_rolls_the_parent_back() throws Exception {
+        execute("CREATE TRIGGER reject_tags BEFORE INSERT ON " + TAGS + " WHEN NEW.value = 'boom' BEGIN SELECT RAISE(ABORT, 'boom'); END");
+
+        SyncedRow renamed = row(List.of("x", "boom"), Map.of("a", 1, "b", 2), Map.of("g", List.of(1, 2)));
+        renamed.setName("second");
+        assertTrue(adapter.updateAll(renamed).isError());
+
+        assertEquals("first", adapter.findById("a").getName());
+        assertEquals(List.of("x", "y", "y"), values(rows(TAGS)));
+    }
+
+    /** The side-table rows of {@code a}, each as its rowid and values, in insertion order. */
+    private List<String> rows(String table) throws Exception {
+        List<String> rows = new ArrayList<>();
+        SQLiteSimpleConnectionProvider provider = new SQLiteSimpleConnectionProvider(credentials(), EnumSet.noneOf(Optimizations.class));
+        try (provider;
+             Connection connection = provider.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT rowid, * FROM " + table + " WHERE id = 'a' ORDER BY rowid")) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            while (resultSet.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    if (metaData.getColumnName(i).equals("id")) continue;
+                    if (!row.isEmpty()) row.append('|');
+                    row.append(resultSet.getString(i));
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private void execute(String sql) throws Exception {
+        SQLiteSimpleConnectionProvider provider = new SQLiteSimpleConnectionProvider(credentials(), EnumSet.noneOf(Optimizations.class));
+        try (provider;
+             Connection connection = provider.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /** The stored tag values, sorted, without their rowids. */
+    private static List<String> values(List<String> rows) {
+        List<String> values = new ArrayList<>(rows.size());
+        for (String row : rows) {
+            values.add(row.substring(row.indexOf('|') + 1));
+        }
+        values.sort(null);
+        return values;
+    }
+
+    private static List<String> entries(Map<String, ?> map) {
+        List<String> entries = new ArrayList<>(map.size());
+        for (Map.Entry<String, ?> entry : new TreeMap<>(map).entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof List<?> list) {
+                List<String> sorted = new ArrayList<>(list.size());
+                for (Object element : list) sorted.add(String.valueOf(element));
+                sorted.sort(null);
+                value = sorted;
+            }
+            entries.add(entry.getKey() + '=' + value);
+        }
+        return entries;
+    }
+
+    @Repository(name = "synced_rows")
+    public static class SyncedRow {
+        @Id
+        private String id;
+
+        private String name;
+
+        private List<String> tags;
+
+        private Map<String, Integer> scores;
+
+        private Map<String, List<Integer>> groups;
+
+        public SyncedRow() {}
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Map<String, Integer> getScores() {
+            return scores;
+        }
+
+        public void setScores(Map<String, Integer> scores) {
+            this.scores = scores;
+        }
+
+        public Map<String, List<Integer>> getGroups() {
+            return groups;
+        }
+
+        public void setGroups(Map<String, List<Integer>> groups) {
+            this.groups = groups;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.cache.TransactionResult;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriterOptions;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteSingleWriterTest {
+    private static final int WRITES = 500;
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<StreamRow, Long> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("writer.db").toString()))
+            .withSingleWriter(new SQLiteWriterOptions().setMaxBatchSize(64).setMaxDelay(Duration.ofMillis(2)))
+            .build();
+
+        adapter.createRepository(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    private static StreamRow row(long id) {
+        StreamRow row = new StreamRow();
+        row.setId(id);
+        row.setName("row-" + id);
+        row.setScore((int) id);
+        return row;
+    }
+
+    @Test
+    void concurrent_writes_are_all_committed() {
+        List<CompletableFuture<TransactionResult<Boolean>>> futures = new ArrayList<>(WRITES);
+        for (long id = 1; id <= WRITES; id++) {
+            futures.add(adapter.insertAsync(row(id)));
+        }
+
+        for (CompletableFuture<TransactionResult<Boolean>> future : futures) {
+            assertTrue(future.join().expect());
+        }
+        assertEquals(WRITES, adapter.find().size());
+    }
+
+    @Test
+    void a_failing_write_does_not_roll_back_its_batch() {
+        assertTrue(adapter.insert(row(1)).expect());
+
+        CompletableFuture<TransactionResult<Boolean>> duplicate = adapter.insertAsync(row(1));
+        CompletableFuture<TransactionResult<Boolean>> other = adapter.insertAsync(row(2));
+
+        assertTrue(duplicate.join().isError());
+        assertTrue(other.join().expect());
+        assertEquals(2, adapter.find().size());
+    }
+}
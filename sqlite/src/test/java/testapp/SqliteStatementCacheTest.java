@@ -0,0 +1,150 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.sql.internals.StatementCacheMetrics;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteHikariConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteStatementCacheTest {
+    @TempDir
+    Path tempDir;
+
+    private SQLiteSimpleConnectionProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteCredentials credentials = new SQLiteCredentials(tempDir.resolve("statements.db").toString())
+            .setStatementCacheSize(2);
+        provider = new SQLiteSimpleConnectionProvider(credentials, EnumSet.of(Optimizations.CACHE_PREPARED_STATEMENTS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    void statements_are_reused_per_connection_with_cleared_parameters() throws Exception {
+        try (Connection connection = provider.getConnection()) {
+            PreparedStatement first = provider.prepareStatement("SELECT ?", connection);
+            first.setInt(1, 7);
+            try (ResultSet resultSet = first.executeQuery()) {
+                assertTrue(resultSet.next());
+                assertEquals(7, resultSet.getInt(1));
+            }
+            first.close();
+
+            // Held statements are never handed out twice
+            try (PreparedStatement reused = provider.prepareStatement("SELECT ?", connection);
+                 PreparedStatement aside = provider.prepareStatement("SELECT ?", connection)) {
+                assertNotSame(reused, aside);
+            }
+        }
+
+        // Not pooled: a new physical connection starts with no statements of its own
+        try (Connection other = provider.getConnection();
+             PreparedStatement statement = provider.prepareStatement("SELECT ?", other)) {
+            assertFalse(statement.isClosed());
+        }
+
+        StatementCacheMetrics metrics = provider.getStatementCacheMetrics();
+        assertNotNull(metrics);
+        assertEquals(1, metrics.hits());
+        assertEquals(3, metrics.misses());
+    }
+
+    @Test
+    void pooled_connections_keep_their_statements_once_handed_back() throws Exception {
+        SQLiteCredentials credentials = new SQLiteCredentials(tempDir.resolve("pooled.db").toString())
+            .setPoolSize(1)
+            .setMinimumIdle(1);
+        SQLiteHikariConnectionProvider pooled = new SQLiteHikariConnectionProvider(credentials, EnumSet.of(Optimizations.CACHE_PREPARED_STATEMENTS));
+        try (pooled) {
+            for (int i = 0; i < 3; i++) {
+                try (Connection connection = pooled.getConnection();
+                     PreparedStatement statement = pooled.prepareStatement("SELECT ?", connection)) {
+                    statement.setInt(1, i);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        assertTrue(resultSet.next());
+                        assertEquals(i, resultSet.getInt(1));
+                    }
+                }
+            }
+
+            // The pool hands out the same physical connection every time
+            StatementCacheMetrics metrics = pooled.getStatementCacheMetrics();
+            assertNotNull(metrics);
+            assertEquals(2, metrics.hits());
+            assertEquals(1, metrics.misses());
+        }
+    }
+
+    @Test
+    void returned_statements_drop_their_pending_batch_and_settings() throws Exception {
+        try (Connection connection = provider.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE rows (value INTEGER)");
+            }
+
+            // A writer that failed between addBatch() and executeBatch()
+            PreparedStatement failed = provider.prepareStatement("INSERT INTO rows (value) VALUES (?)", connection);
+            failed.setInt(1, 1);
+            failed.addBatch();
+            failed.setMaxRows(1);
+            failed.setQueryTimeout(5);
+            failed.close();
+
+            try (PreparedStatement reused = provider.prepareStatement("INSERT INTO rows (value) VALUES (?)", connection)) {
+                assertEquals(1, provider.getStatementCacheMetrics().hits());
+                assertEquals(0, reused.executeBatch().length);
+                assertEquals(0, reused.getMaxRows());
+                assertEquals(0, reused.getQueryTimeout());
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM rows")) {
+                assertTrue(resultSet.next());
+                assertEquals(0, resultSet.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void cache_size_must_be_positive() {
+        SQLiteCredentials credentials = new SQLiteCredentials(tempDir.resolve("invalid.db").toString());
+        assertThrows(IllegalArgumentException.class, () -> credentials.setStatementCacheSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> credentials.setStatementCacheSize(0));
+    }
+
+    @Test
+    void least_recently_used_statements_are_evicted() throws Exception {
+        try (Connection connection = provider.getConnection()) {
+            for (String sql : new String[]{ "SELECT 1", "SELECT 2", "SELECT 1", "SELECT 3" }) {
+                provider.prepareStatement(sql, connection).close();
+            }
+
+            StatementCacheMetrics metrics = provider.getStatementCacheMetrics();
+            assertNotNull(metrics);
+            assertEquals(1, metrics.evictions());
+
+            // "SELECT 2" was evicted, "SELECT 1" is still cached
+            provider.prepareStatement("SELECT 1", connection).close();
+            provider.prepareStatement("SELECT 2", connection).close();
+            assertEquals(2, provider.getStatementCacheMetrics().hits());
+        }
+    }
+}
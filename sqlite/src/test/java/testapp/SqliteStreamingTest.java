@@ -0,0 +1,99 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteStreamingTest {
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<StreamRow, Long> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(StreamRow.class, Long.class)
+            .withCredentials(new SQLiteCredentials(tempDir.resolve("stream.db").toString()))
+            .build();
+
+        adapter.createRepository(true);
+        adapter.getQueryExecutor().executeRawQuery(
+            "WITH RECURSIVE seq(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM seq WHERE x < " + ROWS + ") " +
+            "INSERT INTO stream_rows (id, name, score) SELECT x, 'row-' || x, x % 1000 FROM seq;"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    void stream_over_million_rows_keeps_memory_bounded() {
+        long baseline = usedHeap();
+        long peak = 0;
+        long count = 0;
+        long scoreSum = 0;
+
+        try (Stream<StreamRow> rows = adapter.findStream(Query.select().build())) {
+            Iterator<StreamRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                StreamRow row = iterator.next();
+                count++;
+                scoreSum += row.getScore();
+                if (count % 250_000 == 0) {
+                    peak = Math.max(peak, usedHeap());
+                }
+            }
+        }
+
+        assertEquals(ROWS, count);
+        assertEquals(999L * 1000 / 2 * (ROWS / 1000), scoreSum);
+        assertTrue(peak - baseline < MAX_HEAP_GROWTH,
+            "heap grew by " + (peak - baseline) / (1024 * 1024) + " MiB while streaming");
+    }
+
+    @Test
+    void closing_stream_early_releases_the_cursor() {
+        try (Stream<StreamRow> rows = adapter.findStream(Query.select().build())) {
+            assertEquals(10, rows.limit(10).count());
+        }
+
+        // A cursor left open would hold the read lock and make this delete fail with SQLITE_BUSY.
+        assertTrue(adapter.getQueryExecutor().executeRawQuery("DELETE FROM stream_rows WHERE id <= 10;").isSuccess());
+        try (Stream<StreamRow> rows = adapter.findStream(Query.select().build())) {
+            assertEquals(ROWS - 10, rows.count());
+        }
+    }
+
+    @Test
+    void filtered_streams_bind_every_value() {
+        try (Stream<StreamRow> rows = adapter.findStream(Query.select()
+            .where("id").in(List.of(3L, 5L, 7L))
+            .where("score").eq(5)
+            .build())) {
+            assertEquals(List.of(5L), rows.map(StreamRow::getId).toList());
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
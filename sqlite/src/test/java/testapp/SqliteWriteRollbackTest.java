@@ -0,0 +1,173 @@
+package testapp;
+
+import io.github.flameyossnowy.universal.api.Optimizations;
+import io.github.flameyossnowy.universal.api.annotations.Cacheable;
+import io.github.flameyossnowy.universal.api.annotations.GlobalCacheable;
+import io.github.flameyossnowy.universal.api.annotations.Id;
+import io.github.flameyossnowy.universal.api.annotations.JsonField;
+import io.github.flameyossnowy.universal.api.annotations.Repository;
+import io.github.flameyossnowy.universal.api.options.AggregationQuery;
+import io.github.flameyossnowy.universal.api.options.Query;
+import io.github.flameyossnowy.universal.api.result.ColumnarResult;
+import io.github.flameyossnowy.universal.api.result.MaterializedAggregate;
+import io.github.flameyossnowy.universal.sqlite.SQLiteRepositoryAdapter;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteSimpleConnectionProvider;
+import io.github.flameyossnowy.universal.sqlite.connections.SQLiteWriterOptions;
+import io.github.flameyossnowy.universal.sqlite.credentials.SQLiteCredentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import testapp.SqliteJsonPartialUpdateTest.Profile;
+import testapp.SqliteJsonPartialUpdateTest.ProfileCodec;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteWriteRollbackTest {
+    @TempDir
+    Path tempDir;
+
+    private SQLiteRepositoryAdapter<GuardedRow, String> adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = SQLiteRepositoryAdapter
+            .builder(GuardedRow.class, String.class)
+            .withCredentials(credentials())
+            .withSingleWriter(new SQLiteWriterOptions().setMaxBatchSize(64).setMaxDelay(Duration.ofMillis(2)))
+            .build();
+
+        adapter.createRepository(true);
+
+        // a negative score inserts a row whose deferred foreign key only fails once the batch commits
+        assertTrue(adapter.getQueryExecutor().executeRawQuery("CREATE TABLE commit_parents (id TEXT PRIMARY KEY)").isSuccess());
+        assertTrue(adapter.getQueryExecutor().executeRawQuery(
+            "CREATE TABLE commit_guard (ref TEXT REFERENCES commit_parents(id) DEFERRABLE INITIALLY DEFERRED)"
+        ).isSuccess());
+        assertTrue(adapter.getQueryExecutor().executeRawQuery(
+            "CREATE TRIGGER guard_scores AFTER UPDATE ON guarded_rows WHEN NEW.score < 0 "
+                + "BEGIN INSERT INTO commit_guard VALUES ('missing'); END"
+        ).isSuccess());
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    private SQLiteCredentials credentials() {
+        return new SQLiteCredentials(tempDir.resolve("rollback.db").toString())
+            .addDataSourceProperty("foreign_keys", "true");
+    }
+
+    private static GuardedRow row(int score, String theme) {
+        GuardedRow row = new GuardedRow();
+        row.setId("a");
+        row.setName("group");
+        row.setScore(score);
+        row.setProfile(new Profile(theme, "bio"));
+        return row;
+    }
+
+    @Test
+    void a_failed_commit_leaves_caches_aggregates_and_snapshots_untouched() throws Exception {
+        assertTrue(adapter.insert(row(5, "dark")).isSuccess());
+
+        AggregationQuery query = Query.aggregate()
+            .select(Query.field("name"), Query.field("score").sum().as("total"))
+            .groupBy("name")
+            .build();
+
+        try (MaterializedAggregate<GuardedRow, String> totals = adapter.materialize(query)) {
+            assertEquals(5, total(totals.result()));
+
+            // cached, and the base the next update of the document diffs against
+            assertEquals(5, adapter.findById("a").getScore());
+
+            assertTrue(adapter.updateAll(row(-1, "light")).isError());
+
+            GuardedRow stored = adapter.findById("a");
+            assertEquals(5, stored.getScore());
+            assertEquals("dark", stored.getProfile().theme());
+            assertEquals(5, total(totals.result()));
+        }
+
+        assertTrue(adapter.getQueryExecutor().executeRawQuery("DROP TRIGGER guard_scores").isSuccess());
+
+        // an update diffing against the rolled back document would find no change to write
+        assertTrue(adapter.updateAll(row(6, "light")).isSuccess());
+
+        SQLiteSimpleConnectionProvider provider = new SQLiteSimpleConnectionProvider(credentials(), EnumSet.noneOf(Optimizations.class));
+        try (provider;
+             Connection connection = provider.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT json_extract(profile, '$.prefs.theme') FROM guarded_rows WHERE id = 'a'")) {
+            assertTrue(resultSet.next());
+            assertEquals("light", resultSet.getString(1));
+        }
+    }
+
+    private static long total(ColumnarResult result) {
+        long total = 0;
+        for (ColumnarResult.Row row : result) {
+            total += row.getLong("total");
+        }
+        return total;
+    }
+
+    @Cacheable
+    @GlobalCacheable
+    @Repository(name = "guarded_rows")
+    public static class GuardedRow {
+        @Id
+        private String id;
+
+        private String name;
+
+        private int score;
+
+        @JsonField(codec = ProfileCodec.class, supportsPartialUpdate = true)
+        private Profile profile;
+
+        public GuardedRow() {}
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public void setScore(int score) {
+            this.score = score;
+        }
+
+        public Profile getProfile() {
+            return profile;
+        }
+
+        public void setProfile(Profile profile) {
+            this.profile = profile;
+        }
+    }
+}